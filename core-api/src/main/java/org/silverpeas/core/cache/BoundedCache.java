@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * An in-memory cache bounded in size and in time, and instrumented with counters about its use.
+ * <p>
+ * When the maximum number of entries is exceeded, the least recently accessed entries are evicted
+ * in one shot until the cache is filled at 90% of its capacity; so the cost of the eviction is
+ * amortized over several insertions. When a time to live is set, an entry expires once this delay
+ * is elapsed since its insertion.
+ * </p>
+ * <p>
+ * The cache is thread safe and the reads never block: the values are stored into a
+ * {@link ConcurrentHashMap}. The counters of hits, misses, evictions and expirations can be
+ * retrieved with {@link #getStatistics()} for monitoring purpose.
+ * </p>
+ * <p>
+ * A value computed by {@link #computeIfAbsent(Object, Function)} while some entries are
+ * invalidated isn't cached: it can have been computed from the data before their change.
+ * </p>
+ * @param <K> the type of the keys.
+ * @param <V> the type of the cached values.
+ */
+public class BoundedCache<K, V> {
+
+  private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final int maxSize;
+  private final long timeToLive;
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+  private final AtomicLong invalidations = new AtomicLong();
+  private final LongSupplier clock;
+
+  /**
+   * Constructs a new cache.
+   * @param maxSize the maximum number of entries in the cache. Zero or a negative value means no
+   * size limit.
+   * @param timeToLive the time to live of an entry. Null, zero or negative duration means no
+   * expiration.
+   */
+  public BoundedCache(final int maxSize, final Duration timeToLive) {
+    this(maxSize, timeToLive, System::nanoTime);
+  }
+
+  /**
+   * Constructs a new cache whose time is given by the specified clock.
+   * @param maxSize the maximum number of entries in the cache. Zero or a negative value means no
+   * size limit.
+   * @param timeToLive the time to live of an entry. Null, zero or negative duration means no
+   * expiration.
+   * @param clock the clock giving the current time in nanoseconds.
+   */
+  BoundedCache(final int maxSize, final Duration timeToLive, final LongSupplier clock) {
+    this.clock = clock;
+    this.maxSize = maxSize;
+    this.timeToLive = timeToLive == null || timeToLive.isNegative() ? 0 : timeToLive.toNanos();
+  }
+
+  /**
+   * Gets the value mapped with the given key.
+   * @param key the key of a value in the cache.
+   * @return optionally the cached value. If the value has expired, it is removed and nothing is
+   * returned.
+   */
+  public Optional<V> get(final K key) {
+    final Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+    final long now = clock.getAsLong();
+    if (entry.isExpired(now, timeToLive)) {
+      if (entries.remove(key, entry)) {
+        expirations.increment();
+      }
+      misses.increment();
+      return Optional.empty();
+    }
+    entry.lastAccess = now;
+    hits.increment();
+    return Optional.of(entry.value);
+  }
+
+  /**
+   * Puts the given value in the cache. Any previous value mapped with the given key is replaced.
+   * @param key the key of the value.
+   * @param value the value to cache. Null values aren't cached.
+   */
+  public void put(final K key, final V value) {
+    if (value == null) {
+      entries.remove(key);
+      return;
+    }
+    entries.put(key, new Entry<>(value, clock.getAsLong()));
+    evictIfNeeded();
+  }
+
+  /**
+   * Gets the value mapped with the given key or computes it with the given function if not
+   * cached. The computed value is then put in the cache, unless it is null or unless some
+   * entries were invalidated (removed or cleared) while computing it.
+   * @param key the key of the value.
+   * @param mapping the function computing the value of the key.
+   * @return the cached or the computed value. Null if the function returns null.
+   */
+  public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mapping) {
+    final Optional<V> cached = get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    final long invalidationsBefore = invalidations.get();
+    final V value = mapping.apply(key);
+    if (value != null && invalidations.get() == invalidationsBefore) {
+      final Entry<V> entry = new Entry<>(value, clock.getAsLong());
+      entries.put(key, entry);
+      // an invalidation while putting the value can make it obsolete
+      if (invalidations.get() != invalidationsBefore) {
+        entries.remove(key, entry);
+      } else {
+        evictIfNeeded();
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Removes the value mapped with the given key.
+   * @param key the key of the value to remove.
+   * @return optionally the removed value.
+   */
+  public Optional<V> remove(final K key) {
+    invalidations.incrementAndGet();
+    return Optional.ofNullable(entries.remove(key)).map(e -> e.value);
+  }
+
+  /**
+   * Removes all the entries satisfying the given predicate.
+   * @param predicate a predicate on the key and the value of an entry.
+   */
+  public void removeIf(final BiPredicate<? super K, ? super V> predicate) {
+    invalidations.incrementAndGet();
+    entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+  }
+
+  /**
+   * Performs the given action for each entry in the cache that isn't expired.
+   * @param action the action to perform on the key and the value of each entry.
+   */
+  public void forEach(final BiConsumer<? super K, ? super V> action) {
+    final long now = clock.getAsLong();
+    entries.forEach((k, e) -> {
+      if (!e.isExpired(now, timeToLive)) {
+        action.accept(k, e.value);
+      }
+    });
+  }
+
+  /**
+   * Gets a snapshot of the values that aren't expired.
+   * @return a list of the cached values.
+   */
+  public List<V> values() {
+    final List<V> values = new ArrayList<>(entries.size());
+    forEach((k, v) -> values.add(v));
+    return values;
+  }
+
+  /**
+   * Clears the cache. The statistics aren't reset.
+   */
+  public void clear() {
+    invalidations.incrementAndGet();
+    entries.clear();
+  }
+
+  /**
+   * Gets the number of entries in the cache, including the expired ones that aren't yet removed.
+   * @return the size of the cache.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Gets the statistics about the use of this cache.
+   * @return a snapshot of the counters of this cache.
+   */
+  public Statistics getStatistics() {
+    return new Statistics(size(), hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+  }
+
+  private void evictIfNeeded() {
+    if (maxSize <= 0 || entries.size() <= maxSize || !evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      final long now = clock.getAsLong();
+      entries.forEach((k, e) -> {
+        if (e.isExpired(now, timeToLive) && entries.remove(k, e)) {
+          expirations.increment();
+        }
+      });
+      final int target = maxSize - Math.max(1, maxSize / 10);
+      final int excess = entries.size() - target;
+      if (excess > 0) {
+        // the access times are snapshot as they can be updated by concurrent reads while sorting
+        final List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+        entries.forEach((k, e) -> candidates.add(new Candidate<>(k, e)));
+        candidates.sort(Comparator.comparingLong(c -> c.lastAccess));
+        candidates.stream()
+            .limit(excess)
+            .filter(c -> entries.remove(c.key, c.entry))
+            .forEach(c -> evictions.increment());
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static class Entry<V> {
+    private final V value;
+    private final long creation;
+    private volatile long lastAccess;
+
+    private Entry(final V value, final long creation) {
+      this.value = value;
+      this.creation = creation;
+      this.lastAccess = creation;
+    }
+
+    private boolean isExpired(final long now, final long timeToLive) {
+      return timeToLive > 0 && now - creation >= timeToLive;
+    }
+  }
+
+  private static class Candidate<K, V> {
+    private final K key;
+    private final Entry<V> entry;
+    private final long lastAccess;
+
+    private Candidate(final K key, final Entry<V> entry) {
+      this.key = key;
+      this.entry = entry;
+      this.lastAccess = entry.lastAccess;
+    }
+  }
+
+  /**
+   * A snapshot of the counters of a cache.
+   */
+  public static class Statistics {
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+
+    private Statistics(final int size, final long hits, final long misses, final long evictions,
+        final long expirations) {
+      this.size = size;
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.expirations = expirations;
+    }
+
+    public int getSize() {
+      return size;
+    }
+
+    public long getHits() {
+      return hits;
+    }
+
+    public long getMisses() {
+      return misses;
+    }
+
+    public long getEvictions() {
+      return evictions;
+    }
+
+    public long getExpirations() {
+      return expirations;
+    }
+
+    /**
+     * Gets the ratio of the lookups that hit a value in the cache.
+     * @return a ratio between 0 and 1.
+     */
+    public double getHitRatio() {
+      final long lookups = hits + misses;
+      return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+      return "size=" + size + ", hits=" + hits + ", misses=" + misses + ", evictions=" +
+          evictions + ", expirations=" + expirations;
+    }
+  }
+}
@@ -24,13 +24,16 @@
 
 package org.silverpeas.core.notification.sse;
 
+import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.annotation.Service;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -45,11 +48,15 @@ public class DefaultServerEventContextManager implements SilverpeasServerEventCo
 
   final ReadWriteLock lock = new ReentrantReadWriteLock(true);
   final Set<SilverpeasServerEventContext> contexts = new HashSet<>(2000);
+  final Map<String, Set<SilverpeasServerEventContext>> contextsBySessionId = new HashMap<>(2000);
+  final Map<String, Set<SilverpeasServerEventContext>> contextsByUserId = new HashMap<>(2000);
 
   @PreDestroy
   protected void cleanContexts() {
     safeWrite(null, s -> {
       contexts.clear();
+      contextsBySessionId.clear();
+      contextsByUserId.clear();
       return true;
     });
   }
@@ -81,12 +88,63 @@ public class DefaultServerEventContextManager implements SilverpeasServerEventCo
     return safeRead(() -> new ArrayList<>(contexts));
   }
 
+  @Override
+  public List<SilverpeasServerEventContext> getContextSnapshotOfSession(final String sessionId) {
+    return safeRead(() -> snapshotOf(contextsBySessionId.get(sessionId)));
+  }
+
+  @Override
+  public List<SilverpeasServerEventContext> getContextSnapshotOfUser(final String userId) {
+    return safeRead(() -> snapshotOf(contextsByUserId.get(userId)));
+  }
+
+  private static List<SilverpeasServerEventContext> snapshotOf(
+      final Set<SilverpeasServerEventContext> indexedContexts) {
+    return indexedContexts == null ? new ArrayList<>(0) : new ArrayList<>(indexedContexts);
+  }
+
   private boolean add(final SilverpeasServerEventContext context) {
-    return safeWrite(context, contexts::add);
+    return safeWrite(context, c -> {
+      final boolean added = contexts.add(c);
+      if (added) {
+        index(contextsBySessionId, c.getSessionId(), c);
+        index(contextsByUserId, getUserId(c), c);
+      }
+      return added;
+    });
   }
 
   private boolean remove(final SilverpeasServerEventContext context) {
-    return safeWrite(context, contexts::remove);
+    return safeWrite(context, c -> {
+      final boolean removed = contexts.remove(c);
+      if (removed) {
+        unindex(contextsBySessionId, c.getSessionId(), c);
+        unindex(contextsByUserId, getUserId(c), c);
+      }
+      return removed;
+    });
+  }
+
+  private static void index(final Map<String, Set<SilverpeasServerEventContext>> index,
+      final String key, final SilverpeasServerEventContext context) {
+    if (key != null) {
+      index.computeIfAbsent(key, k -> new HashSet<>(2)).add(context);
+    }
+  }
+
+  private static void unindex(final Map<String, Set<SilverpeasServerEventContext>> index,
+      final String key, final SilverpeasServerEventContext context) {
+    if (key != null) {
+      index.computeIfPresent(key, (k, indexed) -> {
+        indexed.remove(context);
+        return indexed.isEmpty() ? null : indexed;
+      });
+    }
+  }
+
+  private static String getUserId(final SilverpeasServerEventContext context) {
+    final User user = context.getUser();
+    return user != null ? user.getId() : null;
   }
 
   private int getContextSize() {
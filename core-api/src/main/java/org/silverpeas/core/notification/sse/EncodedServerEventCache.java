@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+/**
+ * Cache of the last server event encoded for a given kind of context.
+ * <p>
+ * When a server event is dispatched, it is sent to a lot of contexts one after the other. When
+ * the data of the event don't depend on the receiver, the message to write into each context is
+ * exactly the same: this cache permits to encode it only once per dispatch instead of once per
+ * context.
+ * </p>
+ */
+final class EncodedServerEventCache {
+
+  private volatile EncodedServerEvent last;
+
+  /**
+   * Gets the encoded message of the specified event, encoding it with the given encoder only if
+   * it isn't the event encoded just before.
+   * @param name the name of the event.
+   * @param id the identifier of the event.
+   * @param data the data of the event.
+   * @param encoder the encoder to use if the message isn't yet encoded.
+   * @return the encoded message.
+   */
+  String encode(final String name, final long id, final String data,
+      final ServerEventEncoder encoder) {
+    final EncodedServerEvent encoded = last;
+    if (encoded != null && encoded.isOf(name, id, data)) {
+      return encoded.message;
+    }
+    final String message = encoder.encode(name, id, data);
+    last = new EncodedServerEvent(name, id, data, message);
+    return message;
+  }
+
+  /**
+   * Encoder of a server event into the message to write into a context.
+   */
+  @FunctionalInterface
+  interface ServerEventEncoder {
+    String encode(final String name, final long id, final String data);
+  }
+
+  private static class EncodedServerEvent {
+    private final String name;
+    private final long id;
+    private final String data;
+    private final String message;
+
+    private EncodedServerEvent(final String name, final long id, final String data,
+        final String message) {
+      this.name = name;
+      this.id = id;
+      this.data = data;
+      this.message = message;
+    }
+
+    @SuppressWarnings("StringEquality")
+    private boolean isOf(final String name, final long id, final String data) {
+      // data shared by all the receivers is the same instance: no need to compare the contents
+      return this.id == id && this.name.equals(name) &&
+          (this.data == data || this.data.equals(data));
+    }
+  }
+}
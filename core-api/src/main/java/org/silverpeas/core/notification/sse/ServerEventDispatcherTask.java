@@ -23,7 +23,6 @@
  */
 package org.silverpeas.core.notification.sse;
 
-import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.kernel.annotation.Technical;
@@ -31,21 +30,24 @@ import org.silverpeas.core.notification.sse.behavior.AfterSentToAllContexts;
 import org.silverpeas.core.notification.sse.behavior.IgnoreStoring;
 import org.silverpeas.core.notification.sse.behavior.KeepAlwaysLastStored;
 import org.silverpeas.core.notification.sse.behavior.StoreLastOnly;
+import org.silverpeas.core.notification.sse.behavior.TargetingSession;
+import org.silverpeas.core.notification.sse.behavior.TargetingUser;
+import org.silverpeas.core.notification.user.client.NotificationManagerSettings;
 import org.silverpeas.core.thread.ManagedThreadPool;
 import org.silverpeas.core.thread.ManagedThreadPoolException;
 import org.silverpeas.core.thread.task.AbstractRequestTask;
 import org.silverpeas.core.thread.task.RequestTaskManager;
+import org.silverpeas.core.util.logging.PeriodicStatisticsLogger;
 import org.silverpeas.kernel.util.Pair;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -100,8 +102,8 @@ public class ServerEventDispatcherTask
    * @param sessionId an identifier od a session.
    */
   public static void unregisterBySessionId(String sessionId) {
-    getContextSnapshot().stream()
-        .filter(c -> sessionId.equals(c.getSessionId()))
+    SilverpeasServerEventContextManager.get()
+        .getContextSnapshotOfSession(sessionId)
         .forEach(ServerEventDispatcherTask::unregisterContext);
   }
 
@@ -251,10 +253,20 @@ public class ServerEventDispatcherTask
 
     /**
      * Gets the context safely, so a list on which the caller can work without concurrency
-     * problems.
+     * problems.<br>
+     * When the event targets a user session or a user, only the contexts of this session or of
+     * this user are returned, so that the other ones aren't examined at all.
      * @return the list of context.
      */
     List<SilverpeasServerEventContext> getSafeContexts() {
+      final SilverpeasServerEventContextManager manager = SilverpeasServerEventContextManager.get();
+      if (serverEventToDispatch instanceof TargetingSession) {
+        return manager.getContextSnapshotOfSession(
+            ((TargetingSession) serverEventToDispatch).getTargetedSessionId());
+      } else if (serverEventToDispatch instanceof TargetingUser) {
+        return manager.getContextSnapshotOfUser(
+            ((TargetingUser) serverEventToDispatch).getTargetedUserId());
+      }
       return getContextSnapshot();
     }
 
@@ -269,11 +281,38 @@ public class ServerEventDispatcherTask
 
   /**
    * Handles a store of server events.
+   * <p>
+   * The stored events are kept into an array sorted by event identifier which is replaced as a
+   * whole on each modification (copy on write). So the replay of the events to the reconnecting
+   * clients, which can be numerous at a same time after a network failure, is performed without
+   * any lock and with a binary search of the last event received by the client. The modifications
+   * are performed by the single dispatching thread and by the cleaning of the expired events, so
+   * they are serialized.
+   * </p>
+   * <p>
+   * The store is bounded: the events are removed after their lifetime (see
+   * {@link NotificationManagerSettings#getSseStoreEventLifeTime()}) and the oldest ones are
+   * removed when the maximum size (see {@link NotificationManagerSettings#getSseStoreMaxSize()})
+   * is reached. The {@link KeepAlwaysLastStored} events are never removed by these retentions.
+   * </p>
    */
   static class ServerEventStore {
 
-    private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
-    private final List<StoredServerEvent> synchronizedStore = new ArrayList<>();
+    private static final StoredServerEvent[] EMPTY = new StoredServerEvent[0];
+    private static final long REPLAY_LOG_PERIOD = 1000;
+
+    private final Object mutex = new Object();
+    private final PeriodicStatisticsLogger replays =
+        new PeriodicStatisticsLogger(REPLAY_LOG_PERIOD, SseLogger::get);
+    private final AtomicLong replayHits = new AtomicLong(0);
+    private final AtomicLong replayMisses = new AtomicLong(0);
+    private volatile StoredServerEvent[] store = EMPTY;
+    /**
+     * The highest identifier of the events removed from the store by its retention rules. The
+     * replacement of a {@link StoreLastOnly} event isn't taken into account as the client gets
+     * the newer event.
+     */
+    private volatile long highestRemovedId = -1;
 
     /**
      * Cleaning expired server events (lifetime of 40000ms maximum).
@@ -281,29 +320,47 @@ public class ServerEventDispatcherTask
     void cleanExpired() {
       final long currentTime = System.currentTimeMillis();
       final long maxLifeTime = Math.max(getSseStoreEventLifeTime(), MIN_LIFE_TIME);
-      safeWrite(() -> {
-        final Iterator<StoredServerEvent> it = synchronizedStore.iterator();
+      if (!hasExpired(store, currentTime, maxLifeTime)) {
+        // nothing to clean: no need to wait for the other modifications
+        return;
+      }
+      synchronized (mutex) {
+        final StoredServerEvent[] current = store;
+        final List<StoredServerEvent> kept = new ArrayList<>(current.length);
         boolean done = false;
-        while (it.hasNext() && !done) {
-          final StoredServerEvent item = it.next();
-          final boolean canProcess = !(item.getServerEvent() instanceof KeepAlwaysLastStored);
-          if (canProcess) {
+        for (StoredServerEvent item : current) {
+          if (!done && !(item.getServerEvent() instanceof KeepAlwaysLastStored)) {
             final long lifetime = currentTime - item.getStoreTime();
             if (lifetime >= maxLifeTime) {
-              it.remove();
+              removed(item);
               SseLogger.get()
                   .debug(
                       () -> format("Removing expired {0} lifetime of {1}ms", item.getServerEvent(),
                           lifetime));
-            } else {
-              done = true;
+              continue;
             }
+            done = true;
           }
+          kept.add(item);
         }
+        store = kept.toArray(EMPTY);
         SseLogger.get()
-            .debug(() -> format("Size of the server event store (after clean): {0}",
-                synchronizedStore.size()));
-      });
+            .debug(() -> format("Size of the server event store (after clean): {0}", kept.size()));
+      }
+    }
+
+    /**
+     * Indicates if the oldest events of the given store, the ones that are candidate to be
+     * removed, have expired.
+     */
+    private static boolean hasExpired(final StoredServerEvent[] current, final long currentTime,
+        final long maxLifeTime) {
+      for (StoredServerEvent item : current) {
+        if (!(item.getServerEvent() instanceof KeepAlwaysLastStored)) {
+          return currentTime - item.getStoreTime() >= maxLifeTime;
+        }
+      }
+      return false;
     }
 
     /**
@@ -312,87 +369,201 @@ public class ServerEventDispatcherTask
      * @return a list of {@link ServerEvent} instances.
      */
     List<ServerEvent> getFromId(long lastServerEventId) {
-      return safeRead(() -> synchronizedStore.stream()
-          .filter(i -> i.getServerEvent().getId() > lastServerEventId)
-          .map(StoredServerEvent::getServerEvent)
-          .collect(Collectors.toList()));
+      final StoredServerEvent[] current = store;
+      if (lastServerEventId < highestRemovedId) {
+        // some events following the last one performed by the client are no more stored
+        replayMisses.incrementAndGet();
+        SseLogger.get()
+            .debug(() -> format("Server events after {0} are partially replayed ({1} removed)",
+                lastServerEventId, highestRemovedId));
+      } else {
+        replayHits.incrementAndGet();
+      }
+      logReplayStatistics();
+      final int from = indexAfter(current, lastServerEventId);
+      final List<ServerEvent> events = new ArrayList<>(current.length - from);
+      for (int i = from; i < current.length; i++) {
+        events.add(current[i].getServerEvent());
+      }
+      return events;
     }
 
     /**
-     * Add the given {@link ServerEvent} into the store.
+     * Add the given {@link ServerEvent} into the store. The new state of the store is built with
+     * a single copy of the current one.
      * @param serverEvent the server event to store.
      */
     void add(final ServerEvent serverEvent) {
       if (serverEvent.isValidId() && !(serverEvent instanceof IgnoreStoring)) {
-        safeWrite(() -> {
+        synchronized (mutex) {
+          final StoredServerEvent[] current = store;
+          final StoredServerEvent toStore = new StoredServerEvent(serverEvent);
+          final int insertion = indexAfter(current, toStore.getId());
+          final BitSet removals = new BitSet(current.length);
           if (serverEvent instanceof StoreLastOnly) {
-            removeAll((StoreLastOnly) serverEvent);
+            removeSameKind(current, (StoreLastOnly) serverEvent, removals);
           }
-          synchronizedStore.add(new StoredServerEvent(serverEvent));
+          final boolean kept = applyMaxSize(current, toStore, insertion, removals);
+          final StoredServerEvent[] updated = copy(current, removals, kept ? toStore : null,
+              insertion);
+          store = updated;
           SseLogger.get()
               .debug(() -> format("Add {0} into the store (size={1})", serverEvent,
-                  synchronizedStore.size()));
-        });
+                  updated.length));
+        }
       }
     }
 
     /**
-     * Removes from the store all the stored server events which the type is compatible with the
-     * given one.
-     * @param storeLastOnly the server event class to identifying for removing.
+     * Logs the number of complete and partial replays once every {@link #REPLAY_LOG_PERIOD}
+     * replays, so that a store too small or with a too short lifetime for the reconnections can
+     * be detected.
      */
-    private void removeAll(StoreLastOnly storeLastOnly) {
-      final Class<?> classToIdentify = storeLastOnly.getClass();
-      final Iterator<StoredServerEvent> it = synchronizedStore.iterator();
-      boolean done = false;
-      while (it.hasNext() && !done) {
-        final StoredServerEvent item = it.next();
-        if (classToIdentify.isInstance(item.getServerEvent())) {
-          final StoreLastOnly itemEvent = (StoreLastOnly) item.getServerEvent();
-          if (storeLastOnly.getStoreDiscriminator().equals(itemEvent.getStoreDiscriminator())) {
-            it.remove();
-            SseLogger.get()
-                .debug(() -> format("Remove {0} from the store (size={1})", item.getServerEvent(),
-                    synchronizedStore.size()));
-            done = true;
-          }
+    private void logReplayStatistics() {
+      replays.count(() -> format("Server event replays: {0} complete, {1} partial (store size={2})",
+          replayHits.get(), replayMisses.get(), store.length));
+    }
+
+    /**
+     * Gets the number of replays for which all the events following the last one performed by
+     * the client were still stored.
+     * @return the number of complete replays.
+     */
+    long getReplayHits() {
+      return replayHits.get();
+    }
+
+    /**
+     * Gets the number of replays for which some events following the last one performed by the
+     * client were no more stored.
+     * @return the number of partial replays.
+     */
+    long getReplayMisses() {
+      return replayMisses.get();
+    }
+
+    /**
+     * Gets the index of the first stored event whose identifier is higher than the given one.
+     */
+    private static int indexAfter(final StoredServerEvent[] sorted, final long serverEventId) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        final int middle = (low + high) >>> 1;
+        if (sorted[middle].getId() <= serverEventId) {
+          low = middle + 1;
+        } else {
+          high = middle;
         }
       }
+      return low;
     }
 
     /**
-     * Clears the store.
+     * Marks as removed the oldest events beyond the maximum size of the store once the given
+     * event inserted at the given position, except the ones that must be always kept.
+     * @return false if the event to store is itself among the oldest events to remove.
      */
-    public void clear() {
-      synchronizedStore.clear();
+    private boolean applyMaxSize(final StoredServerEvent[] current,
+        final StoredServerEvent toStore, final int insertion, final BitSet removals) {
+      int toRemove = current.length - removals.cardinality() + 1 -
+          Math.max(getSseStoreMaxSize(), 1);
+      boolean kept = true;
+      for (int i = 0; toRemove > 0 && i <= current.length; i++) {
+        if (i == insertion && !(toStore.getServerEvent() instanceof KeepAlwaysLastStored)) {
+          kept = false;
+          removedByRetention(toStore);
+          toRemove--;
+        }
+        if (toRemove > 0 && i < current.length && !removals.get(i) &&
+            !(current[i].getServerEvent() instanceof KeepAlwaysLastStored)) {
+          removals.set(i);
+          removedByRetention(current[i]);
+          toRemove--;
+        }
+      }
+      return kept;
     }
 
-    <T> T safeRead(final Callable<T> process) {
-      try {
-        lock.readLock().lock();
-        try {
-          return process.call();
-        } finally {
-          lock.readLock().unlock();
+    /**
+     * Records the removal of the specified event as the store is full.
+     */
+    private void removedByRetention(final StoredServerEvent item) {
+      removed(item);
+      SseLogger.get()
+          .debug(() -> format("Remove {0} from the store as it is full", item.getServerEvent()));
+    }
+
+    /**
+     * Records the removal of the specified event by a retention rule of the store.
+     */
+    private void removed(final StoredServerEvent item) {
+      highestRemovedId = Math.max(highestRemovedId, item.getId());
+    }
+
+    /**
+     * Marks as removed the stored server event which the type is compatible with the given one.
+     * @param current the stored events.
+     * @param storeLastOnly the server event class to identifying for removing.
+     * @param removals the positions of the events to remove.
+     */
+    private static void removeSameKind(final StoredServerEvent[] current,
+        final StoreLastOnly storeLastOnly, final BitSet removals) {
+      final Class<?> classToIdentify = storeLastOnly.getClass();
+      for (int i = 0; i < current.length; i++) {
+        final StoredServerEvent item = current[i];
+        if (classToIdentify.isInstance(item.getServerEvent()) &&
+            storeLastOnly.getStoreDiscriminator()
+                .equals(((StoreLastOnly) item.getServerEvent()).getStoreDiscriminator())) {
+          removals.set(i);
+          SseLogger.get().debug(() -> format("Remove {0} from the store", item.getServerEvent()));
+          return;
         }
-      } catch (Exception e) {
-        throw new SilverpeasRuntimeException(e);
       }
     }
 
-    void safeWrite(final Runnable process) {
-      try {
-        lock.writeLock().lock();
-        try {
-          process.run();
-        } finally {
-          lock.writeLock().unlock();
+    /**
+     * Copies the given stored events without the removed ones and with the given event inserted
+     * at the given position.
+     * @param current the stored events.
+     * @param removals the positions of the events to remove.
+     * @param toStore the event to insert. Null if none.
+     * @param insertion the position of the event to insert among the stored events.
+     * @return the new stored events.
+     */
+    private static StoredServerEvent[] copy(final StoredServerEvent[] current,
+        final BitSet removals, final StoredServerEvent toStore, final int insertion) {
+      final int size = current.length - removals.cardinality() + (toStore == null ? 0 : 1);
+      final StoredServerEvent[] copy = new StoredServerEvent[size];
+      boolean inserted = toStore == null;
+      int length = 0;
+      int from = 0;
+      while (from <= current.length) {
+        final int next = removals.nextSetBit(from);
+        final int to = next < 0 ? current.length : next;
+        if (!inserted && insertion <= to) {
+          System.arraycopy(current, from, copy, length, insertion - from);
+          length += insertion - from;
+          copy[length++] = toStore;
+          from = insertion;
+          inserted = true;
         }
-      } catch (Exception e) {
-        throw new SilverpeasRuntimeException(e);
+        System.arraycopy(current, from, copy, length, to - from);
+        length += to - from;
+        from = to + 1;
       }
+      return copy;
     }
 
+    /**
+     * Clears the store.
+     */
+    public void clear() {
+      synchronized (mutex) {
+        Arrays.stream(store).forEach(this::removed);
+        store = EMPTY;
+      }
+    }
   }
 
   /**
@@ -402,9 +573,20 @@ public class ServerEventDispatcherTask
     private final long storeTime;
     private final ServerEvent serverEvent;
 
+    private final long id;
+
     private StoredServerEvent(final ServerEvent serverEvent) {
       this.storeTime = System.currentTimeMillis();
       this.serverEvent = serverEvent;
+      this.id = serverEvent.getId();
+    }
+
+    /**
+     * Gets the identifier of the stored server event.
+     * @return the identifier as long.
+     */
+    long getId() {
+      return id;
     }
 
     /**
@@ -55,6 +55,7 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
     implements AsyncContext {
 
   private static final int CLIENT_RETRY = 5000;
+  private static final EncodedServerEventCache encodedEvents = new EncodedServerEventCache();
 
   private boolean heartbeat = false;
   private boolean complete = false;
@@ -125,6 +126,16 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
   @Override
   public void performEventSend(final String name, final long id, final String data)
       throws IOException {
+    final String message = encodedEvents.encode(name, id, data, SilverpeasAsyncContext::encode);
+    final PrintWriter writer = getResponse().getWriter();
+    writer.append(message);
+    writer.flush();
+  }
+
+  /**
+   * Encodes the given event into the text/event-stream format.
+   */
+  private static String encode(final String name, final long id, final String data) {
     final int capacity = 100 + name.length() + data.length();
     StringBuilder sb = new StringBuilder(capacity);
     sb.append("retry: ").append(CLIENT_RETRY);
@@ -144,9 +155,7 @@ public class SilverpeasAsyncContext extends AbstractServerEventContext<AsyncCont
       }
     }
     sb.append("\n\n");
-    final PrintWriter writer = getResponse().getWriter();
-    writer.append(sb.toString());
-    writer.flush();
+    return sb.toString();
   }
 
   /**
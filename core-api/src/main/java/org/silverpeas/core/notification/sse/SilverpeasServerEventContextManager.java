@@ -27,6 +27,8 @@ package org.silverpeas.core.notification.sse;
 import org.silverpeas.core.util.ServiceProvider;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * This interface defines the management of {@link SilverpeasServerEventContext}.
@@ -65,4 +67,28 @@ public interface SilverpeasServerEventContextManager {
    * @return a list of {@link SilverpeasServerEventContext} instances.
    */
   List<SilverpeasServerEventContext> getContextSnapshot();
+
+  /**
+   * Gets safely a snapshot of the current registered asynchronous contexts opened by the
+   * specified user session.
+   * @param sessionId the identifier of a user session.
+   * @return a list of {@link SilverpeasServerEventContext} instances.
+   */
+  default List<SilverpeasServerEventContext> getContextSnapshotOfSession(final String sessionId) {
+    return getContextSnapshot().stream()
+        .filter(c -> Objects.equals(sessionId, c.getSessionId()))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets safely a snapshot of the current registered asynchronous contexts opened by the
+   * specified user, whatever its sessions.
+   * @param userId the identifier of a user.
+   * @return a list of {@link SilverpeasServerEventContext} instances.
+   */
+  default List<SilverpeasServerEventContext> getContextSnapshotOfUser(final String userId) {
+    return getContextSnapshot().stream()
+        .filter(c -> c.getUser() != null && Objects.equals(userId, c.getUser().getId()))
+        .collect(Collectors.toList());
+  }
 }
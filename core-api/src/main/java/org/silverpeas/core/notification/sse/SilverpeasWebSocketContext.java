@@ -40,6 +40,8 @@ import static org.silverpeas.core.util.JSONCodec.encodeObject;
  */
 public class SilverpeasWebSocketContext extends AbstractServerEventContext<Session> {
 
+  private static final EncodedServerEventCache encodedEvents = new EncodedServerEventCache();
+
   private final String requestURI;
   private boolean closed = false;
 
@@ -100,8 +102,9 @@ public class SilverpeasWebSocketContext extends AbstractServerEventContext<Sessi
   @Override
   public void performEventSend(final String name, final long id, final String data)
       throws IOException {
-    getWrappedInstance().getAsyncRemote()
-        .sendObject(encodeObject(o -> o.put("name", name).put("id", id).put("data", data)));
+    final String message = encodedEvents.encode(name, id, data,
+        (n, i, d) -> encodeObject(o -> o.put("name", n).put("id", i).put("data", d)));
+    getWrappedInstance().getAsyncRemote().sendObject(message);
   }
 
   @Override
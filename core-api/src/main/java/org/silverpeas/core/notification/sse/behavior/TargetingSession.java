@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse.behavior;
+
+import org.silverpeas.core.notification.sse.ServerEvent;
+import org.silverpeas.core.notification.sse.ServerEventDispatcherTask;
+
+/**
+ * If an event implements this interface, it concerns only the contexts opened by a given user
+ * session. The {@link ServerEventDispatcherTask} in charge of dispatching all {@link ServerEvent}
+ * then examines only the contexts of this session instead of all the opened ones.
+ * <p>
+ * The {@link ServerEvent#isConcerned(String, org.silverpeas.core.admin.user.model.User)} method
+ * is still applied on each of these contexts.
+ * </p>
+ */
+public interface TargetingSession extends ServerEvent {
+
+  /**
+   * Gets the identifier of the user session concerned by the event.
+   * @return a session identifier as string.
+   */
+  String getTargetedSessionId();
+}
@@ -51,6 +51,8 @@ public class NotificationManagerSettings {
   private static final int DEFAULT_SSE_JOB_TRIGGER = 45;
   private static final int DEFAULT_SSE_ASYNC_TIMEOUT = 180;
   private static final int DEFAULT_SSE_STORE_EVENT_LIFETIME = 40;
+  private static final int DEFAULT_SSE_STORE_MAX_SIZE = 2000;
+  private static final int DEFAULT_BATCH_MAX_RECIPIENTS = 100;
   private static final int MS = 1000;
   private static SettingBundle settings = ResourceLocator.getSettingBundle(
       "org.silverpeas.notificationManager.settings.notificationManagerSettings");
@@ -254,6 +256,14 @@ public class NotificationManagerSettings {
         .getInteger("notification.sse.store.event.lifetime", DEFAULT_SSE_STORE_EVENT_LIFETIME) * MS;
   }
 
+  /**
+   * Gets the maximum number of events stored into memory of SSE communication.
+   * @return the maximum number of stored events.
+   */
+  public static int getSseStoreMaxSize() {
+    return settings.getInteger("notification.sse.store.max.size", DEFAULT_SSE_STORE_MAX_SIZE);
+  }
+
 
   /**
    * Indicates if the server event feature is enabled.
@@ -337,4 +347,14 @@ public class NotificationManagerSettings {
     return settings.getBoolean("notification.source.componentLabel");
   }
 
+  /**
+   * Gets the maximum number of recipients of a notification that can be carried by a single
+   * message posted to the notification server.
+   * @return the maximum number of recipients per message.
+   */
+  public static int getMaxRecipientsPerNotificationBatch() {
+    return Math.max(1,
+        settings.getInteger("notification.batch.recipients.max", DEFAULT_BATCH_MAX_RECIPIENTS));
+  }
+
 }
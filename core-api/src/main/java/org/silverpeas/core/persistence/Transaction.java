@@ -29,10 +29,14 @@ import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.util.Process;
 
 import javax.annotation.Resource;
+import javax.transaction.RollbackException;
 import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
 import javax.transaction.Transactional;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * A transaction. All processes it performs will be in charge by the JPA transaction manager.
@@ -73,6 +77,41 @@ public class Transaction {
     return getTransaction().performNew(process);
   }
 
+  /**
+   * Performs the specified action once the transaction currently active in the current thread is
+   * committed. If the transaction is rolled back, the action is never performed. If there is no
+   * active transaction, the action is performed right now.
+   * <p>
+   * This is for in-memory states that mirror some data in the persistence context: they have to
+   * be updated only once the changes in the data are effective.
+   * </p>
+   * @param action the action to perform after the commit of the current transaction.
+   */
+  public static void performAfterCommit(final Runnable action) {
+    getTransaction().afterCommit(action);
+  }
+
+  /**
+   * Performs the specified action once the transaction currently active in the current thread is
+   * completed, whatever its outcome. If there is no active transaction, the action is performed
+   * right now as if a transaction was committed.
+   * @param action the action to perform at the completion of the current transaction. It
+   * receives true if the transaction was committed, false if it was rolled back.
+   */
+  public static void performAtCompletion(final Consumer<Boolean> action) {
+    getTransaction().atCompletion(action);
+  }
+
+  /**
+   * Gets the JTA transaction currently active in the current thread. It is for in-memory states
+   * that have to know whether they are accessed within the transaction that is changing them.
+   * @return the active JTA transaction or nothing if there is no active transaction in the
+   * current thread.
+   */
+  public static Optional<javax.transaction.Transaction> getActiveTransaction() {
+    return getTransaction().activeTransaction();
+  }
+
   /**
    * Is there a transaction currently active in the current thread?
    * @return true if there is a transaction active in the current thread, false otherwise.
@@ -138,6 +177,72 @@ public class Transaction {
     }
   }
 
+  /**
+   * Registers the specified action to be performed after the commit of the transaction currently
+   * active in the current thread. If there is no active transaction, the action is performed
+   * right now.
+   * @param action the action to perform after the commit of the current transaction.
+   */
+  public void afterCommit(final Runnable action) {
+    atCompletion(committed -> {
+      if (committed) {
+        action.run();
+      }
+    });
+  }
+
+  /**
+   * Registers the specified action to be performed at the completion of the transaction
+   * currently active in the current thread, whatever its outcome. If there is no active
+   * transaction, the action is performed right now as if a transaction was committed.
+   * @param action the action to perform at the completion of the current transaction. It
+   * receives true if the transaction was committed, false otherwise.
+   */
+  public void atCompletion(final Consumer<Boolean> action) {
+    try {
+      final Optional<javax.transaction.Transaction> current = activeTransaction();
+      if (current.isEmpty()) {
+        action.accept(true);
+      } else {
+        current.get().registerSynchronization(new Synchronization() {
+          @Override
+          public void beforeCompletion() {
+            // nothing to do
+          }
+
+          @Override
+          public void afterCompletion(final int status) {
+            action.accept(status == Status.STATUS_COMMITTED);
+          }
+        });
+      }
+    } catch (RollbackException | SystemException e) {
+      throw new TransactionRuntimeException(e);
+    }
+  }
+
+  /**
+   * Gets the JTA transaction currently active in the current thread.
+   * @return the active JTA transaction or nothing if there is no active transaction.
+   */
+  public Optional<javax.transaction.Transaction> activeTransaction() {
+    try {
+      final javax.transaction.Transaction current =
+          transactionManager == null ? null : transactionManager.getTransaction();
+      return Optional.ofNullable(current).filter(Transaction::hasActiveStatus);
+    } catch (SystemException e) {
+      throw new TransactionRuntimeException(e);
+    }
+  }
+
+  private static boolean hasActiveStatus(final javax.transaction.Transaction transaction) {
+    try {
+      return transaction.getStatus() == Status.STATUS_ACTIVE;
+    } catch (SystemException e) {
+      throw new TransactionRuntimeException(e);
+    }
+  }
+
   @Transactional(Transactional.TxType.MANDATORY)
   protected boolean isActive() {
     return getStatus() == Status.STATUS_ACTIVE;
@@ -25,6 +25,8 @@ package org.silverpeas.core.persistence.jdbc;
 
 import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 
@@ -37,13 +39,16 @@ import java.sql.Statement;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DBUtil {
 
-  private static final Object MUTEX = new Object();
   private static final int MAX_NB_ATTEMPT = 100;
+  private static final String BLOCK_SIZE_SETTING = "identifier.blockSize";
+  private static final Map<String, IdentifierBlock> IDENTIFIER_BLOCKS = new ConcurrentHashMap<>();
 
   /**
    * @return the DateFieldLength
@@ -114,6 +119,14 @@ public class DBUtil {
 
   /**
    * Return a new unique identifier value referenced by a name.
+   * <p>
+   * The identifier values are reserved by blocks into the uniqueId table and then handed out
+   * from memory. The size of the blocks is set for each identifier name by the
+   * <code>identifier.blockSize.[identifier name in lower case]</code> property of the
+   * <code>org.silverpeas.util.data.uniqueId</code> settings, or by the
+   * <code>identifier.blockSize</code> one for all the identifiers without a specific setting.
+   * By default, the block size is 1 and so each identifier value is reserved individually.
+   * </p>
    * @param identifierName a name of an identifier can be the name of an existing table or a name
    * that does not correspond to something into persistence, but the caller needs to handle
    * unique identifiers for a resource.
@@ -126,17 +139,42 @@ public class DBUtil {
   @SuppressWarnings({"ThrowableResultOfMethodCallIgnored"})
   public static int getNextId(final String identifierName, final String tableFieldIdentifierName) {
     final String identifierNameLowerCase = identifierName.toLowerCase(Locale.ROOT);
+    final IdentifierBlock block = IDENTIFIER_BLOCKS.computeIfAbsent(identifierNameLowerCase,
+        n -> new IdentifierBlock(getIdentifierBlockSize(n),
+            size -> reserveIdentifierBlock(identifierName, n, tableFieldIdentifierName, size)));
+    return block.next();
+  }
+
+  /**
+   * Gets the number of identifier values to reserve at once for the given identifier name.
+   * @param identifierNameLowerCase the name of an identifier.
+   * @return the size of the block of identifiers.
+   */
+  private static int getIdentifierBlockSize(final String identifierNameLowerCase) {
+    final SettingBundle settings =
+        ResourceLocator.getSettingBundle("org.silverpeas.util.data.uniqueId");
+    final int defaultBlockSize = Math.max(1, settings.getInteger(BLOCK_SIZE_SETTING, 1));
+    return Math.max(1,
+        settings.getInteger(BLOCK_SIZE_SETTING + "." + identifierNameLowerCase, defaultBlockSize));
+  }
+
+  /**
+   * Reserves a block of identifier values into the uniqueId table, registering the identifier
+   * name first if it is not yet referenced into the table.
+   * @return the first identifier value of the reserved block.
+   */
+  private static int reserveIdentifierBlock(final String identifierName,
+      final String identifierNameLowerCase, final String tableFieldIdentifierName,
+      final int blockSize) {
     for (int nbAttempts = 0; nbAttempts < MAX_NB_ATTEMPT; nbAttempts++) {
-      synchronized (MUTEX) {
-        // Getting the next unique identifier value from uniqueId table
-        Integer nextUniqueMaxId = nextUniqueIdentifierValue(identifierNameLowerCase);
-        if (nextUniqueMaxId == null) {
-          // The identifier is not yet registered into uniqueId table
-          registeringIdentifierName(identifierNameLowerCase, tableFieldIdentifierName);
-        } else if (nextUniqueMaxId != -1) {
-          // The next identifier value has been well computed
-          return nextUniqueMaxId;
-        }
+      // Getting the first unique identifier value of the block from uniqueId table
+      Integer firstUniqueId = nextUniqueIdentifierValue(identifierNameLowerCase, blockSize);
+      if (firstUniqueId == null) {
+        // The identifier is not yet registered into uniqueId table
+        registeringIdentifierName(identifierNameLowerCase, tableFieldIdentifierName);
+      } else if (firstUniqueId != -1) {
+        // The block of identifier values has been well reserved
+        return firstUniqueId;
       }
     }
     throw new SilverpeasRuntimeException(
@@ -145,15 +183,19 @@ public class DBUtil {
   }
 
   /**
-   * Updates and returns the next identifier value for given table name.
+   * Reserves the given number of identifier values for given table name and returns the first
+   * of them. The maximum identifier value registered into the uniqueId table becomes the last
+   * value of the reserved block.
    * @param identifierNameLowerCase the name of identifier for which the next unique identifier
    * must be computed.
+   * @param blockSize the number of identifier values to reserve.
    * @return the next unique identifier if the identifier name is already registered into uniqueId
    * table, -1 if identifier name is already registered into uniqueId table but a concurrent server
    * process has just performed an update too (so caller has just to retry to call the method),
    * null if the identifier name is not yet registered into uniqueId table.
    */
-  private static Integer nextUniqueIdentifierValue(String identifierNameLowerCase) {
+  private static Integer nextUniqueIdentifierValue(String identifierNameLowerCase,
+      final int blockSize) {
 
     return Transaction.performInNew(() -> {
 
@@ -174,12 +216,13 @@ public class DBUtil {
         // If the current identifier value exists, then computing the next one
         if (currentUniqueValue != null) {
           final int nextUniqueValue = (currentUniqueValue + 1);
+          final int lastUniqueValue = (currentUniqueValue + blockSize);
           // MaxId data is part of the SQL update query clause in order to avoid to perform an
           // update whereas another server process has updated the value for the same identifier
           // name (so a typical concurrency case)
           try (PreparedStatement updateMaxIdStmt = connection.prepareStatement(
               "UPDATE UniqueId SET maxId = ? WHERE tableName = ? AND maxId = ?")) {
-            updateMaxIdStmt.setInt(1, nextUniqueValue);
+            updateMaxIdStmt.setInt(1, lastUniqueValue);
             updateMaxIdStmt.setString(2, identifierNameLowerCase);
             updateMaxIdStmt.setInt(3, currentUniqueValue);
             if (updateMaxIdStmt.executeUpdate() != 0) {
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A block of unique identifier values reserved at once in the persistence for a given
+ * identifier name (hi/lo strategy).
+ * <p>
+ * The values of the current block are handed out from memory without any lock. Only when the
+ * block is exhausted a new one is reserved, with a lock that is specific to the identifier name:
+ * the requests of identifiers of other names aren't blocked. As each block is reserved in the
+ * persistence by an atomic update of the maximum identifier value, the blocks reserved by
+ * several Silverpeas nodes sharing the same database never overlap.
+ * </p>
+ * <p>
+ * The values not handed out when the JVM stops are lost; this leaves gaps in the sequence of the
+ * identifiers but never duplicates.
+ * </p>
+ */
+final class IdentifierBlock {
+
+  private final int size;
+  private final IntUnaryOperator reservation;
+  private volatile Range range = new Range(0, -1);
+
+  /**
+   * Constructs a new block of identifier values.
+   * @param size the number of identifier values to reserve at once. Must be positive.
+   * @param reservation the function reserving in the persistence the given number of values and
+   * returning the first one of the reserved range.
+   */
+  IdentifierBlock(final int size, final IntUnaryOperator reservation) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("The block size must be positive: " + size);
+    }
+    this.size = size;
+    this.reservation = reservation;
+  }
+
+  /**
+   * Gets the number of identifier values that are reserved at once.
+   * @return the size of the block.
+   */
+  int getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the next unique identifier value, reserving a new block if the current one is
+   * exhausted.
+   * @return a unique identifier value.
+   */
+  int next() {
+    while (true) {
+      final Range current = range;
+      final int id = current.next.getAndIncrement();
+      if (id <= current.last) {
+        return id;
+      }
+      synchronized (this) {
+        if (range == current) {
+          final int first = reservation.applyAsInt(size);
+          range = new Range(first, first + size - 1);
+        }
+      }
+    }
+  }
+
+  private static class Range {
+    private final AtomicInteger next;
+    private final int last;
+
+    private Range(final int first, final int last) {
+      this.next = new AtomicInteger(first);
+      this.last = last;
+    }
+  }
+}
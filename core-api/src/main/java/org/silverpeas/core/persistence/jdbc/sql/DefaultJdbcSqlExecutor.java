@@ -28,6 +28,7 @@ import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.persistence.jdbc.ConnectionPool;
 import org.silverpeas.core.persistence.jdbc.sql.setters.SqlStatementParameterSetter;
 import org.silverpeas.core.util.ListSlice;
+import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.kernel.logging.SilverLogger;
 
@@ -38,10 +39,17 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Yohann Chastagnier
@@ -136,6 +144,81 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
     }
   }
 
+  @Override
+  public <R> Stream<R> stream(final JdbcSqlQuery selectQuery,
+      final SelectResultRowProcess<R> process) throws SQLException {
+    final Connection con = ConnectionPool.getConnection();
+    final boolean autoCommit;
+    try {
+      autoCommit = con.getAutoCommit();
+    } catch (SQLException e) {
+      con.close();
+      throw e;
+    }
+    final ResourceCloser connectionCloser = () -> {
+      try {
+        if (autoCommit) {
+          con.rollback();
+          con.setAutoCommit(true);
+        }
+      } finally {
+        con.close();
+      }
+    };
+    try {
+      // some drivers (PostgreSQL for example) use a cursor only out of the auto-commit mode
+      if (autoCommit) {
+        con.setAutoCommit(false);
+      }
+      return stream(con, selectQuery, process, connectionCloser);
+    } catch (SQLException | RuntimeException e) {
+      try {
+        connectionCloser.close();
+      } catch (SQLException ce) {
+        e.addSuppressed(ce);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public <R> Stream<R> stream(final Connection con, final JdbcSqlQuery selectQuery,
+      final SelectResultRowProcess<R> process) throws SQLException {
+    return stream(con, selectQuery, process, () -> {});
+  }
+
+  private <R> Stream<R> stream(final Connection con, final JdbcSqlQuery selectQuery,
+      final SelectResultRowProcess<R> process, final ResourceCloser connectionCloser)
+      throws SQLException {
+    final JdbcSqlQuery.Configuration queryConf = selectQuery.getConfiguration();
+    final String sqlQuery = selectQuery.getSqlQuery();
+    final PreparedStatement st = con.prepareStatement(sqlQuery, ResultSet.TYPE_FORWARD_ONLY,
+        ResultSet.CONCUR_READ_ONLY);
+    final ResultSet rs;
+    try {
+      st.setFetchSize(queryConf.isFetchSizeSet() ? queryConf.getFetchSize() : getDefaultFetchSize());
+      if (queryConf.isResultCountLimited()) {
+        st.setMaxRows(queryConf.getOffset() + queryConf.getResultLimit());
+      }
+      setParameters(st, selectQuery.getParameters());
+      rs = st.executeQuery();
+    } catch (SQLException e) {
+      SilverLogger.getLogger(this).debug(e.getMessage() + SQL_REQUEST + sqlQuery);
+      st.close();
+      throw e;
+    }
+    final RowSpliterator<R> spliterator =
+        new RowSpliterator<>(new ResultSetWrapper(rs), process, queryConf.getOffset(), () -> {
+          try {
+            rs.close();
+            st.close();
+          } finally {
+            connectionCloser.close();
+          }
+        });
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+  }
+
   @Transactional(Transactional.TxType.MANDATORY)
   @Override
   public long executeModify(final JdbcSqlQuery... modifySqlQueries) throws SQLException {
@@ -176,6 +259,77 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
     return nbUpdate;
   }
 
+  @Transactional(Transactional.TxType.MANDATORY)
+  @Override
+  public long executeBatch(final List<JdbcSqlQuery> modifySqlQueries, final int batchSize)
+      throws SQLException {
+    try (Connection con = ConnectionPool.getConnection()) {
+      return executeBatch(con, modifySqlQueries, batchSize);
+    }
+  }
+
+  @Transactional(Transactional.TxType.MANDATORY)
+  @Override
+  public long executeBatch(final Connection con, final List<JdbcSqlQuery> modifySqlQueries,
+      final int batchSize) throws SQLException {
+    final int maxBatchSize = batchSize > 0 ? batchSize : getDefaultBatchSize();
+    long nbUpdate = 0;
+    PreparedStatement prepStmt = null;
+    String currentSqlQuery = null;
+    int nbInBatch = 0;
+    try {
+      for (JdbcSqlQuery modifyQuery : modifySqlQueries) {
+        modifyQuery.finalizeBeforeExecution();
+        final String sqlQuery = modifyQuery.getSqlQuery();
+        if (!sqlQuery.equals(currentSqlQuery)) {
+          if (prepStmt != null) {
+            nbUpdate += executeBatch(prepStmt, nbInBatch, currentSqlQuery);
+            prepStmt.close();
+          }
+          prepStmt = con.prepareStatement(sqlQuery);
+          currentSqlQuery = sqlQuery;
+          nbInBatch = 0;
+        }
+        setParameters(prepStmt, modifyQuery.getParameters());
+        prepStmt.addBatch();
+        nbInBatch++;
+        if (nbInBatch >= maxBatchSize) {
+          nbUpdate += executeBatch(prepStmt, nbInBatch, currentSqlQuery);
+          nbInBatch = 0;
+        }
+      }
+      if (prepStmt != null) {
+        nbUpdate += executeBatch(prepStmt, nbInBatch, currentSqlQuery);
+      }
+    } finally {
+      if (prepStmt != null) {
+        prepStmt.close();
+      }
+    }
+    return nbUpdate;
+  }
+
+  private long executeBatch(final PreparedStatement prepStmt, final int nbInBatch,
+      final String sqlQuery) throws SQLException {
+    if (nbInBatch == 0) {
+      return 0;
+    }
+    try {
+      long nbUpdate = 0;
+      for (int count : prepStmt.executeBatch()) {
+        if (count > 0) {
+          nbUpdate += count;
+        } else if (count == Statement.SUCCESS_NO_INFO) {
+          nbUpdate++;
+        }
+      }
+      return nbUpdate;
+    } catch (SQLException e) {
+      SilverLogger.getLogger(this).debug(e.getMessage() + SQL_REQUEST + sqlQuery);
+      throw e;
+    }
+  }
+
   private <R> ListSlice<R> fetchEntities(final ResultSet rs,
       final SelectResultRowProcess<R> process, final JdbcSqlQuery.Configuration queryConf,
       final boolean countOverPaginationMethod)
@@ -248,6 +402,16 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
         .getBoolean("jdbc.pagination.method.countOver", false);
   }
 
+  private static int getDefaultFetchSize() {
+    return Math.max(1, ResourceLocator.getGeneralSettingBundle()
+        .getInteger("jdbc.fetch.size", 500));
+  }
+
+  private static int getDefaultBatchSize() {
+    return Math.max(1, ResourceLocator.getGeneralSettingBundle()
+        .getInteger("jdbc.batch.size", 100));
+  }
+
   /**
    * Centralization in order to sets the parameters on a prepare statement.
    * @param preparedStatement a prepared statement which parameters must be set.
@@ -287,4 +451,70 @@ class DefaultJdbcSqlExecutor implements JdbcSqlExecutor {
     }
     return parameters;
   }
+
+  @FunctionalInterface
+  private interface ResourceCloser {
+    void close() throws SQLException;
+  }
+
+  /**
+   * Spliterator walking forward the rows of a result set. The resources are released as soon as
+   * the last row is read or the stream is closed, whichever comes first.
+   * @param <R> the type of the entities built from the rows.
+   */
+  private static class RowSpliterator<R> extends Spliterators.AbstractSpliterator<R> {
+
+    private final ResultSetWrapper rsw;
+    private final SelectResultRowProcess<R> process;
+    private final ResourceCloser closer;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private int toSkip;
+    private int idx;
+
+    private RowSpliterator(final ResultSetWrapper rsw, final SelectResultRowProcess<R> process,
+        final int offset, final ResourceCloser closer) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      this.rsw = rsw;
+      this.process = process;
+      this.toSkip = offset;
+      this.idx = offset;
+      this.closer = closer;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super R> action) {
+      if (closed.get()) {
+        return false;
+      }
+      try {
+        while (rsw.next()) {
+          if (toSkip > 0) {
+            toSkip--;
+            continue;
+          }
+          rsw.setCurrentRowIndex(idx++);
+          final R entity = process.currentRow(rsw);
+          if (entity != null) {
+            action.accept(entity);
+            return true;
+          }
+        }
+      } catch (SQLException e) {
+        close();
+        throw new SilverpeasRuntimeException(e);
+      }
+      close();
+      return false;
+    }
+
+    private void close() {
+      if (closed.compareAndSet(false, true)) {
+        try {
+          closer.close();
+        } catch (SQLException e) {
+          SilverLogger.getLogger(this).error(e.getMessage(), e);
+        }
+      }
+    }
+  }
 }
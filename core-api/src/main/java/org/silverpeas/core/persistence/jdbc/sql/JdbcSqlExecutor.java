@@ -28,6 +28,7 @@ import org.silverpeas.core.util.ListSlice;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementations of this interface must permit to execute SQL queries into processes
@@ -84,6 +85,35 @@ interface JdbcSqlExecutor {
   <R> ListSlice<R> select(Connection connection, JdbcSqlQuery selectQuery,
       SelectResultRowProcess<R> process) throws SQLException;
 
+  /**
+   * Executes the specified query that selects entities in the data source and streams them as
+   * the rows are read from a forward-only cursor. The rows are fetched from the data source by
+   * chunks of the fetch size set in the configuration of the query. A connection is opened for
+   * the stream and it is closed, with the cursor, once the stream is closed or fully consumed.
+   * The stream must then be used within a try-with-resources statement.
+   * @param <R> The type of the items in the stream.
+   * @param selectQuery the SQL query to select some entities.
+   * @param process the processor of result rows.
+   * @return a sequential stream on the entities in the data source.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  <R> Stream<R> stream(JdbcSqlQuery selectQuery, SelectResultRowProcess<R> process)
+      throws SQLException;
+
+  /**
+   * Executes the specified query that selects entities in the data source by using the given
+   * connection and streams them as the rows are read from a forward-only cursor. The cursor is
+   * closed once the stream is closed or fully consumed, but not the connection.
+   * @param <R> The type of the items in the stream.
+   * @param connection an existing connection to the data source.
+   * @param selectQuery the SQL query to select some entities.
+   * @param process the processor of result rows.
+   * @return a sequential stream on the entities in the data source.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  <R> Stream<R> stream(Connection connection, JdbcSqlQuery selectQuery,
+      SelectResultRowProcess<R> process) throws SQLException;
+
   /**
    * Modify query executor.
    * @param modifySqlQueries the list of SQL query to execute. An SQL query is represented by a
@@ -122,4 +152,32 @@ interface JdbcSqlExecutor {
    */
   long executeModify(Connection connection, List<JdbcSqlQuery> modifySqlQueries)
       throws SQLException;
+
+  /**
+   * Modify query executor in batch mode. The successive queries sharing the same SQL text are
+   * executed with a single prepared statement by batches of the given size. The order of the
+   * queries is kept.
+   * @param modifySqlQueries the list of SQL query to execute.
+   * @param batchSize the maximum number of queries in a batch. If zero or negative, the batch
+   * size defined by the <code>jdbc.batch.size</code> general setting is taken.
+   * @return the number of entities that were modified. A query for which the database doesn't
+   * report the number of modified entities is counted as one modification.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  long executeBatch(List<JdbcSqlQuery> modifySqlQueries, int batchSize) throws SQLException;
+
+  /**
+   * Modify query executor in batch mode. The successive queries sharing the same SQL text are
+   * executed with a single prepared statement by batches of the given size. The order of the
+   * queries is kept.
+   * @param connection an existing connection.
+   * @param modifySqlQueries the list of SQL query to execute.
+   * @param batchSize the maximum number of queries in a batch. If zero or negative, the batch
+   * size defined by the <code>jdbc.batch.size</code> general setting is taken.
+   * @return the number of entities that were modified. A query for which the database doesn't
+   * report the number of modified entities is counted as one modification.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  long executeBatch(Connection connection, List<JdbcSqlQuery> modifySqlQueries, int batchSize)
+      throws SQLException;
 }
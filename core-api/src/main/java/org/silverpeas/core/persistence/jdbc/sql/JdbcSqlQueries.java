@@ -74,4 +74,44 @@ public class JdbcSqlQueries extends ArrayList<JdbcSqlQuery> {
       return getJdbcSqlExecutor().executeModify(connection, this);
     }
   }
+
+  /**
+   * Executes all the queries contained into the list in batch mode: the successive queries
+   * sharing the same SQL text are sent together to the database by batches which size is
+   * defined by the <code>jdbc.batch.size</code> general setting.
+   * @return the number of entities that were inserted, updated or deleted by the queries.
+   * @throws SQLException on SQL error
+   */
+  public long executeInBatch() throws SQLException {
+    return executeInBatchWith(null, 0);
+  }
+
+  /**
+   * Executes all the queries contained into the list in batch mode: the successive queries
+   * sharing the same SQL text are sent together to the database by batches which size is
+   * defined by the <code>jdbc.batch.size</code> general setting.
+   * @param connection a connection to a database.
+   * @return the number of entities that were inserted, updated or deleted by the queries.
+   * @throws SQLException on SQL error
+   */
+  public long executeInBatchWith(Connection connection) throws SQLException {
+    return executeInBatchWith(connection, 0);
+  }
+
+  /**
+   * Executes all the queries contained into the list in batch mode: the successive queries
+   * sharing the same SQL text are sent together to the database by batches of the given size.
+   * @param connection a connection to a database.
+   * @param batchSize the maximum number of queries sent at once to the database. If zero or
+   * negative, the <code>jdbc.batch.size</code> general setting is taken.
+   * @return the number of entities that were inserted, updated or deleted by the queries.
+   * @throws SQLException on SQL error
+   */
+  public long executeInBatchWith(Connection connection, int batchSize) throws SQLException {
+    if (connection == null) {
+      return getJdbcSqlExecutor().executeBatch(this, batchSize);
+    } else {
+      return getJdbcSqlExecutor().executeBatch(connection, this, batchSize);
+    }
+  }
 }
@@ -780,6 +780,44 @@ public class JdbcSqlQuery {
     }
   }
 
+  /**
+   * Select executor streaming the entities as the rows are read from a forward-only cursor, so
+   * that a large result is processed in constant memory. The rows are fetched by chunks of the
+   * fetch size set with {@link Configuration#withFetchSize(int)}, or by default of the
+   * <code>jdbc.fetch.size</code> general setting.
+   * <p>
+   * A connection to the data source is kept open until the stream is fully consumed or closed.
+   * So the stream must be used within a try-with-resources statement.
+   * </p>
+   * @param <R> the type of the items in the stream.
+   * @param process the process to execute on the ResultSet objects.
+   * @return a sequential stream on the entities matching the query.
+   * @throws java.sql.SQLException on SQL error.
+   */
+  public <R> Stream<R> stream(SelectResultRowProcess<R> process) throws SQLException {
+    return streamWith(null, process);
+  }
+
+  /**
+   * Select executor streaming the entities as the rows are read from a forward-only cursor, so
+   * that a large result is processed in constant memory. The cursor is closed once the stream
+   * is fully consumed or closed, but not the given connection.
+   * @param <R> the type of the items in the stream.
+   * @param connection existing connection.
+   * @param process the process to execute on the ResultSet objects.
+   * @return a sequential stream on the entities matching the query.
+   * @throws java.sql.SQLException on SQL error.
+   * @see #stream(SelectResultRowProcess)
+   */
+  public <R> Stream<R> streamWith(Connection connection, SelectResultRowProcess<R> process)
+      throws SQLException {
+    if (connection == null) {
+      return getJdbcSqlExecutor().stream(this, process);
+    } else {
+      return getJdbcSqlExecutor().stream(connection, this, process);
+    }
+  }
+
   /**
    * Select executor.
    * @param <R> the type of the entity.
@@ -855,6 +893,7 @@ public class JdbcSqlQuery {
   public static class Configuration {
     private int limit = 0;
     private int offset = 0;
+    private int fetchSize = 0;
     private boolean needRealOriginalSize = true;
 
     int getResultLimit() {
@@ -865,6 +904,14 @@ public class JdbcSqlQuery {
       return offset;
     }
 
+    int getFetchSize() {
+      return fetchSize;
+    }
+
+    boolean isFetchSizeSet() {
+      return fetchSize > 0;
+    }
+
     boolean isFirstResultScrolled() {
       return offset > 0;
     }
@@ -895,6 +942,21 @@ public class JdbcSqlQuery {
       return this;
     }
 
+    /**
+     * Sets the number of rows to fetch at once from the data source when the result is
+     * streamed.
+     * @param fetchSize a positive number of rows.
+     * @return itself.
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public Configuration withFetchSize(final int fetchSize) {
+      if (fetchSize <= 0) {
+        throw new IllegalArgumentException("Invalid fetch size: expected positive value");
+      }
+      this.fetchSize = fetchSize;
+      return this;
+    }
+
     @SuppressWarnings("UnusedReturnValue")
     public Configuration ignoreRealOriginalSize() {
       this.needRealOriginalSize = false;
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.template;
+
+import org.antlr.stringtemplate.StringTemplate;
+import org.antlr.stringtemplate.StringTemplateGroup;
+import org.silverpeas.core.util.Charsets;
+import org.silverpeas.core.util.logging.PeriodicStatisticsLogger;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A process-wide cache of the parsed file templates. The templates are cached by the set of
+ * directories into which they are looked for and by their name so that a same template file is
+ * parsed only once whatever the number of {@link SilverpeasStringTemplate} instances rendering
+ * it.
+ * <p>
+ * The resolution of a template against the file system is verified again once the check
+ * interval has elapsed (setting {@code template.cache.checkInterval} in seconds of the
+ * {@code org.silverpeas.util.stringtemplate} bundle). A template is parsed again only if its
+ * resolved file has changed, that is if another file is resolved or if the modification date or
+ * the size of the file is different, or if one of the templates it includes has changed.
+ * </p>
+ * <p>
+ * The hits and the misses of the cache as well as the average rendering time of the templates
+ * are logged once every {@value #LOG_PERIOD} renderings.
+ * </p>
+ */
+public final class CompiledTemplateCache {
+
+  private static final String CHECK_INTERVAL = "template.cache.checkInterval";
+  private static final int DEFAULT_CHECK_INTERVAL = 10;
+  private static final int LOG_PERIOD = 1000;
+  private static final StringTemplateGroup NAME_RESOLVER =
+      new StringTemplateGroup("template-name-resolver", null);
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final long checkIntervalMillis;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final PeriodicStatisticsLogger renderings =
+      new PeriodicStatisticsLogger(LOG_PERIOD, () -> SilverLogger.getLogger(this));
+  private final LongAdder renderNanos = new LongAdder();
+
+  /**
+   * Gets the process-wide cache of the parsed templates.
+   * @return the {@link CompiledTemplateCache} instance.
+   */
+  public static CompiledTemplateCache get() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  CompiledTemplateCache(final long checkIntervalMillis) {
+    this.checkIntervalMillis = checkIntervalMillis;
+  }
+
+  /**
+   * Gets a new instance of the specified template looked for in the given directories, the first
+   * directory having the priority.
+   * @param paths the directories into which the template file is looked for.
+   * @param templateName the name of the template.
+   * @return a new instance of the template or null if no such template file exists or if the
+   * template file is empty.
+   */
+  StringTemplate getInstanceOf(final List<String> paths, final String templateName) {
+    final String key = String.join(File.pathSeparator, paths) + "#" + templateName;
+    final long now = System.currentTimeMillis();
+    Entry entry = entries.get(key);
+    if (entry != null && now - entry.checkedAt < checkIntervalMillis) {
+      hits.increment();
+    } else {
+      entry = entries.compute(key, (k, e) -> refresh(e, paths, templateName, now));
+    }
+    return entry.group == null ? null : entry.group.getInstanceOf(templateName);
+  }
+
+  /**
+   * Records the time spent to render a template.
+   * @param nanos the duration of the rendering in nanoseconds.
+   */
+  void recordRender(final long nanos) {
+    renderNanos.add(nanos);
+    renderings.count(() -> MessageFormat.format("Template cache: {0} hits, {1} misses, " +
+            "{2} templates, average rendering time of {3} microseconds", getHits(), getMisses(),
+        entries.size(), TimeUnit.NANOSECONDS.toMicros(getAverageRenderNanos())));
+  }
+
+  /**
+   * Clears the cache. All the templates will be parsed again at their next use.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Gets the number of requests served without parsing the template file.
+   * @return the number of cache hits.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of requests for which the template file has been resolved and parsed.
+   * @return the number of cache misses.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of file templates rendered so far.
+   * @return the number of renderings.
+   */
+  public long getRenderCount() {
+    return renderings.getCount();
+  }
+
+  /**
+   * Gets the average time spent to render a file template.
+   * @return the average rendering time in nanoseconds or 0 if no template has been rendered.
+   */
+  public long getAverageRenderNanos() {
+    final long count = renderings.getCount();
+    return count == 0 ? 0 : renderNanos.sum() / count;
+  }
+
+  private Entry refresh(final Entry previous, final List<String> paths,
+      final String templateName, final long now) {
+    final String physicalName = NAME_RESOLVER.getFileNameFromTemplateName(templateName);
+    final String rootDir = paths.stream()
+        .filter(p -> new File(p, physicalName).isFile())
+        .findFirst()
+        .orElse(null);
+    final File file = rootDir == null ? null : new File(rootDir, physicalName);
+    if (previous != null && previous.isSameFileAs(file) && !previous.hasChangedDependencies()) {
+      hits.increment();
+      return previous.checkedAt(now);
+    }
+    misses.increment();
+    if (file == null) {
+      return new Entry(null, 0, 0, null, now);
+    }
+    final long length = file.length();
+    // In case the file is empty, StringTemplate is in error because the encoding can't be guessed
+    TrackingTemplateGroup group = null;
+    if (length > 0) {
+      group = new TrackingTemplateGroup(templateName, rootDir);
+      group.setFileCharEncoding(Charsets.UTF_8.name());
+    }
+    return new Entry(file, file.lastModified(), length, group, now);
+  }
+
+  private static class InstanceHolder {
+    private static final CompiledTemplateCache INSTANCE;
+
+    static {
+      final SettingBundle settings =
+          ResourceLocator.getSettingBundle("org.silverpeas.util.stringtemplate");
+      INSTANCE = new CompiledTemplateCache(TimeUnit.SECONDS.toMillis(
+          settings.getInteger(CHECK_INTERVAL, DEFAULT_CHECK_INTERVAL)));
+    }
+  }
+
+  private static class Entry {
+    private final File file;
+    private final long lastModified;
+    private final long length;
+    private final TrackingTemplateGroup group;
+    private final long checkedAt;
+
+    private Entry(final File file, final long lastModified, final long length,
+        final TrackingTemplateGroup group, final long checkedAt) {
+      this.file = file;
+      this.lastModified = lastModified;
+      this.length = length;
+      this.group = group;
+      this.checkedAt = checkedAt;
+    }
+
+    private boolean isSameFileAs(final File other) {
+      if (file == null || other == null) {
+        return file == other;
+      }
+      return file.equals(other) && lastModified == other.lastModified() &&
+          length == other.length();
+    }
+
+    private boolean hasChangedDependencies() {
+      return group != null && group.hasChangedDependencies();
+    }
+
+    private Entry checkedAt(final long time) {
+      return new Entry(file, lastModified, length, group, time);
+    }
+  }
+
+  /**
+   * A group of templates recording the state of the file of each template it loads: the
+   * requested template and the ones it includes, which are loaded at their first rendering.
+   */
+  private static class TrackingTemplateGroup extends StringTemplateGroup {
+    private final Map<String, FileState> dependencies = new ConcurrentHashMap<>();
+
+    private TrackingTemplateGroup(final String name, final String rootDir) {
+      super(name, rootDir);
+    }
+
+    @Override
+    public StringTemplate lookupTemplate(final StringTemplate enclosingInstance,
+        final String name) {
+      final StringTemplate template = super.lookupTemplate(enclosingInstance, name);
+      dependencies.computeIfAbsent(name,
+          n -> new FileState(new File(getRootDir(), getFileNameFromTemplateName(n))));
+      return template;
+    }
+
+    private boolean hasChangedDependencies() {
+      return dependencies.values().stream().anyMatch(FileState::hasChanged);
+    }
+  }
+
+  /**
+   * The state of a template file at the time it was loaded.
+   */
+  private static class FileState {
+    private final File file;
+    private final long lastModified;
+    private final long length;
+
+    private FileState(final File file) {
+      this.file = file;
+      this.lastModified = file.lastModified();
+      this.length = file.length();
+    }
+
+    private boolean hasChanged() {
+      return lastModified != file.lastModified() || length != file.length();
+    }
+  }
+}
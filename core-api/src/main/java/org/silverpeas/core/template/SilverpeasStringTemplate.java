@@ -28,8 +28,6 @@ import org.antlr.stringtemplate.StringTemplate;
 import org.antlr.stringtemplate.StringTemplateGroup;
 import org.silverpeas.core.template.renderer.DateRenderer;
 import org.silverpeas.core.template.renderer.StringRenderer;
-import org.silverpeas.core.util.Charsets;
-import org.silverpeas.kernel.util.Pair;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 
@@ -89,27 +87,17 @@ public class SilverpeasStringTemplate implements SilverpeasTemplate {
 
   @Override
   public String applyFileTemplate(final String fileName) {
-    return paths.stream()
-        .map(d -> Pair.of(d, new StringTemplateGroup(fileName, d)))
-        .map(p -> {
-          final String physicalName = p.getSecond().getFileNameFromTemplateName(fileName);
-          return Pair.of(new File(p.getFirst(), physicalName), p.getSecond());
-        })
-        .filter(p -> {
-          final File file = p.getFirst();
-          return file.exists() && file.isFile();
-        })
-        .findFirst()
-        // In case the file is empty, StringTemplate is in error because the encoding can't be guessed ...
-        .filter(p -> p.getFirst().length() > 0)
-        .map(p -> {
-          final StringTemplateGroup group = p.getSecond();
-          group.setFileCharEncoding(Charsets.UTF_8.name());
-          return group;
-        })
-        .map(g -> g.getInstanceOf(fileName))
-        .map(this::applyAttributes)
-        .orElse("");
+    final CompiledTemplateCache cache = CompiledTemplateCache.get();
+    final StringTemplate template = cache.getInstanceOf(paths, fileName);
+    if (template == null) {
+      return "";
+    }
+    final long start = System.nanoTime();
+    try {
+      return applyAttributes(template);
+    } finally {
+      cache.recordRender(System.nanoTime() - start);
+    }
   }
 
   @Override
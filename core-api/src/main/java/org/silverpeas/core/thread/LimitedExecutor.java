@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.thread;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An executor limiting the number of tasks executed at a same time by another executor. The
+ * tasks beyond the limit are queued and they are passed to the other executor as soon as a
+ * running task is completed.
+ * <p>
+ * It is used to apply the maximum size of thread pool of an
+ * {@link ManagedThreadPool.ExecutionConfig} to a shared executor.
+ * </p>
+ */
+class LimitedExecutor implements Executor {
+
+  private final Executor delegate;
+  private final int limit;
+  private final Queue<Runnable> waitingTasks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger runningTasks = new AtomicInteger(0);
+
+  /**
+   * Constructs a new executor over the specified one.
+   * @param delegate the executor executing the tasks.
+   * @param limit the maximum number of tasks executed at a same time.
+   */
+  LimitedExecutor(final Executor delegate, final int limit) {
+    this.delegate = delegate;
+    this.limit = limit;
+  }
+
+  @Override
+  public void execute(final Runnable task) {
+    waitingTasks.add(task);
+    dispatch();
+  }
+
+  private void dispatch() {
+    while (!waitingTasks.isEmpty()) {
+      final int running = runningTasks.get();
+      if (running >= limit) {
+        return;
+      }
+      if (runningTasks.compareAndSet(running, running + 1)) {
+        final Runnable task = waitingTasks.poll();
+        if (task == null) {
+          runningTasks.decrementAndGet();
+        } else {
+          submit(task);
+        }
+      }
+    }
+  }
+
+  private void submit(final Runnable task) {
+    try {
+      delegate.execute(() -> {
+        try {
+          task.run();
+        } finally {
+          runningTasks.decrementAndGet();
+          dispatch();
+        }
+      });
+    } catch (RuntimeException e) {
+      runningTasks.decrementAndGet();
+      throw e;
+    }
+  }
+}
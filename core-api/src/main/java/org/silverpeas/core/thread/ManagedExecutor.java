@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.thread;
+
+import org.silverpeas.core.cache.service.CacheAccessorProvider;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A long-lived executor of tasks, registered by a name into the {@link ManagedThreadPool} and
+ * shared by all the callers asking for it. Its threads are supplied by the managed thread factory
+ * of the application server; they are kept alive for a while after a task execution in order to
+ * be reused by the next ones, and then they are released.
+ * <p>
+ * As the thread cache is bound to the threads, it is cleared before and after each task so that
+ * no data leaks from one task to another one.
+ * </p>
+ * <p>
+ * The life-cycle of a shared executor is managed by the {@link ManagedThreadPool}: it cannot be
+ * shut down by its users, the requests to shut it down are ignored.
+ * </p>
+ */
+public class ManagedExecutor extends ThreadPoolExecutor {
+
+  private static final long KEEP_ALIVE_TIME_IN_SECONDS = 60;
+
+  private final String name;
+
+  /**
+   * Constructs a new executor with the specified maximum number of threads. When all the threads
+   * are busy, the tasks are queued up to the given capacity; beyond it, the tasks are executed by
+   * the thread submitting them.
+   * @param name the name of the executor.
+   * @param maxThreads the maximum number of threads. Zero or negative value means no limit: a new
+   * thread is then used for each task when no idle one exists.
+   * @param queueCapacity the maximum number of tasks waiting for a thread. Zero or negative value
+   * means no limit.
+   * @param threadFactory the factory of the threads.
+   */
+  ManagedExecutor(final String name, final int maxThreads, final int queueCapacity,
+      final ThreadFactory threadFactory) {
+    super(maxThreads > 0 ? maxThreads : 0, maxThreads > 0 ? maxThreads : Integer.MAX_VALUE,
+        KEEP_ALIVE_TIME_IN_SECONDS, TimeUnit.SECONDS, queueOf(maxThreads, queueCapacity),
+        new NamedThreadFactory(name, threadFactory), ManagedExecutor::runInCaller);
+    this.name = name;
+    if (maxThreads > 0) {
+      allowCoreThreadTimeOut(true);
+    }
+  }
+
+  private static BlockingQueue<Runnable> queueOf(final int maxThreads, final int queueCapacity) {
+    if (maxThreads <= 0) {
+      return new SynchronousQueue<>();
+    }
+    return queueCapacity > 0 ? new LinkedBlockingQueue<>(queueCapacity) :
+        new LinkedBlockingQueue<>();
+  }
+
+  private static void runInCaller(final Runnable task, final ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("The executor is terminated");
+    }
+    task.run();
+  }
+
+  /**
+   * Gets the name under which this executor is registered.
+   * @return the executor name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the number of tasks waiting for a thread.
+   * @return the length of the queue of tasks.
+   */
+  public int getQueueLength() {
+    return getQueue().size();
+  }
+
+  @Override
+  protected void beforeExecute(final Thread t, final Runnable r) {
+    CacheAccessorProvider.getThreadCacheAccessor().getCache().clear();
+    super.beforeExecute(t, r);
+  }
+
+  @Override
+  protected void afterExecute(final Runnable r, final Throwable t) {
+    super.afterExecute(r, t);
+    CacheAccessorProvider.getThreadCacheAccessor().getCache().clear();
+  }
+
+  /**
+   * Does nothing: the executor is shared and its life-cycle is managed by the
+   * {@link ManagedThreadPool}. So it can be handed out as a plain
+   * {@link java.util.concurrent.ExecutorService} without any risk for the other users of it.
+   */
+  @Override
+  public void shutdown() {
+    warnShutdownIgnored();
+  }
+
+  /**
+   * Does nothing: the executor is shared and its life-cycle is managed by the
+   * {@link ManagedThreadPool}. The running tasks go on and the waiting ones are kept.
+   * @return an empty list as no waiting task is discarded.
+   */
+  @Override
+  public List<Runnable> shutdownNow() {
+    warnShutdownIgnored();
+    return Collections.emptyList();
+  }
+
+  private void warnShutdownIgnored() {
+    SilverLogger.getLogger(this)
+        .warn("The shared executor {0} cannot be shut down by its users: request ignored", name);
+  }
+
+  /**
+   * Terminates this executor: the running tasks are interrupted and the waiting ones are
+   * discarded.
+   */
+  void terminate() {
+    super.shutdownNow();
+  }
+
+  @Override
+  public String toString() {
+    return "ManagedExecutor{name=" + name + ", maxThreads=" + getMaximumPoolSize() +
+        ", poolSize=" + getPoolSize() + ", activeThreads=" + getActiveCount() + ", queueLength=" +
+        getQueueLength() + ", completedTasks=" + getCompletedTaskCount() + "}";
+  }
+
+  /**
+   * Names the threads supplied by the managed thread factory after the executor.
+   */
+  private static class NamedThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    private NamedThreadFactory(final String name, final ThreadFactory threadFactory) {
+      this.prefix = name + "-";
+      this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public Thread newThread(final Runnable r) {
+      final Thread thread = threadFactory.newThread(r);
+      thread.setName(prefix + counter.incrementAndGet());
+      return thread;
+    }
+  }
+}
@@ -28,18 +28,25 @@ import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.kernel.logging.SilverLogger;
 
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.enterprise.concurrent.ManagedThreadFactory;
 import javax.inject.Singleton;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -54,6 +61,12 @@ import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.defau
  * {@link java.util.concurrent.Callable} by using the managed thread pools provided by the
  * application server.
  * </p>
+ * <p>
+ * The executions awaited or returning futures are performed by long-lived shared executors so
+ * that the threads are reused from one invocation to another one. Other named executors can be
+ * registered for the needs of the different services (see {@link #getExecutor(String, int)}); they
+ * are all accessible for monitoring purpose with {@link #getExecutors()}.
+ * </p>
  * @author Yohann Chastagnier
  */
 @Technical
@@ -61,9 +74,13 @@ import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.defau
 @Singleton
 public class ManagedThreadPool {
 
+  private static final String DEFAULT_EXECUTOR = "managed-thread-pool";
+
   @Resource
   private ManagedThreadFactory managedThreadFactory;
 
+  private final Map<String, ManagedExecutor> executors = new ConcurrentHashMap<>();
+
   protected ManagedThreadPool() {
     // constructor to be used only by the IoD container
   }
@@ -77,6 +94,50 @@ public class ManagedThreadPool {
     return ServiceProvider.getService(ManagedThreadPool.class);
   }
 
+  @PreDestroy
+  private void release() {
+    executors.values().forEach(ManagedExecutor::terminate);
+    executors.clear();
+  }
+
+  /**
+   * Gets the shared executor registered under the specified name, creating it if it doesn't yet
+   * exist. The tasks waiting for a thread are queued without limit.
+   * @param name the name of the executor.
+   * @param maxThreads the maximum number of threads of the executor. Zero or negative value means
+   * no limit. It is taken into account only at the creation of the executor.
+   * @return the {@link ManagedExecutor} instance registered under the given name.
+   */
+  public ManagedExecutor getExecutor(final String name, final int maxThreads) {
+    return getExecutor(name, maxThreads, 0);
+  }
+
+  /**
+   * Gets the shared executor registered under the specified name, creating it if it doesn't yet
+   * exist. When the queue of the tasks waiting for a thread is full, a new task is executed by the
+   * thread submitting it.
+   * @param name the name of the executor.
+   * @param maxThreads the maximum number of threads of the executor. Zero or negative value means
+   * no limit. It is taken into account only at the creation of the executor.
+   * @param queueCapacity the maximum number of tasks waiting for a thread. Zero or negative value
+   * means no limit. It is taken into account only at the creation of the executor.
+   * @return the {@link ManagedExecutor} instance registered under the given name.
+   */
+  public ManagedExecutor getExecutor(final String name, final int maxThreads,
+      final int queueCapacity) {
+    return executors.computeIfAbsent(name,
+        n -> new ManagedExecutor(n, maxThreads, queueCapacity, managedThreadFactory));
+  }
+
+  /**
+   * Gets all the shared executors currently registered. Useful to monitor the activity of the
+   * threads: number of active threads, length of the queue of waiting tasks, and so on.
+   * @return an unmodifiable collection of {@link ManagedExecutor} instances.
+   */
+  public Collection<ManagedExecutor> getExecutors() {
+    return Collections.unmodifiableCollection(executors.values());
+  }
+
   /**
    * Invokes the given {@link java.lang.Runnable} instances into a managed thread.<br>
    * Each {@link java.lang.Runnable} instance will be used one managed thread.<br>
@@ -151,26 +212,15 @@ public class ManagedThreadPool {
   public void invokeAndAwaitTermination(Stream<? extends Runnable> runnables,
       ExecutionConfig config) throws ManagedThreadPoolException {
     try {
-      ExecutorService executorService = getExecutorService(config);
-      List<Future<?>> threadExecutionResults = new ArrayList<>();
-      try {
-        threadExecutionResults
-            .addAll(runnables.map(executorService::submit).collect(Collectors.toList()));
-      } finally {
-        executorService.shutdown();
-      }
+      final Executor executor = getExecutor(config);
+      final List<Execution<Void>> executions = runnables
+          .map(r -> new Execution<Void>(r, null, r.getClass()))
+          .collect(Collectors.toList());
+      executions.forEach(executor::execute);
       if (config.isTimeout()) {
-        boolean allRunnablesAreTerminated =
-            executorService.awaitTermination(config.getTimeout(), config.getTimeUnit());
-        if (!allRunnablesAreTerminated && !config.isRunningInBackgroundAfterTimeout()) {
-          List<Runnable> notExecutedRunnables = executorService.shutdownNow();
-          for (Runnable noExecutedRunnable : notExecutedRunnables) {
-            SilverLogger.getLogger(config).error("Runnable {0} has not been processed.",
-                noExecutedRunnable.getClass().getName());
-          }
-        }
+        awaitTermination(executions, config);
       } else {
-        for (Future<?> future : threadExecutionResults) {
+        for (Future<?> future : executions) {
           future.get();
         }
       }
@@ -245,47 +295,108 @@ public class ManagedThreadPool {
    */
   public <V> List<Future<V>> invoke(List<? extends Callable<V>> callables,
       ExecutionConfig config) throws InterruptedException {
-    ExecutorService executorService = getExecutorService(config);
-    List<Future<V>> futures = new ArrayList<>();
-    try {
-      for (Callable<V> callable : callables) {
-        futures.add(executorService.submit(callable));
-      }
-    } finally {
-      executorService.shutdown();
+    final Executor executor = getExecutor(config);
+    final List<Execution<V>> executions = new ArrayList<>(callables.size());
+    for (Callable<V> callable : callables) {
+      final Execution<V> execution = new Execution<>(callable, callable.getClass());
+      executions.add(execution);
+      executor.execute(execution);
     }
     if (config.isTimeout()) {
-      boolean allRunnablesAreTerminated =
-          executorService.awaitTermination(config.getTimeout(), config.getTimeUnit());
-      if (!allRunnablesAreTerminated && !config.isRunningInBackgroundAfterTimeout()) {
-        List<Runnable> notExecutedRunnables = executorService.shutdownNow();
-        for (Runnable noExecutedRunnable : notExecutedRunnables) {
+      awaitTermination(executions, config);
+    }
+    return new ArrayList<>(executions);
+  }
+
+  /**
+   * Waits for the end of the given executions until the timeout of the specified configuration.
+   * If the timeout is reached, the executions not yet ended are cancelled if asked by the
+   * configuration.
+   * @param executions the executions to wait for.
+   * @param config the configuration of thread execution.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  private void awaitTermination(final List<? extends Execution<?>> executions,
+      final ExecutionConfig config) throws InterruptedException {
+    final long deadline = System.nanoTime() + config.getTimeUnit().toNanos(config.getTimeout());
+    boolean allTerminated = true;
+    for (Execution<?> execution : executions) {
+      final long remaining = deadline - System.nanoTime();
+      if (!execution.isDone() && !waitFor(execution, remaining)) {
+        allTerminated = false;
+        break;
+      }
+    }
+    if (!allTerminated && !config.isRunningInBackgroundAfterTimeout()) {
+      for (Execution<?> execution : executions) {
+        if (!execution.isStarted()) {
           SilverLogger.getLogger(config).error("Runnable {0} has not been processed.",
-              noExecutedRunnable.getClass().getName());
+              execution.getTaskType().getName());
         }
+        execution.cancel(true);
       }
     }
-    return futures;
+  }
+
+  private static boolean waitFor(final Future<?> future, final long timeoutInNanos)
+      throws InterruptedException {
+    if (timeoutInNanos <= 0) {
+      return false;
+    }
+    try {
+      future.get(timeoutInNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      return false;
+    } catch (ExecutionException | CancellationException e) {
+      // the execution is terminated, whatever its result
+    }
+    return true;
   }
 
   /**
-   * Gets a new executor service according to the given configuration.
+   * Gets the executor to use according to the given configuration. It is the default shared
+   * executor, limited to the maximum size of thread pool of the configuration if any.
    * @param config the configuration of thread execution.
-   * @return the new {@link ExecutorService} instance.
+   * @return an {@link Executor} instance.
    */
-  private ExecutorService getExecutorService(ExecutionConfig config) {
-    final ExecutorService executorService;
+  private Executor getExecutor(ExecutionConfig config) {
+    final ManagedExecutor sharedExecutor = getExecutor(DEFAULT_EXECUTOR, 0);
     final int maxThreadPoolSize = config.getMaxThreadPoolSize();
-    if (maxThreadPoolSize > 0) {
-      if (maxThreadPoolSize == 1) {
-        executorService = Executors.newSingleThreadExecutor(this.managedThreadFactory);
-      } else {
-        executorService = Executors.newFixedThreadPool(maxThreadPoolSize, this.managedThreadFactory);
-      }
-    } else {
-      executorService = Executors.newCachedThreadPool(this.managedThreadFactory);
+    return maxThreadPoolSize > 0 ? new LimitedExecutor(sharedExecutor, maxThreadPoolSize) :
+        sharedExecutor;
+  }
+
+  /**
+   * An execution of a task whose start is tracked.
+   * @param <V> the type of the result of the task.
+   */
+  private static class Execution<V> extends FutureTask<V> {
+    private final Class<?> taskType;
+    private volatile boolean started = false;
+
+    private Execution(final Callable<V> callable, final Class<?> taskType) {
+      super(callable);
+      this.taskType = taskType;
+    }
+
+    private Execution(final Runnable runnable, final V result, final Class<?> taskType) {
+      super(runnable, result);
+      this.taskType = taskType;
+    }
+
+    @Override
+    public void run() {
+      started = true;
+      super.run();
+    }
+
+    boolean isStarted() {
+      return started;
+    }
+
+    Class<?> getTaskType() {
+      return taskType;
     }
-    return executorService;
   }
 
   /**
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.util.logging;
+
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A counter of some operations (lookups in a cache, renderings, replays, ...) that logs at info
+ * level some statistics about them once every given number of operations. This is for following
+ * in the logs the efficiency of a cache without flooding them.
+ */
+public class PeriodicStatisticsLogger {
+
+  private final long period;
+  private final Supplier<SilverLogger> logger;
+  private final AtomicLong count = new AtomicLong(0);
+
+  /**
+   * Constructs a new logger of statistics.
+   * @param period the number of operations between two logs of the statistics.
+   * @param logger the provider of the logger with which the statistics are logged.
+   */
+  public PeriodicStatisticsLogger(final long period, final Supplier<SilverLogger> logger) {
+    this.period = Math.max(1, period);
+    this.logger = logger;
+  }
+
+  /**
+   * Counts an operation and logs the statistics given by the specified supplier if the period is
+   * reached.
+   * @param statistics the supplier of the statistics to log. It is invoked only when the
+   * statistics are logged.
+   */
+  public void count(final Supplier<String> statistics) {
+    if (count.incrementAndGet() % period == 0) {
+      logger.get().info("{0}", statistics.get());
+    }
+  }
+
+  /**
+   * Gets the number of operations counted so far.
+   * @return the number of operations.
+   */
+  public long getCount() {
+    return count.get();
+  }
+}
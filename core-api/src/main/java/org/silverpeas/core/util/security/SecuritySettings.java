@@ -96,6 +96,15 @@ public class SecuritySettings {
     return settings.getString("security.web.protection.injection.xss.skipped.parameters", "");
   }
 
+  /**
+   * Gets the time budget allowed to the verification of the SQL and XSS injections in a request.
+   * Beyond it, the request is rejected.
+   * @return the time budget in milliseconds. Zero or a negative value means no time budget.
+   */
+  public static long getWebInjectionVerificationTimeBudget() {
+    return settings.getLong("security.web.protection.injection.budget", 0L);
+  }
+
   /**
    * Is the security mechanism based on the synchronizer token pattern enabled?
    * @return true if the security mechanism is enabled for Silverpeas, false otherwise.
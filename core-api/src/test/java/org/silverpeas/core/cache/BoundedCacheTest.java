@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.cache;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@UnitTest
+class BoundedCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void hitsAndMissesAreCounted() {
+    final BoundedCache<String, String> cache = new BoundedCache<>(0, null);
+    cache.put("a", "A");
+    assertThat(cache.get("a"), is(Optional.of("A")));
+    assertThat(cache.get("b"), is(Optional.empty()));
+    assertThat(cache.get("a"), is(Optional.of("A")));
+    final BoundedCache.Statistics statistics = cache.getStatistics();
+    assertThat(statistics.getHits(), is(2L));
+    assertThat(statistics.getMisses(), is(1L));
+    assertThat(statistics.getHitRatio(), closeTo(2d / 3, 0.001));
+  }
+
+  @Test
+  void theLeastRecentlyAccessedEntriesAreEvictedWhenTheMaxSizeIsExceeded() {
+    final BoundedCache<Integer, String> cache = new BoundedCache<>(10, null, clock::get);
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, "v" + i);
+      clock.incrementAndGet();
+    }
+    // the first entry is accessed so it is now the most recently used one
+    assertThat(cache.get(0).isPresent(), is(true));
+    clock.incrementAndGet();
+    cache.put(10, "v10");
+    assertThat(cache.size(), is(9));
+    assertThat(cache.getStatistics().getEvictions(), is(2L));
+    assertThat(cache.get(0).isPresent(), is(true));
+    assertThat(cache.get(1).isPresent(), is(false));
+    assertThat(cache.get(2).isPresent(), is(false));
+    assertThat(cache.get(10).isPresent(), is(true));
+  }
+
+  @Test
+  void expiredEntriesAreNotReturned() {
+    final BoundedCache<String, String> cache =
+        new BoundedCache<>(0, Duration.ofMillis(20), clock::get);
+    cache.put("a", "A");
+    clock.addAndGet(Duration.ofMillis(19).toNanos());
+    assertThat(cache.get("a").isPresent(), is(true));
+    clock.addAndGet(Duration.ofMillis(1).toNanos());
+    assertThat(cache.get("a").isPresent(), is(false));
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getStatistics().getExpirations(), is(1L));
+  }
+
+  @Test
+  void entriesCanBeRemovedSelectively() {
+    final BoundedCache<String, String> cache = new BoundedCache<>(0, null);
+    cache.put("user1@1", "A");
+    cache.put("user1@2", "B");
+    cache.put("user2@1", "C");
+    cache.removeIf((k, v) -> k.startsWith("user1@"));
+    assertThat(cache.size(), is(1));
+    assertThat(cache.values(), contains("C"));
+  }
+
+  @Test
+  void computeIfAbsentCachesTheComputedValue() {
+    final BoundedCache<String, String> cache = new BoundedCache<>(0, null);
+    assertThat(cache.computeIfAbsent("a", String::toUpperCase), is("A"));
+    assertThat(cache.computeIfAbsent("a", k -> "other"), is("A"));
+    assertThat(cache.computeIfAbsent("b", k -> null), nullValue());
+    assertThat(cache.size(), is(1));
+  }
+
+  @Test
+  void aValueComputedWhileAnInvalidationIsNotCached() {
+    final BoundedCache<String, String> cache = new BoundedCache<>(0, null);
+    cache.put("b", "B");
+    assertThat(cache.computeIfAbsent("a", k -> {
+      cache.remove("b");
+      return "A";
+    }), is("A"));
+    assertThat(cache.get("a"), is(Optional.empty()));
+    assertThat(cache.computeIfAbsent("a", String::toUpperCase), is("A"));
+    assertThat(cache.get("a"), is(Optional.of("A")));
+  }
+
+  @Test
+  void theEvictionSupportsConcurrentAccesses() throws Exception {
+    final BoundedCache<Integer, String> cache = new BoundedCache<>(100, null);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> tasks = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        final int seed = t;
+        tasks.add(executor.submit(() -> {
+          for (int i = 0; i < 20000; i++) {
+            final int key = (i * 31 + seed) % 500;
+            if (cache.get(key).isEmpty()) {
+              cache.put(key, "v" + key);
+            }
+          }
+        }));
+      }
+      for (Future<?> task : tasks) {
+        // any failure of the eviction is thrown here
+        task.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(cache.getStatistics().getEvictions(), greaterThan(0L));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.persistence.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdentifierBlockTest {
+
+  /**
+   * Simulates the UniqueId table: the max id is updated by the size of each reserved block.
+   */
+  private static class UniqueIdTable implements IntUnaryOperator {
+    private final AtomicInteger maxId = new AtomicInteger(0);
+    private final AtomicInteger reservations = new AtomicInteger(0);
+
+    @Override
+    public int applyAsInt(final int size) {
+      reservations.incrementAndGet();
+      return maxId.getAndAdd(size) + 1;
+    }
+  }
+
+  @Test
+  void aBlockSizeMustBePositive() {
+    final UniqueIdTable table = new UniqueIdTable();
+    assertThrows(IllegalArgumentException.class, () -> new IdentifierBlock(0, table));
+  }
+
+  @Test
+  void identifiersAreHandedOutFromTheReservedBlock() {
+    final UniqueIdTable table = new UniqueIdTable();
+    final IdentifierBlock block = new IdentifierBlock(10, table);
+    for (int i = 1; i <= 25; i++) {
+      assertThat(block.next(), is(i));
+    }
+    assertThat(table.reservations.get(), is(3));
+    assertThat(table.maxId.get(), is(30));
+  }
+
+  @Test
+  void aBlockOfOneReservesEachIdentifier() {
+    final UniqueIdTable table = new UniqueIdTable();
+    final IdentifierBlock block = new IdentifierBlock(1, table);
+    assertThat(block.next(), is(1));
+    assertThat(block.next(), is(2));
+    assertThat(table.reservations.get(), is(2));
+    assertThat(table.maxId.get(), is(2));
+  }
+
+  @Test
+  void severalNodesSharingTheSameTableNeverGetTheSameIdentifier() throws Exception {
+    final UniqueIdTable table = new UniqueIdTable();
+    final IdentifierBlock node1 = new IdentifierBlock(7, table);
+    final IdentifierBlock node2 = new IdentifierBlock(13, table);
+    final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    final int nbPerTask = 1000;
+    final List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      final IdentifierBlock node = i % 2 == 0 ? node1 : node2;
+      tasks.add(() -> {
+        for (int j = 0; j < nbPerTask; j++) {
+          assertThat(ids.add(node.next()), is(true));
+        }
+        return null;
+      });
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (Future<Void> result : executor.invokeAll(tasks)) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(ids.size(), is(8 * nbPerTask));
+    assertThat(table.maxId.get(), greaterThanOrEqualTo(8 * nbPerTask));
+  }
+}
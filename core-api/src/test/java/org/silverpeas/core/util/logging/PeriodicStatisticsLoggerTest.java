@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.util.logging;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.logging.SilverLogger;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Unit tests on the periodic logging of statistics.
+ */
+@UnitTest
+class PeriodicStatisticsLoggerTest {
+
+  private final SilverLogger logger = mock(SilverLogger.class);
+  private final AtomicInteger computations = new AtomicInteger();
+
+  @Test
+  void theStatisticsAreLoggedOnceEveryPeriod() {
+    final PeriodicStatisticsLogger statistics = new PeriodicStatisticsLogger(3, () -> logger);
+    for (int i = 0; i < 7; i++) {
+      statistics.count(() -> "stats " + computations.incrementAndGet());
+    }
+    assertThat(statistics.getCount(), is(7L));
+    assertThat(computations.get(), is(2));
+    verify(logger).info("{0}", "stats 1");
+    verify(logger).info("{0}", "stats 2");
+    verifyNoMoreInteractions(logger);
+  }
+
+  @Test
+  void nothingIsLoggedBeforeTheEndOfTheFirstPeriod() {
+    final PeriodicStatisticsLogger statistics = new PeriodicStatisticsLogger(10, () -> logger);
+    for (int i = 0; i < 9; i++) {
+      statistics.count(() -> "stats " + computations.incrementAndGet());
+    }
+    assertThat(computations.get(), is(0));
+    verifyNoInteractions(logger);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.contribution.content.form.record;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.shrinkwrap.api.Archive;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.silverpeas.core.contribution.content.form.DataRecord;
+import org.silverpeas.core.test.WarBuilder4LibCore;
+import org.silverpeas.core.test.integration.rule.DbSetupRule;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Integration tests about the loading at once of the form records of several resources.
+ */
+@RunWith(Arquillian.class)
+public class GenericRecordSetManagerIT {
+
+  private static final String TABLE_CREATION_SCRIPT = "create-database.sql";
+  private static final String DATASET_SCRIPT = "test-form-records-dataset.sql";
+
+  private GenericRecordSetManager manager;
+  private IdentifiedRecordTemplate template;
+
+  @Rule
+  public DbSetupRule dbSetupRule =
+      DbSetupRule.createTablesFrom(TABLE_CREATION_SCRIPT).loadInitialDataSetFrom(DATASET_SCRIPT);
+
+  @Deployment
+  public static Archive<?> createTestArchive() {
+    return WarBuilder4LibCore
+        .onWarForTestClass(GenericRecordSetManagerIT.class)
+        .addDatabaseToolFeatures()
+        .addSilverpeasExceptionBases()
+        .addOrganisationFeatures()
+        .addPublicationTemplateFeatures()
+        .testFocusedOn(
+            war -> war.addAsResource("org/silverpeas/core/contribution/content/form/record"))
+        .build();
+  }
+
+  @Before
+  public void setup() throws Exception {
+    manager = GenericRecordSetManager.getInstance();
+    GenericRecordSet recordSet = (GenericRecordSet) manager.getRecordSet("kmelia1:model");
+    template = (IdentifiedRecordTemplate) recordSet.getRecordTemplate();
+  }
+
+  @Test
+  public void recordsAreLoadedAtOnceInTheOrderOfTheGivenIds() throws Exception {
+    Map<String, DataRecord> records = manager.getRecords(template, Arrays.asList("2", "1"), null);
+
+    assertThat(records.keySet(), contains("2", "1"));
+    assertThat(records.get("1").getId(), is("1"));
+    assertThat(records.get("1").getField("title").getStringValue(), is("Title 1"));
+    assertThat(records.get("1").getField("summary").getStringValue(), is("Summary 1"));
+    assertThat(records.get("2").getId(), is("2"));
+    assertThat(records.get("2").getField("title").getStringValue(), is("Title 2"));
+    assertThat(records.get("2").getField("summary").isNull(), is(true));
+  }
+
+  @Test
+  public void recordsLoadedAtOnceAreTheSameThanTheOnesLoadedOneByOne() throws Exception {
+    Map<String, DataRecord> records = manager.getRecords(template, Arrays.asList("1", "2"), null);
+
+    for (String id : Arrays.asList("1", "2")) {
+      DataRecord expected = manager.getRecord(template, id);
+      DataRecord actual = records.get(id);
+      assertThat(actual.getId(), is(expected.getId()));
+      assertThat(actual.getLanguage(), is(expected.getLanguage()));
+      for (String fieldName : template.getFieldNames()) {
+        assertThat(actual.getField(fieldName).getStringValue(),
+            is(expected.getField(fieldName).getStringValue()));
+      }
+    }
+  }
+
+  @Test
+  public void noRecordIsLoadedForNoIds() throws Exception {
+    Map<String, DataRecord> records = manager.getRecords(template, Collections.emptyList(), null);
+    assertThat(records.isEmpty(), is(true));
+  }
+
+  @Test
+  public void missingRecordsAndRecordsOfAnotherTemplateAreSkipped() throws Exception {
+    Map<String, DataRecord> records =
+        manager.getRecords(template, Arrays.asList("3", "1", "4", "1"), null);
+
+    assertThat(records.keySet(), contains("1"));
+    assertThat(records.get("1").getField("title").getStringValue(), is("Title 1"));
+  }
+}
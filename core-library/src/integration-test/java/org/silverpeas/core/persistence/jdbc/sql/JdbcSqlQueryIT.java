@@ -47,6 +47,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -340,6 +342,45 @@ public class JdbcSqlQueryIT {
     assertThat(rows.get(1).getRight(), is("value_60"));
   }
 
+  @Test
+  public void streamAllRowsWithASmallFetchSize() throws SQLException {
+    try (Stream<Pair<Long, String>> rows = select("*").from("a_table")
+        .where("value like ?", "%0")
+        .orderBy("id desc")
+        .configure(config -> config.withFetchSize(3))
+        .stream(new TableResultProcess())) {
+      final List<String> values = rows.map(Pair::getRight).collect(Collectors.toList());
+      assertThat(values, hasSize(10));
+      assertThat(values.get(0), is("value_90"));
+      assertThat(values.get(9), is("value_0"));
+    }
+  }
+
+  @Test
+  public void streamRowsWithOffsetAndLimit() throws SQLException {
+    try (Stream<Pair<Long, String>> rows = select("*").from("a_table")
+        .where("value like ?", "%0")
+        .orderBy("id desc")
+        .configure(config -> config.withOffset(2).withResultLimit(5))
+        .stream(new TableResultProcess(false))) {
+      final List<String> values = rows.map(Pair::getRight).collect(Collectors.toList());
+      assertThat(values, contains("value_70", "value_60", "value_50", "value_40", "value_30"));
+    }
+  }
+
+  @Test
+  public void streamOnlyTheFirstRowsWithAnExistingConnection() throws Exception {
+    try (Connection connection = dbSetupRule.getSafeConnectionFromDifferentThread()) {
+      try (Stream<Pair<Long, String>> rows = select("*").from("a_table")
+          .orderBy("id")
+          .streamWith(connection, new TableResultProcess())) {
+        assertThat(rows.limit(2).map(Pair::getLeft).collect(Collectors.toList()),
+            contains(0L, 1L));
+      }
+      assertThat(connection.isClosed(), is(false));
+    }
+  }
+
   @Test
   public void createRowUsingAppendSaveParameter() {
     assertThat(getTableLines(), hasSize(100));
@@ -418,6 +459,45 @@ public class JdbcSqlQueryIT {
     assertThat(getTableLines().get(38), is("38@value_38_updated"));
   }
 
+  @Test
+  public void createRowsInBatchBySeveralBatches() {
+    assertThat(getTableLines(), hasSize(100));
+    final JdbcSqlQueries insertions = new JdbcSqlQueries();
+    for (int i = 200; i < 225; i++) {
+      insertions.add(JdbcSqlQuery.insertInto("a_table")
+          .withInsertParam("id", i)
+          .withInsertParam("value", "value_" + i + "_inserted"));
+    }
+    Transaction.performInOne(() -> {
+      try (Connection connection = dbSetupRule.getSafeConnectionFromDifferentThread()) {
+        long insertCount = insertions.executeInBatchWith(connection, 10);
+        assertThat(insertCount, is(25L));
+        return null;
+      }
+    });
+    assertThat(getTableLines(), hasSize(125));
+    assertThat(getTableLines().get(100), is("200@value_200_inserted"));
+    assertThat(getTableLines().get(124), is("224@value_224_inserted"));
+  }
+
+  @Test
+  public void updateAndDeleteRowsInBatchKeepTheOrderOfTheQueries() {
+    assertThat(getTableLines(), hasSize(100));
+    final JdbcSqlQueries queries = new JdbcSqlQueries();
+    queries.add(update("a_table").withUpdateParam("value", "value_26_updated").where("id = ?", 26));
+    queries.add(update("a_table").withUpdateParam("value", "value_38_updated").where("id = ?", 38));
+    queries.add(deleteFrom("a_table").where("id = ?", 26));
+    queries.add(update("a_table").withUpdateParam("value", "value_200_updated").where("id = ?", 200));
+    Transaction.performInOne(() -> {
+      long modificationCount = queries.executeInBatch();
+      assertThat(modificationCount, is(3L));
+      return null;
+    });
+    assertThat(getTableLines(), hasSize(99));
+    assertThat(getTableLines().get(26), is("27@value_27"));
+    assertThat(getTableLines().get(37), is("38@value_38_updated"));
+  }
+
   @Test
   public void deleteRows() {
     assertThat(getTableLines(), hasSize(100));
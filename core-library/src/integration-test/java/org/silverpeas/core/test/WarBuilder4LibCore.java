@@ -62,11 +62,6 @@ import org.silverpeas.core.admin.user.model.UserFull;
 import org.silverpeas.core.admin.user.model.UserLog;
 import org.silverpeas.core.admin.user.model.UserReference;
 import org.silverpeas.core.cache.VolatileResourceCleaner;
-import org.silverpeas.core.calendar.ical4j.ICal4JCalendarEventOccurrenceGenerator;
-import org.silverpeas.core.calendar.ical4j.ICal4JDateCodec;
-import org.silverpeas.core.calendar.ical4j.ICal4JExporter;
-import org.silverpeas.core.calendar.ical4j.ICal4JImporter;
-import org.silverpeas.core.calendar.ical4j.ICal4JRecurrenceCodec;
 import org.silverpeas.core.calendar.repository.DefaultCalendarEventOccurrenceRepository;
 import org.silverpeas.core.calendar.repository.DefaultCalendarEventRepository;
 import org.silverpeas.core.calendar.repository.DefaultCalendarRepository;
@@ -771,14 +766,10 @@ public class WarBuilder4LibCore extends WarBuilder<WarBuilder4LibCore> {
   public WarBuilder4LibCore addCalendarBaseFeatures() {
     addMavenDependenciesWithPersistence("org.silverpeas.core:silverpeas-core-api");
     addClasses(
-        ICal4JCalendarEventOccurrenceGenerator.class,
         DefaultCalendarEventOccurrenceRepository.class,
         DefaultCalendarRepository.class,
-        DefaultCalendarEventRepository.class,
-        ICal4JImporter.class,
-        ICal4JExporter.class,
-        ICal4JDateCodec.class,
-        ICal4JRecurrenceCodec.class);
+        DefaultCalendarEventRepository.class);
+    addPackages(false, "org.silverpeas.core.calendar.ical4j");
     return this;
   }
 
@@ -0,0 +1,15 @@
+INSERT INTO sb_formtemplate_template (templateid,externalid,templatename) VALUES (1,'kmelia1:model',null);
+INSERT INTO sb_formtemplate_template (templateid,externalid,templatename) VALUES (2,'kmelia2:model',null);
+
+INSERT INTO sb_formtemplate_templatefield (templateid,fieldname,fieldindex,fieldtype,ismandatory,isreadonly,ishidden) VALUES (1,'title',0,'text',0,0,0);
+INSERT INTO sb_formtemplate_templatefield (templateid,fieldname,fieldindex,fieldtype,ismandatory,isreadonly,ishidden) VALUES (1,'summary',1,'text',0,0,0);
+INSERT INTO sb_formtemplate_templatefield (templateid,fieldname,fieldindex,fieldtype,ismandatory,isreadonly,ishidden) VALUES (2,'title',0,'text',0,0,0);
+
+INSERT INTO sb_formtemplate_record (recordid,templateid,externalid,lang) VALUES (1,1,'1',null);
+INSERT INTO sb_formtemplate_record (recordid,templateid,externalid,lang) VALUES (2,1,'2',null);
+INSERT INTO sb_formtemplate_record (recordid,templateid,externalid,lang) VALUES (4,2,'4',null);
+
+INSERT INTO sb_formtemplate_textfield (recordid,fieldname,fieldvalue,fieldvalueindex) VALUES (1,'title','Title 1',0);
+INSERT INTO sb_formtemplate_textfield (recordid,fieldname,fieldvalue,fieldvalueindex) VALUES (1,'summary','Summary 1',0);
+INSERT INTO sb_formtemplate_textfield (recordid,fieldname,fieldvalue,fieldvalueindex) VALUES (2,'title','Title 2',0);
+INSERT INTO sb_formtemplate_textfield (recordid,fieldname,fieldvalue,fieldvalueindex) VALUES (4,'title','Title 4',0);
@@ -87,4 +87,46 @@ public class AdminSettings {
   public static int getDeletionOfRemovedGroupsDayDelay() {
     return settings.getInteger("DeleteRemovedGroupsDelay", 30);
   }
+
+  /**
+   * Gets the maximum number of entries in each of the administration caches of data computed per
+   * user (user details, manageable spaces, available components, profiles).
+   * @return the maximum size of a cache, 0 or less for no limit.
+   */
+  public static int getUserCacheMaxSize() {
+    return settings.getInteger("cache.user.maxSize", 20000);
+  }
+
+  /**
+   * Gets the maximum number of entries in each of the administration caches of the
+   * organizational structure (spaces, component instances and profiles).
+   * @return the maximum size of a cache, 0 or less for no limit.
+   */
+  public static int getStructureCacheMaxSize() {
+    return settings.getInteger("cache.structure.maxSize", 0);
+  }
+
+  /**
+   * Gets the time to live in seconds of an entry in the administration caches.
+   * @return the time to live in seconds, 0 or less for no expiration.
+   */
+  public static int getCacheTimeToLive() {
+    return settings.getInteger("cache.timeToLive", 0);
+  }
+
+  /**
+   * Gets the maximum number of API tokens whose user is kept in cache once resolved.
+   * @return the maximum size of the cache, 0 or less for no caching.
+   */
+  public static int getTokenCacheMaxSize() {
+    return settings.getInteger("cache.token.maxSize", 1000);
+  }
+
+  /**
+   * Gets the time to live in seconds of the user resolved from an API token in the cache.
+   * @return the time to live in seconds, 0 or less for no expiration.
+   */
+  public static int getTokenCacheTimeToLive() {
+    return settings.getInteger("cache.token.timeToLive", 60);
+  }
 }
@@ -202,6 +202,8 @@ class DefaultAdministration implements Administration {
   @Inject
   private GroupCache groupCache;
   @Inject
+  private GroupHierarchy groupHierarchy;
+  @Inject
   private SynchroGroupManager synchroGroupManager;
 
   private void setup() {
@@ -238,6 +240,7 @@ class DefaultAdministration implements Administration {
     cache.resetCache();
     treeCache.clearCache();
     groupCache.clearCache();
+    groupHierarchy.clear();
     try {
 
       List<SpaceInstLight> spaces = spaceManager.getAllSpaces();
@@ -596,7 +599,7 @@ class DefaultAdministration implements Administration {
           isInheritanceBlocked())) {
         updateSpaceInheritance(oldSpace, spaceInstNew.isInheritanceBlocked());
       }
-      cache.opUpdateSpace(spaceInstNew);
+      cache.opUpdateSpace(oldSpace, spaceInstNew);
       Optional<SpaceInstLight> spaceInCache =
           treeCache.getSpaceInstLight(spaceInstNew.getLocalId());
       spaceInCache.ifPresent(s -> s.setInheritanceBlocked(spaceInstNew.isInheritanceBlocked()));
@@ -1448,7 +1451,8 @@ class DefaultAdministration implements Administration {
     }
 
     // reset caches
-    cache.resetSpaceInst();
+    cache.opMoveSpace(String.valueOf(shortSpaceId), String.valueOf(shortOldSpaceId),
+        String.valueOf(shortFatherId));
     treeCache.removeSpace(shortSpaceId);
     treeCache.setSubspaces(shortOldSpaceId, spaceManager.getSubSpaces(shortOldSpaceId));
     addSpaceInTreeCache(spaceManager.getSpaceInstLightById(shortSpaceId), false);
@@ -2257,9 +2261,10 @@ class DefaultAdministration implements Administration {
   @Override
   public String updateGroup(GroupDetail group, boolean onlyInSilverpeas) throws AdminException {
     try {
+      final GroupDetail previous = groupManager.getGroup(group.getId());
       String groupId = groupManager.updateGroup(group, onlyInSilverpeas);
       synchroGroupManager.updateContextWith(group);
-      cache.resetOnUpdateGroup();
+      cache.opUpdateGroup(previous, group);
       return groupId;
     } catch (Exception e) {
       throw new AdminException(failureOnUpdate(GROUP, group.getId()), e);
@@ -2272,7 +2277,7 @@ class DefaultAdministration implements Administration {
       // Update group
       groupManager.removeUserFromGroup(sUserId, sGroupId);
 
-      cache.resetOnUpdateGroup();
+      cache.opRemoveUserFromGroup(sUserId);
 
     } catch (Exception e) {
       throw new AdminException(failureOnDeleting(USER + sUserId, IN_GROUP + sGroupId), e);
@@ -2284,7 +2289,7 @@ class DefaultAdministration implements Administration {
     try {
       // Update group
       groupManager.addUserInGroup(sUserId, sGroupId);
-      cache.resetOnUpdateGroup();
+      cache.opAddUserInGroup(sUserId);
     } catch (Exception e) {
       throw new AdminException(failureOnAdding(USER + sUserId, IN_GROUP + sGroupId), e);
     }
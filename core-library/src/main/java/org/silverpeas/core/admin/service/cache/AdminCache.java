@@ -30,17 +30,40 @@ import org.silverpeas.core.admin.user.model.Group;
 import org.silverpeas.core.admin.user.model.ProfileInst;
 import org.silverpeas.core.admin.user.model.UserDetail;
 import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.cache.BoundedCache;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.kernel.util.StringUtil;
 
 import javax.inject.Singleton;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.silverpeas.core.admin.AdminSettings.getCacheTimeToLive;
+import static org.silverpeas.core.admin.AdminSettings.getStructureCacheMaxSize;
+import static org.silverpeas.core.admin.AdminSettings.getUserCacheMaxSize;
 
 /**
  * The class Store and manage all the Admin's cache
+ * <p>
+ * The caches are bounded in size and in time (see the <code>cache.*</code> parameters in the
+ * admin settings) and the data computed per user are, as far as possible, invalidated only for the
+ * users impacted by a change. The counters of hits, misses and evictions of each cache are
+ * provided by {@link #getStatistics()}.
+ * </p>
+ * <p>
+ * Each operation on the structure is also logged into a {@link StructureChangeLog} whose version
+ * lets the views computed per user on this structure know when and where they are out of date.
+ * </p>
  */
 @Technical
 @Bean
@@ -50,19 +73,32 @@ public class AdminCache {
 
   private boolean useCache = true;
   private boolean useSpaceInstCache = true;
-  private Map<Integer, SpaceInst> spaceInstCache = new ConcurrentHashMap<>();
+  private final BoundedCache<Integer, SpaceInst> spaceInstCache = newStructureCache();
   private boolean useComponentInstCache = true;
-  private Map<Integer, ComponentInst> componentInstCache = new ConcurrentHashMap<>();
+  private final BoundedCache<Integer, ComponentInst> componentInstCache = newStructureCache();
   private boolean useProfileInstCache = true;
-  private Map<String, ProfileInst> profileInstCache = new ConcurrentHashMap<>();
+  private final BoundedCache<String, ProfileInst> profileInstCache = newStructureCache();
   private boolean useUserDetailCache = true;
-  private Map<String, UserDetail> userDetailCache = new ConcurrentHashMap<>();
+  private final BoundedCache<String, UserDetail> userDetailCache = newUserCache();
   private boolean useManageableSpaceIdsCache = true;
-  private Map<String, String[]> manageableSpaceIdsCache = new ConcurrentHashMap<>();
+  private final BoundedCache<String, String[]> manageableSpaceIdsCache = newUserCache();
   private boolean useAvailCompoIdsCache = true;
-  private Map<String, Map<String, String[]>> availCompoIdsCache = new ConcurrentHashMap<>();
+  /**
+   * The available component ids keyed by user and then by space, so that the ones of a given user
+   * are invalidated at once.
+   */
+  private final BoundedCache<String, Map<String, String[]>> availCompoIdsCache = newUserCache();
   private boolean useProfileIdsCache = true;
-  private Map<String, String[]> profileIdsCache = new ConcurrentHashMap<>();
+  private final BoundedCache<String, String[]> profileIdsCache = newUserCache();
+  private final StructureChangeLog structureChangeLog = new StructureChangeLog();
+
+  private static <K, V> BoundedCache<K, V> newStructureCache() {
+    return new BoundedCache<>(getStructureCacheMaxSize(), Duration.ofSeconds(getCacheTimeToLive()));
+  }
+
+  private static <K, V> BoundedCache<K, V> newUserCache() {
+    return new BoundedCache<>(getUserCacheMaxSize(), Duration.ofSeconds(getCacheTimeToLive()));
+  }
 
   public void setCacheAvailable(boolean useCache) {
     // Cache management
@@ -73,6 +109,7 @@ public class AdminCache {
    * Reset data stored in cache
    */
   public void resetCache() {
+    logChange(StructureChangeLog::allChanged);
     spaceInstCache.clear();
     componentInstCache.clear();
     profileInstCache.clear();
@@ -82,10 +119,36 @@ public class AdminCache {
     profileIdsCache.clear();
   }
 
+  /**
+   * Gets the statistics about the use of each cache managed here.
+   * @return the statistics of each cache, keyed by the name of the cache.
+   */
+  public Map<String, BoundedCache.Statistics> getStatistics() {
+    final Map<String, BoundedCache.Statistics> statistics = new LinkedHashMap<>();
+    statistics.put("spaceInst", spaceInstCache.getStatistics());
+    statistics.put("componentInst", componentInstCache.getStatistics());
+    statistics.put("profileInst", profileInstCache.getStatistics());
+    statistics.put("userDetail", userDetailCache.getStatistics());
+    statistics.put("manageableSpaceIds", manageableSpaceIdsCache.getStatistics());
+    statistics.put("availCompoIds", availCompoIdsCache.getStatistics());
+    statistics.put("profileIds", profileIdsCache.getStatistics());
+    return statistics;
+  }
+
+  /**
+   * Gets the log of the changes in the structure of the spaces, component instances, profiles and
+   * groups.
+   * @return the {@link StructureChangeLog} instance fed by the operations on this cache.
+   */
+  public StructureChangeLog getStructureChangeLog() {
+    return structureChangeLog;
+  }
+
   /*
    * Store the spaceInst in cache
    */
   public void resetSpaceInst() {
+    logChange(StructureChangeLog::allChanged);
     if (useCache && useSpaceInstCache) {
       spaceInstCache.clear();
     }
@@ -99,14 +162,13 @@ public class AdminCache {
 
   public void removeSpaceInst(int spaceId) {
     if (useCache && useSpaceInstCache) {
-      Optional.ofNullable(spaceInstCache.remove(spaceId))
-          .ifPresent(this::resetParentSpaceData);
+      spaceInstCache.remove(spaceId).ifPresent(this::resetParentSpaceData);
     }
   }
 
   public Optional<SpaceInst> getSpaceInst(int spaceId) {
     if (useCache && useSpaceInstCache) {
-      return Optional.ofNullable(spaceInstCache.get(spaceId));
+      return spaceInstCache.get(spaceId);
     }
     return Optional.empty();
   }
@@ -151,6 +213,7 @@ public class AdminCache {
    * Store the componentInst in cache
    */
   public void resetComponentInst() {
+    logChange(StructureChangeLog::allChanged);
     if (useCache && useComponentInstCache) {
       componentInstCache.clear();
     }
@@ -170,7 +233,7 @@ public class AdminCache {
 
   public Optional<ComponentInst> getComponentInst(int componentId) {
     if (useCache && useComponentInstCache) {
-      return Optional.ofNullable(componentInstCache.get(componentId));
+      return componentInstCache.get(componentId);
     }
     return Optional.empty();
   }
@@ -212,7 +275,7 @@ public class AdminCache {
 
   public Optional<ProfileInst> getProfileInst(String profileId) {
     if (useCache && useProfileInstCache) {
-      return Optional.ofNullable(profileInstCache.get(profileId));
+      return profileInstCache.get(profileId);
     } else {
       return Optional.empty();
     }
@@ -260,7 +323,7 @@ public class AdminCache {
 
   public Optional<UserDetail> getUserDetail(String userId) {
     if (useCache && useUserDetailCache) {
-      return Optional.ofNullable(userDetailCache.get(userId));
+      return userDetailCache.get(userId);
     } else {
       return Optional.empty();
     }
@@ -287,7 +350,7 @@ public class AdminCache {
 
   public Optional<String[]> getManageableSpaceIds(String userId) {
     if (useCache && useManageableSpaceIdsCache) {
-      return Optional.ofNullable(manageableSpaceIdsCache.get(userId));
+      return manageableSpaceIdsCache.get(userId);
     } else {
       return Optional.empty();
     }
@@ -302,26 +365,21 @@ public class AdminCache {
 
   public void putAvailCompoIds(String spaceId, String userId, String[] compoIds) {
     if (useCache && useAvailCompoIdsCache) {
-      final Map<String, String[]> spaceTable =
-          availCompoIdsCache.computeIfAbsent(spaceId, s -> new ConcurrentHashMap<>());
-      spaceTable.put(userId, compoIds);
+      availCompoIdsCache.computeIfAbsent(userId, u -> new ConcurrentHashMap<>())
+          .put(spaceId, compoIds);
     }
   }
 
   private void removeAvailCompoIdsForUser(String userId) {
     if (useCache && useAvailCompoIdsCache) {
-      for (Map<String, String[]> spaceTable : availCompoIdsCache.values()) {
-        spaceTable.remove(userId);
-      }
+      availCompoIdsCache.remove(userId);
     }
   }
 
   public Optional<String[]> getAvailCompoIds(int spaceId, String userId) {
     if (useCache && useAvailCompoIdsCache) {
-      Map<String, String[]> spaceTable = availCompoIdsCache.get(String.valueOf(spaceId));
-      if (spaceTable != null) {
-        return Optional.ofNullable(spaceTable.get(userId));
-      }
+      return availCompoIdsCache.get(userId)
+          .map(compoIdsBySpace -> compoIdsBySpace.get(String.valueOf(spaceId)));
     }
     return Optional.empty();
   }
@@ -347,7 +405,7 @@ public class AdminCache {
 
   public Optional<String[]> getProfileIds(String userId) {
     if (useCache && useProfileIdsCache) {
-      return Optional.ofNullable(profileIdsCache.get(userId));
+      return profileIdsCache.get(userId);
     } else {
       return Optional.empty();
     }
@@ -361,15 +419,43 @@ public class AdminCache {
    */
   // ----- Spaces -----
   public void opAddSpace(final SpaceInst theSpace) {
+    logSpacesChange(theSpace.getId(), theSpace.getDomainFatherId());
     resetParentSpaceData(theSpace);
     resetManageableSpaceIds();
   }
 
   public void opUpdateSpace(SpaceInst theSpace) {
-    opResetSpace(theSpace);
+    opUpdateSpace(null, theSpace);
+  }
+
+  /**
+   * Invalidates the data of the specified space after its update. If the space was moved
+   * elsewhere in the spaces tree, both its old and its new parent spaces are impacted.
+   * @param before the space before its update. Null if unknown.
+   * @param after the space after its update.
+   */
+  public void opUpdateSpace(final SpaceInst before, final SpaceInst after) {
+    logSpacesChange(after.getId(), after.getDomainFatherId(),
+        before == null ? null : before.getDomainFatherId());
+    opResetSpace(after);
+  }
+
+  /**
+   * Invalidates the data of the specified space after its move elsewhere in the spaces tree.
+   * @param spaceId the unique identifier of the moved space.
+   * @param oldFatherId the unique identifier of its parent space before the move.
+   * @param newFatherId the unique identifier of its parent space after the move.
+   */
+  public void opMoveSpace(final String spaceId, final String oldFatherId,
+      final String newFatherId) {
+    logSpacesChange(spaceId, oldFatherId, newFatherId);
+    if (useCache && useSpaceInstCache) {
+      spaceInstCache.clear();
+    }
   }
 
   public void opRemoveSpace(final SpaceInst theSpace) {
+    logSpacesChange(theSpace.getId(), theSpace.getDomainFatherId());
     opResetSpace(theSpace);
   }
 
@@ -410,6 +496,7 @@ public class AdminCache {
   }
 
   private void opResetComponent(ComponentInst component) {
+    logSpacesChange(component.getDomainFatherId());
     // First level cache reset : it's not the best but it's simple : remove all
     // structs from cache that includes the component and all the child's
     // structs
@@ -445,6 +532,8 @@ public class AdminCache {
     // First level cache reset : it's not the best but it's simple : remove all
     // structs from cache that includes the profile
     Optional<ComponentInst> theComponent = getComponentInst(profile.getComponentFatherId());
+    theComponent.ifPresentOrElse(c -> logSpacesChange(c.getDomainFatherId()),
+        () -> logChange(StructureChangeLog::allChanged));
     theComponent.ifPresent(this::removeComponent);
     removeProfileInst(profile);
     resetProfileIds();
@@ -453,6 +542,7 @@ public class AdminCache {
 
   // ----- Space Profiles -----
   public void opAddSpaceProfile(final SpaceProfileInst profile) {
+    logSpacesChange(profile.getSpaceFatherId());
     Integer spaceId = getLocalSpaceId(profile.getSpaceFatherId());
     if (spaceId != null) {
       Optional<SpaceInst> theSpace = getSpaceInst(spaceId);
@@ -462,6 +552,7 @@ public class AdminCache {
   }
 
   public void opUpdateSpaceProfile(final SpaceProfileInst profile) {
+    logSpacesChange(profile.getSpaceFatherId());
     Integer spaceId = getLocalSpaceId(profile.getSpaceFatherId());
     if (spaceId != null) {
       Optional<SpaceInst> theSpace = getSpaceInst(spaceId);
@@ -474,6 +565,7 @@ public class AdminCache {
   }
 
   public void opRemoveSpaceProfile(final SpaceProfileInst profile) {
+    logSpacesChange(profile.getSpaceFatherId());
     Integer spaceId = getLocalSpaceId(profile.getSpaceFatherId());
     if (spaceId != null) {
       Optional<SpaceInst> theSpace = getSpaceInst(spaceId);
@@ -494,13 +586,39 @@ public class AdminCache {
   }
 
   public void resetOnUpdateGroup() {
+    logChange(StructureChangeLog::allChanged);
     resetProfileIds();
     resetAvailCompoIds();
     resetManageableSpaceIds();
   }
 
+  /**
+   * Invalidates the data of the users impacted by the update of the given group. If the group
+   * was moved in the groups hierarchy, all the users of its subgroups are impacted and then all
+   * the data computed per user are reset. Otherwise, only the data of the users that were added
+   * into or removed from the group are invalidated.
+   * @param before the group before its update. Null if unknown.
+   * @param after the group after its update.
+   */
+  public void opUpdateGroup(Group before, Group after) {
+    if (before == null || !Objects.equals(StringUtil.defaultStringIfNotDefined(
+        before.getSuperGroupId()), StringUtil.defaultStringIfNotDefined(after.getSuperGroupId()))) {
+      resetOnUpdateGroup();
+      return;
+    }
+    final Set<String> usersBefore = new HashSet<>(Arrays.asList(before.getUserIds()));
+    final Set<String> usersAfter = new HashSet<>(Arrays.asList(after.getUserIds()));
+    for (String userId : usersAfter) {
+      if (!usersBefore.remove(userId)) {
+        opResetUserRights(userId);
+      }
+    }
+    usersBefore.forEach(this::opResetUserRights);
+  }
+
   public void opRemoveGroup(Group group) {
     String groupId = group.getId();
+    logChange(StructureChangeLog::allChanged);
 
     removeGroupInSpaceInst(groupId);
     removeGroupInComponentInst(groupId);
@@ -524,6 +642,7 @@ public class AdminCache {
 
   public void opRemoveUser(UserDetail user) {
     String userId = user.getId();
+    logChange(l -> l.userRightsChanged(userId));
 
     removeUserDetail(userId);
     removeProfileIds(userId);
@@ -535,11 +654,31 @@ public class AdminCache {
   }
 
   private void opResetUserRights(String userId) {
+    logChange(l -> l.userRightsChanged(userId));
     removeProfileIds(userId);
     removeManageableSpaceIds(userId);
     removeAvailCompoIdsForUser(userId);
   }
 
+  private void logSpacesChange(final String... spaceIds) {
+    final Set<String> changedSpaceIds = new HashSet<>(spaceIds.length);
+    for (String spaceId : spaceIds) {
+      if (StringUtil.isDefined(spaceId) && !"0".equals(spaceId) && !"-1".equals(spaceId)) {
+        changedSpaceIds.add(SpaceInst.SPACE_KEY_PREFIX + getLocalSpaceId(spaceId));
+      }
+    }
+    logChange(l -> l.spacesChanged(changedSpaceIds));
+  }
+
+  /**
+   * Logs the specified change in the structure once the current transaction is committed, so
+   * that a view on the structure isn't stamped as up-to-date with some data not yet committed.
+   * @param change the change to log.
+   */
+  private void logChange(final Consumer<StructureChangeLog> change) {
+    Transaction.performAfterCommit(() -> change.accept(structureChangeLog));
+  }
+
   private Integer getLocalSpaceId(String spaceId) {
     boolean isSpaceIdDefined = StringUtil.isDefined(spaceId);
     if (isSpaceIdDefined && (spaceId.startsWith(SpaceInst.SPACE_KEY_PREFIX))) {
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.admin.service.cache;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A log of the changes in the structure of the Silverpeas resources (spaces, component instances,
+ * profiles, groups) that can impact what a user can access. Each change increments the version of
+ * the structure, so a view on the structure computed for a user (like the navigation menu) can be
+ * stamped with the version it was built from and then both know whether it is out of date and
+ * find out which spaces it has to rebuild.
+ * <p>
+ * A change is either localized to some spaces, either on the rights of a given user, or global.
+ * Only the last changes are kept; a view older than them has to be fully rebuilt.
+ * </p>
+ */
+public class StructureChangeLog {
+
+  private static final int DEFAULT_MAX_CHANGES = 512;
+
+  private final long epoch = System.currentTimeMillis();
+  private final int maxChanges;
+  private final Deque<Change> changes = new ArrayDeque<>();
+  private volatile long version = 0;
+
+  /**
+   * Constructs a new log keeping the 512 last changes.
+   */
+  public StructureChangeLog() {
+    this(DEFAULT_MAX_CHANGES);
+  }
+
+  /**
+   * Constructs a new log keeping the specified number of last changes.
+   * @param maxChanges the maximum number of changes to keep.
+   */
+  public StructureChangeLog(final int maxChanges) {
+    this.maxChanges = Math.max(1, maxChanges);
+  }
+
+  /**
+   * Gets the epoch of this log, that is the time at which it was created. As the version of the
+   * structure starts again from 0 with each new log (at each boot of Silverpeas), the epoch
+   * distinguishes the versions of the different logs.
+   * @return the epoch of the log in milliseconds.
+   */
+  public long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Gets the current version of the structure.
+   * @return the version of the structure. It is incremented by each change.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Logs a change impacting the specified spaces.
+   * @param spaceIds the unique identifiers of the changed spaces, prefixed by
+   * {@link org.silverpeas.core.admin.space.SpaceInst#SPACE_KEY_PREFIX}.
+   */
+  public void spacesChanged(final Collection<String> spaceIds) {
+    log(new Change(Set.copyOf(spaceIds), null, false));
+  }
+
+  /**
+   * Logs a change on the rights of the specified user.
+   * @param userId the unique identifier of a user.
+   */
+  public void userRightsChanged(final String userId) {
+    log(new Change(Set.of(), userId, false));
+  }
+
+  /**
+   * Logs a change impacting the whole structure and then all the users.
+   */
+  public void allChanged() {
+    log(new Change(Set.of(), null, true));
+  }
+
+  /**
+   * Gets the spaces changed since the specified version of the structure for the given user.
+   * @param sinceVersion a version of the structure.
+   * @param userId the unique identifier of the user for whom a view on the structure was built.
+   * @return the unique identifiers of the spaces changed since the specified version. Nothing if
+   * the whole structure has to be considered as changed for the user: a global change, a change of
+   * the user rights or changes too old to be still in the log.
+   */
+  public synchronized Optional<Set<String>> getChangedSpacesSince(final long sinceVersion,
+      final String userId) {
+    if (sinceVersion == version) {
+      return Optional.of(Set.of());
+    }
+    if (changes.isEmpty() || changes.peekFirst().version > sinceVersion + 1) {
+      return Optional.empty();
+    }
+    final Set<String> spaceIds = new HashSet<>();
+    final Iterator<Change> iterator = changes.descendingIterator();
+    while (iterator.hasNext()) {
+      final Change change = iterator.next();
+      if (change.version <= sinceVersion) {
+        break;
+      }
+      if (change.all || (change.userId != null && change.userId.equals(userId))) {
+        return Optional.empty();
+      }
+      spaceIds.addAll(change.spaceIds);
+    }
+    return Optional.of(spaceIds);
+  }
+
+  private synchronized void log(final Change change) {
+    change.version = version + 1;
+    changes.addLast(change);
+    if (changes.size() > maxChanges) {
+      changes.removeFirst();
+    }
+    version = change.version;
+  }
+
+  private static class Change {
+    private final Set<String> spaceIds;
+    private final String userId;
+    private final boolean all;
+    private long version;
+
+    private Change(final Set<String> spaceIds, final String userId, final boolean all) {
+      this.spaceIds = spaceIds;
+      this.userId = userId;
+      this.all = all;
+    }
+  }
+}
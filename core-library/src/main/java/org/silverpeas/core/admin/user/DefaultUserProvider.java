@@ -64,9 +64,20 @@ public class DefaultUserProvider implements UserProvider {
   @Override
   public User getUserByToken(@Nonnull final String token) {
     Objects.requireNonNull(token);
-    final PersistentResourceToken userToken = PersistentResourceToken.getToken(token);
-    final UserReference userRef = userToken.getResource(UserReference.class);
-    return userRef == null ? null : userRef.getEntity();
+    final UserTokenCache cache = UserTokenCache.get();
+    final String userId = cache.getUserId(token, t -> {
+      final PersistentResourceToken userToken = PersistentResourceToken.getToken(t);
+      final UserReference userRef = userToken.getResource(UserReference.class);
+      return userRef == null ? null : userRef.getId();
+    });
+    if (userId == null) {
+      return null;
+    }
+    final User user = getUser(userId);
+    if (user == null) {
+      cache.invalidateToken(token);
+    }
+    return user;
   }
 
   @Override
@@ -41,6 +41,7 @@ import org.silverpeas.core.admin.user.constant.UserState;
 import org.silverpeas.core.admin.user.dao.GroupDAO;
 import org.silverpeas.core.admin.user.dao.UserDAO;
 import org.silverpeas.core.admin.user.model.GroupDetail;
+import org.silverpeas.core.admin.user.model.GroupHierarchy;
 import org.silverpeas.core.admin.user.model.GroupsSearchCriteria;
 import org.silverpeas.core.admin.user.model.UserDetailsSearchCriteria;
 import org.silverpeas.core.admin.user.notification.GroupEventNotifier;
@@ -48,6 +49,7 @@ import org.silverpeas.core.admin.user.notification.GroupUserLink;
 import org.silverpeas.core.admin.user.notification.GroupUserLinkEventNotifier;
 import org.silverpeas.core.annotation.Service;
 import org.silverpeas.core.notification.system.ResourceEvent;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
 import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.core.util.SilverpeasList;
@@ -87,6 +89,7 @@ public class GroupManager {
   private static final String REMOVING_MESSAGE = "Suppression de ";
   private static final String ID_PART = " (ID=";
   private static final String SPECIFIC_ID = "(specificId:";
+  private static final int HIERARCHY_LOADING_ATTEMPTS = 3;
 
   @Inject
   private GroupDAO groupDao;
@@ -98,6 +101,8 @@ public class GroupManager {
   private GroupUserLinkEventNotifier linkNotifier;
   @Inject
   private DomainDriverManager domainDriverManager;
+  @Inject
+  private GroupHierarchy groupHierarchy;
 
   protected GroupManager() {
   }
@@ -227,10 +232,8 @@ public class GroupManager {
   public void removeUsersFromGroup(final List<String> userIds, final String groupId)
       throws AdminException {
     try (Connection connection = DBUtil.openConnection()) {
-      for (String userId : userIds) {
-        groupDao.deleteUserInGroup(connection, userId, groupId);
-        notifyUserInGroup(ResourceEvent.Type.DELETION, userId, groupId);
-      }
+      groupDao.deleteUsersInGroup(connection, userIds, groupId);
+      userIds.forEach(u -> notifyUserInGroup(ResourceEvent.Type.DELETION, u, groupId));
     } catch (SQLException e) {
       throw new AdminException(
           failureOnDeleting("users " + String.join("n", userIds),
@@ -292,6 +295,19 @@ public class GroupManager {
   public List<String> getAllGroupsOfUser(String userId) throws AdminException {
     Set<String> allGroupsOfUser = new HashSet<>();
 
+    final Optional<GroupHierarchy> hierarchy = getGroupHierarchy();
+    if (hierarchy.isPresent()) {
+      try (Connection connection = DBUtil.openConnection()) {
+        groupDao.getDirectGroupsOfUser(connection, userId, false).forEach(g -> {
+          allGroupsOfUser.add(g.getId());
+          allGroupsOfUser.addAll(hierarchy.get().getAncestorIds(g.getId()));
+        });
+        return new ArrayList<>(allGroupsOfUser);
+      } catch (SQLException e) {
+        throw new AdminException(failureOnGetting("all groups of user", userId), e);
+      }
+    }
+
     List<GroupDetail> directGroups = getDirectGroupsOfUser(userId);
     for (GroupDetail group : directGroups) {
       if (group != null) {
@@ -390,6 +406,16 @@ public class GroupManager {
    */
   public List<String> getPathToGroup(String groupId) throws
       AdminException {
+    final Optional<List<String>> pathFromHierarchy = getGroupHierarchy()
+        .filter(h -> h.contains(groupId))
+        .map(h -> {
+          final List<String> path = new ArrayList<>(h.getAncestorIds(groupId));
+          reverse(path);
+          return path;
+        });
+    if (pathFromHierarchy.isPresent()) {
+      return pathFromHierarchy.get();
+    }
     try (Connection connection = DBUtil.openConnection()) {
       List<String> path = new ArrayList<>();
       GroupDetail superGroup = groupDao.getSuperGroup(connection, groupId);
@@ -463,6 +489,10 @@ public class GroupManager {
    * @throws AdminException in case of any technical error.
    */
   public List<String> getAllSubGroupIdsRecursively(String superGroupId) throws AdminException {
+    final Optional<GroupHierarchy> hierarchy = getGroupHierarchy();
+    if (hierarchy.isPresent()) {
+      return new ArrayList<>(hierarchy.get().getDescendantIds(superGroupId));
+    }
     try (final Connection con = DBUtil.openConnection()) {
       return getIdsOfValidSubGroup(con, superGroupId);
     } catch (Exception e) {
@@ -471,6 +501,29 @@ public class GroupManager {
     }
   }
 
+  /**
+   * Gets the in-memory hierarchy of the valid groups, loading it first if it isn't yet. The
+   * loading is abandoned when the hierarchy of the groups is modified concurrently several
+   * times in a row; in that case the caller has to fall back to the data source.
+   * @return optionally the loaded hierarchy of the groups.
+   * @throws AdminException if an error occurs while reading the hierarchy from the data source.
+   */
+  private Optional<GroupHierarchy> getGroupHierarchy() throws AdminException {
+    // the graph doesn't reflect yet the changes done by the current transaction
+    if (Transaction.getActiveTransaction().filter(groupHierarchy::isChangedBy).isPresent()) {
+      return Optional.empty();
+    }
+    for (int i = 0; i < HIERARCHY_LOADING_ATTEMPTS && !groupHierarchy.isLoaded(); i++) {
+      final long version = groupHierarchy.getVersion();
+      try (final Connection con = DBUtil.openConnection()) {
+        groupHierarchy.load(groupDao.getAllSuperGroupIds(con), version);
+      } catch (SQLException e) {
+        throw new AdminException(failureOnGetting("hierarchy of", "groups"), e);
+      }
+    }
+    return Optional.of(groupHierarchy).filter(GroupHierarchy::isLoaded);
+  }
+
   private List<String> getIdsOfValidSubGroup(Connection con, String groupId) throws SQLException {
     List<String> groupIds = new ArrayList<>();
     List<GroupDetail> groups = groupDao.getDirectSubGroups(con, groupId, false);
@@ -952,17 +1005,20 @@ public class GroupManager {
 
   private long addNewUsersInGroup(final Connection connection, final String sGroupId,
       final List<String> asOldUsersId, final List<String> asNewUsersId) throws SQLException {
-    long addedUsers = 0;
+    final Set<String> oldUserIds = new HashSet<>(asOldUsersId);
+    final List<String> addedUserIds = new ArrayList<>();
     for (String userId : asNewUsersId) {
-      if (!asOldUsersId.contains(userId)) {
+      if (!oldUserIds.contains(userId)) {
         SynchroDomainReport.debug(GROUP_MANAGER_UPDATE_GROUP,
             "Ajout de l'utilisateur d'ID " + userId + " dans le groupe d'ID " + sGroupId);
-        groupDao.addUserInGroup(connection, userId, sGroupId);
-        notifyUserInGroup(ResourceEvent.Type.CREATION, userId, sGroupId);
-        addedUsers++;
+        addedUserIds.add(userId);
       }
     }
-    return addedUsers;
+    if (!addedUserIds.isEmpty()) {
+      groupDao.addUsersInGroup(connection, addedUserIds, sGroupId);
+      addedUserIds.forEach(u -> notifyUserInGroup(ResourceEvent.Type.CREATION, u, sGroupId));
+    }
+    return addedUserIds.size();
   }
 
   private void notifyUserInGroup(final ResourceEvent.Type typeOfOperation, final String userId,
@@ -973,17 +1029,20 @@ public class GroupManager {
 
   private long removeUsersNoMoreInGroup(final Connection connection, final String sGroupId,
       final List<String> asOldUsersId, final List<String> asNewUsersId) throws SQLException {
-    long removedUsers = 0;
+    final Set<String> newUserIds = new HashSet<>(asNewUsersId);
+    final List<String> removedUserIds = new ArrayList<>();
     for (String userId : asOldUsersId) {
-      if (!asNewUsersId.contains(userId)) {
+      if (!newUserIds.contains(userId)) {
         SynchroDomainReport.debug(GROUP_MANAGER_UPDATE_GROUP,
             "Suppression de l'utilisateur d'ID " + userId + " du groupe d'ID " + sGroupId);
-        groupDao.deleteUserInGroup(connection, userId, sGroupId);
-        notifyUserInGroup(ResourceEvent.Type.DELETION, userId, sGroupId);
-        removedUsers++;
+        removedUserIds.add(userId);
       }
     }
-    return removedUsers;
+    if (!removedUserIds.isEmpty()) {
+      groupDao.deleteUsersInGroup(connection, removedUserIds, sGroupId);
+      removedUserIds.forEach(u -> notifyUserInGroup(ResourceEvent.Type.DELETION, u, sGroupId));
+    }
+    return removedUserIds.size();
   }
 
   public List<String> getManageableGroupIds(String userId, List<String> groupIds)
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.admin.user;
+
+import org.silverpeas.core.admin.AdminSettings;
+import org.silverpeas.core.cache.BoundedCache;
+import org.silverpeas.core.util.logging.PeriodicStatisticsLogger;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A cache of the unique identifier of the users resolved from their API token. It avoids to
+ * look for the token in the data source each time a user is authenticated by its API token, as
+ * it is done by the clients of the REST web services.
+ * <p>
+ * Only the identifier of the user is cached: the user itself is always got from the
+ * administration services so that any change in its state (blocked, deactivated, ...) is
+ * immediately taken into account. The entries of a token are invalidated when the token is
+ * renewed or removed, and the entries of a user are invalidated when the user is updated or
+ * deleted or when a session of the user is closed. The size of the cache and the time to live of
+ * its entries are set by the {@code cache.token.maxSize} and {@code cache.token.timeToLive}
+ * parameters in the administration settings.
+ * </p>
+ * <p>
+ * The counters of hits and misses and the mean time of the lookups and of the resolutions of
+ * the tokens in the data source are provided by {@link #getStatistics()} and are reported in
+ * the logs with the {@link PeriodicStatisticsLogger}.
+ * </p>
+ */
+public final class UserTokenCache {
+
+  private static final int LOG_PERIOD = 1000;
+
+  private final boolean enabled;
+  private final BoundedCache<String, String> userIds;
+  private final PeriodicStatisticsLogger lookups =
+      new PeriodicStatisticsLogger(LOG_PERIOD, () -> SilverLogger.getLogger(this));
+  private final LongAdder lookupTime = new LongAdder();
+  private final LongAdder resolutions = new LongAdder();
+  private final LongAdder resolutionTime = new LongAdder();
+
+  /**
+   * Constructs a new cache.
+   * @param maxSize the maximum number of tokens to cache. Zero or negative value means no caching.
+   * @param timeToLive the time to live of an entry. Zero or negative value means no expiration.
+   */
+  UserTokenCache(final int maxSize, final Duration timeToLive) {
+    this.enabled = maxSize > 0;
+    this.userIds = new BoundedCache<>(maxSize, timeToLive);
+  }
+
+  /**
+   * Gets the cache of the users resolved from their API token.
+   * @return the {@link UserTokenCache} instance.
+   */
+  public static UserTokenCache get() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Gets the unique identifier of the user owning the specified API token. If it isn't yet in
+   * the cache, it is resolved with the given function and then put into the cache.
+   * @param token the value of an API token.
+   * @param resolution the function resolving the unique identifier of the user owning a token.
+   * It returns null if no user owns the token.
+   * @return the unique identifier of the user or null if no user owns the token.
+   */
+  public String getUserId(final String token, final Function<String, String> resolution) {
+    final long start = System.nanoTime();
+    try {
+      if (!enabled) {
+        return resolve(token, resolution);
+      }
+      // a user resolved while an invalidation is running isn't cached as it can be obsolete
+      return userIds.computeIfAbsent(token, t -> resolve(t, resolution));
+    } finally {
+      lookupTime.add(System.nanoTime() - start);
+      lookups.count(() -> "API token cache: " + getStatistics());
+    }
+  }
+
+  /**
+   * Invalidates the user resolved from the specified API token.
+   * @param token the value of an API token.
+   */
+  public void invalidateToken(final String token) {
+    userIds.remove(token);
+  }
+
+  /**
+   * Invalidates all the API tokens resolved for the specified user.
+   * @param userId the unique identifier of a user.
+   */
+  public void invalidateUser(final String userId) {
+    userIds.removeIf((t, u) -> u.equals(userId));
+  }
+
+  /**
+   * Clears the cache.
+   */
+  public void clear() {
+    userIds.clear();
+  }
+
+  /**
+   * Gets the statistics about the use of this cache.
+   * @return a snapshot of the counters of this cache.
+   */
+  public Statistics getStatistics() {
+    return new Statistics(userIds.getStatistics(), mean(lookupTime, lookups.getCount()),
+        mean(resolutionTime, resolutions.sum()));
+  }
+
+  private String resolve(final String token, final Function<String, String> resolution) {
+    final long start = System.nanoTime();
+    try {
+      return resolution.apply(token);
+    } finally {
+      resolutions.increment();
+      resolutionTime.add(System.nanoTime() - start);
+    }
+  }
+
+  private static Duration mean(final LongAdder time, final long count) {
+    return count == 0 ? Duration.ZERO : Duration.ofNanos(time.sum() / count);
+  }
+
+  private static final class InstanceHolder {
+    private static final UserTokenCache instance =
+        new UserTokenCache(AdminSettings.getTokenCacheMaxSize(),
+            Duration.ofSeconds(AdminSettings.getTokenCacheTimeToLive()));
+
+    private InstanceHolder() {
+    }
+  }
+
+  /**
+   * A snapshot of the counters of the cache.
+   */
+  public static class Statistics {
+    private final BoundedCache.Statistics cacheStatistics;
+    private final Duration meanLookupTime;
+    private final Duration meanResolutionTime;
+
+    private Statistics(final BoundedCache.Statistics cacheStatistics,
+        final Duration meanLookupTime, final Duration meanResolutionTime) {
+      this.cacheStatistics = cacheStatistics;
+      this.meanLookupTime = meanLookupTime;
+      this.meanResolutionTime = meanResolutionTime;
+    }
+
+    /**
+     * Gets the counters of the hits, misses, evictions and expirations in the cache.
+     * @return the statistics of the underlying cache.
+     */
+    public BoundedCache.Statistics getCacheStatistics() {
+      return cacheStatistics;
+    }
+
+    /**
+     * Gets the mean time to get the user identifier of a token, whether it is cached or not.
+     * @return the mean lookup time.
+     */
+    public Duration getMeanLookupTime() {
+      return meanLookupTime;
+    }
+
+    /**
+     * Gets the mean time to resolve the user identifier of a token from the data source.
+     * @return the mean resolution time.
+     */
+    public Duration getMeanResolutionTime() {
+      return meanResolutionTime;
+    }
+
+    @Override
+    public String toString() {
+      return cacheStatistics + ", hitRatio=" + cacheStatistics.getHitRatio() +
+          ", meanLookupTime=" + meanLookupTime + ", meanResolutionTime=" + meanResolutionTime;
+    }
+  }
+}
@@ -26,9 +26,12 @@ package org.silverpeas.core.admin.user.dao;
 import org.silverpeas.core.admin.user.constant.GroupState;
 import org.silverpeas.core.admin.user.model.GroupCache;
 import org.silverpeas.core.admin.user.model.GroupDetail;
+import org.silverpeas.core.admin.user.model.GroupHierarchy;
 import org.silverpeas.core.admin.user.model.GroupsSearchCriteria;
 import org.silverpeas.core.annotation.Repository;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
+import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQueries;
 import org.silverpeas.core.persistence.jdbc.sql.JdbcSqlQuery;
 import org.silverpeas.core.util.ListSlice;
 import org.silverpeas.core.util.ServiceProvider;
@@ -48,6 +51,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Stream;
 
 import static java.text.MessageFormat.format;
@@ -92,6 +96,8 @@ public class GroupDAO {
 
   @Inject
   private GroupCache groupCache;
+  @Inject
+  private GroupHierarchy groupHierarchy;
 
   protected GroupDAO() {
   }
@@ -120,6 +126,10 @@ public class GroupDAO {
         .withInsertParam(STATE, group.getState())
         .withInsertParam(STATE_SAVE_DATE, now)
         .executeWith(connection);
+    if (!GroupState.REMOVED.equals(group.getState())) {
+      afterCommit(() -> groupHierarchy.putGroup(String.valueOf(nextId),
+          superGroupIdAsString(superGroupId)));
+    }
     return String.valueOf(nextId);
   }
 
@@ -137,6 +147,10 @@ public class GroupDAO {
         .executeWith(connection);
     if (nbRestored > 0) {
       groupCache.clearCache();
+      afterCommit(() -> {
+        groupHierarchy.putGroup(group.getId(), group.getSuperGroupId());
+        return true;
+      });
       restored = new GroupDetail(group);
       restored.setSaveDate(now);
       restored.setState(GroupState.VALID);
@@ -159,6 +173,10 @@ public class GroupDAO {
         .executeWith(connection);
     if (nbRemoved > 0) {
       groupCache.clearCache();
+      afterCommit(() -> {
+        groupHierarchy.removeGroup(group.getId());
+        return true;
+      });
       removed = new GroupDetail(group);
       removed.setSaveDate(now);
       removed.setState(GroupState.REMOVED);
@@ -174,6 +192,10 @@ public class GroupDAO {
         .executeWith(connection);
     if (nbDeleted > 0) {
       groupCache.clearCache();
+      afterCommit(() -> {
+        groupHierarchy.removeGroup(group.getId());
+        return true;
+      });
     }
     return nbDeleted;
   }
@@ -219,16 +241,16 @@ public class GroupDAO {
       final String groupId) throws SQLException {
     checkGroupExistence(connection, groupId);
 
+    final JdbcSqlQueries inserts = new JdbcSqlQueries();
     for (String userId : userIds) {
       checkUserExistence(connection, userId);
 
-      JdbcSqlQuery.insertInto(GROUP_USERS_TABLE)
+      inserts.add(JdbcSqlQuery.insertInto(GROUP_USERS_TABLE)
           .withInsertParam(GROUP_ID, Integer.parseInt(groupId))
-          .withInsertParam(USER_ID, Integer.parseInt(userId))
-          .executeWith(connection);
-
-      groupCache.removeCacheOfUser(userId);
+          .withInsertParam(USER_ID, Integer.parseInt(userId)));
     }
+    inserts.executeInBatchWith(connection);
+    userIds.forEach(groupCache::removeCacheOfUser);
   }
 
   private void checkGroupExistence(final Connection connection, final String groupId)
@@ -263,6 +285,44 @@ public class GroupDAO {
         .withUpdateParam(STATE_SAVE_DATE, toInstance(group.getStateSaveDate()))
         .where(ID_CRITERION, Integer.parseInt(group.getId()))
         .executeWith(connection);
+    if (GroupState.REMOVED.equals(group.getState())) {
+      afterCommit(() -> {
+        final boolean hierarchyChanged = groupHierarchy.contains(group.getId());
+        groupHierarchy.removeGroup(group.getId());
+        return hierarchyChanged;
+      });
+    } else {
+      afterCommit(() -> groupHierarchy.putGroup(group.getId(),
+          superGroupIdAsString(superGroupId)));
+    }
+  }
+
+  /**
+   * Applies the specified change of the groups hierarchy once the current transaction is
+   * committed, so that a rollback doesn't leave in the in-memory graph some edges that don't
+   * exist in the database. Until the transaction is completed, the change is recorded as pending
+   * in the graph so that the hierarchy is read from the database within the transaction. If the
+   * hierarchy is actually modified, the cache of the groups is cleared after the change, as it
+   * could have been fed meanwhile with the previous hierarchy.
+   * @param hierarchyChange the change to apply to the groups hierarchy. It returns true if the
+   * hierarchy was actually modified.
+   */
+  private void afterCommit(final BooleanSupplier hierarchyChange) {
+    final Optional<javax.transaction.Transaction> transaction = Transaction.getActiveTransaction();
+    transaction.ifPresent(groupHierarchy::changePending);
+    Transaction.performAtCompletion(committed -> {
+      try {
+        if (committed && hierarchyChange.getAsBoolean()) {
+          groupCache.clearCache();
+        }
+      } finally {
+        transaction.ifPresent(groupHierarchy::changeCompleted);
+      }
+    });
+  }
+
+  private static String superGroupIdAsString(final Integer superGroupId) {
+    return superGroupId == null ? null : String.valueOf(superGroupId);
   }
 
   private Integer checkSuperGroup(final Connection connection, final GroupDetail group)
@@ -286,6 +346,18 @@ public class GroupDAO {
     groupCache.removeCacheOfUser(userId);
   }
 
+  public void deleteUsersInGroup(final Connection connection, final List<String> userIds,
+      final String groupId) throws SQLException {
+    final JdbcSqlQueries deletions = new JdbcSqlQueries();
+    for (String userId : userIds) {
+      deletions.add(JdbcSqlQuery.deleteFrom(GROUP_USERS_TABLE)
+          .where("userId = ?", Integer.parseInt(userId))
+          .and(GROUP_ID_CRITERION, Integer.parseInt(groupId)));
+    }
+    deletions.executeInBatchWith(connection);
+    userIds.forEach(groupCache::removeCacheOfUser);
+  }
+
   public boolean isGroupByNameExists(final Connection connection, final String name)
       throws SQLException {
     return JdbcSqlQuery.select("COUNT(id)")
@@ -310,6 +382,29 @@ public class GroupDAO {
         .executeWith(connection, GroupDAO::fetchGroup);
   }
 
+  /**
+   * Gets the identifier of the parent of all the {@link GroupState#VALID} groups available in
+   * Silverpeas whatever the user domain they belongs to. This is the snapshot from which the
+   * {@link GroupHierarchy} is loaded.
+   * @param connection the connection with the data source to use.
+   * @return the identifier of the parent group keyed by the identifier of each group. A root
+   * group is mapped to null.
+   * @throws SQLException if an error occurs while getting the user groups from the data source.
+   */
+  public Map<String, String> getAllSuperGroupIds(Connection connection) throws SQLException {
+    final Map<String, String> superGroupIds = new HashMap<>();
+    JdbcSqlQuery.select("id, superGroupId")
+        .from(GROUP_TABLE)
+        .where(STATE).notIn(GroupState.REMOVED)
+        .executeWith(connection, r -> {
+          final int superGroupId = r.getInt(2);
+          superGroupIds.put(Integer.toString(r.getInt(1)),
+              r.wasNull() ? null : Integer.toString(superGroupId));
+          return null;
+        });
+    return superGroupIds;
+  }
+
   /**
    * Gets all {@link GroupState#VALID} root groups available in Silverpeas whatever the user
    * domain they belongs to.
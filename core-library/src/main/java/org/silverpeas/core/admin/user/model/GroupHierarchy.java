@@ -0,0 +1,352 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.admin.user.model;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.kernel.annotation.Technical;
+
+import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory graph of the hierarchy of the {@link org.silverpeas.core.admin.user.constant.GroupState#VALID}
+ * user groups in Silverpeas.
+ * <p>
+ * The graph keeps both the parent and the children adjacency of each group so that the
+ * descendants and the ancestors of a group are computed without requesting the data source. The
+ * transitive closure of each group is computed on demand and then cached until a change in the
+ * hierarchy impacts it: only the descendants of the ancestors and the ancestors of the
+ * descendants of a modified group are invalidated.
+ * </p>
+ * <p>
+ * The graph is empty and not loaded at start. It is loaded once by the
+ * {@link org.silverpeas.core.admin.user.GroupManager} from a snapshot of all the group links in
+ * the data source and then it is maintained incrementally by the
+ * {@link org.silverpeas.core.admin.user.dao.GroupDAO} each time a group is added, updated,
+ * removed, restored or deleted. In order to avoid a snapshot taken concurrently with a
+ * modification to be loaded, a version number is incremented with each modification; a snapshot
+ * is loaded only if the version of the graph didn't change since its reading has started.
+ * </p>
+ * <p>
+ * As the modifications are applied to the graph only once the transaction within which they
+ * are done is committed, the graph doesn't reflect the hierarchy as seen from within a
+ * transaction that is changing it. Such transactions are then tracked so that, until their
+ * completion, the hierarchy is read from the data source within them.
+ * </p>
+ */
+@Technical
+@Bean
+@Singleton
+public class GroupHierarchy {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, String> parents = new HashMap<>();
+  private final Map<String, Set<String>> children = new HashMap<>();
+  private final Map<String, List<String>> descendants = new ConcurrentHashMap<>();
+  private final Map<String, List<String>> ancestors = new ConcurrentHashMap<>();
+  private final Map<Object, Integer> pendingChanges = new ConcurrentHashMap<>();
+  private long version = 0;
+  private boolean loaded = false;
+
+  /**
+   * Is the graph loaded? If not, it cannot be used to answer about the hierarchy of the groups.
+   * @return true if the graph has been loaded, false otherwise.
+   */
+  public boolean isLoaded() {
+    lock.readLock().lock();
+    try {
+      return loaded;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Records that the specified transaction has changed the hierarchy of the groups. The change
+   * will be applied to the graph once the transaction is committed.
+   * @param transaction the transaction within which the hierarchy is changed.
+   */
+  public void changePending(final Object transaction) {
+    pendingChanges.merge(transaction, 1, Integer::sum);
+  }
+
+  /**
+   * Records that a change done by the specified transaction in the hierarchy of the groups is
+   * completed, either applied to the graph or discarded.
+   * @param transaction the transaction within which the hierarchy was changed.
+   */
+  public void changeCompleted(final Object transaction) {
+    pendingChanges.computeIfPresent(transaction, (t, count) -> count > 1 ? count - 1 : null);
+  }
+
+  /**
+   * Has the specified transaction some changes in the hierarchy of the groups that aren't yet
+   * applied to the graph? In that case, the graph doesn't reflect the hierarchy as seen from
+   * within this transaction.
+   * @param transaction a transaction.
+   * @return true if the transaction has pending changes in the hierarchy, false otherwise.
+   */
+  public boolean isChangedBy(final Object transaction) {
+    return pendingChanges.containsKey(transaction);
+  }
+
+  /**
+   * Gets the current version of the graph. The version is incremented with each modification
+   * in the hierarchy of the groups, even if the graph isn't loaded.
+   * @return the version of the graph.
+   */
+  public long getVersion() {
+    lock.readLock().lock();
+    try {
+      return version;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Loads the graph from the specified snapshot of the hierarchy of all the valid groups. The
+   * snapshot isn't loaded if the graph has been modified since the given version; in that case
+   * the snapshot is considered as out of date.
+   * @param superGroupIds the identifier of the parent of each valid group, keyed by the group
+   * identifier. The identifier of a root group is mapped to null.
+   * @param expectedVersion the version of the graph at the time the snapshot started to be read.
+   * @return true if the snapshot was loaded, false if it was out of date.
+   */
+  public boolean load(final Map<String, String> superGroupIds, final long expectedVersion) {
+    lock.writeLock().lock();
+    try {
+      if (version != expectedVersion) {
+        return false;
+      }
+      reset();
+      superGroupIds.forEach(this::link);
+      loaded = true;
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Clears the graph. It will have to be loaded again to be used.
+   */
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      reset();
+      loaded = false;
+      version++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Puts the specified group as a child of the given parent group. If the group is already in
+   * the graph, it is moved to the specified parent with all its subgroups.
+   * @param groupId the unique identifier of a valid group.
+   * @param superGroupId the unique identifier of its parent or null if it is a root group.
+   * @return true if the group has been added or moved, false if it was already a child of the
+   * specified parent.
+   */
+  public boolean putGroup(final String groupId, final String superGroupId) {
+    Objects.requireNonNull(groupId);
+    lock.writeLock().lock();
+    try {
+      version++;
+      if (!loaded) {
+        return true;
+      }
+      if (parents.containsKey(groupId) && Objects.equals(parents.get(groupId), superGroupId)) {
+        return false;
+      }
+      invalidate(groupId);
+      unlink(groupId);
+      link(groupId, superGroupId);
+      invalidate(groupId);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the specified group from the graph. The links with its subgroups, if any, are kept
+   * so that they are found again once the group is restored; meanwhile they aren't anymore
+   * descendants of the ancestors of the removed group.
+   * @param groupId the unique identifier of a group.
+   */
+  public void removeGroup(final String groupId) {
+    Objects.requireNonNull(groupId);
+    lock.writeLock().lock();
+    try {
+      version++;
+      if (!loaded || !parents.containsKey(groupId)) {
+        return;
+      }
+      invalidate(groupId);
+      unlink(groupId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Is the specified group in the graph?
+   * @param groupId the unique identifier of a group.
+   * @return true if the group is a valid one known by the graph.
+   */
+  public boolean contains(final String groupId) {
+    lock.readLock().lock();
+    try {
+      return parents.containsKey(groupId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Gets the unique identifier of all the subgroups, direct or not, of the specified group. The
+   * subgroups are ordered as in a depth-first walk of the subtree rooted at the given group.
+   * @param groupId the unique identifier of a group.
+   * @return an unmodifiable list of group identifiers. Empty if the group has no subgroups or if
+   * it is unknown.
+   */
+  public List<String> getDescendantIds(final String groupId) {
+    lock.readLock().lock();
+    try {
+      final List<String> cached = descendants.get(groupId);
+      if (cached != null) {
+        return cached;
+      }
+      final List<String> computed = computeDescendants(groupId);
+      descendants.put(groupId, computed);
+      return computed;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Gets the unique identifier of all the parents, direct or not, of the specified group. The
+   * groups are ordered from the direct parent of the given group up to the root group of its
+   * hierarchy.
+   * @param groupId the unique identifier of a group.
+   * @return an unmodifiable list of group identifiers. Empty if the group is a root one or if it
+   * is unknown.
+   */
+  public List<String> getAncestorIds(final String groupId) {
+    lock.readLock().lock();
+    try {
+      final List<String> cached = ancestors.get(groupId);
+      if (cached != null) {
+        return cached;
+      }
+      final List<String> computed = computeAncestors(groupId);
+      ancestors.put(groupId, computed);
+      return computed;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<String> computeDescendants(final String groupId) {
+    final List<String> result = new ArrayList<>();
+    final Deque<String> toVisit = new ArrayDeque<>(children.getOrDefault(groupId, Set.of()));
+    final Set<String> visited = new LinkedHashSet<>();
+    while (!toVisit.isEmpty()) {
+      final String current = toVisit.pop();
+      if (!current.equals(groupId) && visited.add(current)) {
+        result.add(current);
+        final List<String> next = new ArrayList<>(children.getOrDefault(current, Set.of()));
+        Collections.reverse(next);
+        next.forEach(toVisit::push);
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private List<String> computeAncestors(final String groupId) {
+    final List<String> result = new ArrayList<>();
+    String current = parents.get(groupId);
+    while (current != null && parents.containsKey(current) && !current.equals(groupId) &&
+        !result.contains(current)) {
+      result.add(current);
+      current = parents.get(current);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Invalidates the cached closures impacted by a change on the specified group: the
+   * descendants of the group and of all its ancestors, and the ancestors of the group and of all
+   * its descendants.
+   */
+  private void invalidate(final String groupId) {
+    descendants.remove(groupId);
+    computeAncestors(groupId).forEach(descendants::remove);
+    ancestors.remove(groupId);
+    computeDescendants(groupId).forEach(ancestors::remove);
+  }
+
+  private void link(final String groupId, final String superGroupId) {
+    parents.put(groupId, superGroupId);
+    if (superGroupId != null) {
+      children.computeIfAbsent(superGroupId, k -> new LinkedHashSet<>()).add(groupId);
+    }
+  }
+
+  private void unlink(final String groupId) {
+    final String previousParent = parents.remove(groupId);
+    if (previousParent != null) {
+      final Set<String> siblings = children.get(previousParent);
+      if (siblings != null) {
+        siblings.remove(groupId);
+        if (siblings.isEmpty()) {
+          children.remove(previousParent);
+        }
+      }
+    }
+  }
+
+  private void reset() {
+    parents.clear();
+    children.clear();
+    descendants.clear();
+    ancestors.clear();
+  }
+}
@@ -48,6 +48,7 @@ import org.silverpeas.core.date.TemporalConverter;
 import org.silverpeas.core.date.TimeUnit;
 
 import javax.inject.Inject;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
@@ -56,9 +57,10 @@ import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -79,23 +81,65 @@ public class ICal4JCalendarEventOccurrenceGenerator implements CalendarEventOccu
     this.iCal4JRecurrenceCodec = iCal4JRecurrenceCodec;
   }
 
+  /**
+   * The occurrences of each event are expanded natively from the recurrence of the event (see
+   * {@link RecurrenceExpander}), or with iCal4J for the recurrence rules not supported by the
+   * native expander, and those of the recurrent events are cached per calendar and per window
+   * of time. The occurrences of all the events are then merged in the order of their start date;
+   * the occurrences starting at the same date are in the order of their event in the given list.
+   * @param events a list of events.
+   * @param inPeriod a period of time.
+   * @return a list of event occurrences ordered by their start date.
+   */
   @Override
   public List<CalendarEventOccurrence> generateOccurrencesOf(final List<CalendarEvent> events,
       final Period inPeriod) {
-    List<CalendarEventOccurrence> occurrences = new ArrayList<>();
-    events.forEach(event -> {
-      final VEvent vEvent = fromCalendarEvent(event);
-      PeriodList periodList = getPeriodList(vEvent, inPeriod);
-      periodList.forEach(occurPeriod -> {
-        CalendarEventOccurrence occurrence = buildCalendarEventOccurrence(event, occurPeriod);
-        occurrences.add(occurrence);
-      });
-    });
-    occurrences.sort(
-        Comparator.comparing(o -> TemporalConverter.asOffsetDateTime(o.getStartDate())));
+    final Instant from = TemporalConverter.asOffsetDateTime(inPeriod.getStartDate()).toInstant();
+    final Instant to = TemporalConverter.asOffsetDateTime(inPeriod.getEndDate()).toInstant();
+    final PriorityQueue<OccurrenceCursor> cursors =
+        new PriorityQueue<>(Math.max(1, events.size()));
+    int count = 0;
+    for (int i = 0; i < events.size(); i++) {
+      final CalendarEvent event = events.get(i);
+      final List<RecurrenceExpander.Slot> slots = getOccurrenceSlots(event, inPeriod, from, to);
+      if (!slots.isEmpty()) {
+        cursors.add(new OccurrenceCursor(i, event, slots));
+        count += slots.size();
+      }
+    }
+    final List<CalendarEventOccurrence> occurrences = new ArrayList<>(count);
+    while (!cursors.isEmpty()) {
+      final OccurrenceCursor cursor = cursors.poll();
+      occurrences.add(cursor.next());
+      if (cursor.hasNext()) {
+        cursors.add(cursor);
+      }
+    }
     return occurrences;
   }
 
+  private List<RecurrenceExpander.Slot> getOccurrenceSlots(final CalendarEvent event,
+      final Period inPeriod, final Instant from, final Instant to) {
+    if (!event.isRecurrent()) {
+      return new RecurrenceExpander(event.getStartDate(), event.getEndDate(), null,
+          ZoneOffset.UTC).expand(from, to);
+    }
+    final ZoneId zoneId = event.getCalendar().getZoneId();
+    final Recurrence recurrence = event.getRecurrence();
+    final List<Object> eventState =
+        Arrays.asList(event.getStartDate(), event.getEndDate(), zoneId, recurrence.copy());
+    return OccurrenceWindowCache.get()
+        .getOccurrences(event.getCalendar().getId(), eventState, from, to, () -> {
+          if (RecurrenceExpander.isSupported(event.getStartDate(), recurrence)) {
+            return new RecurrenceExpander(event.getStartDate(), event.getEndDate(), recurrence,
+                zoneId).expand(from, to);
+          }
+          return getPeriodList(fromCalendarEvent(event), inPeriod).stream()
+              .map(p -> asSlot(event, p))
+              .collect(Collectors.toList());
+        });
+  }
+
   @Override
   public long countOccurrencesOf(final CalendarEvent event, final Period inPeriod) {
     if (!event.isPlanned()) {
@@ -198,6 +242,15 @@ public class ICal4JCalendarEventOccurrenceGenerator implements CalendarEventOccu
 
   private CalendarEventOccurrence buildCalendarEventOccurrence(final CalendarEvent event,
       final net.fortuna.ical4j.model.Period occurPeriod) {
+    final RecurrenceExpander.Slot slot = asSlot(event, occurPeriod);
+    return CalendarEventOccurrenceBuilder.forEvent(event)
+        .startingAt(slot.getStartDate())
+        .endingAt(slot.getEndDate())
+        .build();
+  }
+
+  private RecurrenceExpander.Slot asSlot(final CalendarEvent event,
+      final net.fortuna.ical4j.model.Period occurPeriod) {
     final Temporal occurStart;
     final Temporal occurEnd;
     if (event.isOnAllDay()) {
@@ -207,10 +260,7 @@ public class ICal4JCalendarEventOccurrenceGenerator implements CalendarEventOccu
       occurStart = asOffsetDateTime(occurPeriod.getStart());
       occurEnd = asOffsetDateTime(occurPeriod.getEnd());
     }
-    return CalendarEventOccurrenceBuilder.forEvent(event)
-        .startingAt(occurStart)
-        .endingAt(occurEnd)
-        .build();
+    return new RecurrenceExpander.Slot(occurStart, occurEnd);
   }
 
   private RRule generateRecurrenceRule(final CalendarEvent event) {
@@ -296,4 +346,42 @@ public class ICal4JCalendarEventOccurrenceGenerator implements CalendarEventOccu
   private OffsetDateTime asOffsetDateTime(DateTime dateTime) {
     return dateTime.toInstant().atOffset(ZoneOffset.UTC);
   }
+
+  /**
+   * A cursor on the occurrences of an event, ordered by their start date, to merge them with
+   * those of the other events.
+   */
+  private static final class OccurrenceCursor implements Comparable<OccurrenceCursor> {
+    private final int eventIndex;
+    private final CalendarEvent event;
+    private final List<RecurrenceExpander.Slot> slots;
+    private int position = 0;
+
+    private OccurrenceCursor(final int eventIndex, final CalendarEvent event,
+        final List<RecurrenceExpander.Slot> slots) {
+      this.eventIndex = eventIndex;
+      this.event = event;
+      this.slots = slots;
+    }
+
+    private boolean hasNext() {
+      return position < slots.size();
+    }
+
+    private CalendarEventOccurrence next() {
+      final RecurrenceExpander.Slot slot = slots.get(position++);
+      return CalendarEventOccurrenceBuilder.forEvent(event)
+          .startingAt(slot.getStartDate())
+          .endingAt(slot.getEndDate())
+          .build();
+    }
+
+    @Override
+    public int compareTo(final OccurrenceCursor other) {
+      final int comparison = slots.get(position)
+          .getStartInstant()
+          .compareTo(other.slots.get(other.position).getStartInstant());
+      return comparison != 0 ? comparison : Integer.compare(eventIndex, other.eventIndex);
+    }
+  }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import net.fortuna.ical4j.data.FoldingWriter;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.validate.ValidationException;
+import org.silverpeas.core.util.Charsets;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Writer of an iCalendar calendar into an output stream component by component. Unlike the
+ * iCal4J {@link net.fortuna.ical4j.data.CalendarOutputter} that requires the whole calendar to be
+ * built in memory before being written, the components are here written out as soon as they are
+ * passed, so the memory used doesn't depend on the count of components in the calendar.
+ * <p>
+ * The output is the same as the one of the {@link net.fortuna.ical4j.data.CalendarOutputter}:
+ * UTF-8 encoded text with the lines folded at the same length. The head of the calendar (its
+ * properties and the components that have to be at its beginning like the timezones) is written
+ * at the construction of the writer, then the components are written with the
+ * {@link #write(Component)} method, and the calendar is ended with the {@link #end()} method.
+ * </p>
+ */
+class ICal4JCalendarStreamWriter implements Closeable {
+
+  private static final String CALENDAR_END = Calendar.END + ':' + Calendar.VCALENDAR;
+
+  private final Writer writer;
+  private final String tail;
+
+  /**
+   * Constructs a new writer of a calendar into the specified output stream. The head of the
+   * calendar is validated and then written.
+   * @param head the iCal4J calendar with the properties and the components to write at the
+   * beginning of the calendar.
+   * @param output the output stream into which the calendar is written.
+   * @throws IOException if the head of the calendar cannot be written.
+   * @throws ValidationException if the head of the calendar isn't valid.
+   */
+  ICal4JCalendarStreamWriter(final Calendar head, final OutputStream output)
+      throws IOException, ValidationException {
+    head.validate();
+    final String text = head.toString();
+    final int end = text.lastIndexOf(CALENDAR_END);
+    this.writer = new FoldingWriter(
+        new BufferedWriter(new OutputStreamWriter(output, Charsets.UTF_8)),
+        FoldingWriter.REDUCED_FOLD_LENGTH);
+    this.tail = text.substring(end);
+    this.writer.write(text, 0, end);
+  }
+
+  /**
+   * Validates and writes the specified component into the calendar.
+   * @param component the iCal4J component to write.
+   * @throws IOException if the component cannot be written.
+   * @throws ValidationException if the component isn't valid.
+   */
+  void write(final Component component) throws IOException, ValidationException {
+    component.validate();
+    writer.write(component.toString());
+  }
+
+  /**
+   * Ends the calendar. No more components can be written after.
+   * @throws IOException if the end of the calendar cannot be written.
+   */
+  void end() throws IOException {
+    writer.write(tail);
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
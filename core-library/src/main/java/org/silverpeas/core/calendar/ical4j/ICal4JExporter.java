@@ -23,7 +23,6 @@
  */
 package org.silverpeas.core.calendar.ical4j;
 
-import net.fortuna.ical4j.data.CalendarOutputter;
 import net.fortuna.ical4j.model.Date;
 import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.Recur;
@@ -37,6 +36,7 @@ import net.fortuna.ical4j.model.parameter.Role;
 import net.fortuna.ical4j.model.parameter.Rsvp;
 import net.fortuna.ical4j.model.property.*;
 import net.fortuna.ical4j.util.CompatibilityHints;
+import net.fortuna.ical4j.validate.ValidationException;
 import org.silverpeas.kernel.SilverpeasRuntimeException;
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.annotation.Service;
@@ -56,10 +56,15 @@ import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -90,10 +95,18 @@ public class ICal4JExporter implements ICalendarExporter {
     CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_VALIDATION, true);
   }
 
+  /**
+   * Exports the events provided by the specified supplier in iCalendar formatted text. The events
+   * are written out one by one in the output stream of the descriptor as soon as they are fetched
+   * from the stream, so the export doesn't keep in memory the whole events of the calendar.
+   * @param descriptor the descriptor of the export with the calendar to which the events belong.
+   * @param supplier a supplier of the stream of events to export.
+   * @throws ExportException if the export fails.
+   */
   @Override
   public void exports(final ExportDescriptor descriptor,
       final Supplier<Stream<CalendarEvent>> supplier) throws ExportException {
-    try {
+    try (Stream<CalendarEvent> events = Objects.requireNonNull(supplier.get())) {
       Calendar calendar = descriptor.getParameter(CALENDAR);
 
       net.fortuna.ical4j.model.Calendar iCalCalendar = new net.fortuna.ical4j.model.Calendar();
@@ -111,31 +124,36 @@ public class ICal4JExporter implements ICalendarExporter {
       iCalCalendar.getProperties().add(new XProperty("X-WR-CALNAME", calendar.getTitle()));
       iCalCalendar.getProperties().add(new XProperty("X-WR-TIMEZONE", tz.getID()));
 
-      try (Stream<CalendarEvent> events = supplier.get()) {
-        events.forEach(event -> {
-          VEvent iCalEvent =
-              convertToICalEvent(descriptor, calendar, event, event.asCalendarComponent());
-          if (event.isRecurrent()) {
-            setICalRecurrence(event, iCalEvent);
-            event.getPersistedOccurrences().stream()
-                .sorted(CalendarEventOccurrence.COMPARATOR_BY_DATE_DESC)
-                .forEach(occurrence -> {
-                  VEvent occICalEvent = convertToICalEvent(descriptor, calendar, occurrence);
-                  iCalCalendar.getComponents().add(occICalEvent);
-                });
-          }
-          iCalCalendar.getComponents().add(iCalEvent);
-        });
+      try (ICal4JCalendarStreamWriter writer =
+               new ICal4JCalendarStreamWriter(iCalCalendar, descriptor.getOutputStream())) {
+        final Iterator<CalendarEvent> iterator = events.iterator();
+        while (iterator.hasNext()) {
+          writeICalEvent(writer, descriptor, calendar, iterator.next());
+        }
+        writer.end();
       }
-
-      CalendarOutputter writer = new CalendarOutputter();
-      writer.output(iCalCalendar, descriptor.getOutputStream());
     } catch (Exception e) {
       throw new ExportException("The export of the events in iCal formatted text has failed!",
           e);
     }
   }
 
+  private void writeICalEvent(final ICal4JCalendarStreamWriter writer,
+      final ExportDescriptor descriptor, final Calendar calendar, final CalendarEvent event)
+      throws IOException, ValidationException {
+    VEvent iCalEvent = convertToICalEvent(descriptor, calendar, event, event.asCalendarComponent());
+    if (event.isRecurrent()) {
+      setICalRecurrence(event, iCalEvent);
+      final List<CalendarEventOccurrence> occurrences =
+          new ArrayList<>(event.getPersistedOccurrences());
+      occurrences.sort(CalendarEventOccurrence.COMPARATOR_BY_DATE_DESC);
+      for (CalendarEventOccurrence occurrence : occurrences) {
+        writer.write(convertToICalEvent(descriptor, calendar, occurrence));
+      }
+    }
+    writer.write(iCalEvent);
+  }
+
   private VEvent convertToICalEvent(final ExportDescriptor descriptor, final Calendar calendar,
       CalendarEventOccurrence occurrence) {
     final CalendarComponent occComponent = occurrence.asCalendarComponent();
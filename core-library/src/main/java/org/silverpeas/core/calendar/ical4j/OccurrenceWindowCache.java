@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import org.silverpeas.kernel.bundle.ResourceLocator;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A cache of the occurrences of recurrent events expanded within a window of time. The entries are
+ * keyed by the calendar of the events, by the state of the events on which their expansion
+ * depends (dates, recurrence and zone of the calendar) and by the window of time. So, a change of
+ * an event makes its previous entries unreachable; they are then removed from the cache either by
+ * invalidating the entries of the calendar of the event or by the eviction of the least recently
+ * used entries once the cache is full.
+ * <p>
+ * The maximum number of entries is set by the {@code calendar.occurrences.cache.size} parameter in
+ * the calendar settings. Zero or negative value means no caching.
+ * </p>
+ */
+final class OccurrenceWindowCache {
+
+  private static final String CALENDAR_SETTINGS = "org.silverpeas.calendar.settings.calendar";
+  private static final int DEFAULT_MAX_SIZE = 5000;
+
+  private final int maxSize;
+  private final Map<Key, List<RecurrenceExpander.Slot>> cache;
+
+  /**
+   * Constructs a new cache.
+   * @param maxSize the maximum number of expanded windows to cache. Zero or negative value means
+   * no caching.
+   */
+  OccurrenceWindowCache(final int maxSize) {
+    this.maxSize = maxSize;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 2364939387207826582L;
+
+      @Override
+      protected boolean removeEldestEntry(
+          final Map.Entry<Key, List<RecurrenceExpander.Slot>> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Gets the cache shared by all the generations of event occurrences.
+   * @return the {@link OccurrenceWindowCache} instance.
+   */
+  static OccurrenceWindowCache get() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Gets the occurrences of an event expanded within the specified window of time. If they aren't
+   * yet in the cache, they are expanded with the given expansion function and then put into the
+   * cache.
+   * @param calendarId the unique identifier of the calendar of the event. Can be null if the
+   * calendar isn't yet persisted.
+   * @param eventState the state of the event on which the expansion depends. It must implement
+   * correctly the {@link Object#equals(Object)} and {@link Object#hashCode()} methods and must
+   * not change afterwards.
+   * @param from the inclusive start of the window of time.
+   * @param to the exclusive end of the window of time.
+   * @param expansion the function expanding the occurrences of the event within the window.
+   * @return an unmodifiable list of the time slots of the occurrences, ordered by their start
+   * date.
+   */
+  List<RecurrenceExpander.Slot> getOccurrences(final String calendarId, final Object eventState,
+      final Instant from, final Instant to,
+      final Supplier<List<RecurrenceExpander.Slot>> expansion) {
+    if (maxSize <= 0) {
+      return List.copyOf(expansion.get());
+    }
+    final Key key = new Key(calendarId, eventState, from, to);
+    List<RecurrenceExpander.Slot> occurrences;
+    synchronized (cache) {
+      occurrences = cache.get(key);
+    }
+    if (occurrences == null) {
+      occurrences = List.copyOf(expansion.get());
+      synchronized (cache) {
+        cache.put(key, occurrences);
+      }
+    }
+    return occurrences;
+  }
+
+  /**
+   * Invalidates all the expanded windows of the events of the specified calendar.
+   * @param calendarId the unique identifier of a calendar.
+   */
+  void invalidate(final String calendarId) {
+    synchronized (cache) {
+      cache.keySet().removeIf(k -> Objects.equals(k.calendarId, calendarId));
+    }
+  }
+
+  /**
+   * Clears the cache.
+   */
+  void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  private static final class InstanceHolder {
+    private static final OccurrenceWindowCache instance = new OccurrenceWindowCache(
+        ResourceLocator.getSettingBundle(CALENDAR_SETTINGS)
+            .getInteger("calendar.occurrences.cache.size", DEFAULT_MAX_SIZE));
+
+    private InstanceHolder() {
+    }
+  }
+
+  private static final class Key {
+    private final String calendarId;
+    private final Object eventState;
+    private final Instant from;
+    private final Instant to;
+
+    private Key(final String calendarId, final Object eventState, final Instant from,
+        final Instant to) {
+      this.calendarId = calendarId;
+      this.eventState = eventState;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return Objects.equals(calendarId, key.calendarId) && eventState.equals(key.eventState) &&
+          from.equals(key.from) && to.equals(key.to);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(calendarId, eventState, from, to);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.calendar.Calendar;
+import org.silverpeas.core.calendar.CalendarEvent;
+import org.silverpeas.core.calendar.notification.CalendarEventLifeCycleEvent;
+import org.silverpeas.core.notification.system.CDIResourceEventListener;
+
+/**
+ * Listener of the changes of calendar events in order to invalidate the expanded windows of
+ * occurrences cached for the calendars of the changed events.
+ */
+@Bean
+public class OccurrenceWindowCacheInvalidator
+    extends CDIResourceEventListener<CalendarEventLifeCycleEvent> {
+
+  @Override
+  public void onCreation(final CalendarEventLifeCycleEvent event) {
+    invalidate(event.getTransition().getAfter());
+  }
+
+  @Override
+  public void onUpdate(final CalendarEventLifeCycleEvent event) {
+    invalidate(event.getTransition().getBefore());
+    invalidate(event.getTransition().getAfter());
+  }
+
+  @Override
+  public void onDeletion(final CalendarEventLifeCycleEvent event) {
+    invalidate(event.getTransition().getBefore());
+  }
+
+  private void invalidate(final CalendarEvent event) {
+    if (event != null) {
+      final Calendar calendar = event.getCalendar();
+      if (calendar != null) {
+        OccurrenceWindowCache.get().invalidate(calendar.getId());
+      }
+    }
+  }
+}
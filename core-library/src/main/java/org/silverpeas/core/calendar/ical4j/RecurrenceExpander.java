@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import org.silverpeas.core.calendar.DayOfWeekOccurrence;
+import org.silverpeas.core.calendar.Recurrence;
+import org.silverpeas.core.date.TimeUnit;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Expander of the occurrences of a calendar event within a window of time. It works directly on
+ * the {@link Recurrence} of the event, without any conversion to iCal4J objects, and it produces
+ * the occurrences with the same semantic than the iCal4J recurrence set of a VEVENT:
+ * <ul>
+ *   <li>the recurrence rule is applied on the wall-clock date time of the event in the zone of
+ *   its calendar (UTC for the events on all the day),</li>
+ *   <li>the occurrences are those produced by the rule from the start of the event; the event
+ *   itself is an occurrence only if it matches the rule,</li>
+ *   <li>the count of occurrences includes those before the window, the end date of the
+ *   recurrence is inclusive, and the exception dates are matched against the start of the
+ *   occurrences,</li>
+ *   <li>an occurrence is in the window if it overlaps it; an occurrence ending exactly at the start
+ *   of the window isn't taken.</li>
+ * </ul>
+ * <p>
+ * Only the recurrence rules whose expansion doesn't depend on the quirks of iCal4J are supported
+ * (see {@link #isSupported(Temporal, Recurrence)}); the others have to be expanded with iCal4J.
+ * </p>
+ */
+final class RecurrenceExpander {
+
+  private static final long SECONDS_IN_DAY = 86400L;
+  private static final int MAX_NTH_IN_MONTH = 5;
+  private static final int MAX_SAFE_DAY_OF_MONTH = 28;
+
+  private final boolean onAllDay;
+  private final ZoneId zoneId;
+  private final Temporal startDate;
+  private final Temporal endDate;
+  private final Recurrence recurrence;
+  private final LocalDateTime seed;
+  private final long durationDays;
+  private final long durationSeconds;
+
+  /**
+   * Constructs an expander of the occurrences of an event.
+   * @param startDate the start date of the event: a {@link LocalDate} for an event on all the day,
+   * an {@link OffsetDateTime} otherwise.
+   * @param endDate the end date of the event, of the same type than the start date.
+   * @param recurrence the recurrence of the event or null if the event isn't recurrent.
+   * @param zoneId the zone identifier of the calendar in which the event is planned.
+   */
+  RecurrenceExpander(final Temporal startDate, final Temporal endDate,
+      final Recurrence recurrence, final ZoneId zoneId) {
+    this.onAllDay = startDate instanceof LocalDate;
+    this.zoneId = onAllDay ? ZoneOffset.UTC : zoneId;
+    this.startDate = inUTC(startDate);
+    this.endDate = inUTC(endDate);
+    this.recurrence = recurrence;
+    this.seed = toLocalDateTime(startDate);
+    final long seconds = Duration.between(seed, toLocalDateTime(endDate)).getSeconds();
+    this.durationDays = seconds / SECONDS_IN_DAY;
+    this.durationSeconds = seconds % SECONDS_IN_DAY;
+  }
+
+  /**
+   * Is the specified recurrence of an event starting at the given date supported by this
+   * expander? Unsupported are the yearly rules on some days of week and the rules for which the
+   * date of the occurrences computed by iCal4J can drift (monthly from a day after the 28th,
+   * yearly from the 29th of February).
+   * @param startDate the start date of the event.
+   * @param recurrence the recurrence of the event or null if the event isn't recurrent.
+   * @return true if the occurrences of the event can be expanded by this expander, false
+   * otherwise.
+   */
+  static boolean isSupported(final Temporal startDate, final Recurrence recurrence) {
+    if (recurrence == null) {
+      return true;
+    }
+    final TimeUnit unit = recurrence.getFrequency().getUnit();
+    final LocalDate startDay = startDate instanceof LocalDate ? (LocalDate) startDate :
+        ((OffsetDateTime) startDate).toLocalDate();
+    final Set<DayOfWeekOccurrence> days = recurrence.getDaysOfWeek();
+    switch (unit) {
+      case DAY:
+      case WEEK:
+        return true;
+      case MONTH:
+        return days.isEmpty() ? startDay.getDayOfMonth() <= MAX_SAFE_DAY_OF_MONTH :
+            days.stream().allMatch(d -> Math.abs(d.nth()) <= MAX_NTH_IN_MONTH);
+      case YEAR:
+        return days.isEmpty() &&
+            (startDay.getMonth() != Month.FEBRUARY || startDay.getDayOfMonth() != 29);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Expands the occurrences of the event overlapping the specified window of time.
+   * @param from the inclusive start of the window.
+   * @param to the exclusive end of the window.
+   * @return the time slots of the occurrences, ordered by their start date.
+   */
+  List<Slot> expand(final Instant from, final Instant to) {
+    final List<Slot> slots = new ArrayList<>();
+    if (recurrence == null) {
+      final Slot single = new Slot(startDate, endDate);
+      if (single.overlaps(from, to)) {
+        slots.add(single);
+      }
+      return slots;
+    }
+    final Set<Object> exceptionDates = getExceptionDates();
+    final int count = recurrence.getRecurrenceCount();
+    final Object until = recurrence.getRecurrenceEndDate().map(this::key).orElse(null);
+    final int interval = recurrence.getFrequency().getInterval();
+    long period = count == Recurrence.NO_RECURRENCE_COUNT ? firstPeriodBefore(from, interval) : 0;
+    int generated = 0;
+    boolean ended = false;
+    while (!ended) {
+      final SortedSet<LocalDate> dates = datesInPeriod(period * interval);
+      for (final LocalDate date : dates) {
+        final LocalDateTime candidate = date.atTime(seed.toLocalTime());
+        if (candidate.isBefore(seed)) {
+          continue;
+        }
+        final Slot slot = slotAt(candidate);
+        final Temporal slotStart = slot.getStartDate();
+        if (!startsBeforeOrAt(slotStart, until) || !instantOf(slotStart).isBefore(to)) {
+          ended = true;
+          break;
+        }
+        generated++;
+        if (slot.overlaps(from, to) && !exceptionDates.contains(key(slotStart))) {
+          slots.add(slot);
+        }
+        if (count != Recurrence.NO_RECURRENCE_COUNT && generated >= count) {
+          ended = true;
+          break;
+        }
+      }
+      period++;
+    }
+    return slots;
+  }
+
+  private long firstPeriodBefore(final Instant from, final int interval) {
+    final LocalDate lowerBound =
+        LocalDateTime.ofInstant(from, zoneId).toLocalDate().minusDays(durationDays + 2);
+    final long units;
+    switch (recurrence.getFrequency().getUnit()) {
+      case DAY:
+        units = ChronoUnit.DAYS.between(seed.toLocalDate(), lowerBound);
+        break;
+      case WEEK:
+        units = ChronoUnit.WEEKS.between(mondayOf(seed.toLocalDate()), lowerBound);
+        break;
+      case MONTH:
+        units = ChronoUnit.MONTHS.between(YearMonth.from(seed), YearMonth.from(lowerBound));
+        break;
+      default:
+        units = ChronoUnit.YEARS.between(seed.toLocalDate(), lowerBound);
+        break;
+    }
+    return Math.max(0, units / interval - 1);
+  }
+
+  private SortedSet<LocalDate> datesInPeriod(final long offset) {
+    final LocalDate seedDay = seed.toLocalDate();
+    final Set<DayOfWeekOccurrence> days = recurrence.getDaysOfWeek();
+    final SortedSet<LocalDate> dates = new TreeSet<>();
+    switch (recurrence.getFrequency().getUnit()) {
+      case DAY:
+        final LocalDate day = seedDay.plusDays(offset);
+        if (days.isEmpty() || days.stream().anyMatch(d -> d.dayOfWeek() == day.getDayOfWeek())) {
+          dates.add(day);
+        }
+        break;
+      case WEEK:
+        if (days.isEmpty()) {
+          dates.add(seedDay.plusWeeks(offset));
+        } else {
+          final LocalDate monday = mondayOf(seedDay).plusWeeks(offset);
+          days.forEach(d -> dates.add(monday.plusDays(d.dayOfWeek().ordinal())));
+        }
+        break;
+      case MONTH:
+        final YearMonth month = YearMonth.from(seedDay).plusMonths(offset);
+        if (days.isEmpty()) {
+          dates.add(month.atDay(seedDay.getDayOfMonth()));
+        } else {
+          days.forEach(d -> dates.addAll(datesInMonth(month, d)));
+        }
+        break;
+      default:
+        dates.add(seedDay.plusYears(offset));
+        break;
+    }
+    return dates;
+  }
+
+  private static List<LocalDate> datesInMonth(final YearMonth month,
+      final DayOfWeekOccurrence day) {
+    final LocalDate firstDay =
+        month.atDay(1).with(TemporalAdjusters.firstInMonth(day.dayOfWeek()));
+    final LocalDate lastDay =
+        month.atEndOfMonth().with(TemporalAdjusters.lastInMonth(day.dayOfWeek()));
+    final LocalDate date;
+    if (day.nth() == DayOfWeekOccurrence.ALL_OCCURRENCES) {
+      final List<LocalDate> dates = new ArrayList<>(MAX_NTH_IN_MONTH);
+      for (LocalDate d = firstDay; !d.isAfter(lastDay); d = d.plusWeeks(1)) {
+        dates.add(d);
+      }
+      return dates;
+    } else if (day.nth() > 0) {
+      date = firstDay.plusWeeks(day.nth() - 1L);
+    } else {
+      date = lastDay.plusWeeks(day.nth() + 1L);
+    }
+    return YearMonth.from(date).equals(month) ? List.of(date) : Collections.emptyList();
+  }
+
+  private Slot slotAt(final LocalDateTime start) {
+    final ZonedDateTime occurrenceStart = ZonedDateTime.of(start, zoneId);
+    final ZonedDateTime occurrenceEnd =
+        occurrenceStart.plusDays(durationDays).plusSeconds(durationSeconds);
+    if (onAllDay) {
+      return new Slot(occurrenceStart.toLocalDate(), occurrenceEnd.toLocalDate());
+    }
+    return new Slot(inUTC(occurrenceStart.toOffsetDateTime()),
+        inUTC(occurrenceEnd.toOffsetDateTime()));
+  }
+
+  private Set<Object> getExceptionDates() {
+    if (recurrence == null) {
+      return Collections.emptySet();
+    }
+    return recurrence.getExceptionDates().stream().map(this::key).collect(Collectors.toSet());
+  }
+
+  private boolean startsBeforeOrAt(final Temporal start, final Object until) {
+    if (until == null) {
+      return true;
+    }
+    final Object startKey = key(start);
+    if (onAllDay) {
+      return !((LocalDate) startKey).isAfter((LocalDate) until);
+    }
+    return !((Instant) startKey).isAfter((Instant) until);
+  }
+
+  /**
+   * Gets the key with which a date is compared with the dates of the recurrence: the day for an
+   * event on all the day, the instant on the timeline otherwise.
+   */
+  private Object key(final Temporal date) {
+    if (onAllDay) {
+      return date instanceof LocalDate ? date : ((OffsetDateTime) date).toLocalDate();
+    }
+    return instantOf(date);
+  }
+
+  private LocalDateTime toLocalDateTime(final Temporal date) {
+    if (date instanceof LocalDate) {
+      return ((LocalDate) date).atTime(LocalTime.MIDNIGHT);
+    }
+    return ((OffsetDateTime) date).atZoneSameInstant(zoneId).toLocalDateTime();
+  }
+
+  private static Temporal inUTC(final Temporal date) {
+    if (date instanceof OffsetDateTime) {
+      return ((OffsetDateTime) date).withOffsetSameInstant(ZoneOffset.UTC);
+    }
+    return date;
+  }
+
+  private static LocalDate mondayOf(final LocalDate date) {
+    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+  }
+
+  private static Instant instantOf(final Temporal date) {
+    if (date instanceof LocalDate) {
+      return ((LocalDate) date).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+    return Instant.from(date);
+  }
+
+  /**
+   * The time slot of an occurrence of an event.
+   */
+  static final class Slot {
+    private final Temporal startDate;
+    private final Temporal endDate;
+
+    Slot(final Temporal startDate, final Temporal endDate) {
+      this.startDate = startDate;
+      this.endDate = endDate;
+    }
+
+    Temporal getStartDate() {
+      return startDate;
+    }
+
+    Temporal getEndDate() {
+      return endDate;
+    }
+
+    Instant getStartInstant() {
+      return instantOf(startDate);
+    }
+
+    private boolean overlaps(final Instant from, final Instant to) {
+      return instantOf(startDate).isBefore(to) && instantOf(endDate).isAfter(from);
+    }
+  }
+}
@@ -26,6 +26,8 @@ package org.silverpeas.core.contribution.content.form;
 import org.silverpeas.core.ResourceReference;
 import org.silverpeas.core.index.indexing.model.FullIndexEntry;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -55,6 +57,26 @@ public interface RecordSet {
 
   DataRecord getRecord(String recordId, String language) throws FormException;
 
+  /**
+   * Returns the DataRecords of the given objects in the given language. The objects without any
+   * record aren't in the returned map.
+   * @param objectIds the ids of the objects.
+   * @param language the language of the records.
+   * @return the records indexed by the id of their object, in the order of the given ids.
+   * @throws FormException if the loading of the records fails.
+   */
+  default Map<String, DataRecord> getRecords(Collection<String> objectIds, String language)
+      throws FormException {
+    final Map<String, DataRecord> records = new LinkedHashMap<>(objectIds.size());
+    for (String objectId : objectIds) {
+      final DataRecord data = getRecord(objectId, language);
+      if (data != null) {
+        records.put(objectId, data);
+      }
+    }
+    return records;
+  }
+
   List<DataRecord> getRecords(String fieldName, String fieldValue) throws FormException;
 
   /**
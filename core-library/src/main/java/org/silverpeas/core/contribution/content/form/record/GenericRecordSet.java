@@ -47,6 +47,7 @@ import org.silverpeas.kernel.logging.SilverLogger;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -116,6 +117,18 @@ public class GenericRecordSet implements RecordSet, Serializable {
     return getGenericRecordSetManager().getRecord(recordTemplate, objectId, language);
   }
 
+  /**
+   * Returns the DataRecords of the given objects. They are all loaded at once.
+   *
+   * @return the DataRecords indexed by the id of their object.
+   * @throws FormException if the loading of the records fails.
+   */
+  @Override
+  public Map<String, DataRecord> getRecords(Collection<String> objectIds, String language)
+      throws FormException {
+    return getGenericRecordSetManager().getRecords(recordTemplate, objectIds, language);
+  }
+
   public List<DataRecord> getRecords(String fieldName, String fieldValue) throws FormException {
     return getGenericRecordSetManager().getRecords(recordTemplate, fieldName, fieldValue);
   }
@@ -41,6 +41,8 @@ import org.silverpeas.core.security.encryption.ContentEncryptionService;
 import org.silverpeas.core.security.encryption.ContentEncryptionServiceProvider;
 import org.silverpeas.core.security.encryption.EncryptionContentIterator;
 import org.silverpeas.core.security.encryption.cipher.CryptoException;
+import org.silverpeas.core.util.MapUtil;
+import org.silverpeas.kernel.util.Pair;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 
@@ -50,12 +52,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The GenericRecordSetManage all the GenericRecordSet. It is a singleton.
@@ -72,7 +78,7 @@ public class GenericRecordSetManager {
   private static final String FORM_EXP_UNKNOWN_TEMPLATE = "form.EXP_UNKNOWN_TEMPLATE";
   private static final String FIELD_VALUE = "fieldValue";
 
-  private final Map<String, GenericRecordSet> cache = new HashMap<>();
+  private final Map<String, GenericRecordSet> cache = new ConcurrentHashMap<>();
 
   private GenericRecordSetManager() {
 
@@ -120,9 +126,7 @@ public class GenericRecordSetManager {
           insertTemplateFieldRows(con, identifiedTemplate);
         }
 
-        GenericRecordSet newSet = new GenericRecordSet(identifiedTemplate);
-        cacheRecordSet(externalId, newSet);
-        return newSet;
+        return cacheRecordSet(externalId, new GenericRecordSet(identifiedTemplate));
       } else {
         return (GenericRecordSet) getRecordSet(externalId);
       }
@@ -172,9 +176,7 @@ public class GenericRecordSetManager {
         // get fields directly from database
         selectTemplateFieldRows(con, template);
       }
-      cachedSet = new GenericRecordSet(template);
-      cacheRecordSet(externalId, cachedSet);
-      return cachedSet;
+      return cacheRecordSet(externalId, new GenericRecordSet(template));
     } catch (SQLException e) {
       throw new FormException(GENERIC_RECORD_SET_MANAGER, FORM_EXP_SELECT_FAILED, e);
     }
@@ -209,8 +211,9 @@ public class GenericRecordSetManager {
     return cache.get(externalId);
   }
 
-  private void cacheRecordSet(String externalId, GenericRecordSet set) {
-    cache.put(externalId, set);
+  private GenericRecordSet cacheRecordSet(String externalId, GenericRecordSet set) {
+    final GenericRecordSet alreadyCached = cache.putIfAbsent(externalId, set);
+    return alreadyCached != null ? alreadyCached : set;
   }
 
   private void removeCachedRecordSet(String externalId) {
@@ -218,17 +221,11 @@ public class GenericRecordSetManager {
   }
 
   public void removeTemplateFromCache(String templateName) {
-    // getting cached recordsets managed by given template
-    List<String> ids = new ArrayList<>();
-    for (Map.Entry<String, GenericRecordSet> recordSets : cache.entrySet()) {
-      GenericRecordSet rs = recordSets.getValue();
+    // removing the cached recordsets managed by given template
+    cache.values().removeIf(rs -> {
       IdentifiedRecordTemplate template = (IdentifiedRecordTemplate) rs.getRecordTemplate();
-      if (template != null && templateName.equalsIgnoreCase(template.getTemplateName())) {
-        ids.add(recordSets.getKey());
-      }
-    }
-    // removing recordsets from cache
-    ids.forEach(this::removeCachedRecordSet);
+      return template != null && templateName.equalsIgnoreCase(template.getTemplateName());
+    });
   }
 
   /**
@@ -280,6 +277,55 @@ public class GenericRecordSetManager {
     }
   }
 
+  /**
+   * Return the DataRecords registered by the given objects for the specified template and in the
+   * given language. As for {@link #getRecord(IdentifiedRecordTemplate, String, String)}, if a
+   * record doesn't exist in the given language, fallback to other languages is done. Whatever the
+   * number of objects, the records and their fields are loaded with a few queries.
+   * @param template the definition of the form template the records belong to.
+   * @param objectIds the IDs of the resources attached to the form records.
+   * @param language the language of the records.
+   * @return the form records indexed by the ID of the resource they are attached to, in the order
+   * of the given IDs. The resources without any form record aren't in the map.
+   * @throws FormException if the loading of the records fails.
+   */
+  public Map<String, DataRecord> getRecords(IdentifiedRecordTemplate template,
+      Collection<String> objectIds, String language) throws FormException {
+    final Set<String> ids = new LinkedHashSet<>(objectIds);
+    if (ids.isEmpty()) {
+      return new LinkedHashMap<>();
+    }
+    try (final Connection con = getConnection()) {
+      final Map<String, List<Pair<Integer, String>>> headers =
+          JdbcSqlQuery.executeBySplittingOn(ids, (idBatch, result) -> JdbcSqlQuery
+              .select("recordId, externalId, lang")
+              .from(RECORD_TABLE)
+              .where("templateId = ?", template.getInternalId())
+              .and("externalId").in(idBatch)
+              .executeWith(con, r -> {
+                MapUtil.putAddList(result, r.getString(2), Pair.of(r.getInt(1), r.getString(3)));
+                return null;
+              }));
+      final Map<String, DataRecord> records = new LinkedHashMap<>(headers.size());
+      final Map<Integer, GenericDataRecord> recordsById = new HashMap<>(headers.size());
+      for (String objectId : ids) {
+        final List<Pair<Integer, String>> objectHeaders = headers.get(objectId);
+        if (objectHeaders != null) {
+          final GenericDataRecord record =
+              selectRecordRow(template, objectId, language, objectHeaders);
+          if (record != null) {
+            records.put(objectId, record);
+            recordsById.put(record.getInternalId(), record);
+          }
+        }
+      }
+      selectFieldRows(con, template, recordsById);
+      return records;
+    } catch (SQLException e) {
+      throw new FormException(GENERIC_RECORD_SET_MANAGER, FORM_EXP_SELECT_FAILED, e);
+    }
+  }
+
   public List<String> getLanguagesOfRecord(IdentifiedRecordTemplate template,
       String externalId) throws FormException {
     try (final Connection con = getConnection()) {
@@ -801,6 +847,49 @@ public class GenericRecordSetManager {
     }
   }
 
+  /**
+   * Select the record header among the given ones (recordId, lang) of a resource, with the same
+   * language fallback as {@link #getRecord(IdentifiedRecordTemplate, String, String)}.
+   */
+  private GenericDataRecord selectRecordRow(IdentifiedRecordTemplate template, String externalId,
+      String language, List<Pair<Integer, String>> headers) throws FormException {
+    String recordLanguage = language;
+    Integer recordId = findRecordId(headers, language);
+    if (recordId == null && I18NHelper.isI18nContentEnabled()) {
+      List<String> languages = new ArrayList<>(I18NHelper.getAllSupportedLanguages());
+      languages.remove(language);
+      for (String lang : languages) {
+        recordId = findRecordId(headers, lang);
+        if (recordId != null) {
+          recordLanguage = lang;
+          break;
+        }
+      }
+    }
+    if (recordId == null) {
+      return null;
+    }
+    GenericDataRecord record = new GenericDataRecord(template);
+    record.setInternalId(recordId);
+    record.setId(externalId);
+    record.setLanguage(recordLanguage);
+    return record;
+  }
+
+  private Integer findRecordId(List<Pair<Integer, String>> headers, String language) {
+    final String lang;
+    if (!I18NHelper.isI18nContentActivated || I18NHelper.isDefaultLanguage(language)) {
+      lang = null;
+    } else {
+      lang = language;
+    }
+    return headers.stream()
+        .filter(h -> Objects.equals(lang, h.getSecond()))
+        .map(Pair::getFirst)
+        .findFirst()
+        .orElse(null);
+  }
+
   private GenericDataRecord executeSelectQuery(final Connection con, final String query,
       final IdentifiedRecordTemplate template, final String externalId)
       throws SQLException, FormException {
@@ -862,25 +951,51 @@ public class GenericRecordSetManager {
 
           rows.put(fieldName + SEPARATOR + fieldValueIndex, fieldValue);
         }
+        setFieldValues(template, record, rows);
+      }
+    }
+  }
 
-        if (template.isEncrypted()) {
-          rows = getEncryptionService().decryptContent(rows);
-        }
+  /**
+   * Select the fields of all the given records, indexed by their internal id.
+   */
+  private void selectFieldRows(Connection con, IdentifiedRecordTemplate template,
+      Map<Integer, GenericDataRecord> records) throws SQLException, FormException {
+    final Map<Integer, Map<String, String>> rowsByRecord = new HashMap<>(records.size());
+    JdbcSqlQuery.executeBySplittingOn(records.keySet(), (idBatch, result) -> JdbcSqlQuery
+        .select("recordId, fieldName, fieldValue, fieldValueIndex")
+        .from(FIELDS_TABLE)
+        .where("recordId").in(idBatch)
+        .executeWith(con, rs -> {
+          rowsByRecord.computeIfAbsent(rs.getInt(1), i -> new TreeMap<>())
+              .put(rs.getString(2) + SEPARATOR + rs.getInt(4), rs.getString(3));
+          return null;
+        }));
+    for (Map.Entry<Integer, Map<String, String>> recordRows : rowsByRecord.entrySet()) {
+      setFieldValues(template, records.get(recordRows.getKey()), recordRows.getValue());
+    }
+  }
 
-        for (Map.Entry<String, String> fieldNameIndexed : rows.entrySet()) {
-          String[] fieldNameAndIndex = StringUtil.split(fieldNameIndexed.getKey(), SEPARATOR);
-          String fieldName = fieldNameAndIndex[0];
-          int fieldValueIndex = Integer.parseInt(fieldNameAndIndex[1]);
-          Field field = record.getField(fieldName, fieldValueIndex);
-          String fieldValue = fieldNameIndexed.getValue();
-          if (field != null) {// We found a field corresponding to the fieldName
-            field.setStringValue(fieldValue);
-          }
-        }
+  private void setFieldValues(IdentifiedRecordTemplate template, GenericDataRecord record,
+      Map<String, String> rows) throws FormException {
+    try {
+      if (template.isEncrypted()) {
+        rows = getEncryptionService().decryptContent(rows);
       }
     } catch (CryptoException e) {
       throw new FormException(GENERIC_RECORD_SET_MANAGER, "form.DECRYPTING_DATA_FAILED", e);
     }
+
+    for (Map.Entry<String, String> fieldNameIndexed : rows.entrySet()) {
+      String[] fieldNameAndIndex = StringUtil.split(fieldNameIndexed.getKey(), SEPARATOR);
+      String fieldName = fieldNameAndIndex[0];
+      int fieldValueIndex = Integer.parseInt(fieldNameAndIndex[1]);
+      Field field = record.getField(fieldName, fieldValueIndex);
+      String fieldValue = fieldNameIndexed.getValue();
+      if (field != null) {// We found a field corresponding to the fieldName
+        field.setStringValue(fieldValue);
+      }
+    }
   }
 
   private List<String> selectLanguagesOfRecord(Connection con,
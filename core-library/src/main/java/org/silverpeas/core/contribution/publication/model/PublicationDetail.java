@@ -75,6 +75,7 @@ import org.silverpeas.core.security.authorization.AccessControlContext;
 import org.silverpeas.core.security.authorization.AccessControlOperation;
 import org.silverpeas.core.security.authorization.PublicationAccessControl;
 import org.silverpeas.core.util.DateUtil;
+import org.silverpeas.core.util.MapUtil;
 import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.core.util.URLUtil;
@@ -92,12 +93,14 @@ import java.io.StringWriter;
 import java.text.MessageFormat;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.silverpeas.core.SilverpeasExceptionMessages.failureOnGetting;
 import static org.silverpeas.core.contribution.indicator.NewContributionIndicator.isNewContribution;
@@ -578,6 +581,43 @@ public class PublicationDetail extends AbstractI18NBean<PublicationI18N>
     return xmlFields;
   }
 
+  /**
+   * Loads the form fields of all the given publications with a single request per form template
+   * instead of one request per publication. The fields are then served by
+   * {@link #getXmlFields(String)}. This is for the lists of publications whose form fields are
+   * rendered.
+   * @param publications the publications of a list.
+   * @param language the language of the form records.
+   */
+  public static void loadXmlFields(Collection<PublicationDetail> publications, String language) {
+    final Map<String, List<PublicationDetail>> publicationsByTemplate = new HashMap<>();
+    for (PublicationDetail publication : publications) {
+      if (publication.xmlFields == null && isDefined(publication.getInfoId()) &&
+          !StringUtil.isInteger(publication.getInfoId())) {
+        MapUtil.putAddList(publicationsByTemplate,
+            publication.getPK().getInstanceId() + ":" + publication.getInfoId(), publication);
+      }
+    }
+    if (publicationsByTemplate.isEmpty()) {
+      return;
+    }
+    final FormTemplateService formTemplateService =
+        ServiceProvider.getService(FormTemplateService.class);
+    publicationsByTemplate.forEach((templateId, publicationsOfTemplate) -> {
+      final List<String> ids = publicationsOfTemplate.stream()
+          .map(PublicationDetail::getId)
+          .collect(Collectors.toList());
+      try {
+        final Map<String, List<XMLField>> fields =
+            formTemplateService.getXMLFieldsForExport(templateId, ids, language);
+        publicationsOfTemplate.forEach(p -> p.xmlFields =
+            fields.getOrDefault(p.getId(), new ArrayList<>()));
+      } catch (Exception e) {
+        throw new PublicationRuntimeException(e);
+      }
+    });
+  }
+
   public Map<String, String> getFormValues(String language) {
     HashMap<String, String> formValues = new HashMap<>();
     if ("0".equals(getInfoId())) {
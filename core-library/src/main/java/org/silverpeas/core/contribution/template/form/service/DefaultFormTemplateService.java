@@ -40,7 +40,10 @@ import org.silverpeas.core.exception.UtilException;
 import javax.inject.Singleton;
 import javax.transaction.Transactional;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Singleton
@@ -76,6 +79,23 @@ public class DefaultFormTemplateService implements FormTemplateService {
   public List<XMLField> getXMLFieldsForExport(String externalId, String id, String language) {
     PublicationTemplateImpl template = (PublicationTemplateImpl) getPublicationTemplate(externalId);
     DataRecord data = getRecord(id, template, language);
+    return getXMLFieldsForExport(template, data, externalId, id);
+  }
+
+  @Override
+  public Map<String, List<XMLField>> getXMLFieldsForExport(String externalId,
+      Collection<String> ids, String language) {
+    PublicationTemplateImpl template = (PublicationTemplateImpl) getPublicationTemplate(externalId);
+    Map<String, DataRecord> records = getRecords(ids, template, language);
+    Map<String, List<XMLField>> fields = new LinkedHashMap<>(ids.size());
+    for (String id : ids) {
+      fields.put(id, getXMLFieldsForExport(template, records.get(id), externalId, id));
+    }
+    return fields;
+  }
+
+  private List<XMLField> getXMLFieldsForExport(PublicationTemplateImpl template, DataRecord data,
+      String externalId, String id) {
     List<XMLField> fields = new ArrayList<>();
     if (data != null) {
       try {
@@ -148,6 +168,17 @@ public class DefaultFormTemplateService implements FormTemplateService {
     }
   }
 
+  private Map<String, DataRecord> getRecords(Collection<String> ids, PublicationTemplate pub,
+      String language) {
+    try {
+      RecordSet set = pub.getRecordSet();
+      return set.getRecords(ids, language);
+    } catch (Exception e) {
+      throw new FormTemplateRuntimeException("DefaultFormTemplateService.getRecords",
+          SilverpeasException.ERROR, "Getting records for ids " + ids + " failed !", e);
+    }
+  }
+
   private DataRecord getRecord(String id, PublicationTemplate pub, String language) {
     try {
       RecordSet set = pub.getRecordSet();
@@ -27,7 +27,9 @@ import org.silverpeas.core.contribution.content.form.DataRecord;
 import org.silverpeas.core.contribution.content.form.XMLField;
 import org.silverpeas.core.contribution.template.publication.PublicationTemplate;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface declaration
@@ -44,6 +46,18 @@ public interface FormTemplateService {
 
   List<XMLField> getXMLFieldsForExport(String externalId, String id, String language) ;
 
+  /**
+   * Gets the fields to export of the form records of the given resources. The records are all
+   * loaded at once, whatever the number of resources.
+   * @param externalId the identifier of the form template.
+   * @param ids the identifiers of the resources.
+   * @param language the language of the records.
+   * @return the fields indexed by the identifier of their resource. A resource without any form
+   * record is mapped to an empty list.
+   */
+  Map<String, List<XMLField>> getXMLFieldsForExport(String externalId, Collection<String> ids,
+      String language);
+
   String getWysiwygContent(String componentId, String objectId, String fieldName,
       String language);
 }
\ No newline at end of file
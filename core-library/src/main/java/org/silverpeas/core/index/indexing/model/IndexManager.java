@@ -59,11 +59,11 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.System.currentTimeMillis;
 import static java.text.MessageFormat.format;
@@ -74,8 +74,11 @@ import static org.silverpeas.core.index.indexing.model.IndexProcessor.doFlush;
 import static org.silverpeas.core.index.indexing.model.IndexProcessor.doRemoveAll;
 
 /**
- * An IndexManager manage all the index in Silverpeas. An IndexManager is NOT thread safe: to share
- * an IndexManager between several threads use an IndexerThread.
+ * An IndexManager manage all the index in Silverpeas. The entries can be added or removed
+ * concurrently (as done by the {@link IndexingPipeline}) as long as the requests about a same entry
+ * are performed in sequence, but the flush and the removal of all the indexes must not be performed
+ * concurrently with the indexation: to share an IndexManager between several threads use the
+ * {@link IndexerTask}.
  */
 @Technical
 @Bean
@@ -131,7 +134,7 @@ public class IndexManager {
   // enable the "Did you mean " indexing
   private static final boolean ENABLE_DYM_INDEXING;
   private static final String SILVERPEAS_SERVER_NAME;
-  private final Map<String, IndexWriter> indexWriters = new LinkedHashMap<>();
+  private final Map<String, IndexWriter> indexWriters = new ConcurrentHashMap<>();
   @Inject
   private ParserManager parserManager;
 
@@ -167,8 +170,23 @@ public class IndexManager {
 
   /**
    * Optimize all the modified index.
+   * <p>
+   * In near-real-time mode, the writers are kept opened: the readers are just refreshed in order
+   * the searches to see the last changes, the commit being performed periodically by the
+   * {@link NearRealTimeIndexJob}. Without background refresh, the writers are committed on each
+   * flush.
+   * </p>
    */
   public void flush() {
+    if (NearRealTimeIndexes.isEnabled()) {
+      doFlush(() -> {
+        indexingLogger().debug("refreshing the NRT readers");
+        final List<String> committedPaths = NearRealTimeIndexes.flush();
+        updateSpellIndexes(committedPaths);
+        return committedPaths;
+      });
+      return;
+    }
     doFlush(() -> {
       final SilverLogger logger = indexingLogger();
       final List<String> pathProcessed = new ArrayList<>(indexWriters.size());
@@ -195,6 +213,22 @@ public class IndexManager {
     });
   }
 
+  /**
+   * Commits the pending changes of the writers opened in near-real-time mode and updates the
+   * spelling index of the committed indexes.
+   */
+  void commit() {
+    final List<String> committedPaths = NearRealTimeIndexes.commit();
+    indexingLogger().debug("{0} NRT writer(s) committed", committedPaths.size());
+    updateSpellIndexes(committedPaths);
+  }
+
+  private void updateSpellIndexes(final List<String> committedPaths) {
+    if (ENABLE_DYM_INDEXING) {
+      committedPaths.forEach(p -> DidYouMeanIndexer.createSpellIndexForAllLanguage(CONTENT, p));
+    }
+  }
+
   private void removeIndexEntry(IndexWriter writer, IndexEntryKey indexEntryKey) {
     Term term = new Term(KEY, indexEntryKey.toString());
     try {
@@ -339,28 +373,41 @@ public class IndexManager {
    * @return an IndexWriter or null if the index can't be found or create or read.
    */
   private IndexWriter getIndexWriter(String path, String language) {
+    if (NearRealTimeIndexes.isEnabled()) {
+      return NearRealTimeIndexes.getIndexWriter(path, p -> openIndexWriter(p, language));
+    }
     //noinspection resource
     indexWriters.computeIfPresent(path, (s, w) -> w.isOpen() ? w : null);
-    return indexWriters.computeIfAbsent(path, p -> {
-      try {
-        final File file = new File(path);
-        if (!file.exists()) {
-          //noinspection ResultOfMethodCallIgnored
-          file.mkdirs();
-        }
-        final LogDocMergePolicy policy = new LogDocMergePolicy();
-        policy.setMergeFactor(mergeFactor);
-        policy.setMaxMergeDocs(maxMergeDocs);
-        final IndexWriterConfig configuration =
-            new IndexWriterConfig(getAnalyzer(language)).setRAMBufferSizeMB(DEFAULT_RAM_BUFFER_SIZE_MB)
-                .setMergePolicy(policy);
-        return new IndexWriter(FSDirectory.open(file.toPath()), configuration);
-      } catch (IOException e) {
-        indexingLogger().error("Unknown index file " + path, e);
+    return indexWriters.computeIfAbsent(path, p -> openIndexWriter(p, language));
+  }
+
+  /**
+   * Opens a new IndexWriter to the index stored at the given path. The index directory and files
+   * are created if not found.
+   *
+   * @param path the path to the index root directory
+   * @param language the language of the indexed documents.
+   * @return an IndexWriter or null if the index can't be found or create or read.
+   */
+  private IndexWriter openIndexWriter(String path, String language) {
+    try {
+      final File file = new File(path);
+      if (!file.exists()) {
+        //noinspection ResultOfMethodCallIgnored
+        file.mkdirs();
       }
-      // The map is not filled
-      return null;
-    });
+      final LogDocMergePolicy policy = new LogDocMergePolicy();
+      policy.setMergeFactor(mergeFactor);
+      policy.setMaxMergeDocs(maxMergeDocs);
+      final IndexWriterConfig configuration =
+          new IndexWriterConfig(getAnalyzer(language)).setRAMBufferSizeMB(DEFAULT_RAM_BUFFER_SIZE_MB)
+              .setMergePolicy(policy);
+      return new IndexWriter(FSDirectory.open(file.toPath()), configuration);
+    } catch (IOException e) {
+      indexingLogger().error("Unknown index file " + path, e);
+    }
+    // The map is not filled
+    return null;
   }
 
   private void index(IndexWriter writer, FullIndexEntry indexEntry) {
@@ -55,6 +55,9 @@ public class IndexProcessor {
   }
 
   public static <R> R doSearch(SearchIndexProcess<R> searchIndexProcess, Supplier<R> defaultReturn) throws ParseException {
+    if (NearRealTimeIndexes.isEnabled()) {
+      return doNearRealTimeSearch(searchIndexProcess, defaultReturn);
+    }
     final SilverLogger logger = indexingLogger();
     final long stamp;
     synchronized (MUTEX) {
@@ -83,8 +86,32 @@ public class IndexProcessor {
     }
   }
 
+  /**
+   * In near-real-time mode, the readers are shared and refreshed in background, so no global
+   * mutex is required: the search just acquires the readers it needs and releases them at its end.
+   * The read lock is only used to prevent any search during the removing of all the indexes.
+   */
+  private static <R> R doNearRealTimeSearch(SearchIndexProcess<R> searchIndexProcess,
+      Supplier<R> defaultReturn) throws ParseException {
+    final long stamp = SEARCH_LOCK.tryReadLock();
+    if (stamp == 0) {
+      indexingLogger().debug(
+          "starting and ending directly search processing because of index removing");
+      return defaultReturn.get();
+    }
+    try {
+      return searchIndexProcess.process();
+    } finally {
+      NearRealTimeIndexes.releaseReaders();
+      SEARCH_LOCK.unlockRead(stamp);
+    }
+  }
+
   public static void doFlush(FlushIndexProcess flushIndexProcess) {
     final List<String> updatedPaths = flushIndexProcess.process();
+    if (NearRealTimeIndexes.isEnabled()) {
+      return;
+    }
     synchronized (UPDATED_MUTEX) {
       UPDATED_INDEXES.addAll(updatedPaths);
     }
@@ -100,6 +127,10 @@ public class IndexProcessor {
     try {
       logger.debug("closing all index readers");
       IndexReadersCache.closeAllIndexReaders();
+      if (NearRealTimeIndexes.isEnabled()) {
+        logger.debug("closing all NRT writers and readers");
+        NearRealTimeIndexes.closeAll();
+      }
       logger.debug("removing indexes");
       removeAllIndexesProcess.process();
     } catch (IOException e) {
@@ -115,6 +146,7 @@ public class IndexProcessor {
       synchronized (UPDATED_MUTEX) {
         if (searchSettings.getBoolean("index.reader.closeAfterLastSearch", false)) {
           logger.debug("no search is currently being performed, so closing all readers");
+          UPDATED_INDEXES.forEach(IndexReadersCache::closeIndexReader);
           IndexReadersCache.closeAllIndexReaders();
           UPDATED_INDEXES.clear();
         } else {
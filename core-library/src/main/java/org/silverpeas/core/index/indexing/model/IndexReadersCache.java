@@ -32,14 +32,18 @@ import org.silverpeas.kernel.logging.SilverLogger;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static org.silverpeas.core.index.indexing.IndexingLogger.indexingLogger;
 
 public class IndexReadersCache {
   private static final Object READER_MUTEX = new Object();
   private static final Map<String, IndexReader> INDEX_READERS = new HashMap<>();
+  private static final List<Consumer<String>> CLOSING_LISTENERS = new CopyOnWriteArrayList<>();
   private static final BiConsumer<String, IndexReader> CLOSE_INDEX_CONSUMER = (s, r) -> {
     final SilverLogger logger = indexingLogger();
     try {
@@ -60,10 +64,17 @@ public class IndexReadersCache {
    * This method must be called only within a
    * {@link IndexProcessor.SearchIndexProcess#process()} implementation in order to get a
    * right behavior against the concurrent accesses.
+   * <p>
+   * In near-real-time mode, the reader is acquired from the reader manager of the index and it is
+   * released at the end of the search process.
+   * </p>
    * @param path the index root path.
    * @return the {@link IndexReader} well initialized if necessary.
    */
   public static IndexReader getIndexReader(String path) {
+    if (NearRealTimeIndexes.isEnabled()) {
+      return NearRealTimeIndexes.acquireReader(path);
+    }
     synchronized (READER_MUTEX) {
       final File rootPath = new File(path);
       final boolean validRootPath = ArrayUtil.isNotEmpty(rootPath.list());
@@ -86,8 +97,27 @@ public class IndexReadersCache {
     }
   }
 
+  /**
+   * Adds a listener of the closing of the cached index readers. It is invoked with the path of
+   * an index each time its reader is closed, even if it wasn't yet opened, so that the objects
+   * built upon the previous state of this index can be discarded.
+   * @param listener the listener to add.
+   */
+  public static void addClosingListener(final Consumer<String> listener) {
+    CLOSING_LISTENERS.add(listener);
+  }
+
+  /**
+   * Removes the specified listener of the closing of the cached index readers.
+   * @param listener the listener to remove.
+   */
+  public static void removeClosingListener(final Consumer<String> listener) {
+    CLOSING_LISTENERS.remove(listener);
+  }
+
   static void closeIndexReader(String path) {
     synchronized (READER_MUTEX) {
+      CLOSING_LISTENERS.forEach(l -> l.accept(path));
       final IndexReader indexReader = INDEX_READERS.remove(path);
       if (indexReader != null) {
         CLOSE_INDEX_CONSUMER.accept(path, indexReader);
@@ -97,6 +127,7 @@ public class IndexReadersCache {
 
   static void closeAllIndexReaders() {
     synchronized (READER_MUTEX) {
+      INDEX_READERS.keySet().forEach(p -> CLOSING_LISTENERS.forEach(l -> l.accept(p)));
       INDEX_READERS.forEach(CLOSE_INDEX_CONSUMER);
       INDEX_READERS.clear();
     }
@@ -24,14 +24,23 @@
 package org.silverpeas.core.index.indexing.model;
 
 import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.kernel.SilverpeasException;
 import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.thread.task.AbstractRequestTask;
 import org.silverpeas.core.thread.task.RequestTaskManager;
 
 import javax.inject.Inject;
 
+import static org.silverpeas.core.index.indexing.IndexingLogger.indexingLogger;
+
 /**
  * This task is in charge of processing indexation requests.
+ * <p>
+ * When the {@link IndexingPipeline} is enabled, the requests about a single index entry are
+ * dispatched over the threads of the pipeline (the order of the requests about a same entry being
+ * kept), whereas the requests about several entries are processed by this task once all the
+ * previous requests are done.
+ * </p>
  */
 @Technical
 @Bean
@@ -46,6 +55,9 @@ public class IndexerTask extends AbstractRequestTask<IndexerTask.IndexerProcessC
   @Inject
   private IndexManager indexManager;
 
+  @Inject
+  private IndexingPipeline pipeline;
+
   /**
    * Add a request 'add entry index'.
    * @param indexEntry the index entry ro process.
@@ -82,10 +94,53 @@ public class IndexerTask extends AbstractRequestTask<IndexerTask.IndexerProcessC
     return QUEUE_LIMIT;
   }
 
+  @Override
+  protected void processRequest(final Request<IndexerProcessContext> request)
+      throws SilverpeasException {
+    if (!pipeline.isEnabled()) {
+      super.processRequest(request);
+      return;
+    }
+    try {
+      if (request instanceof IndexEntryRequest) {
+        final IndexerProcessContext context = getProcessContext();
+        pipeline.submit(((IndexEntryRequest) request).getIndexEntryKey(), () -> {
+          try {
+            request.process(context);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      } else {
+        pipeline.awaitCompletion();
+        super.processRequest(request);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SilverpeasException(e);
+    }
+  }
+
   @Override
   protected void afterNoMoreRequest() {
     super.afterNoMoreRequest();
+    try {
+      pipeline.awaitCompletion();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
     indexManager.flush();
+    if (pipeline.isEnabled()) {
+      final IndexingPipeline.Statistics statistics = pipeline.getStatistics();
+      indexingLogger().debug(
+          "{0} indexation requests processed by the pipeline ({1,number,#.##} requests/s, " +
+              "{2,number,#.##} ms per request in average, {3,number,#.##} ms of waiting in " +
+              "average, {4} requests queued at most)",
+          statistics.getProcessedTasks(), statistics.getThroughput(),
+          statistics.getAverageProcessingTime(), statistics.getAverageWaitingTime(),
+          statistics.getMaxQueueDepth());
+      statistics.reset();
+    }
   }
 
   @Override
@@ -105,10 +160,23 @@ public class IndexerTask extends AbstractRequestTask<IndexerTask.IndexerProcessC
     }
   }
 
+  /**
+   * A request about a single index entry.
+   */
+  interface IndexEntryRequest {
+
+    /**
+     * Gets the key of the index entry concerned by the request.
+     * @return the key of an index entry.
+     */
+    IndexEntryKey getIndexEntryKey();
+  }
+
   /**
    * An AddEntryIndex add an entry index.
    */
-  static class AddIndexEntryRequest implements AbstractRequestTask.Request<IndexerProcessContext> {
+  static class AddIndexEntryRequest
+      implements AbstractRequestTask.Request<IndexerProcessContext>, IndexEntryRequest {
     private final FullIndexEntry indexEntry;
 
     /**
@@ -118,6 +186,11 @@ public class IndexerTask extends AbstractRequestTask<IndexerTask.IndexerProcessC
       this.indexEntry = indexEntry;
     }
 
+    @Override
+    public IndexEntryKey getIndexEntryKey() {
+      return indexEntry.getPK();
+    }
+
     /**
      * @param context process context.
      */
@@ -131,7 +204,7 @@ public class IndexerTask extends AbstractRequestTask<IndexerTask.IndexerProcessC
    * A RemoveEntryIndex remove an entry index.
    */
   static class RemoveIndexEntryRequest
-      implements AbstractRequestTask.Request<IndexerProcessContext> {
+      implements AbstractRequestTask.Request<IndexerProcessContext>, IndexEntryRequest {
     private final IndexEntryKey indexEntry;
 
     /**
@@ -141,6 +214,11 @@ public class IndexerTask extends AbstractRequestTask<IndexerTask.IndexerProcessC
       this.indexEntry = indexEntry;
     }
 
+    @Override
+    public IndexEntryKey getIndexEntryKey() {
+      return indexEntry;
+    }
+
     /**
      * @param context process context.
      */
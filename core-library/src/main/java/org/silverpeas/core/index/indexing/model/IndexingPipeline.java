@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.indexing.model;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.kernel.annotation.Technical;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Singleton;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.silverpeas.core.index.indexing.IndexingLogger.indexingLogger;
+
+/**
+ * The pipeline dispatching the indexation of the index entries over several threads.
+ * <p>
+ * The requests about a given index entry are always processed by the same worker thread (a lane),
+ * so that they are performed in the order they were submitted. Requests about different entries
+ * are processed in parallel: the content extraction of the files (Tika parsing) and the writing
+ * into the index directories (the lucene writers are thread safe) of distinct entries are then
+ * performed concurrently.
+ * </p>
+ * <p>
+ * The number of requests waiting to be processed is bounded: when the bound is reached, the
+ * submitting thread is blocked until a request is processed (backpressure).
+ * </p>
+ * <p>
+ * The pipeline is enabled only when the parameter {@code indexing.parallelism} is greater than 1.
+ * Otherwise, the requests are processed one by one by the {@link IndexerTask} itself.
+ * </p>
+ */
+@Technical
+@Bean
+@Singleton
+public class IndexingPipeline {
+
+  private static final SettingBundle settings =
+      ResourceLocator.getSettingBundle("org.silverpeas.index.indexing.IndexEngine");
+  private static final int DEFAULT_QUEUE_SIZE = 200;
+
+  private final Statistics statistics = new Statistics();
+  private ExecutorService[] lanes = new ExecutorService[0];
+  private Semaphore pending;
+  private int queueSize;
+
+  /**
+   * Constructs a pipeline initialized from the indexation engine settings at its creation by the
+   * IoC container.
+   */
+  protected IndexingPipeline() {
+  }
+
+  /**
+   * Constructs a pipeline over the given lanes.
+   * @param lanes the single-threaded executors processing the tasks.
+   * @param queueSize the maximum number of tasks waiting to be processed or being processed.
+   */
+  IndexingPipeline(final ExecutorService[] lanes, final int queueSize) {
+    setUp(lanes, queueSize);
+  }
+
+  @PostConstruct
+  private void init() {
+    final int parallelism = settings.getInteger("indexing.parallelism", 1);
+    if (parallelism > 1) {
+      final ExecutorService[] executors = new ExecutorService[parallelism];
+      for (int i = 0; i < parallelism; i++) {
+        executors[i] = ManagedThreadPool.getPool().getExecutor("indexing-lane-" + i, 1);
+      }
+      setUp(executors, settings.getInteger("indexing.pipeline.queueSize", DEFAULT_QUEUE_SIZE));
+    }
+  }
+
+  private void setUp(final ExecutorService[] lanes, final int queueSize) {
+    this.queueSize = queueSize;
+    this.pending = new Semaphore(queueSize, true);
+    this.lanes = lanes;
+  }
+
+  /**
+   * Is the pipeline enabled?
+   * @return true if the indexation requests are dispatched over several threads, false if they
+   * have to be processed one by one by the caller.
+   */
+  public boolean isEnabled() {
+    return lanes.length > 0;
+  }
+
+  /**
+   * Gets the statistics about the indexation performed by this pipeline.
+   * @return the indexation statistics.
+   */
+  public Statistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Submits the given indexation task about the specified index entry. The task is processed
+   * after all the tasks previously submitted for the same index entry. If the maximum number of
+   * waiting tasks is reached, the caller is blocked until a task is processed.
+   * @param key the key of the index entry concerned by the task.
+   * @param task the indexation task.
+   * @throws InterruptedException if the caller is interrupted while waiting for a free place.
+   */
+  public void submit(final IndexEntryKey key, final Runnable task) throws InterruptedException {
+    if (!pending.tryAcquire()) {
+      indexingLogger().debug("indexation pipeline full ({0} tasks queued), waiting for a place",
+          getQueueDepth());
+      pending.acquire();
+    }
+    final ExecutorService lane = lanes[getLaneIndex(key)];
+    try {
+      final long submission = System.nanoTime();
+      statistics.submitted(submission, getQueueDepth());
+      lane.execute(() -> {
+        final long start = System.nanoTime();
+        statistics.waited(start - submission);
+        try {
+          task.run();
+        } catch (Exception e) {
+          indexingLogger().error(e);
+        } finally {
+          final long end = System.nanoTime();
+          statistics.processed(end, end - start);
+          pending.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      statistics.ended(System.nanoTime());
+      pending.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the index of the lane processing the tasks about the specified index entry.
+   * @param key the key of an index entry.
+   * @return the index of a lane.
+   */
+  int getLaneIndex(final IndexEntryKey key) {
+    return Math.floorMod(key.hashCode(), lanes.length);
+  }
+
+  /**
+   * Waits for all the submitted tasks to be processed. It is a barrier used before the requests
+   * having an impact on several index entries (removal of a scope, removal of all the indexes) and
+   * before flushing the indexes.
+   * @throws InterruptedException if the caller is interrupted while waiting.
+   */
+  public void awaitCompletion() throws InterruptedException {
+    if (isEnabled()) {
+      pending.acquire(queueSize);
+      pending.release(queueSize);
+    }
+  }
+
+  /**
+   * Gets the number of indexation tasks waiting to be processed or being processed.
+   * @return the current depth of the pipeline queues.
+   */
+  public int getQueueDepth() {
+    return isEnabled() ? queueSize - pending.availablePermits() : 0;
+  }
+
+  /**
+   * Statistics about the indexation throughput since their last reset. The throughput is measured
+   * over the time the pipeline was busy, that is to say the time during which at least one task
+   * was waiting to be processed or being processed, so that the idle periods don't dilute it.
+   */
+  public static class Statistics {
+    private long processedTasks;
+    private long processingTime;
+    private long waitingTime;
+    private long busyTime;
+    private long busySince;
+    private int inFlight;
+    private int maxQueueDepth;
+
+    private Statistics() {
+    }
+
+    synchronized void submitted(final long timeInNanos, final int queueDepth) {
+      if (inFlight++ == 0) {
+        busySince = timeInNanos;
+      }
+      maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+    }
+
+    synchronized void waited(final long durationInNanos) {
+      waitingTime += durationInNanos;
+    }
+
+    synchronized void processed(final long timeInNanos, final long durationInNanos) {
+      processedTasks++;
+      processingTime += durationInNanos;
+      ended(timeInNanos);
+    }
+
+    synchronized void ended(final long timeInNanos) {
+      if (--inFlight == 0) {
+        busyTime += timeInNanos - busySince;
+      }
+    }
+
+    /**
+     * Resets the statistics. The tasks being processed are still taken into account.
+     */
+    public synchronized void reset() {
+      processedTasks = 0;
+      processingTime = 0;
+      waitingTime = 0;
+      busyTime = 0;
+      busySince = System.nanoTime();
+      maxQueueDepth = inFlight;
+    }
+
+    /**
+     * Gets the number of indexation tasks processed since the last reset.
+     * @return a number of tasks.
+     */
+    public synchronized long getProcessedTasks() {
+      return processedTasks;
+    }
+
+    /**
+     * Gets the average number of tasks processed per second of activity of the pipeline since the
+     * last reset.
+     * @return the indexation throughput in tasks per second.
+     */
+    public synchronized double getThroughput() {
+      final long elapsed = busyTime + (inFlight > 0 ? System.nanoTime() - busySince : 0);
+      return elapsed <= 0 ? 0 : processedTasks * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Gets the maximum number of tasks that were waiting to be processed or being processed at
+     * the same time since the last reset.
+     * @return the maximum depth of the pipeline queues.
+     */
+    public synchronized int getMaxQueueDepth() {
+      return maxQueueDepth;
+    }
+
+    /**
+     * Gets the average time in milliseconds taken by the processing of one task, including the
+     * parsing of the files content (performed by lucene while writing the document) and the
+     * writing into the index.
+     * @return the average processing time in milliseconds.
+     */
+    public synchronized double getAverageProcessingTime() {
+      return processedTasks == 0 ? 0 :
+          TimeUnit.NANOSECONDS.toMicros(processingTime) / 1000d / processedTasks;
+    }
+
+    /**
+     * Gets the average time in milliseconds a task waited in the pipeline queues before being
+     * processed.
+     * @return the average waiting time in milliseconds.
+     */
+    public synchronized double getAverageWaitingTime() {
+      return processedTasks == 0 ? 0 :
+          TimeUnit.NANOSECONDS.toMicros(waitingTime) / 1000d / processedTasks;
+    }
+  }
+}
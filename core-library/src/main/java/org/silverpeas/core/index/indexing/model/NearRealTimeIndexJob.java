@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.indexing.model;
+
+import org.silverpeas.core.annotation.Service;
+import org.silverpeas.core.initialization.Initialization;
+import org.silverpeas.core.scheduler.Job;
+import org.silverpeas.core.scheduler.JobExecutionContext;
+import org.silverpeas.core.scheduler.Scheduler;
+import org.silverpeas.core.scheduler.SchedulerException;
+import org.silverpeas.core.scheduler.trigger.JobTrigger;
+import org.silverpeas.core.scheduler.trigger.TimeUnit;
+
+import javax.inject.Inject;
+
+import static java.lang.System.currentTimeMillis;
+import static org.silverpeas.core.index.indexing.IndexingLogger.indexingLogger;
+
+/**
+ * A scheduled job that, when the near-real-time mode of the indexation engine is enabled,
+ * refreshes in background the readers of the indexes and commits periodically the changes of the
+ * shared writers. The writers are closed at Silverpeas shutdown.
+ */
+@Service
+public class NearRealTimeIndexJob extends Job implements Initialization {
+
+  @Inject
+  private Scheduler scheduler;
+
+  @Inject
+  private IndexManager indexManager;
+
+  private long lastCommit = currentTimeMillis();
+
+  /**
+   * Creates a new job
+   */
+  public NearRealTimeIndexJob() {
+    super(NearRealTimeIndexJob.class.getSimpleName());
+  }
+
+  @Override
+  public void init() throws SchedulerException {
+    if (scheduler.isJobScheduled(getName())) {
+      scheduler.unscheduleJob(getName());
+    }
+    final int refreshDelay = NearRealTimeIndexes.getRefreshDelay();
+    if (NearRealTimeIndexes.isEnabled() && refreshDelay > 0) {
+      scheduler.scheduleJob(this, JobTrigger.triggerEvery(refreshDelay, TimeUnit.SECOND));
+    }
+  }
+
+  @Override
+  public void release() {
+    if (NearRealTimeIndexes.isEnabled()) {
+      indexingLogger().debug("closing all the NRT writers and readers");
+      NearRealTimeIndexes.closeAll();
+    }
+  }
+
+  @Override
+  public void execute(final JobExecutionContext context) {
+    final long now = currentTimeMillis();
+    if (now - lastCommit >= NearRealTimeIndexes.getCommitDelay() * 1000L) {
+      lastCommit = now;
+      indexManager.commit();
+    }
+    NearRealTimeIndexes.refresh();
+  }
+}
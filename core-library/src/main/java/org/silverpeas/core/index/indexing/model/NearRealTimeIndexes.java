@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.indexing.model;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.ReaderManager;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.FSDirectory;
+import org.silverpeas.core.util.ArrayUtil;
+import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.kernel.bundle.SettingBundle;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.silverpeas.core.index.indexing.IndexingLogger.indexingLogger;
+
+/**
+ * Registry of the indexes handled in near-real-time (NRT) mode.
+ * <p>
+ * In this mode, the {@link IndexWriter} of an index directory is opened once and shared between
+ * the indexation process and the search processes: it is never closed after a flush but committed
+ * periodically by the {@link NearRealTimeIndexJob}. The searches are performed through
+ * {@link ReaderManager} instances which are refreshed in background, so that a search never has to
+ * wait for the closing of a writer nor has to reopen a reader from the file system.
+ * </p>
+ * <p>
+ * The readers acquired by a search process are bound to the current thread and they must be
+ * released at the end of the search (this is done by {@link IndexProcessor#doSearch(
+ * IndexProcessor.SearchIndexProcess, java.util.function.Supplier)}).
+ * </p>
+ */
+public class NearRealTimeIndexes {
+
+  private static final String SETTINGS = "org.silverpeas.index.indexing.IndexEngine";
+  private static final Map<String, WriterIndex> WRITER_INDEXES = new ConcurrentHashMap<>();
+  private static final Map<String, ReaderManager> READ_ONLY_INDEXES = new ConcurrentHashMap<>();
+  private static final ThreadLocal<List<AcquiredReader>> ACQUIRED_READERS =
+      ThreadLocal.withInitial(ArrayList::new);
+
+  /**
+   * Hidden constructor.
+   */
+  private NearRealTimeIndexes() {
+  }
+
+  /**
+   * Is the near-real-time mode of the indexation engine enabled?
+   * @return true if the writers are kept opened and the searches performed through NRT readers,
+   * false if the writers are closed on each flush (the legacy mode).
+   */
+  public static boolean isEnabled() {
+    return settings().getBoolean("lucene.nrt.enabled", false);
+  }
+
+  /**
+   * Gets the delay in seconds between two refreshes of the NRT readers.
+   * @return a positive number of seconds or 0 or less to disable the background refresh; in that
+   * case, the writers are committed and the readers refreshed on each flush (see
+   * {@link #flush()}).
+   */
+  static int getRefreshDelay() {
+    return settings().getInteger("lucene.nrt.refreshDelay", 1);
+  }
+
+  /**
+   * Gets the delay in seconds between two commits of the opened writers.
+   * @return a number of seconds.
+   */
+  static int getCommitDelay() {
+    return settings().getInteger("lucene.nrt.commitDelay", 60);
+  }
+
+  private static SettingBundle settings() {
+    return ResourceLocator.getSettingBundle(SETTINGS);
+  }
+
+  /**
+   * Gets the shared writer of the index stored at the given path. If no writer is yet opened on
+   * the index, a new one is opened with the given opener and registered with its NRT reader
+   * manager.
+   * @param path the path of the index directory.
+   * @param opener the function opening a new writer on the index. It returns null if the writer
+   * cannot be opened.
+   * @return the shared {@link IndexWriter} or null if it cannot be opened.
+   */
+  static IndexWriter getIndexWriter(String path, Function<String, IndexWriter> opener) {
+    WRITER_INDEXES.computeIfPresent(path, (p, i) -> i.writer.isOpen() ? i : null);
+    final WriterIndex index = WRITER_INDEXES.computeIfAbsent(path, p -> {
+      final IndexWriter writer = opener.apply(p);
+      if (writer == null) {
+        return null;
+      }
+      try {
+        final WriterIndex writerIndex = new WriterIndex(writer, new ReaderManager(writer));
+        final ReaderManager readOnly = READ_ONLY_INDEXES.remove(p);
+        if (readOnly != null) {
+          closeQuietly(p, readOnly);
+        }
+        return writerIndex;
+      } catch (IOException e) {
+        indexingLogger().error("Cannot open NRT reader on index " + p, e);
+        closeQuietly(p, writer);
+        return null;
+      }
+    });
+    return index != null ? index.writer : null;
+  }
+
+  /**
+   * Acquires a reader on the index stored at the given path. The reader comes from the NRT reader
+   * manager of the shared writer if any, otherwise from a reader manager opened directly on the
+   * index directory (case of indexes not yet modified since the startup or of the indexes of
+   * external servers).
+   * <p>
+   * The acquired reader is bound to the current thread until {@link #releaseReaders()} is called.
+   * </p>
+   * @param path the path of the index directory.
+   * @return the acquired reader or null if the index does not exist or cannot be read.
+   */
+  static DirectoryReader acquireReader(String path) {
+    final ReaderManager manager = getReaderManager(path);
+    if (manager == null) {
+      return null;
+    }
+    try {
+      final DirectoryReader reader = manager.acquire();
+      ACQUIRED_READERS.get().add(new AcquiredReader(manager, reader));
+      return reader;
+    } catch (IOException | AlreadyClosedException e) {
+      indexingLogger().warn(e);
+      return null;
+    }
+  }
+
+  /**
+   * Releases all the readers acquired by the current thread.
+   */
+  static void releaseReaders() {
+    final List<AcquiredReader> readers = ACQUIRED_READERS.get();
+    for (AcquiredReader acquired : readers) {
+      try {
+        acquired.manager.release(acquired.reader);
+      } catch (IOException | AlreadyClosedException e) {
+        indexingLogger().warn(e);
+      }
+    }
+    ACQUIRED_READERS.remove();
+  }
+
+  /**
+   * Refreshes the readers of all the indexes in order the searches to see the last changes. A
+   * reader is refreshed only if it isn't already being refreshed by another thread.
+   */
+  static void refresh() {
+    WRITER_INDEXES.forEach((p, i) -> maybeRefresh(p, i.readerManager));
+    READ_ONLY_INDEXES.forEach(NearRealTimeIndexes::maybeRefresh);
+  }
+
+  /**
+   * Makes the last changes of the opened writers visible by the searches. When the background
+   * refresh is disabled, no job commits the writers periodically: they are then committed here,
+   * before the refresh of the readers, so that no change is left uncommitted until the shutdown.
+   * @return the paths of the indexes that were committed.
+   */
+  static List<String> flush() {
+    final List<String> committed = getRefreshDelay() > 0 ? List.of() : commit();
+    refresh();
+    return committed;
+  }
+
+  /**
+   * Commits the changes of all the opened writers having uncommitted changes.
+   * @return the paths of the indexes that were committed.
+   */
+  static List<String> commit() {
+    final List<String> committed = new ArrayList<>();
+    WRITER_INDEXES.forEach((p, i) -> {
+      try {
+        if (i.writer.hasUncommittedChanges()) {
+          i.writer.commit();
+          committed.add(p);
+        }
+      } catch (IOException | AlreadyClosedException e) {
+        indexingLogger().error("Cannot commit index " + p, e);
+      }
+    });
+    return committed;
+  }
+
+  /**
+   * Closes all the reader managers and all the writers. The writers commit their pending changes
+   * before being closed.
+   */
+  static void closeAll() {
+    READ_ONLY_INDEXES.forEach(NearRealTimeIndexes::closeQuietly);
+    READ_ONLY_INDEXES.clear();
+    WRITER_INDEXES.forEach((p, i) -> {
+      closeQuietly(p, i.readerManager);
+      closeQuietly(p, i.writer);
+    });
+    WRITER_INDEXES.clear();
+  }
+
+  private static ReaderManager getReaderManager(String path) {
+    final WriterIndex index = WRITER_INDEXES.get(path);
+    if (index != null) {
+      return index.readerManager;
+    }
+    final File rootPath = new File(path);
+    if (ArrayUtil.isEmpty(rootPath.list())) {
+      indexingLogger().debug("index reader for path {0} can not be open as there is no index data",
+          path);
+      return null;
+    }
+    return READ_ONLY_INDEXES.computeIfAbsent(path, p -> {
+      try {
+        return new ReaderManager(FSDirectory.open(rootPath.toPath()));
+      } catch (IOException e) {
+        indexingLogger().warn(e);
+        return null;
+      }
+    });
+  }
+
+  private static void maybeRefresh(String path, ReaderManager manager) {
+    try {
+      manager.maybeRefresh();
+    } catch (IOException e) {
+      indexingLogger().warn("Cannot refresh reader of index {0}: {1}", path, e.getMessage());
+    } catch (AlreadyClosedException e) {
+      indexingLogger().debug("reader of index {0} is already closed", path);
+    }
+  }
+
+  private static void closeQuietly(String path, ReferenceManager<?> manager) {
+    final SilverLogger logger = indexingLogger();
+    try {
+      logger.debug("closing NRT reader manager of path {0}", path);
+      manager.close();
+    } catch (IOException e) {
+      logger.warn(e);
+    }
+  }
+
+  private static void closeQuietly(String path, IndexWriter writer) {
+    try {
+      indexingLogger().debug("closing NRT writer of path {0}", path);
+      writer.close();
+    } catch (IOException | AlreadyClosedException e) {
+      indexingLogger().error("Cannot close index " + path, e);
+    }
+  }
+
+  private static class WriterIndex {
+    private final IndexWriter writer;
+    private final ReaderManager readerManager;
+
+    private WriterIndex(final IndexWriter writer, final ReaderManager readerManager) {
+      this.writer = writer;
+      this.readerManager = readerManager;
+    }
+  }
+
+  private static class AcquiredReader {
+    private final ReaderManager manager;
+    private final DirectoryReader reader;
+
+    private AcquiredReader(final ReaderManager manager, final DirectoryReader reader) {
+      this.manager = manager;
+      this.reader = reader;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.search.model;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.search.IndexSearcher;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * A cache of lucene searchers, each of them working on a composite reader made up of the readers
+ * of a given set of indexes (a scope of search). As the set of indexes a user can see doesn't
+ * change often, this cache avoids to build for each search a new composite reader over the
+ * thousands of indexes the user can access.
+ * <p>
+ * A cached searcher is valid as long as the readers it is built upon are opened. Each time the
+ * reader of an index is closed (for example after an indexation), the cache has to be
+ * {@link #invalidate(String) invalidated} for this index: only the searchers whose scope
+ * includes the index are then discarded and built again at their next use.
+ * </p>
+ * <p>
+ * If an executor is given, the searchers dispatch the search of the different sub-indexes over
+ * it and merge the top results of each of them.
+ * </p>
+ */
+public class CompositeSearcherCache {
+
+  private final Executor executor;
+  private final Map<Set<String>, IndexSearcher> cache;
+  private final Map<String, Set<Set<String>>> scopesByIndex = new HashMap<>();
+  private long invalidations = 0;
+
+  /**
+   * Constructs a new cache.
+   * @param maxSize the maximum number of searchers to cache. Zero or negative value means no
+   * caching.
+   * @param executor the executor used to perform in parallel the search over the sub-indexes. If
+   * null, the sub-indexes are searched one after one in the caller thread.
+   */
+  public CompositeSearcherCache(final int maxSize, final Executor executor) {
+    this.executor = executor;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = -4183425937040614574L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Set<String>, IndexSearcher> eldest) {
+        if (size() > maxSize) {
+          unindex(eldest.getKey());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Gets a searcher over the indexes stored at the given paths. The searcher is taken from the
+   * cache if any, otherwise it is built and then cached.
+   * @param indexPaths the paths of the indexes to search in.
+   * @param readerProvider the function providing the reader of an index from its path. It returns
+   * null if no reader is available for the index.
+   * @return a lucene searcher.
+   * @throws IOException if the composite reader cannot be built.
+   */
+  public IndexSearcher getSearcher(final Set<String> indexPaths,
+      final Function<String, IndexReader> readerProvider) throws IOException {
+    final long invalidationsBefore;
+    synchronized (cache) {
+      final IndexSearcher cached = cache.get(indexPaths);
+      if (cached != null) {
+        return cached;
+      }
+      invalidationsBefore = invalidations;
+    }
+    final IndexSearcher searcher = newSearcher(indexPaths, readerProvider);
+    synchronized (cache) {
+      // a reader used by the searcher can have been closed meanwhile
+      if (invalidationsBefore == invalidations) {
+        final Set<String> scope = Set.copyOf(indexPaths);
+        scope.forEach(p -> scopesByIndex.computeIfAbsent(p, k -> new HashSet<>()).add(scope));
+        cache.put(scope, searcher);
+      }
+    }
+    return searcher;
+  }
+
+  /**
+   * Builds a new searcher over the indexes stored at the given paths.
+   * @param indexPaths the paths of the indexes to search in.
+   * @param readerProvider the function providing the reader of an index from its path.
+   * @return a lucene searcher.
+   * @throws IOException if the composite reader cannot be built.
+   */
+  public IndexSearcher newSearcher(final Collection<String> indexPaths,
+      final Function<String, IndexReader> readerProvider) throws IOException {
+    final List<IndexReader> readers = new ArrayList<>(indexPaths.size());
+    for (String path : indexPaths) {
+      final IndexReader reader = readerProvider.apply(path);
+      if (reader != null) {
+        readers.add(reader);
+      }
+    }
+    final MultiReader compositeReader = new MultiReader(readers.toArray(new IndexReader[0]));
+    return executor == null ? new IndexSearcher(compositeReader) :
+        new IndexSearcher(compositeReader, executor);
+  }
+
+  /**
+   * Invalidates the searchers whose scope includes the specified index. The other searchers are
+   * kept in the cache.
+   * @param indexPath the path of an index whose reader is closed.
+   */
+  public void invalidate(final String indexPath) {
+    synchronized (cache) {
+      invalidations++;
+      final Set<Set<String>> scopes = scopesByIndex.remove(indexPath);
+      if (scopes != null) {
+        for (Set<String> scope : scopes) {
+          cache.remove(scope);
+          unindex(scope);
+        }
+      }
+    }
+  }
+
+  /**
+   * Clears the cache.
+   */
+  public void clear() {
+    synchronized (cache) {
+      invalidations++;
+      cache.clear();
+      scopesByIndex.clear();
+    }
+  }
+
+  /**
+   * Gets the number of cached searchers.
+   * @return the size of the cache.
+   */
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  private void unindex(final Set<String> scope) {
+    for (String path : scope) {
+      final Set<Set<String>> scopes = scopesByIndex.get(path);
+      if (scopes != null) {
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+          scopesByIndex.remove(path);
+        }
+      }
+    }
+  }
+}
@@ -25,8 +25,6 @@ package org.silverpeas.core.index.search.model;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.queryparser.classic.QueryParserBase;
@@ -41,7 +39,10 @@ import org.silverpeas.core.index.indexing.model.FieldDescription;
 import org.silverpeas.core.index.indexing.model.IndexEntry;
 import org.silverpeas.core.index.indexing.model.IndexEntryKey;
 import org.silverpeas.core.index.indexing.model.IndexManager;
+import org.silverpeas.core.index.indexing.model.IndexReadersCache;
+import org.silverpeas.core.index.indexing.model.NearRealTimeIndexes;
 import org.silverpeas.core.index.search.SearchEnginePropertiesManager;
+import org.silverpeas.core.thread.ManagedThreadPool;
 import org.silverpeas.core.util.DateUtil;
 import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.core.util.ServiceProvider;
@@ -50,6 +51,7 @@ import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.File;
@@ -57,12 +59,13 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.time.DurationFormatUtils.formatDurationHMS;
 import static org.silverpeas.core.index.indexing.model.IndexProcessor.doSearch;
-import static org.silverpeas.core.index.indexing.model.IndexReadersCache.getIndexReader;
 import static org.silverpeas.kernel.util.StringUtil.getBooleanValue;
 
 /**
@@ -77,6 +80,7 @@ public class IndexSearcher {
   private static final String INDEX_SEARCH_ERROR = "Index search failure";
   private static final int DEFAULT_MAX_RESULT = 100;
   private static final int DEFAULT_FIELD_HEADER_BOOST = 3;
+  private static final int DEFAULT_SEARCHER_CACHE_SIZE = 100;
 
   private QueryParser.Operator defaultOperator;
 
@@ -89,6 +93,23 @@ public class IndexSearcher {
   @Inject
   private IndexManager indexManager;
 
+  /**
+   * The executor used to search in parallel the sub-indexes of a composite reader. Null if the
+   * search isn't parallelized.
+   */
+  private ExecutorService searchExecutor;
+
+  /**
+   * The cache of the searchers on the composite readers, keyed by the set of indexes to search in.
+   */
+  private CompositeSearcherCache searcherCache;
+
+  /**
+   * The invalidation of the searchers built upon the reader of an index when this reader is
+   * closed.
+   */
+  private Consumer<String> searcherInvalidation;
+
   /**
    * indicates the number maximum of results returned by the search
    */
@@ -124,6 +145,22 @@ public class IndexSearcher {
     maxNumberResult = settings.getInteger("maxResults", DEFAULT_MAX_RESULT);
 
     fieldHeaderBoost = settings.getInteger("boost.field.header", DEFAULT_FIELD_HEADER_BOOST);
+
+    final int parallelism = settings.getInteger("search.parallelism", 0);
+    if (parallelism > 1) {
+      searchExecutor = ManagedThreadPool.getPool().getExecutor("index-searcher", parallelism);
+    }
+    searcherCache = new CompositeSearcherCache(
+        settings.getInteger("search.reader.composite.cacheSize", DEFAULT_SEARCHER_CACHE_SIZE),
+        searchExecutor);
+    searcherInvalidation = searcherCache::invalidate;
+    IndexReadersCache.addClosingListener(searcherInvalidation);
+  }
+
+  @PreDestroy
+  private void release() {
+    IndexReadersCache.removeClosingListener(searcherInvalidation);
+    searcherCache.clear();
   }
 
   /**
@@ -472,21 +509,7 @@ public class IndexSearcher {
    */
   private org.apache.lucene.search.IndexSearcher getSearcher(Set<String> componentIds)
       throws ParseException {
-    Set<String> indexPathSet = getIndexPathSet(componentIds);
-
-    List<IndexReader> readers = new ArrayList<>();
-    for (String path : indexPathSet) {
-      final IndexReader indexReader = getIndexReader(path);
-      if (indexReader != null) {
-        readers.add(indexReader);
-      }
-    }
-    try {
-      return new org.apache.lucene.search.IndexSearcher(
-          new MultiReader(readers.toArray(new IndexReader[0])));
-    } catch (IOException e) {
-      throw new org.silverpeas.core.index.search.model.ParseException(INDEX_SEARCH_ERROR, e);
-    }
+    return getSearcherOnIndexes(getIndexPathSet(componentIds));
   }
 
   /**
@@ -495,28 +518,28 @@ public class IndexSearcher {
   private org.apache.lucene.search.IndexSearcher getSearcher(QueryDescription query)
       throws ParseException {
     Set<String> indexPathSet = getIndexPathSet(query.getWhereToSearch());
-    List<IndexReader> readers = new ArrayList<>();
-    for (String path : indexPathSet) {
-      IndexReader indexReader = getIndexReader(path);
-      if (indexReader != null) {
-        readers.add(indexReader);
-      }
-    }
 
     // Add searcher from external silverpeas server
     Set<ExternalComponent> extSearchers = query.getExtComponents();
     for (ExternalComponent externalComponent : extSearchers) {
-      String externalComponentPath = getExternalComponentPath(externalComponent);
-      IndexReader searcher = getIndexReader(externalComponentPath);
-      if (searcher != null) {
-        readers.add(searcher);
-      }
+      indexPathSet.add(getExternalComponentPath(externalComponent));
     }
+    return getSearcherOnIndexes(indexPathSet);
+  }
+
+  /**
+   * Return a multi-searcher built on the readers of the given indexes. The searcher is taken from
+   * the cache if the readers of these indexes didn't change since its creation.
+   */
+  private org.apache.lucene.search.IndexSearcher getSearcherOnIndexes(Set<String> indexPathSet)
+      throws ParseException {
     try {
-      return new org.apache.lucene.search.IndexSearcher(
-          new MultiReader(readers.toArray(new IndexReader[0])));
-    } catch (IOException ioe) {
-      throw new org.silverpeas.core.index.search.model.ParseException(INDEX_SEARCH_ERROR, ioe);
+      // in near-real-time mode, the readers are acquired for each search and cannot be cached
+      return NearRealTimeIndexes.isEnabled() ?
+          searcherCache.newSearcher(indexPathSet, IndexReadersCache::getIndexReader) :
+          searcherCache.getSearcher(indexPathSet, IndexReadersCache::getIndexReader);
+    } catch (IOException e) {
+      throw new org.silverpeas.core.index.search.model.ParseException(INDEX_SEARCH_ERROR, e);
     }
   }
 
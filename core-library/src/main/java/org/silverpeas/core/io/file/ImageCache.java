@@ -28,13 +28,18 @@ import org.silverpeas.kernel.logging.SilverLogger;
 
 import java.io.File;
 import java.io.IOException;
-import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.nio.charset.Charset.defaultCharset;
 
@@ -43,6 +48,13 @@ import static java.nio.charset.Charset.defaultCharset;
  * {@link ImageResizingProcessor} processor. In fact, it doesn't contain
  * the images themselves but their location in the file system. It is used by the image resizing
  * processor as a table of resized images in order to keep a trace of them for management purpose.
+ * <p>
+ * The table is kept in memory and it is backed by a single append-only file in which each
+ * addition or removal of an entry is written as a record. The file is loaded once, at the first
+ * access to the cache, and it is compacted when the number of obsolete records gets too large.
+ * The records are made up of fields separated by the NUL character, which cannot be part of a
+ * file path.
+ * </p>
  * @author mmoquillon
  */
 class ImageCache {
@@ -51,8 +63,18 @@ class ImageCache {
     // Not instantiatable
   }
 
-  private static final String IMAGE_CACHE_TABLE =
+  private static final String LEGACY_IMAGE_CACHE_TABLE =
       ImageResizingProcessor.IMAGE_CACHE_PATH + File.separatorChar + ".data";
+  private static final Path IMAGE_CACHE_INDEX =
+      Path.of(ImageResizingProcessor.IMAGE_CACHE_PATH, ".index");
+  private static final String SEPARATOR = "\u0000";
+  private static final String PUT = "+";
+  private static final String REMOVE = "-";
+  private static final int COMPACTION_THRESHOLD = 1000;
+
+  // guarded by ImageCache.class
+  private static Map<String, Set<String>> table = null;
+  private static int recordCount = 0;
 
   /**
    * Puts an entry into the cache for the specified resized image of the specified original image.
@@ -61,20 +83,12 @@ class ImageCache {
    * @param resizedImagePath the absolute path of the resized image for which an entry will be
    * created into the cache.
    */
-  protected static void putImage(final String originalImagePath, final String resizedImagePath) {
-    String entryName = hash(originalImagePath);
-    File entry = new File(IMAGE_CACHE_TABLE, entryName);
-    try {
-      List<String> lines = new ArrayList<>();
-      if (!entry.exists()) {
-        lines.add(originalImagePath);
-      }
-      lines.add(resizedImagePath);
-      FileUtils.writeLines(entry, lines, true);
-    } catch (IOException ex) {
-      SilverLogger.getLogger(ImageCache.class)
-          .error("Cannot write the cache entry {0} with value {1}. Cause: {2}",
-              entry.getAbsolutePath(), resizedImagePath, ex.getMessage());
+  protected static synchronized void putImage(final String originalImagePath,
+      final String resizedImagePath) {
+    final Set<String> resizedImages =
+        getTable().computeIfAbsent(originalImagePath, k -> new LinkedHashSet<>());
+    if (resizedImages.add(resizedImagePath)) {
+      append(PUT + SEPARATOR + originalImagePath + SEPARATOR + resizedImagePath);
     }
   }
 
@@ -84,33 +98,30 @@ class ImageCache {
    * @param originalImagePaths the path of one or more original images for which the resized images
    * has to be removed from the cache.
    */
-  protected static void removeImages(String... originalImagePaths) {
+  protected static synchronized void removeImages(String... originalImagePaths) {
     for (String anOriginalImage : originalImagePaths) {
-      String entryName = hash(anOriginalImage);
-      File entry = new File(IMAGE_CACHE_TABLE, entryName);
-      if (entry.exists()) {
-        removeEachImageIn(entry);
+      final Set<String> resizedImages = getTable().remove(anOriginalImage);
+      if (resizedImages != null) {
+        removeEachImageIn(anOriginalImage, resizedImages);
+        append(REMOVE + SEPARATOR + anOriginalImage);
       }
     }
+    compactIfNeeded();
   }
 
-  private static void removeEachImageIn(final File entry) {
-    try {
-      List<String> lines = FileUtils.readLines(entry, defaultCharset());
-      for (String resizedImagePath : lines.subList(1, lines.size())) {
+  private static void removeEachImageIn(final String originalImagePath,
+      final Set<String> resizedImagePaths) {
+    for (String resizedImagePath : resizedImagePaths) {
+      try {
         File resizedImage = new File(resizedImagePath);
         if (resizedImage.exists() && !Files.deleteIfExists(resizedImage.toPath())) {
           SilverLogger.getLogger(ImageCache.class)
-              .warn("Cannot remove {0} from the cache entry {1}",
-                  resizedImage.getAbsolutePath(), entry.getAbsolutePath());
+              .warn("Cannot remove {0} from the cache entry {1}", resizedImage.getAbsolutePath(),
+                  originalImagePath);
         }
+      } catch (IOException ex) {
+        SilverLogger.getLogger(ImageCache.class).error(ex.getMessage(), ex);
       }
-      if (!Files.deleteIfExists(entry.toPath())) {
-        SilverLogger.getLogger(ImageCache.class)
-            .warn("Cannot delete the cache entry {0}", entry.getAbsolutePath());
-      }
-    } catch (IOException ex) {
-      SilverLogger.getLogger(ImageCache.class).error(ex.getMessage(), ex.getMessage());
     }
   }
 
@@ -119,20 +130,9 @@ class ImageCache {
    * @param originalImagePath the absolute path of the original image.
    * @return an array with the path of the images resized from the specified one.
    */
-  protected static List<String> getImages(String originalImagePath) {
-    String entryName = hash(originalImagePath);
-    File entry = new File(IMAGE_CACHE_TABLE, entryName);
-    if (entry.exists()) {
-      try {
-        List<String> lines = FileUtils.readLines(entry, defaultCharset());
-        if (!lines.isEmpty()) {
-          return lines.subList(1, lines.size());
-        }
-      } catch (IOException ex) {
-        SilverLogger.getLogger(ImageCache.class).error(ex.getMessage());
-      }
-    }
-    return Collections.emptyList();
+  protected static synchronized List<String> getImages(String originalImagePath) {
+    final Set<String> resizedImages = getTable().get(originalImagePath);
+    return resizedImages == null ? Collections.emptyList() : new ArrayList<>(resizedImages);
   }
 
   /**
@@ -140,32 +140,109 @@ class ImageCache {
    * image from which resized ones were generated and referred by this cache.
    * @return a list of absolute path of the original images from which a resized image was made.
    */
-  protected static List<String> getAllImageEntries() {
-    final List<String> originalImagePaths = new ArrayList<>();
-    final File entries = new File(IMAGE_CACHE_TABLE);
-    final File[] files = entries.listFiles();
-    if (files != null) {
-      for (final File anEntry : files) {
-        try {
-          List<String> resizedImagePaths = FileUtils.readLines(anEntry, defaultCharset());
-          originalImagePaths.add(resizedImagePaths.get(0));
-        } catch (IOException ex) {
-          SilverLogger.getLogger(ImageCache.class).error(ex.getMessage());
+  protected static synchronized List<String> getAllImageEntries() {
+    return new ArrayList<>(getTable().keySet());
+  }
+
+  private static Map<String, Set<String>> getTable() {
+    if (table == null) {
+      table = new HashMap<>();
+      recordCount = 0;
+      load();
+      if (migrateLegacyTable()) {
+        compact();
+      }
+    }
+    return table;
+  }
+
+  private static void load() {
+    if (!Files.exists(IMAGE_CACHE_INDEX)) {
+      return;
+    }
+    try {
+      for (String aRecord : Files.readAllLines(IMAGE_CACHE_INDEX, StandardCharsets.UTF_8)) {
+        final String[] fields = aRecord.split(SEPARATOR);
+        if (fields.length == 3 && PUT.equals(fields[0])) {
+          table.computeIfAbsent(fields[1], k -> new LinkedHashSet<>()).add(fields[2]);
+        } else if (fields.length == 2 && REMOVE.equals(fields[0])) {
+          table.remove(fields[1]);
         }
+        recordCount++;
+      }
+    } catch (IOException ex) {
+      SilverLogger.getLogger(ImageCache.class)
+          .error("Cannot read the image cache index {0}. Cause: {1}", IMAGE_CACHE_INDEX,
+              ex.getMessage());
+    }
+  }
+
+  /**
+   * Migrates the entries of the previous form of the table, made up of one file per original
+   * image, into the current table.
+   * @return true if some entries were migrated, false otherwise.
+   */
+  private static boolean migrateLegacyTable() {
+    final File legacyTable = new File(LEGACY_IMAGE_CACHE_TABLE);
+    final File[] entries = legacyTable.listFiles();
+    if (entries == null) {
+      return false;
+    }
+    for (final File anEntry : entries) {
+      try {
+        final List<String> lines = FileUtils.readLines(anEntry, defaultCharset());
+        if (!lines.isEmpty()) {
+          table.computeIfAbsent(lines.get(0), k -> new LinkedHashSet<>())
+              .addAll(lines.subList(1, lines.size()));
+        }
+      } catch (IOException ex) {
+        SilverLogger.getLogger(ImageCache.class).error(ex.getMessage());
       }
     }
-    return originalImagePaths;
+    FileUtils.deleteQuietly(legacyTable);
+    return true;
   }
 
-  private static String hash(String name) {
-    MessageDigest m;
+  private static void append(final String aRecord) {
+    if (recordCount > 0 && !Files.exists(IMAGE_CACHE_INDEX)) {
+      // the index was deleted behind us: rewrite it entirely from the memory
+      compact();
+      return;
+    }
+    try {
+      Files.createDirectories(IMAGE_CACHE_INDEX.getParent());
+      Files.writeString(IMAGE_CACHE_INDEX, aRecord + "\n", StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      recordCount++;
+    } catch (IOException ex) {
+      SilverLogger.getLogger(ImageCache.class)
+          .error("Cannot write the record {0} into the image cache index. Cause: {1}",
+              aRecord.replace(SEPARATOR, " "), ex.getMessage());
+    }
+  }
+
+  private static void compactIfNeeded() {
+    final int liveRecordCount = table.values().stream().mapToInt(Set::size).sum();
+    if (recordCount > COMPACTION_THRESHOLD && recordCount > 2 * liveRecordCount) {
+      compact();
+    }
+  }
+
+  private static void compact() {
+    final List<String> records = new ArrayList<>();
+    table.forEach((original, resizedImages) -> resizedImages.forEach(
+        resized -> records.add(PUT + SEPARATOR + original + SEPARATOR + resized)));
     try {
-      m = MessageDigest.getInstance("MD5");
-      m.update(name.getBytes(), 0, name.length());
-      return new BigInteger(1, m.digest()).toString(16);
-    } catch (NoSuchAlgorithmException e) {
-      SilverLogger.getLogger(ImageCache.class).warn(e.getMessage());
-      return String.valueOf(name.hashCode());
+      Files.createDirectories(IMAGE_CACHE_INDEX.getParent());
+      final Path temporary = IMAGE_CACHE_INDEX.resolveSibling(".index.tmp");
+      Files.write(temporary, records, StandardCharsets.UTF_8);
+      Files.move(temporary, IMAGE_CACHE_INDEX, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      recordCount = records.size();
+    } catch (IOException ex) {
+      SilverLogger.getLogger(ImageCache.class)
+          .error("Cannot compact the image cache index {0}. Cause: {1}", IMAGE_CACHE_INDEX,
+              ex.getMessage());
     }
   }
 }
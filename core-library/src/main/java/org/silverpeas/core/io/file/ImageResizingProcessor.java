@@ -27,16 +27,17 @@ import org.silverpeas.core.annotation.Service;
 import org.silverpeas.core.io.media.image.ImageTool;
 import org.silverpeas.core.io.media.image.option.DimensionOption;
 import org.silverpeas.core.io.media.image.option.OrientationOption;
+import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.core.util.file.FileRepositoryManager;
 import org.silverpeas.core.util.file.FileUtil;
-import org.silverpeas.kernel.logging.SilverLogger;
 
 import javax.inject.Inject;
 import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.silverpeas.core.io.media.image.ImageToolDirective.GEOMETRY_SHRINK;
 import static org.silverpeas.core.util.CollectionUtil.asSet;
@@ -44,6 +45,12 @@ import static org.silverpeas.core.util.CollectionUtil.asSet;
 /**
  * A processor dedicated to resize an image on the demand. If the image is already resized, then
  * nothing the resized image is just returned.
+ * <p>
+ * The common formats of images are resized within the JVM (see {@link InProcessImageResizer}),
+ * the others are resized with the {@link ImageTool}. The concurrent requests for a same image and
+ * a same size are coalesced: only the first one performs the resizing whereas the others wait for
+ * its end.
+ * </p>
  *
  * @author mmoquillon
  */
@@ -51,6 +58,10 @@ import static org.silverpeas.core.util.CollectionUtil.asSet;
 public class ImageResizingProcessor extends AbstractSilverpeasFileProcessor {
 
   protected static final String IMAGE_CACHE_PATH = FileRepositoryManager.getAbsolutePath("cache");
+  private static final String IN_PROCESS_RESIZING_PROPERTY = "image.resizing.inprocess";
+
+  private final Map<String, CompletableFuture<Void>> resizingsInProgress =
+      new ConcurrentHashMap<>();
 
   @Inject
   private ImageTool imageTool;
@@ -100,16 +111,7 @@ public class ImageResizingProcessor extends AbstractSilverpeasFileProcessor {
   }
 
   private void removeResizedImagesOf(final File originaImage) {
-    List<String> resizedImagePaths = ImageCache.getImages(originaImage.getAbsolutePath());
-    for (String resizedImage : resizedImagePaths) {
-      try {
-        Files.delete(Path.of(resizedImage));
-      } catch (Exception e) {
-        SilverLogger.getLogger(this)
-            .warn("The resized image {0} for the in deletion original image {1} cannot be deleted!",
-                resizedImage, originaImage.getAbsolutePath());
-      }
-    }
+    ImageCache.removeImages(originaImage.getAbsolutePath());
   }
 
   private String resizeImage(final String path) {
@@ -121,25 +123,91 @@ public class ImageResizingProcessor extends AbstractSilverpeasFileProcessor {
     if (!sourceImage.exists()) {
       ResizingParameters parameters = computeResizingParameters(sourceImage);
       if (parameters.isDefined()) {
-        sourceImage = parameters.getSourceImage();
-        File resizedImage = parameters.getDestinationImage();
-        imagePath = resizedImage.getPath();
-        if (sourceImage.exists() &&
-            (!resizedImage.exists() || sourceImage.lastModified() >= resizedImage.lastModified())) {
-          if (!resizedImage.getParentFile().exists()) {
-            resizedImage.getParentFile().mkdirs();
-          }
-          final DimensionOption dimension =
-              DimensionOption.widthAndHeight(parameters.getWidth(), parameters.getHeight());
-          final OrientationOption auto = OrientationOption.auto();
-          imageTool.convert(sourceImage, resizedImage, asSet(dimension, auto), GEOMETRY_SHRINK);
-          ImageCache.putImage(sourceImage.getAbsolutePath(), resizedImage.getAbsolutePath());
-        }
+        imagePath = parameters.getDestinationImage().getPath();
+        resizeIfNeeded(parameters);
       }
     }
     return imagePath;
   }
 
+  /**
+   * Resizes the source image if it isn't yet done or if the resized image is outdated. If a
+   * resizing of the same image at the same size is already in progress, then waits for its end
+   * instead of resizing the image again.
+   * @param parameters the parameters of the resizing.
+   */
+  private void resizeIfNeeded(final ResizingParameters parameters) {
+    final File resizedImage = parameters.getDestinationImage();
+    final String key = resizedImage.getAbsolutePath();
+    // a resizing in progress is waited for before checking the resized image in order to not
+    // serve a partially written one
+    final CompletableFuture<Void> inProgress = resizingsInProgress.get(key);
+    if (inProgress != null) {
+      waitFor(inProgress);
+    }
+    if (!isResizingNeeded(parameters)) {
+      return;
+    }
+    final CompletableFuture<Void> resizing = new CompletableFuture<>();
+    final CompletableFuture<Void> concurrent = resizingsInProgress.putIfAbsent(key, resizing);
+    if (concurrent != null) {
+      waitFor(concurrent);
+      return;
+    }
+    try {
+      if (isResizingNeeded(parameters)) {
+        resize(parameters);
+      }
+      resizing.complete(null);
+    } catch (RuntimeException e) {
+      resizing.completeExceptionally(e);
+      throw e;
+    } finally {
+      resizingsInProgress.remove(key, resizing);
+    }
+  }
+
+  private boolean isResizingNeeded(final ResizingParameters parameters) {
+    final File sourceImage = parameters.getSourceImage();
+    final File resizedImage = parameters.getDestinationImage();
+    return sourceImage.exists() &&
+        (!resizedImage.exists() || sourceImage.lastModified() >= resizedImage.lastModified());
+  }
+
+  private void resize(final ResizingParameters parameters) {
+    final File sourceImage = parameters.getSourceImage();
+    final File resizedImage = parameters.getDestinationImage();
+    if (!resizedImage.getParentFile().exists()) {
+      resizedImage.getParentFile().mkdirs();
+    }
+    final boolean resized = isInProcessResizingEnabled() &&
+        InProcessImageResizer.resize(sourceImage, resizedImage, parameters.getWidth(),
+            parameters.getHeight());
+    if (!resized) {
+      final DimensionOption dimension =
+          DimensionOption.widthAndHeight(parameters.getWidth(), parameters.getHeight());
+      final OrientationOption auto = OrientationOption.auto();
+      imageTool.convert(sourceImage, resizedImage, asSet(dimension, auto), GEOMETRY_SHRINK);
+    }
+    ImageCache.putImage(sourceImage.getAbsolutePath(), resizedImage.getAbsolutePath());
+  }
+
+  private static void waitFor(final CompletableFuture<Void> resizing) {
+    try {
+      resizing.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static boolean isInProcessResizingEnabled() {
+    return ResourceLocator.getSettingBundle("org.silverpeas.lookAndFeel.generalLook")
+        .getBoolean(IN_PROCESS_RESIZING_PROPERTY, true);
+  }
+
   private static class ResizingParameters {
 
     private static final ResizingParameters NO_RESIZING =
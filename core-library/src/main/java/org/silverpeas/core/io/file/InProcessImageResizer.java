@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.io.file;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import org.apache.commons.io.FileUtils;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A resizer of images running within the JVM with the Java Image I/O API. It is used by the
+ * {@link ImageResizingProcessor} processor as a fast path in place of the forking of an external
+ * image tool for the most common formats of images. Only the formats for which the resizing
+ * performed here gives the same result than the one performed by the external tool are supported:
+ * JPEG, PNG and BMP images. Animated images (GIF) and images requiring an orientation correction
+ * (EXIF orientation other than the normal one) are left to the external tool.
+ * <p>
+ * Like with the external tool, an image is only shrunk, never enlarged, and its aspect ratio is
+ * preserved. The image is decoded with a subsampling of its pixels so that only the pixels that
+ * are necessary to compute the thumbnail are read, which is what makes this resizing fast on large
+ * photos.
+ * </p>
+ */
+final class InProcessImageResizer {
+
+  private static final float JPEG_QUALITY = 0.92f;
+  private static final Map<String, String> SUPPORTED_FORMATS =
+      Map.of("jpg", "jpeg", "jpeg", "jpeg", "png", "png", "bmp", "bmp");
+  private static final int NORMAL_ORIENTATION = 1;
+
+  private InProcessImageResizer() {
+    // Not instantiatable
+  }
+
+  /**
+   * Is the specified image supported by this resizer?
+   * @param image the image to resize.
+   * @return true if the format of the image is supported, false otherwise.
+   */
+  static boolean isSupported(final File image) {
+    return SUPPORTED_FORMATS.containsKey(extensionOf(image));
+  }
+
+  /**
+   * Resizes the specified image into the given destination with the given width and/or height
+   * as boundaries. If the image is smaller than the boundaries, it is copied as such.
+   * @param source the image to resize.
+   * @param destination the file into which the resized image has to be written.
+   * @param width the maximum width of the resized image. Null if not taken into account.
+   * @param height the maximum height of the resized image. Null if not taken into account.
+   * @return true if the image was resized, false if the image cannot be resized by this resizer
+   * and then it has to be done by another way.
+   */
+  static boolean resize(final File source, final File destination, final Integer width,
+      final Integer height) {
+    if (!isSupported(source) || (width == null && height == null) || !isNormallyOriented(source)) {
+      return false;
+    }
+    final String format = SUPPORTED_FORMATS.get(extensionOf(source));
+    try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+      final Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+      if (readers == null || !readers.hasNext()) {
+        return false;
+      }
+      final ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        final int sourceWidth = reader.getWidth(0);
+        final int sourceHeight = reader.getHeight(0);
+        final double ratio = computeRatio(sourceWidth, sourceHeight, width, height);
+        final Path temporary = temporaryFileOf(destination);
+        try {
+          if (ratio >= 1.0) {
+            Files.copy(source.toPath(), temporary, StandardCopyOption.REPLACE_EXISTING);
+          } else {
+            final int targetWidth = Math.max(1, (int) Math.round(sourceWidth * ratio));
+            final int targetHeight = Math.max(1, (int) Math.round(sourceHeight * ratio));
+            final int subsampling = Math.max(1,
+                Math.min(sourceWidth / (2 * targetWidth), sourceHeight / (2 * targetHeight)));
+            final ImageReadParam param = reader.getDefaultReadParam();
+            if (subsampling > 1) {
+              param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            }
+            final BufferedImage decoded = reader.read(0, param);
+            final boolean withAlpha =
+                !"jpeg".equals(format) && decoded.getColorModel().hasAlpha();
+            final BufferedImage resized = scale(decoded, targetWidth, targetHeight, withAlpha);
+            write(resized, format, temporary.toFile());
+          }
+          Files.move(temporary, destination.toPath(), StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+          return true;
+        } finally {
+          // no-op once moved; otherwise the partially written image mustn't be left on the disk
+          FileUtils.deleteQuietly(temporary.toFile());
+        }
+      } finally {
+        reader.dispose();
+      }
+    } catch (Exception e) {
+      SilverLogger.getLogger(InProcessImageResizer.class)
+          .warn("In-process resizing of {0} failed ({1}). Falling back to the image tool",
+              source.getAbsolutePath(), e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Computes the ratio to apply to the dimension of the source image in order to fit into the
+   * given boundaries.
+   * @param sourceWidth the width of the source image.
+   * @param sourceHeight the height of the source image.
+   * @param width the maximum width or null.
+   * @param height the maximum height or null.
+   * @return the ratio to apply. A ratio greater or equal to 1 means no shrinking.
+   */
+  static double computeRatio(final int sourceWidth, final int sourceHeight, final Integer width,
+      final Integer height) {
+    double ratio = Double.MAX_VALUE;
+    if (width != null && width > 0) {
+      ratio = (double) width / sourceWidth;
+    }
+    if (height != null && height > 0) {
+      ratio = Math.min(ratio, (double) height / sourceHeight);
+    }
+    return ratio;
+  }
+
+  private static boolean isNormallyOriented(final File image) {
+    if (!"jpeg".equals(SUPPORTED_FORMATS.get(extensionOf(image)))) {
+      return true;
+    }
+    try {
+      final Metadata metadata = ImageMetadataReader.readMetadata(image);
+      final ExifIFD0Directory exif = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+      return exif == null || !exif.containsTag(ExifIFD0Directory.TAG_ORIENTATION) ||
+          exif.getInt(ExifIFD0Directory.TAG_ORIENTATION) == NORMAL_ORIENTATION;
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private static BufferedImage scale(final BufferedImage image, final int width, final int height,
+      final boolean withAlpha) {
+    final int type = withAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+    BufferedImage current = image;
+    int currentWidth = image.getWidth();
+    int currentHeight = image.getHeight();
+    // the image is halved step by step to keep a good quality with the bilinear interpolation
+    do {
+      currentWidth = Math.max(width, currentWidth / 2);
+      currentHeight = Math.max(height, currentHeight / 2);
+      final BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+      final Graphics2D graphics = step.createGraphics();
+      try {
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+            RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+      } finally {
+        graphics.dispose();
+      }
+      current = step;
+    } while (currentWidth != width || currentHeight != height);
+    return current;
+  }
+
+  private static void write(final BufferedImage image, final String format, final File output)
+      throws IOException {
+    final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+    if (!writers.hasNext()) {
+      throw new IOException("No image writer for " + format);
+    }
+    final ImageWriter writer = writers.next();
+    try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+      writer.setOutput(stream);
+      final ImageWriteParam param = writer.getDefaultWriteParam();
+      if ("jpeg".equals(format)) {
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+      }
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  private static Path temporaryFileOf(final File destination) {
+    return destination.toPath()
+        .resolveSibling("." + Thread.currentThread().getId() + "_" + destination.getName());
+  }
+
+  private static String extensionOf(final File image) {
+    final String name = image.getName();
+    final int dot = name.lastIndexOf('.');
+    return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+  }
+}
@@ -33,7 +33,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -80,6 +82,26 @@ public class TemporaryWorkspaceTranslation {
     return new TemporaryWorkspaceTranslation(identifier);
   }
 
+  /**
+   * Gets all the existing workspaces whose the identifier starts with the given prefix.
+   * @param identifierPrefix the prefix of the identifiers.
+   * @return a list of {@link TemporaryWorkspaceTranslation} instances, empty if none.
+   */
+  public static List<TemporaryWorkspaceTranslation> getAllStartingWith(
+      final String identifierPrefix) {
+    final String descriptorPrefix = SILVERPEAS_TRANSLATION_PREFIX + identifierPrefix;
+    final File[] descriptors = new File(getTemporaryPath())
+        .listFiles(f -> f.isFile() && f.getName().startsWith(descriptorPrefix));
+    final List<TemporaryWorkspaceTranslation> workspaces = new ArrayList<>();
+    if (descriptors != null) {
+      for (File descriptor : descriptors) {
+        workspaces.add(
+            from(descriptor.getName().substring(SILVERPEAS_TRANSLATION_PREFIX.length())));
+      }
+    }
+    return workspaces;
+  }
+
   private TemporaryWorkspaceTranslation(final String id) {
     this.descriptor = new File(getTemporaryPath(), checkedPath(SILVERPEAS_TRANSLATION_PREFIX + id));
     initialize();
@@ -25,26 +25,36 @@ package org.silverpeas.core.mail.engine;
 
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.core.mail.MailToSend;
+import org.silverpeas.core.thread.ManagedThreadPool;
 import org.silverpeas.core.thread.task.AbstractRequestTask;
 import org.silverpeas.core.thread.task.RequestTaskManager;
+import org.silverpeas.core.util.MailUtil;
+import org.silverpeas.kernel.SilverpeasException;
 import org.silverpeas.kernel.logging.SilverLogger;
 
-import java.util.concurrent.Semaphore;
-
 /**
  * A task MailSenderTask runs in the background a batch of mail to send.<br>
  * When it get no more mail to send, the task ends and a new one will be instantiated on the next
  * mail sending request.<br>
- * Priority is given to synchronous mail sending request.
+ * Priority is given to synchronous mail sending request: an asynchronous mail gets a sending
+ * slot only when no synchronous send is waiting for one.<br>
+ * By default, the mails are sent one by one. Several mails can be sent concurrently by setting
+ * the <code>SMTPMaxConcurrentSends</code> property of the SMTP settings: the asynchronous mails
+ * are then sent by a shared executor of managed threads, each of them using its own SMTP
+ * connection.
  */
 @Bean
 public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProcessContext> {
 
+  static final String MAX_CONCURRENT_SENDS = "SMTPMaxConcurrentSends";
+
   /**
    * All the requests are processed by a single background thread. This thread is built and started
-   * by the start method.
+   * by the start method. The sending slots bound the number of sends performed at a same time,
+   * either synchronously or asynchronously.
    */
-  private static final Semaphore orderedOneByOneSemaphore = new Semaphore(1, true);
+  private static final SendingSlots sendingSlots =
+      new SendingSlots(MailUtil.configuration.getInteger(MAX_CONCURRENT_SENDS, 1));
 
   /**
    * Add a mail to send.
@@ -57,7 +67,7 @@ public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProce
     } else {
       // The sending is performed synchronously
       try {
-        mailToSendRequest.process(new MailProcessContext(orderedOneByOneSemaphore));
+        mailToSendRequest.process(new MailProcessContext(sendingSlots, true));
       } catch (InterruptedException e) {
         SilverLogger.getLogger(MailSenderTask.class).error(e.getLocalizedMessage(), e);
         Thread.currentThread().interrupt();
@@ -67,18 +77,62 @@ public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProce
 
   @Override
   protected MailProcessContext getProcessContext() {
-    return new MailProcessContext(orderedOneByOneSemaphore);
+    return new MailProcessContext(sendingSlots, false);
+  }
+
+  /**
+   * When several sends can be performed concurrently, the background thread waits for a free
+   * sending slot and then delegates the send to a managed thread so that it can go on with the
+   * next request.
+   * @param request the request to process.
+   * @throws SilverpeasException on error.
+   */
+  @Override
+  protected void processRequest(final Request<MailProcessContext> request)
+      throws SilverpeasException {
+    final int maxConcurrentSends = sendingSlots.getCapacity();
+    if (maxConcurrentSends <= 1 || !(request instanceof MailToSendRequest)) {
+      super.processRequest(request);
+      return;
+    }
+    final MailToSendRequest mailToSendRequest = (MailToSendRequest) request;
+    try {
+      sendingSlots.acquire(false);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SilverpeasException(e);
+    }
+    try {
+      ManagedThreadPool.getPool().getExecutor("mail-sender", maxConcurrentSends).execute(() -> {
+        try {
+          mailToSendRequest.send();
+        } catch (Exception e) {
+          SilverLogger.getLogger(MailSenderTask.class).error(e);
+        } finally {
+          sendingSlots.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      sendingSlots.release();
+      throw new SilverpeasException(e);
+    }
   }
 
   static class MailProcessContext implements AbstractRequestTask.ProcessContext {
-    private final Semaphore semaphore;
+    private final SendingSlots sendingSlots;
+    private final boolean synchronous;
+
+    MailProcessContext(final SendingSlots sendingSlots, final boolean synchronous) {
+      this.sendingSlots = sendingSlots;
+      this.synchronous = synchronous;
+    }
 
-    MailProcessContext(final Semaphore semaphore) {
-      this.semaphore = semaphore;
+    SendingSlots getSendingSlots() {
+      return sendingSlots;
     }
 
-    Semaphore getSemaphore() {
-      return semaphore;
+    boolean isSynchronous() {
+      return synchronous;
     }
   }
 
@@ -97,18 +151,25 @@ public class MailSenderTask extends AbstractRequestTask<MailSenderTask.MailProce
     }
 
     /**
-     * As {@link MailSenderTask} can send a mail synchronously or asynchronously, this method is
-     * synchronized to ensure that one send is performed at a same time laps.
+     * As {@link MailSenderTask} can send a mail synchronously or asynchronously, this method
+     * waits for a free sending slot, the synchronous sends being served first.
      * @param context the context of the request processing.
      */
     @Override
     public void process(final MailProcessContext context) throws InterruptedException {
+      context.getSendingSlots().acquire(context.isSynchronous());
       try {
-        context.getSemaphore().acquire();
-        MailSender.get().send(mailToSend);
+        send();
       } finally {
-        context.getSemaphore().release();
+        context.getSendingSlots().release();
       }
     }
+
+    /**
+     * Sends the mail without any concurrency control.
+     */
+    void send() {
+      MailSender.get().send(mailToSend);
+    }
   }
 }
\ No newline at end of file
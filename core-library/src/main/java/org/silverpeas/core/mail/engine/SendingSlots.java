@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.mail.engine;
+
+/**
+ * The slots of mail sending. They bound the number of mails sent at a same time and give
+ * priority to the synchronous sends: as long as a synchronous send is waiting for a slot, no
+ * slot is granted to an asynchronous one.
+ */
+class SendingSlots {
+
+  private final int capacity;
+  private int used = 0;
+  private int waitingSynchronousSends = 0;
+
+  /**
+   * Constructs the sending slots.
+   * @param capacity the maximum number of mails sent at a same time.
+   */
+  SendingSlots(final int capacity) {
+    this.capacity = Math.max(1, capacity);
+  }
+
+  /**
+   * Acquires a sending slot, waiting for one to be free if necessary. An asynchronous send waits
+   * also for all the synchronous sends waiting for a slot to get it.
+   * @param synchronous true if the slot is for a synchronous send, false otherwise.
+   * @throws InterruptedException if the current thread is interrupted while waiting.
+   */
+  synchronized void acquire(final boolean synchronous) throws InterruptedException {
+    if (synchronous) {
+      waitingSynchronousSends++;
+    }
+    try {
+      while (used >= capacity || (!synchronous && waitingSynchronousSends > 0)) {
+        wait();
+      }
+      used++;
+    } finally {
+      if (synchronous) {
+        waitingSynchronousSends--;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Releases a sending slot previously acquired.
+   */
+  synchronized void release() {
+    used--;
+    notifyAll();
+  }
+
+  /**
+   * Gets the maximum number of mails sent at a same time.
+   * @return the capacity of the slots.
+   */
+  int getCapacity() {
+    return capacity;
+  }
+}
@@ -32,6 +32,7 @@ import org.silverpeas.core.util.MailUtil;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.kernel.logging.SilverLogger;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import javax.mail.MessagingException;
 import javax.mail.Session;
@@ -45,7 +46,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Properties;
 
 /**
  * This is the SMTP implementation of the {@link MailSender} interface.
@@ -56,20 +56,14 @@ import java.util.Properties;
 @Singleton
 public class SmtpMailSender implements MailSender {
 
+  private final SmtpTransportPool transportPool = new SmtpTransportPool();
+
   /**
-   * Retrieves the system properties and configure a mail session. For further explanations, please
-   * read the <code>RFC1891</code>.
-   * @return an initialized session.
+   * Closes the SMTP connections kept opened for further sends.
    */
-  private Session getMailSession(SmtpConfiguration smtpConfiguration) {
-    Properties properties = System.getProperties();
-    properties.put("mail.smtp.host", smtpConfiguration.getServer());
-    properties.put("mail.smtp.auth", String.valueOf(smtpConfiguration.isAuthenticate()));
-    Session session = Session.getInstance(properties, null);
-    // print on the console all SMTP messages.
-    session.setDebug(smtpConfiguration.isDebug());
-    // Returning the session.
-    return session;
+  @PreDestroy
+  void closeConnections() {
+    transportPool.closeAll();
   }
 
   @Override
@@ -78,7 +72,7 @@ public class SmtpMailSender implements MailSender {
 
     MailAddress fromMailAddress = mail.getFrom();
     ReceiverMailAddressSet toMailAddresses = mail.getTo();
-    Session session = getMailSession(smtpConfiguration);
+    Session session = transportPool.getSession(smtpConfiguration);
     if (fromMailAddress == null || StringUtil.isNotDefined(fromMailAddress.getEmail())) {
       SilverLogger.getLogger(this).warn("No expeditor set: mail won't be sent");
       return;
@@ -110,7 +104,7 @@ public class SmtpMailSender implements MailSender {
       mail.getContent().applyOn(email);
 
       // Sending.
-      performSend(mail, smtpConfiguration, session, email, toAddresses);
+      performSend(mail, smtpConfiguration, email, toAddresses);
 
     } catch (Exception e) {
       SilverLogger.getLogger(this).error(e);
@@ -145,51 +139,43 @@ public class SmtpMailSender implements MailSender {
   /**
    * This method performs the treatment of the technical send:
    * <ul>
-   * <li>connection to the SMTP server</li>
-   * <li>sending</li>
-   * <li>closing the connection</li>
+   * <li>borrowing a connection to the SMTP server from the pool</li>
+   * <li>sending the message to each batch of receivers over this connection</li>
+   * <li>giving back the connection to the pool, or closing it if the sending failed</li>
    * </ul>
    * @param mail the original data from which the given {@link MimeMessage} has been initialized.
    * @param smtpConfiguration the SMTP configuration.
-   * @param session the current mail session.
    * @param messageToSend the technical message to send.
    * @param batchedToAddresses the receivers of the message.
    * @throws MessagingException if an error occurs while delivering the message.
    */
   private void performSend(final MailToSend mail, final SmtpConfiguration smtpConfiguration,
-      Session session, MimeMessage messageToSend, List<InternetAddress[]> batchedToAddresses)
+      MimeMessage messageToSend, List<InternetAddress[]> batchedToAddresses)
       throws MessagingException {
 
-    // Creating a Transport connection (TCP)
-    final Transport transport;
-    if (smtpConfiguration.isSecure()) {
-      transport = session.getTransport(SmtpConfiguration.SECURE_TRANSPORT);
-    } else {
-      transport = session.getTransport(SmtpConfiguration.SIMPLE_TRANSPORT);
-    }
+    // Getting a Transport connection (TCP)
+    final SmtpTransportPool.PooledTransport pooledTransport =
+        transportPool.borrow(smtpConfiguration);
+    final Transport transport = pooledTransport.getTransport();
 
     // Adding send reporting listener
-    transport.addTransportListener(new SmtpMailSendReportListener(mail));
+    final SmtpMailSendReportListener reportListener = new SmtpMailSendReportListener(mail);
+    transport.addTransportListener(reportListener);
 
+    boolean sent = false;
     try {
-      if (smtpConfiguration.isAuthenticate()) {
-        transport.connect(smtpConfiguration.getServer(), smtpConfiguration.getPort(),
-            smtpConfiguration.getUsername(), smtpConfiguration.getPassword());
-      } else {
-        transport.connect(smtpConfiguration.getServer(), smtpConfiguration.getPort(), null, null);
-      }
-
       for (InternetAddress[] toAddressBatch : batchedToAddresses) {
         messageToSend
             .setRecipients(mail.getTo().getRecipientType().getTechnicalType(), toAddressBatch);
         transport.sendMessage(messageToSend, toAddressBatch);
       }
-
+      sent = true;
     } finally {
-      try {
-        transport.close();
-      } catch (Exception e) {
-        SilverLogger.getLogger(this).error(e);
+      transport.removeTransportListener(reportListener);
+      if (sent) {
+        transportPool.release(pooledTransport);
+      } else {
+        transportPool.invalidate(pooledTransport);
       }
     }
   }
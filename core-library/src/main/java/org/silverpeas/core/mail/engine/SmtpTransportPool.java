@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.mail.engine;
+
+import org.silverpeas.core.util.MailUtil;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of connected SMTP {@link Transport} instances.
+ * <p>
+ * Opening a connection to a SMTP server (TCP handshake, TLS negotiation, authentication) is
+ * expensive compared to the sending of a message itself. So, the connections are kept opened
+ * once a mail has been sent in order to be reused by the next sends. The connections are pooled
+ * by SMTP configuration; a connection is discarded when it has been idle too long, when it has
+ * been used for too many messages or when the SMTP server has closed it.
+ * </p>
+ * <p>
+ * The pool is parametrized with the following properties of the SMTP settings:
+ * </p>
+ * <ul>
+ * <li><code>SMTPConnectionPoolSize</code>: the maximum number of idle connections kept per
+ * SMTP configuration. 0 disables the pooling: a connection is then opened for each mail.</li>
+ * <li><code>SMTPConnectionIdleTimeout</code>: the number of seconds an idle connection is
+ * kept.</li>
+ * <li><code>SMTPConnectionMaxMessages</code>: the maximum number of mails sent by a
+ * connection before being closed (many SMTP servers limit the messages per connection). 0
+ * means no limit.</li>
+ * </ul>
+ */
+class SmtpTransportPool {
+
+  static final String POOL_SIZE = "SMTPConnectionPoolSize";
+  static final String IDLE_TIMEOUT = "SMTPConnectionIdleTimeout";
+  static final String MAX_MESSAGES = "SMTPConnectionMaxMessages";
+
+  private final Map<String, Deque<PooledTransport>> idleTransports = new HashMap<>();
+  private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+  private final int poolSize;
+  private final long idleTimeout;
+  private final int maxMessages;
+
+  SmtpTransportPool() {
+    this(MailUtil.configuration.getInteger(POOL_SIZE, 2),
+        TimeUnit.SECONDS.toMillis(MailUtil.configuration.getInteger(IDLE_TIMEOUT, 60)),
+        MailUtil.configuration.getInteger(MAX_MESSAGES, 100));
+  }
+
+  SmtpTransportPool(final int poolSize, final long idleTimeoutInMillis, final int maxMessages) {
+    this.poolSize = Math.max(0, poolSize);
+    this.idleTimeout = idleTimeoutInMillis;
+    this.maxMessages = Math.max(0, maxMessages);
+  }
+
+  /**
+   * Gets the mail session to use with the specified SMTP configuration. The session is created
+   * once per configuration with its own properties: they are initialized from the system ones,
+   * which are left untouched, so that the sessions of different configurations don't share any
+   * SMTP parameter.
+   * @param smtpConfiguration the SMTP configuration.
+   * @return an initialized session.
+   */
+  Session getSession(final SmtpConfiguration smtpConfiguration) {
+    return sessions.computeIfAbsent(keyOf(smtpConfiguration), k -> {
+      final String protocol = smtpConfiguration.isSecure() ? SmtpConfiguration.SECURE_TRANSPORT :
+          SmtpConfiguration.SIMPLE_TRANSPORT;
+      final Properties properties = new Properties();
+      properties.putAll(System.getProperties());
+      properties.put("mail.smtp.host", smtpConfiguration.getServer());
+      properties.put("mail.smtp.auth", String.valueOf(smtpConfiguration.isAuthenticate()));
+      properties.put("mail." + protocol + ".host", smtpConfiguration.getServer());
+      properties.put("mail." + protocol + ".port", String.valueOf(smtpConfiguration.getPort()));
+      properties.put("mail." + protocol + ".auth",
+          String.valueOf(smtpConfiguration.isAuthenticate()));
+      Session session = Session.getInstance(properties, null);
+      // print on the console all SMTP messages.
+      session.setDebug(smtpConfiguration.isDebug());
+      return session;
+    });
+  }
+
+  /**
+   * Borrows a connected transport for the specified SMTP configuration. An idle transport is
+   * reused if any is still alive, otherwise a new connection is opened. The borrowed transport
+   * MUST be given back to the pool by calling either {@link #release(PooledTransport)} or
+   * {@link #invalidate(PooledTransport)}.
+   * @param smtpConfiguration the SMTP configuration.
+   * @return a connected transport.
+   * @throws MessagingException if the connection to the SMTP server fails.
+   */
+  PooledTransport borrow(final SmtpConfiguration smtpConfiguration) throws MessagingException {
+    final String key = keyOf(smtpConfiguration);
+    PooledTransport pooled;
+    while ((pooled = pollIdle(key)) != null) {
+      // isConnected() checks the connection is still alive with a NOOP command
+      if (!pooled.isExpired(idleTimeout) && pooled.transport.isConnected()) {
+        return pooled;
+      }
+      close(pooled);
+    }
+    return connect(key, smtpConfiguration);
+  }
+
+  /**
+   * Gives back a transport to the pool after a successful use. The transport is closed if it
+   * cannot be reused. The idle transports that have expired meanwhile are closed at the same
+   * time, so that they aren't kept opened until the next borrow.
+   * @param pooled a transport previously borrowed from this pool.
+   */
+  void release(final PooledTransport pooled) {
+    pooled.used();
+    final List<PooledTransport> toClose = new ArrayList<>();
+    if (maxMessages > 0 && pooled.messageCount >= maxMessages) {
+      toClose.add(pooled);
+    }
+    synchronized (idleTransports) {
+      if (toClose.isEmpty()) {
+        final Deque<PooledTransport> idle =
+            idleTransports.computeIfAbsent(pooled.key, k -> new ArrayDeque<>());
+        if (idle.size() < poolSize) {
+          idle.push(pooled);
+        } else {
+          toClose.add(pooled);
+        }
+      }
+      reapExpired(toClose);
+    }
+    toClose.forEach(this::close);
+  }
+
+  /**
+   * Closes a transport whose use has failed; it is not given back to the pool.
+   * @param pooled a transport previously borrowed from this pool.
+   */
+  void invalidate(final PooledTransport pooled) {
+    close(pooled);
+  }
+
+  /**
+   * Closes all the idle transports of the pool.
+   */
+  void closeAll() {
+    final List<PooledTransport> toClose = new ArrayList<>();
+    synchronized (idleTransports) {
+      idleTransports.values().forEach(toClose::addAll);
+      idleTransports.clear();
+    }
+    toClose.forEach(this::close);
+  }
+
+  /**
+   * Gets the number of idle transports currently kept by the pool.
+   * @return the number of idle transports.
+   */
+  int getIdleCount() {
+    synchronized (idleTransports) {
+      return idleTransports.values().stream().mapToInt(Deque::size).sum();
+    }
+  }
+
+  /**
+   * Removes from the pool the idle transports that have expired. As the idle transports are
+   * pushed at the head of their deque, the expired ones are at its tail.
+   * @param expired the list into which the expired transports are put in order to be closed.
+   */
+  private void reapExpired(final List<PooledTransport> expired) {
+    final Iterator<Deque<PooledTransport>> idles = idleTransports.values().iterator();
+    while (idles.hasNext()) {
+      final Deque<PooledTransport> idle = idles.next();
+      while (!idle.isEmpty() && idle.peekLast().isExpired(idleTimeout)) {
+        expired.add(idle.pollLast());
+      }
+      if (idle.isEmpty()) {
+        idles.remove();
+      }
+    }
+  }
+
+  private PooledTransport pollIdle(final String key) {
+    synchronized (idleTransports) {
+      final Deque<PooledTransport> idle = idleTransports.get(key);
+      return idle != null ? idle.poll() : null;
+    }
+  }
+
+  private PooledTransport connect(final String key, final SmtpConfiguration smtpConfiguration)
+      throws MessagingException {
+    final Session session = getSession(smtpConfiguration);
+    final Transport transport;
+    if (smtpConfiguration.isSecure()) {
+      transport = session.getTransport(SmtpConfiguration.SECURE_TRANSPORT);
+    } else {
+      transport = session.getTransport(SmtpConfiguration.SIMPLE_TRANSPORT);
+    }
+    if (smtpConfiguration.isAuthenticate()) {
+      transport.connect(smtpConfiguration.getServer(), smtpConfiguration.getPort(),
+          smtpConfiguration.getUsername(), smtpConfiguration.getPassword());
+    } else {
+      transport.connect(smtpConfiguration.getServer(), smtpConfiguration.getPort(), null, null);
+    }
+    return new PooledTransport(key, transport);
+  }
+
+  private void close(final PooledTransport pooled) {
+    try {
+      pooled.transport.close();
+    } catch (Exception e) {
+      SilverLogger.getLogger(this).error(e);
+    }
+  }
+
+  /**
+   * Computes the key of the specified SMTP configuration: all its parameters are taken into
+   * account so that a connection or a session is never reused with another configuration. The
+   * password is taken by its hash in order to not keep it in clear in the key.
+   * @param smtpConfiguration the SMTP configuration.
+   * @return the key of the configuration in the pool.
+   */
+  private static String keyOf(final SmtpConfiguration smtpConfiguration) {
+    return String.join("|", smtpConfiguration.getServer(),
+        String.valueOf(smtpConfiguration.getPort()), String.valueOf(smtpConfiguration.isSecure()),
+        String.valueOf(smtpConfiguration.isAuthenticate()), smtpConfiguration.getUsername(),
+        String.valueOf(Objects.hashCode(smtpConfiguration.getPassword())),
+        String.valueOf(smtpConfiguration.isDebug()));
+  }
+
+  /**
+   * A transport connected to a SMTP server and managed by the pool.
+   */
+  static class PooledTransport {
+    private final String key;
+    private final Transport transport;
+    private long lastUse = System.currentTimeMillis();
+    private int messageCount = 0;
+
+    private PooledTransport(final String key, final Transport transport) {
+      this.key = key;
+      this.transport = transport;
+    }
+
+    Transport getTransport() {
+      return transport;
+    }
+
+    private void used() {
+      messageCount++;
+      lastUse = System.currentTimeMillis();
+    }
+
+    private boolean isExpired(final long idleTimeout) {
+      return System.currentTimeMillis() - lastUse > idleTimeout;
+    }
+  }
+}
@@ -968,9 +968,10 @@ public class NodeDAO extends AbstractDAO {
       for (NodePK nodePK : nodePKs) {
         prepStmt.setInt(1, i);
         prepStmt.setInt(2, Integer.parseInt(nodePK.getId()));
-        prepStmt.executeUpdate();
+        prepStmt.addBatch();
         i++;
       }
+      prepStmt.executeBatch();
     }
   }
 }
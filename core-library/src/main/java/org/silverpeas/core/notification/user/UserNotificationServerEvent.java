@@ -25,6 +25,7 @@ package org.silverpeas.core.notification.user;
 
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.notification.sse.CommonServerEvent;
+import org.silverpeas.core.notification.sse.behavior.TargetingUser;
 import org.silverpeas.core.util.JSONCodec;
 
 import static org.silverpeas.core.notification.user.server.channel.silvermail.SILVERMAILPersistence.countNotReadMessagesOfFolder;
@@ -33,7 +34,7 @@ import static org.silverpeas.core.notification.user.server.channel.silvermail.SI
  * This server event is sent on the reception of a user notification.
  * @author Yohann Chastagnier.
  */
-public class UserNotificationServerEvent extends CommonServerEvent {
+public class UserNotificationServerEvent extends CommonServerEvent implements TargetingUser {
 
   private static final String ID_ATTR_NAME = "id";
   private static final String SUBJECT_ATTR_NAME = "subject";
@@ -132,6 +133,11 @@ public class UserNotificationServerEvent extends CommonServerEvent {
     return emitterUserId;
   }
 
+  @Override
+  public String getTargetedUserId() {
+    return emitterUserId;
+  }
+
   @Override
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return receiver.getId().equals(emitterUserId);
@@ -445,9 +445,13 @@ public class DefaultNotificationManager
 
     try {
       params.trace();
+      final RecipientNotifPreferences preferences =
+          new RecipientNotifPreferences(schema, params, recipientIds);
+      final List<DelayedNotificationData> notifications = new ArrayList<>(recipientIds.size());
       for (String userId : recipientIds) {
-        doNewDelayedNotifications(params, userId);
+        addNewDelayedNotifications(params, userId, preferences, notifications);
       }
+      DelayedNotificationDelegate.executeNewNotifications(notifications);
 
     } catch (Exception e) {
       throw new NotificationException(e);
@@ -461,14 +465,11 @@ public class DefaultNotificationManager
     }
   }
 
-  private void doNewDelayedNotifications(final NotificationParameters params, final String userId)
-      throws NotificationException {
+  private void addNewDelayedNotifications(final NotificationParameters params,
+      final String userId, final RecipientNotifPreferences preferences,
+      final List<DelayedNotificationData> notifications) {
     try {
-      for (final DelayedNotificationData dnd : createAllDelayedNotificationData(params, userId)) {
-        DelayedNotificationDelegate.executeNewNotification(dnd);
-      }
-    } catch (NotificationServerException e) {
-      throw new NotificationException(e);
+      notifications.addAll(createAllDelayedNotificationData(params, userId, preferences));
     } catch (Exception ex) {
       SilverLogger.getLogger(this).error(ex);
     }
@@ -483,10 +484,11 @@ public class DefaultNotificationManager
     // First Verify that the title is not too long...
     checkTitleLength(params);
     try {
+      final List<NotificationData> notifications = new ArrayList<>(externals.size());
       for (ExternalRecipient externalRecipient : externals) {
-        NotificationData nd = createExternalNotificationData(params, externalRecipient.getEmail());
-        server.addNotification(nd);
+        notifications.add(createExternalNotificationData(params, externalRecipient.getEmail()));
       }
+      server.addNotifications(notifications);
     } catch (SQLException | NotificationServerException e) {
       throw new NotificationException(e);
     }
@@ -716,14 +718,14 @@ public class DefaultNotificationManager
   }
 
   private List<NotifAddressRow> getAllNotifAddressRow(final NotificationParameters params,
-      final String aUserId) throws SQLException {
+      final String aUserId, final RecipientNotifPreferences preferences) throws SQLException {
     final Stream<Integer> addressIdStream;
-    final int addressId = getAddressId(params, aUserId);
+    final int addressId = getAddressId(params, aUserId, preferences);
     if (addressId == BuiltInNotifAddress.DEFAULT.getId()) {
-      NotifDefaultAddressTable ndat = schema.notifDefaultAddress();
-      NotifDefaultAddressRow[] ndars = ndat.getAllByUserId(Integer.parseInt(aUserId));
-      if (ndars.length > 0) {
-        addressIdStream = Stream.of(ndars).map(NotifDefaultAddressRow::getNotifAddressId);
+      final List<Integer> defaultAddressIds =
+          preferences.getDefaultAddressIds(Integer.parseInt(aUserId));
+      if (!defaultAddressIds.isEmpty()) {
+        addressIdStream = defaultAddressIds.stream();
       } else {
         addressIdStream = getDefaultNotificationChannels().stream()
             .map(NotifChannel::getMediaType)
@@ -738,7 +740,8 @@ public class DefaultNotificationManager
     try {
       return addressIdStream.map(m -> {
         try {
-          return getNotifAddressRow(params, aUserId, m);
+          return BuiltInNotifAddress.decode(m).isPresent() ?
+              getNotifAddressRow(params, aUserId, m) : preferences.getAddress(m);
         } catch (SQLException e) {
           throw new SilverpeasRuntimeException(e);
         }
@@ -767,6 +770,18 @@ public class DefaultNotificationManager
     return addressId;
   }
 
+  private int getAddressId(final NotificationParameters params, final String aUserId,
+      final RecipientNotifPreferences preferences) {
+    int addressId = params.getAddressId();
+    if (params.isAddressDefinedByComponent()) {
+      final Integer preferredAddressId =
+          preferences.getPreferredAddressId(Integer.parseInt(aUserId));
+      addressId = preferredAddressId != null ? preferredAddressId :
+          BuiltInNotifAddress.DEFAULT.getId();
+    }
+    return addressId;
+  }
+
   private NotificationData createNotificationData(NotificationParameters params, String aUserId)
       throws SQLException, NotificationException {
     StringBuilder theMessage = new StringBuilder(100);
@@ -936,14 +951,15 @@ public class DefaultNotificationManager
   }
 
   private List<DelayedNotificationData> createAllDelayedNotificationData(
-      NotificationParameters params, String aUserId) throws SQLException {
-    final List<NotifAddressRow> nars = getAllNotifAddressRow(params, aUserId);
+      NotificationParameters params, String aUserId, RecipientNotifPreferences preferences)
+      throws SQLException {
+    final List<NotifAddressRow> nars = getAllNotifAddressRow(params, aUserId, preferences);
     final List<DelayedNotificationData> dnds = new ArrayList<>(nars.size());
 
     NotifChannelRow notifChannelRow;
     NotificationData notificationData;
     for (final NotifAddressRow curAddresseRow : nars) {
-      notifChannelRow = schema.notifChannel().getNotifChannel(curAddresseRow.getNotifChannelId());
+      notifChannelRow = preferences.getChannel(curAddresseRow.getNotifChannelId());
 
       notificationData = new NotificationData();
       // set the channel
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.client;
+
+import org.silverpeas.core.notification.user.client.constant.BuiltInNotifAddress;
+import org.silverpeas.core.notification.user.client.model.NotifAddressRow;
+import org.silverpeas.core.notification.user.client.model.NotifChannelRow;
+import org.silverpeas.core.notification.user.client.model.NotifDefaultAddressRow;
+import org.silverpeas.core.notification.user.client.model.NotifPreferenceRow;
+import org.silverpeas.core.notification.user.client.model.NotificationSchema;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The notification preferences and the default notification addresses of all the recipients of
+ * a notification. They are fetched in bulk once for all the recipients instead of being fetched
+ * recipient per recipient. The notification channels and the notification addresses are also
+ * cached for the time of the notification sending.
+ */
+class RecipientNotifPreferences {
+
+  private final NotificationSchema schema;
+  private final Map<Integer, Integer> preferredAddressIds = new HashMap<>();
+  private final Map<Integer, List<Integer>> defaultAddressIds = new HashMap<>();
+  private final Map<Integer, NotifChannelRow> channels = new HashMap<>();
+  private final Map<Integer, NotifAddressRow> addresses = new HashMap<>();
+
+  /**
+   * Loads the notification preferences of the given recipients for the specified notification.
+   * @param schema the schema of the notification tables.
+   * @param params the parameters of the notification.
+   * @param userIds the unique identifiers of the recipients.
+   * @throws SQLException if an error occurs while fetching the preferences.
+   */
+  RecipientNotifPreferences(final NotificationSchema schema, final NotificationParameters params,
+      final Collection<String> userIds) throws SQLException {
+    this.schema = schema;
+    final Set<Integer> ids = userIds.stream().map(Integer::parseInt).collect(Collectors.toSet());
+    if (params.isAddressDefinedByComponent() && params.isComponentInstanceDefined()) {
+      for (NotifPreferenceRow row : schema.notifPreference()
+          .getAllByUserIdsAndComponentInstanceIdAndMessageType(ids, params.getComponentInstance(),
+              params.getMessagePriority())) {
+        preferredAddressIds.put(row.getUserId(), row.getNotifAddressId());
+      }
+    }
+    if (params.isAddressDefinedByComponent() ||
+        params.getAddressId() == BuiltInNotifAddress.DEFAULT.getId()) {
+      for (NotifDefaultAddressRow row : schema.notifDefaultAddress().getAllByUserIds(ids)) {
+        defaultAddressIds.computeIfAbsent(row.getUserId(), u -> new ArrayList<>(2))
+            .add(row.getNotifAddressId());
+      }
+    }
+  }
+
+  /**
+   * Gets the identifier of the notification address the given user has chosen for the component
+   * instance and the priority of the notification.
+   * @param userId the unique identifier of a recipient.
+   * @return the identifier of the notification address or null if the user hasn't any
+   * preference about it.
+   */
+  Integer getPreferredAddressId(final int userId) {
+    return preferredAddressIds.get(userId);
+  }
+
+  /**
+   * Gets the identifiers of the default notification addresses of the given user.
+   * @param userId the unique identifier of a recipient.
+   * @return a list of notification address identifiers, empty if the user hasn't set any
+   * default notification address.
+   */
+  List<Integer> getDefaultAddressIds(final int userId) {
+    return defaultAddressIds.getOrDefault(userId, Collections.emptyList());
+  }
+
+  /**
+   * Gets the notification channel with the given identifier.
+   * @param channelId the unique identifier of a notification channel.
+   * @return the channel.
+   * @throws SQLException if an error occurs while fetching the channel.
+   */
+  NotifChannelRow getChannel(final int channelId) throws SQLException {
+    NotifChannelRow channel = channels.get(channelId);
+    if (channel == null) {
+      channel = schema.notifChannel().getNotifChannel(channelId);
+      channels.put(channelId, channel);
+    }
+    return channel;
+  }
+
+  /**
+   * Gets the notification address with the given identifier.
+   * @param addressId the unique identifier of a notification address.
+   * @return the notification address.
+   * @throws SQLException if an error occurs while fetching the address.
+   */
+  NotifAddressRow getAddress(final int addressId) throws SQLException {
+    NotifAddressRow address = addresses.get(addressId);
+    if (address == null) {
+      address = schema.notifAddress().getNotifAddress(addressId);
+      addresses.put(addressId, address);
+    }
+    return address;
+  }
+}
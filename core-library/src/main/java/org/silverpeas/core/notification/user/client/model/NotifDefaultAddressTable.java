@@ -29,6 +29,10 @@ import org.silverpeas.core.persistence.jdbc.AbstractTable;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -73,6 +77,26 @@ public class NotifDefaultAddressTable extends AbstractTable<NotifDefaultAddressR
       + NOTIFDEFAULTADDRESS_COLUMNS
       + " from ST_NotifDefaultAddress where userId=?";
 
+  /**
+   * Returns all the NotifDefaultAddressRow of the given users. The rows are fetched by packets of
+   * users in order to limit the number of queries whatever the number of users.
+   */
+  public List<NotifDefaultAddressRow> getAllByUserIds(Collection<Integer> userIds)
+      throws SQLException {
+    final List<NotifDefaultAddressRow> rows = new ArrayList<>();
+    final int[] ids = userIds.stream().mapToInt(Integer::intValue).distinct().toArray();
+    for (int from = 0; from < ids.length; from += MAX_USER_IDS_PER_QUERY) {
+      final int[] packet =
+          Arrays.copyOfRange(ids, from, Math.min(ids.length, from + MAX_USER_IDS_PER_QUERY));
+      final String query = SELECT_ALL_NOTIFDEFAULTADDRESS + " where userId in (" +
+          String.join(",", Collections.nCopies(packet.length, "?")) + ")";
+      rows.addAll(getRows(query, packet));
+    }
+    return rows;
+  }
+
+  private static final int MAX_USER_IDS_PER_QUERY = 500;
+
   /**
    * Returns all the rows.
    */
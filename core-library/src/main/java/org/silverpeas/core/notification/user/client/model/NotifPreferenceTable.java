@@ -29,6 +29,9 @@ import org.silverpeas.core.persistence.jdbc.AbstractTable;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
@@ -75,6 +78,38 @@ public class NotifPreferenceTable extends AbstractTable<NotifPreferenceRow> {
       + " from ST_NotifPreference where "
       + "userId=? and componentInstanceId=? and messageType=?";
 
+  /**
+   * Returns all the NotifPreferenceRow of the given users having the given componentInstanceId
+   * and messageType. The users are requested by packets of {@value #MAX_USER_IDS_PER_QUERY}
+   * identifiers.
+   */
+  public List<NotifPreferenceRow> getAllByUserIdsAndComponentInstanceIdAndMessageType(
+      Collection<Integer> userIds, int componentInstanceId, int messageType)
+      throws SQLException {
+    final List<NotifPreferenceRow> rows = new ArrayList<>();
+    final int[] ids = userIds.stream().mapToInt(Integer::intValue).distinct().toArray();
+    for (int from = 0; from < ids.length; from += MAX_USER_IDS_PER_QUERY) {
+      final int to = Math.min(ids.length, from + MAX_USER_IDS_PER_QUERY);
+      final int[] intArgs = new int[to - from + 2];
+      intArgs[0] = componentInstanceId;
+      intArgs[1] = messageType;
+      System.arraycopy(ids, from, intArgs, 2, to - from);
+      final String query =
+          SELECT_ALL_NOTIFPREFERENCE_WITH_GIVEN_COMPONENTINSTANCEID_AND_MESSAGETYPE +
+              " and userId in (" + String.join(",", Collections.nCopies(to - from, "?")) + ")";
+      rows.addAll(getRows(query, intArgs));
+    }
+    return rows;
+  }
+
+  private static final int MAX_USER_IDS_PER_QUERY = 500;
+
+  private static final String SELECT_ALL_NOTIFPREFERENCE_WITH_GIVEN_COMPONENTINSTANCEID_AND_MESSAGETYPE =
+      SELECT
+      + NOTIFPREFERENCE_COLUMNS
+      + " from ST_NotifPreference where "
+      + "componentInstanceId=? and messageType=?";
+
   /**
    * Returns all the NotifPreferenceRow having a given componentInstanceId
    */
@@ -174,6 +174,37 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
     new DelayedNotificationDelegate().performNewNotificationSending(delayedNotificationData);
   }
 
+  /**
+   * Easy call of new notifications process. The notifications that aren't delayed are sent all
+   * together to the notification server.
+   * @param delayedNotificationData the data about the notifications to send.
+   * @throws NotificationServerException if an error occurs.
+   */
+  public static void executeNewNotifications(
+      final List<DelayedNotificationData> delayedNotificationData)
+      throws NotificationServerException {
+    new DelayedNotificationDelegate().performNewNotificationsSending(delayedNotificationData);
+  }
+
+  /**
+   * Handling new notifications
+   * @param delayedNotificationData the data about the notifications to send.
+   * @throws NotificationServerException if an error occurs.
+   */
+  protected void performNewNotificationsSending(
+      final List<DelayedNotificationData> delayedNotificationData)
+      throws NotificationServerException {
+    final List<NotificationData> toSend = new ArrayList<>(delayedNotificationData.size());
+    for (final DelayedNotificationData data : delayedNotificationData) {
+      if (!isThatToBeDelayed(data)) {
+        toSend.add(data.getNotificationData());
+      } else {
+        DelayedNotificationProvider.getDelayedNotification().saveDelayedNotification(data);
+      }
+    }
+    sendNotifications(toSend);
+  }
+
   /**
    * Handling a new notification
    * @param delayedNotificationData the data about the notification to send.
@@ -698,6 +729,23 @@ public class DelayedNotificationDelegate implements NotificationURLProvider {
     notificationServer.addNotification(notificationData);
   }
 
+  /**
+   * Centralizes the sending of several notifications at once
+   * @param notificationData data about the notifications to send.
+   * @throws NotificationServerException if an error occurs.
+   */
+  protected void sendNotifications(final List<NotificationData> notificationData)
+      throws NotificationServerException {
+
+    // Removing Java Strings of the computed messages
+    for (NotificationData data : notificationData) {
+      data.setMessage(data.getMessage().replaceAll("[\r\n\t]", ""));
+    }
+
+    // Adding the notifications in a batch way
+    NotificationServer.get().addNotifications(notificationData);
+  }
+
   /**
    * Converts in the specified HTML content any line-feeds and tabulations by their counterpart in
    * HTML.
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server;
+
+import org.silverpeas.core.util.Charsets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A batch of notifications sharing the same channel and the same content but targeting different
+ * recipients. Instead of posting one message per recipient to the notification server, a single
+ * message carrying the content once with the list of the recipient addresses is posted.
+ * <p>
+ * A batch is encoded in a compact binary form. The decoded notifications are the same as the
+ * ones decoded from the XML form produced by
+ * {@link NotificationServerUtil#convertNotificationDataToXML(NotificationData)} so that the
+ * channels process them in the same way.
+ * </p>
+ */
+public class NotificationBatch {
+
+  private static final byte FORMAT_VERSION = 1;
+
+  private final NotificationData content;
+  private final List<String> receipts;
+
+  private NotificationBatch(final NotificationData content, final List<String> receipts) {
+    this.content = content;
+    this.receipts = receipts;
+  }
+
+  /**
+   * Groups the given notifications by channel and by content into batches of at most the given
+   * number of recipients. The order of the notifications is kept.
+   * @param notifications the notifications to group.
+   * @param maxReceipts the maximum number of recipients of a batch.
+   * @return a list of batches.
+   */
+  public static List<NotificationBatch> of(final Collection<NotificationData> notifications,
+      final int maxReceipts) {
+    final Map<Content, List<String>> receiptsByContent = new LinkedHashMap<>();
+    notifications.forEach(n -> receiptsByContent
+        .computeIfAbsent(new Content(n), c -> new ArrayList<>())
+        .add(n.getTargetReceipt()));
+    final List<NotificationBatch> batches = new ArrayList<>(receiptsByContent.size());
+    receiptsByContent.forEach((c, r) -> {
+      for (int i = 0; i < r.size(); i += maxReceipts) {
+        batches.add(new NotificationBatch(c.data,
+            new ArrayList<>(r.subList(i, Math.min(r.size(), i + maxReceipts)))));
+      }
+    });
+    return batches;
+  }
+
+  /**
+   * Decodes a batch of notifications from its compact binary form.
+   * @param encoded the binary form of a batch as returned by {@link #encode()}.
+   * @return the decoded batch.
+   * @throws NotificationServerException if the given bytes aren't a valid encoded batch.
+   */
+  public static NotificationBatch decode(final byte[] encoded)
+      throws NotificationServerException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+      final byte version = in.readByte();
+      if (version != FORMAT_VERSION) {
+        throw new NotificationServerException("Unsupported notification batch format " + version);
+      }
+      final NotificationData data = new NotificationData();
+      data.setLoginUser(readString(in));
+      data.setLoginPassword(readString(in));
+      data.setMessage(readString(in));
+      data.setSenderId(readString(in));
+      data.setSenderName(readString(in));
+      data.setAnswerAllowed(in.readBoolean());
+      data.setComment(readString(in));
+      data.setTargetChannel(readString(in));
+      data.setTargetName(readString(in));
+      data.setTargetParam(NotificationServerUtil.unpackKeyValues(readString(in)));
+      data.setPrioritySpeed(readString(in));
+      final int count = in.readInt();
+      final List<String> receipts = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        receipts.add(readString(in));
+      }
+      return new NotificationBatch(data, receipts);
+    } catch (IOException e) {
+      throw new NotificationServerException(e);
+    }
+  }
+
+  /**
+   * Encodes this batch into its compact binary form.
+   * @return the bytes of the encoded batch.
+   */
+  public byte[] encode() {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+        256 + (content.getMessage() == null ? 0 : content.getMessage().length()));
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(FORMAT_VERSION);
+      writeString(out, content.getLoginUser());
+      writeString(out, content.getLoginPassword());
+      writeString(out, content.getMessage());
+      writeString(out, content.getSenderId());
+      writeString(out, content.getSenderName());
+      out.writeBoolean(content.isAnswerAllowed());
+      writeString(out, content.getComment());
+      writeString(out, content.getTargetChannel());
+      writeString(out, content.getTargetName());
+      writeString(out, NotificationServerUtil.packKeyValues(content.getTargetParam()));
+      writeString(out, content.getPrioritySpeed());
+      out.writeInt(receipts.size());
+      for (String receipt : receipts) {
+        writeString(out, receipt);
+      }
+    } catch (IOException e) {
+      // never thrown with an in-memory stream
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Gets the channel through which the notifications of this batch have to be sent.
+   * @return the name of the channel.
+   */
+  public String getTargetChannel() {
+    return content.getTargetChannel();
+  }
+
+  /**
+   * Gets the addresses of the recipients of this batch.
+   * @return an unmodifiable list of addresses.
+   */
+  public List<String> getTargetReceipts() {
+    return Collections.unmodifiableList(receipts);
+  }
+
+  /**
+   * Gets the notifications of this batch, one per recipient.
+   * @return a list of notifications.
+   */
+  public List<NotificationData> getNotifications() {
+    final List<NotificationData> notifications = new ArrayList<>(receipts.size());
+    for (String receipt : receipts) {
+      final NotificationData data = new NotificationData();
+      data.setLoginUser(content.getLoginUser());
+      data.setLoginPassword(content.getLoginPassword());
+      data.setMessage(content.getMessage());
+      data.setSenderId(content.getSenderId());
+      data.setSenderName(content.getSenderName());
+      data.setAnswerAllowed(content.isAnswerAllowed());
+      data.setComment(content.getComment());
+      data.setTargetChannel(content.getTargetChannel());
+      data.setTargetName(content.getTargetName());
+      data.setTargetParam(content.getTargetParam() == null ? null :
+          new LinkedHashMap<>(content.getTargetParam()));
+      data.setPrioritySpeed(content.getPrioritySpeed());
+      data.setTargetReceipt(receipt);
+      notifications.add(data);
+    }
+    return notifications;
+  }
+
+  /**
+   * The strings are written as the XML form does, that is a null string is written as "null".
+   */
+  private static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    final byte[] bytes = String.valueOf(value).getBytes(Charsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(final DataInputStream in) throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+
+  /**
+   * The content of a notification, that is all the data of the notification that are carried to
+   * the notification server except its recipient.
+   */
+  private static class Content {
+    private final NotificationData data;
+
+    private Content(final NotificationData data) {
+      this.data = data;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final NotificationData other = ((Content) o).data;
+      return data.isAnswerAllowed() == other.isAnswerAllowed() &&
+          Objects.equals(data.getTargetChannel(), other.getTargetChannel()) &&
+          Objects.equals(data.getMessage(), other.getMessage()) &&
+          Objects.equals(data.getSenderId(), other.getSenderId()) &&
+          Objects.equals(data.getSenderName(), other.getSenderName()) &&
+          Objects.equals(data.getComment(), other.getComment()) &&
+          Objects.equals(data.getTargetName(), other.getTargetName()) &&
+          Objects.equals(data.getTargetParam(), other.getTargetParam()) &&
+          Objects.equals(data.getPrioritySpeed(), other.getPrioritySpeed()) &&
+          Objects.equals(data.getLoginUser(), other.getLoginUser()) &&
+          Objects.equals(data.getLoginPassword(), other.getLoginPassword());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(data.getTargetChannel(), data.getMessage(), data.getSenderId(),
+          data.getTargetParam());
+    }
+  }
+}
@@ -26,12 +26,17 @@ package org.silverpeas.core.notification.user.server;
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.notification.system.JMSOperation;
+import org.silverpeas.core.notification.user.client.NotificationManagerSettings;
 import org.silverpeas.core.util.ServiceProvider;
 
 import javax.annotation.Resource;
+import javax.jms.BytesMessage;
+import javax.jms.JMSProducer;
 import javax.jms.Queue;
 import javax.jms.TextMessage;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Technical
@@ -71,6 +76,39 @@ public class NotificationServer {
     return notificationId;
   }
 
+  /**
+   * Adds the given notifications in a batch way: the notifications sharing the same channel and
+   * the same content are posted as a single message carrying the addresses of all their
+   * recipients.
+   * @param notifications the notifications to send.
+   * @throws NotificationServerException if the posting of the notifications fails.
+   * @see NotificationBatch
+   */
+  public void addNotifications(final Collection<NotificationData> notifications)
+      throws NotificationServerException {
+    if (notifications.isEmpty()) {
+      return;
+    } else if (notifications.size() == 1) {
+      addNotification(notifications.iterator().next());
+      return;
+    }
+    final List<NotificationBatch> batches = NotificationBatch.of(notifications,
+        NotificationManagerSettings.getMaxRecipientsPerNotificationBatch());
+    try {
+      JMSOperation.realize(context -> {
+        final JMSProducer producer = context.createProducer();
+        for (NotificationBatch batch : batches) {
+          final BytesMessage message = context.createBytesMessage();
+          message.writeBytes(batch.encode());
+          message.setStringProperty(JMS_HEADER_CHANNEL, batch.getTargetChannel());
+          producer.send(queue, message);
+        }
+      });
+    } catch (Exception e) {
+      throw new NotificationServerException(e);
+    }
+  }
+
   /**
    * Send the NotificationMessage in a JMS Queue
    */
@@ -23,11 +23,14 @@
  */
 package org.silverpeas.core.notification.user.server.channel;
 
+import org.silverpeas.core.notification.user.server.NotificationBatch;
 import org.silverpeas.core.notification.user.server.NotificationData;
 import org.silverpeas.core.notification.user.server.NotificationServerConstant;
 import org.silverpeas.core.notification.user.server.NotificationServerException;
 import org.silverpeas.core.notification.user.server.NotificationServerUtil;
+import org.silverpeas.kernel.logging.SilverLogger;
 
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.TextMessage;
@@ -54,12 +57,46 @@ public abstract class AbstractListener implements INotificationServerChannel {
    * fails.
    */
   protected void processMessage(Message msg) throws NotificationServerException {
+    if (msg instanceof BytesMessage) {
+      processBatchMessage((BytesMessage) msg);
+      return;
+    }
     extractData(msg);
     NotificationData nd = NotificationServerUtil.convertXMLToNotificationData(payLoad);
     nd.traceObject();
     send(nd);
   }
 
+  /**
+   * Process a message carrying a batch of notifications: the notification is sent to each of the
+   * recipients of the batch. The failure of the sending to a recipient doesn't prevent the
+   * sending to the other ones.
+   * @param msg the message to be processed.
+   * @throws NotificationServerException if the decoding of the specified message fails.
+   * @see NotificationBatch
+   */
+  private void processBatchMessage(BytesMessage msg) throws NotificationServerException {
+    final NotificationBatch batch;
+    try {
+      channel = msg.getStringProperty(NotificationServerConstant.JMS_HEADER_CHANNEL);
+      final byte[] encoded = new byte[(int) msg.getBodyLength()];
+      msg.readBytes(encoded);
+      batch = NotificationBatch.decode(encoded);
+    } catch (JMSException e) {
+      throw new NotificationServerException(e);
+    }
+    for (NotificationData nd : batch.getNotifications()) {
+      try {
+        nd.traceObject();
+        send(nd);
+      } catch (NotificationServerException e) {
+        SilverLogger.getLogger(this)
+            .error("Notification sending error on channel {0} to {1}",
+                new String[]{channel, nd.getTargetReceipt()}, e);
+      }
+    }
+  }
+
   /**
    * Extract the data from the header of the JMS message
    * @param msg : the message to extract the notification data from.
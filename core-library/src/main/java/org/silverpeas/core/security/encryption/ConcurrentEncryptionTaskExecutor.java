@@ -25,13 +25,15 @@ package org.silverpeas.core.security.encryption;
 
 import org.silverpeas.core.security.encryption.cipher.CryptoException;
 
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Executor of concurrent encryption tasks for the ContentEncryptionService instances. The
  * concurrent encryption tasks can be ran simultaneously in several threads, the aim of the
  * ConcurrentEncryptionTaskExecutor is then to manage the concurrency over these different tasks by
- * executing them for the account of the threads they belong to with the use of a semaphore.
+ * executing them for the account of the threads they belong to with the use of a read-write lock.
  * </p>
  * This class is to be used only by the ContentEncryptionService instances for their inner
  * operations.
@@ -40,13 +42,19 @@ import java.util.concurrent.Semaphore;
  * concurrently with other non-privileged tasks. When a privileged task has to be executed
  * concurrently, it waits for the completion of other tasks and then it is ran in a privileged mode,
  * that is to say it is the alone to be ran and the others tasks (privileged and non-privileged
- * ones) are blocked until it has finished its work.
+ * ones) are rejected with an {@link IllegalStateException} until it has finished its work.
+ * </p>
+ * The non-privileged tasks share the read lock and then they don't serialize each other: no
+ * monitor is taken on their path.
  */
 class ConcurrentEncryptionTaskExecutor {
 
-  // safe value taken from the ReentrantLock API
-  private static final int TOKEN_COUNT = 2147483647;
-  private static final Semaphore semaphore = new Semaphore(TOKEN_COUNT);
+  private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private static final AtomicBoolean privilegedTaskRunning = new AtomicBoolean(false);
+
+  private ConcurrentEncryptionTaskExecutor() {
+    // Not instantiable
+  }
 
   /**
    * Executes concurrently the specified task according to the following policy: a non-privileged
@@ -62,29 +70,44 @@ class ConcurrentEncryptionTaskExecutor {
    */
   public static <T> T execute(ConcurrentEncryptionTask<T> task)
       throws CryptoException {
+    return task.isPrivileged() ? executeInPrivilegedMode(task) : executeConcurrently(task);
+  }
+
+  private static <T> T executeConcurrently(final ConcurrentEncryptionTask<T> task)
+      throws CryptoException {
+    final Lock readLock = lock.readLock();
+    // the flag prevents the readers to starve a privileged task waiting for the write lock
+    if (privilegedTaskRunning.get() || !readLock.tryLock()) {
+      throw blocked();
+    }
     try {
-      acquireMutex();
       return task.execute();
     } finally {
-      releaseMutex();
+      readLock.unlock();
     }
   }
 
-  private static synchronized void acquireMutex() {
-    if (semaphore.availablePermits() == 0) {
-      throw new IllegalStateException("The encryption is being updated: the content encryption "
-          + "and decryption service is blocked");
+  private static <T> T executeInPrivilegedMode(final ConcurrentEncryptionTask<T> task)
+      throws CryptoException {
+    if (!privilegedTaskRunning.compareAndSet(false, true)) {
+      throw blocked();
     }
+    final Lock writeLock = lock.writeLock();
     try {
-      semaphore.acquire();
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new IllegalStateException(e);
+      writeLock.lock();
+      try {
+        return task.execute();
+      } finally {
+        writeLock.unlock();
+      }
+    } finally {
+      privilegedTaskRunning.set(false);
     }
   }
 
-  private static synchronized void releaseMutex() {
-    semaphore.release();
+  private static IllegalStateException blocked() {
+    return new IllegalStateException("The encryption is being updated: the content encryption "
+        + "and decryption service is blocked");
   }
 
   /**
@@ -26,8 +26,20 @@ package org.silverpeas.core.security.encryption;
 import org.silverpeas.core.security.encryption.cipher.Cipher;
 import org.silverpeas.core.security.encryption.cipher.CipherKey;
 import org.silverpeas.core.security.encryption.cipher.CryptoException;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.kernel.logging.SilverLogger;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.maxThreadPoolSizeOf;
 
 /**
  * A cryptographic task the DefaultContentEncryptionService instances can perform on the contents
@@ -42,6 +54,11 @@ import java.util.Map;
  * </p>
  * By default, the task will be executed in non-privileged mode, that is to say that the task will
  * not block other cryptographic tasks awaiting execution.
+ * </p>
+ * By default, the contents provided by the different iterators are processed sequentially in the
+ * caller thread. The task can be asked to split each content into batches of fields that are
+ * processed in parallel by managed threads; the iterators themselves are still walked and updated
+ * in the caller thread and the failure on one batch stops the processing of the whole content.
  */
 class CryptographicTask implements ConcurrentEncryptionTaskExecutor.ConcurrentEncryptionTask<Void> {
 
@@ -51,9 +68,12 @@ class CryptographicTask implements ConcurrentEncryptionTaskExecutor.ConcurrentEn
     RENEW
   }
 
+  private static final int BATCH_SIZE = 500;
+
   private final Type task;
   private final EncryptionContentIterator[] iterators;
   private boolean privileged = false;
+  private boolean parallel = false;
 
   /**
    * Creates a task to encrypt the contents provided by the specified iterators.
@@ -96,6 +116,17 @@ class CryptographicTask implements ConcurrentEncryptionTaskExecutor.ConcurrentEn
     return this;
   }
 
+  /**
+   * The fields of each content must be processed by batches in managed threads, up to the count of
+   * available processors. The progress of the task is logged for each processed batch.
+   *
+   * @return itself.
+   */
+  public CryptographicTask inParallel() {
+    this.parallel = true;
+    return this;
+  }
+
   @Override
   public boolean isPrivileged() {
     return privileged;
@@ -128,17 +159,10 @@ class CryptographicTask implements ConcurrentEncryptionTaskExecutor.ConcurrentEn
     while (theContents.hasNext()) {
       Map<String, String> content = theContents.next();
       try {
-        switch (task) {
-          case ENCRYPTION:
-            content = DefaultContentEncryptionService.encryptContent(content, cipher, actualKey);
-            break;
-          case DECRYPTION:
-            content = DefaultContentEncryptionService.decryptContent(content, cipher, actualKey);
-            break;
-          case RENEW:
-            content = DefaultContentEncryptionService.decryptContent(content, cipher, previousKey);
-            content = DefaultContentEncryptionService.encryptContent(content, cipher, actualKey);
-            break;
+        if (parallel && content.size() > BATCH_SIZE) {
+          content = processInBatches(content, cipher, actualKey, previousKey);
+        } else {
+          content = process(content, cipher, actualKey, previousKey);
         }
         theContents.update(content);
       } catch (Exception ex) {
@@ -149,6 +173,78 @@ class CryptographicTask implements ConcurrentEncryptionTaskExecutor.ConcurrentEn
     }
   }
 
+  private Map<String, String> process(Map<String, String> content, Cipher cipher,
+      CipherKey actualKey, CipherKey previousKey) throws CryptoException {
+    switch (task) {
+      case ENCRYPTION:
+        return DefaultContentEncryptionService.encryptContent(content, cipher, actualKey);
+      case DECRYPTION:
+        return DefaultContentEncryptionService.decryptContent(content, cipher, actualKey);
+      default:
+        final Map<String, String> decrypted =
+            DefaultContentEncryptionService.decryptContent(content, cipher, previousKey);
+        return DefaultContentEncryptionService.encryptContent(decrypted, cipher, actualKey);
+    }
+  }
+
+  private Map<String, String> processInBatches(final Map<String, String> content,
+      final Cipher cipher, final CipherKey actualKey, final CipherKey previousKey)
+      throws CryptoException {
+    final List<Map<String, String>> batches = split(content);
+    final SilverLogger logger = SilverLogger.getLogger(this);
+    final AtomicBoolean aborted = new AtomicBoolean(false);
+    final AtomicInteger completed = new AtomicInteger(0);
+    final List<Callable<Map<String, String>>> processes = new ArrayList<>(batches.size());
+    for (Map<String, String> batch : batches) {
+      processes.add(() -> {
+        if (aborted.get()) {
+          throw new CryptoException("Aborted: the " + task + " of another batch failed");
+        }
+        try {
+          final Map<String, String> processed = process(batch, cipher, actualKey, previousKey);
+          logger.info("{0} of contents: {1} fields processed, {2}/{3} batches done", task,
+              batch.size(), completed.incrementAndGet(), batches.size());
+          return processed;
+        } catch (CryptoException | RuntimeException e) {
+          aborted.set(true);
+          throw e;
+        }
+      });
+    }
+    final int poolSize = Math.min(batches.size(), Runtime.getRuntime().availableProcessors());
+    final Map<String, String> processedContent = new HashMap<>(content.size());
+    try {
+      final List<Future<Map<String, String>>> results =
+          ManagedThreadPool.getPool().invoke(processes, maxThreadPoolSizeOf(poolSize));
+      for (Future<Map<String, String>> result : results) {
+        processedContent.putAll(result.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CryptoException(e.getMessage(), e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CryptoException) {
+        throw (CryptoException) e.getCause();
+      }
+      throw new CryptoException(e.getMessage(), e.getCause());
+    }
+    return processedContent;
+  }
+
+  private static List<Map<String, String>> split(final Map<String, String> content) {
+    final List<Map<String, String>> batches = new ArrayList<>();
+    Map<String, String> batch = new HashMap<>(BATCH_SIZE);
+    for (Map.Entry<String, String> field : content.entrySet()) {
+      if (batch.size() == BATCH_SIZE) {
+        batches.add(batch);
+        batch = new HashMap<>(BATCH_SIZE);
+      }
+      batch.put(field.getKey(), field.getValue());
+    }
+    batches.add(batch);
+    return batches;
+  }
+
   CryptographicTask(Type taskType, EncryptionContentIterator... iterators) {
     this.task = taskType;
     this.iterators = iterators;
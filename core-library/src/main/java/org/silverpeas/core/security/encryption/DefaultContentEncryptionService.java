@@ -47,6 +47,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
@@ -81,6 +82,14 @@ public class DefaultContentEncryptionService implements ContentEncryptionService
   private static final String KEY_SEP = " ";
   private static final List<EncryptionContentIterator> contentIterators =
       new CopyOnWriteArrayList<>();
+  /**
+   * The cipher keys are kept in memory once read from their file in order to avoid to read and to
+   * decrypt their file at each encryption or decryption. They are cleared each time the cipher key
+   * is updated.
+   */
+  private static final AtomicReference<CipherKey> actualCipherKey = new AtomicReference<>();
+  private static final AtomicReference<CipherKey> previousCipherKey = new AtomicReference<>();
+  private static final Object KEY_MUTEX = new Object();
 
   protected DefaultContentEncryptionService() {
   }
@@ -392,7 +401,7 @@ public class DefaultContentEncryptionService implements ContentEncryptionService
    * @throws CryptoException if the cipher key cannot be get.
    */
   protected static CipherKey getActualCipherKey() throws CryptoException {
-    return getCipherKey(ACTUAL_KEY_FILE_PATH);
+    return getCipherKey(actualCipherKey, ACTUAL_KEY_FILE_PATH);
   }
 
   /**
@@ -402,10 +411,37 @@ public class DefaultContentEncryptionService implements ContentEncryptionService
    * @throws CryptoException if the cipher key cannot be get.
    */
   protected static CipherKey getPreviousCipherKey() throws CryptoException {
-    return getCipherKey(DEPRECATED_KEY_FILE_PATH);
+    return getCipherKey(previousCipherKey, DEPRECATED_KEY_FILE_PATH);
+  }
+
+  /**
+   * Clears the cipher keys kept in memory so that they will be read again from their file at
+   * their next use. This method is to be invoked each time the key files are modified.
+   */
+  static void clearCipherKeys() {
+    synchronized (KEY_MUTEX) {
+      actualCipherKey.set(null);
+      previousCipherKey.set(null);
+    }
+  }
+
+  private static CipherKey getCipherKey(AtomicReference<CipherKey> cachedKey, String keyFilePath)
+      throws CryptoException {
+    CipherKey key = cachedKey.get();
+    if (key == null) {
+      synchronized (KEY_MUTEX) {
+        key = cachedKey.get();
+        if (key == null) {
+          // a failure isn't kept: the key file can be created later
+          key = readCipherKey(keyFilePath);
+          cachedKey.set(key);
+        }
+      }
+    }
+    return key;
   }
 
-  private static CipherKey getCipherKey(String keyFilePath) throws CryptoException {
+  private static CipherKey readCipherKey(String keyFilePath) throws CryptoException {
     String key = null;
     try {
       File keyFile = new File(keyFilePath);
@@ -566,13 +602,14 @@ public class DefaultContentEncryptionService implements ContentEncryptionService
         }
         setReadOnly(keyFile);
         setHidden(ACTUAL_KEY_FILE_PATH);
+        clearCipherKeys();
 
         EncryptionContentIterator[] iterators =
             contentIterators.toArray(new EncryptionContentIterator[0]);
         if (renewContentCiphers) {
-          CryptographicTask.renewEncryptionOf(iterators).execute();
+          CryptographicTask.renewEncryptionOf(iterators).inParallel().execute();
         } else {
-          CryptographicTask.encryptionOf(iterators).execute();
+          CryptographicTask.encryptionOf(iterators).inParallel().execute();
         }
         return null;
       } catch (IOException ex) {
@@ -604,6 +641,8 @@ public class DefaultContentEncryptionService implements ContentEncryptionService
           }
         } catch (IOException ex) {
           SilverLogger.getLogger(this).error(ex.getMessage(), ex);
+        } finally {
+          clearCipherKeys();
         }
       }
     }
@@ -29,6 +29,7 @@ import org.silverpeas.core.util.Charsets;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.text.MessageFormat;
 import javax.crypto.KeyGenerator;
@@ -117,6 +118,12 @@ public abstract class BlockCipherWithPadding implements Cipher {
   private static final String TRANSFORMATION_PATTERN = "{0}/" + OPERATION_MODE + "/"
       + PADDING_SCHEME;
 
+  /**
+   * The JCE ciphers are costly to get from the JCE provider whereas they can be reused once
+   * initialized again, but they aren't thread-safe: each thread gets then its own JCE cipher.
+   */
+  private final ThreadLocal<javax.crypto.Cipher> jceCiphers = new ThreadLocal<>();
+
   protected BlockCipherWithPadding() {
   }
 
@@ -152,9 +159,7 @@ public abstract class BlockCipherWithPadding implements Cipher {
   public static byte[][] extractEncryptionData(byte[] encryptedData, BlockCipherWithPadding cipher)
       throws CryptoException {
     try {
-      javax.crypto.Cipher jceCipher = javax.crypto.Cipher.getInstance(cipher.getTransformation(),
-          SILVERPEAS_JCE_PROVIDER);
-      int blockSize = jceCipher.getBlockSize();
+      int blockSize = cipher.getJCECipher().getBlockSize();
       byte[][] data = new byte[2][];
       data[1] = ArrayUtil.subarray(encryptedData, 0, blockSize);
       data[0] = ArrayUtil.subarray(encryptedData, blockSize, encryptedData.length);
@@ -180,8 +185,7 @@ public abstract class BlockCipherWithPadding implements Cipher {
       assertKeyIsBinary(keyCode);
       byte[] keyRaw = keyCode.getRawKey();
       SecretKeySpec keySpec = new SecretKeySpec(keyRaw, getAlgorithmName().name());
-      javax.crypto.Cipher cipher = javax.crypto.Cipher.
-          getInstance(getTransformation(), SILVERPEAS_JCE_PROVIDER);
+      javax.crypto.Cipher cipher = getJCECipher();
       cipher.init(javax.crypto.Cipher.ENCRYPT_MODE, keySpec);
       AlgorithmParameters params = cipher.getParameters();
       byte[] iv = params.getParameterSpec(IvParameterSpec.class).getIV();
@@ -211,8 +215,7 @@ public abstract class BlockCipherWithPadding implements Cipher {
       byte[] cipherText = encryptionData[0];
       byte[] iv = encryptionData[1];
       SecretKeySpec keySpec = new SecretKeySpec(keyRaw, getAlgorithmName().name());
-      javax.crypto.Cipher cipher = javax.crypto.Cipher.
-          getInstance(getTransformation(), SILVERPEAS_JCE_PROVIDER);
+      javax.crypto.Cipher cipher = getJCECipher();
       cipher.init(javax.crypto.Cipher.DECRYPT_MODE, keySpec, new IvParameterSpec(iv));
       byte[] decryptedData = cipher.doFinal(cipherText);
       return new String(decryptedData, Charsets.UTF_8);
@@ -240,6 +243,22 @@ public abstract class BlockCipherWithPadding implements Cipher {
     }
   }
 
+  /**
+   * Gets the JCE cipher of the current thread implementing this block cipher. The JCE cipher is
+   * expected to be initialized before each encryption or decryption.
+   *
+   * @return the JCE cipher of the current thread.
+   * @throws GeneralSecurityException if the JCE cipher cannot be got from the JCE provider.
+   */
+  private javax.crypto.Cipher getJCECipher() throws GeneralSecurityException {
+    javax.crypto.Cipher jceCipher = jceCiphers.get();
+    if (jceCipher == null) {
+      jceCipher = javax.crypto.Cipher.getInstance(getTransformation(), SILVERPEAS_JCE_PROVIDER);
+      jceCiphers.set(jceCipher);
+    }
+    return jceCipher;
+  }
+
   private String getTransformation() {
     return MessageFormat.format(TRANSFORMATION_PATTERN, getAlgorithmName().name());
   }
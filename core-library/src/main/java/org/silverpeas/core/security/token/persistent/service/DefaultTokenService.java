@@ -23,8 +23,10 @@
  */
 package org.silverpeas.core.security.token.persistent.service;
 
+import org.silverpeas.core.admin.user.UserTokenCache;
 import org.silverpeas.core.annotation.Service;
 import org.silverpeas.core.persistence.EntityReference;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.security.token.TokenGenerationParameter;
 import org.silverpeas.core.security.token.TokenGenerator;
 import org.silverpeas.core.security.token.TokenGeneratorProvider;
@@ -67,6 +69,8 @@ public class DefaultTokenService implements PersistentResourceTokenService {
       // Initializing a new token
       token = generator.generate(TokenGenerationParameter.params(RESOURCE_PARAM, resource));
     } else {
+      // the renewed token must not be resolved anymore from the cache
+      invalidateInCache(token.getValue());
       token = generator.renew(token);
     }
 
@@ -104,6 +108,7 @@ public class DefaultTokenService implements PersistentResourceTokenService {
   public void remove(final EntityReference resource) {
     final PersistentResourceToken token = get(resource);
     if (token.exists()) {
+      invalidateInCache(token.getValue());
       tokenRepository.delete(token);
     }
   }
@@ -116,10 +121,23 @@ public class DefaultTokenService implements PersistentResourceTokenService {
   public void remove(String token) {
     PersistentResourceToken ptoken = get(token);
     if (ptoken.exists()) {
+      invalidateInCache(token);
       tokenRepository.delete(ptoken);
     }
   }
 
+  /**
+   * Invalidates the specified token in the cache of the users resolved from their token, both
+   * right now and once the current transaction is committed: until the commit, the token can be
+   * resolved again from the data source by a concurrent request and then cached again.
+   * @param token the value of the token to invalidate.
+   */
+  private void invalidateInCache(final String token) {
+    final UserTokenCache cache = UserTokenCache.get();
+    cache.invalidateToken(token);
+    Transaction.performAfterCommit(() -> cache.invalidateToken(token));
+  }
+
   /**
    * Bind the specified token into a well-typed token. It actually converts any null token to a
    * NoneToken that is an instance of a PersistentResourceToken class, otherwise the token is simply
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.admin.service.cache;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests on the log of the changes in the structure of the resources.
+ */
+@UnitTest
+class StructureChangeLogTest {
+
+  @Test
+  void eachChangeIncrementsTheVersion() {
+    final StructureChangeLog log = new StructureChangeLog();
+    assertThat(log.getVersion(), is(0L));
+    log.spacesChanged(List.of("WA1"));
+    log.userRightsChanged("42");
+    log.allChanged();
+    assertThat(log.getVersion(), is(3L));
+  }
+
+  @Test
+  void nothingChangedSinceTheCurrentVersion() {
+    final StructureChangeLog log = new StructureChangeLog();
+    log.spacesChanged(List.of("WA1"));
+    assertThat(log.getChangedSpacesSince(log.getVersion(), "42"), is(Optional.of(Set.of())));
+  }
+
+  @Test
+  void theSpacesChangedSinceAVersionAreMerged() {
+    final StructureChangeLog log = new StructureChangeLog();
+    log.spacesChanged(List.of("WA1"));
+    final long version = log.getVersion();
+    log.spacesChanged(List.of("WA2", "WA3"));
+    log.spacesChanged(List.of("WA3"));
+    log.userRightsChanged("7");
+    assertThat(log.getChangedSpacesSince(version, "42"),
+        is(Optional.of(Set.of("WA2", "WA3"))));
+  }
+
+  @Test
+  void aChangeOfTheRightsOfAUserChangesEverythingOnlyForThatUser() {
+    final StructureChangeLog log = new StructureChangeLog();
+    log.spacesChanged(List.of("WA1"));
+    log.userRightsChanged("42");
+    assertThat(log.getChangedSpacesSince(0, "42"), is(Optional.empty()));
+    assertThat(log.getChangedSpacesSince(0, "7"), is(Optional.of(Set.of("WA1"))));
+  }
+
+  @Test
+  void aGlobalChangeChangesEverything() {
+    final StructureChangeLog log = new StructureChangeLog();
+    log.spacesChanged(List.of("WA1"));
+    final long version = log.getVersion();
+    log.allChanged();
+    log.spacesChanged(List.of("WA2"));
+    assertThat(log.getChangedSpacesSince(version, "42"), is(Optional.empty()));
+    assertThat(log.getChangedSpacesSince(log.getVersion() - 1, "42"),
+        is(Optional.of(Set.of("WA2"))));
+  }
+
+  @Test
+  void changesNoMoreInTheLogChangeEverything() {
+    final StructureChangeLog log = new StructureChangeLog(2);
+    log.spacesChanged(List.of("WA1"));
+    log.spacesChanged(List.of("WA2"));
+    log.spacesChanged(List.of("WA3"));
+    assertThat(log.getChangedSpacesSince(0, "42"), is(Optional.empty()));
+    assertThat(log.getChangedSpacesSince(1, "42"), is(Optional.of(Set.of("WA2", "WA3"))));
+  }
+
+  @Test
+  void theVersionsOfTwoLogsAreDistinguishedByTheirEpoch() throws InterruptedException {
+    final StructureChangeLog log = new StructureChangeLog();
+    Thread.sleep(2);
+    final StructureChangeLog newLog = new StructureChangeLog();
+    assertThat(newLog.getVersion(), is(log.getVersion()));
+    assertThat(newLog.getEpoch() > log.getEpoch(), is(true));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.admin.user;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Unit tests on the cache of the users resolved from their API token.
+ */
+@UnitTest
+class UserTokenCacheTest {
+
+  private static final Map<String, String> TOKENS = Map.of("t1", "1", "t2", "1", "t3", "2");
+
+  private final AtomicInteger resolutions = new AtomicInteger();
+  private final Function<String, String> resolution = t -> {
+    resolutions.incrementAndGet();
+    return TOKENS.get(t);
+  };
+
+  @Test
+  void aTokenIsResolvedOnlyOnce() {
+    final UserTokenCache cache = new UserTokenCache(10, Duration.ofMinutes(1));
+    assertThat(cache.getUserId("t1", resolution), is("1"));
+    assertThat(cache.getUserId("t1", resolution), is("1"));
+    assertThat(resolutions.get(), is(1));
+    final UserTokenCache.Statistics statistics = cache.getStatistics();
+    assertThat(statistics.getCacheStatistics().getHits(), is(1L));
+    assertThat(statistics.getCacheStatistics().getMisses(), is(1L));
+  }
+
+  @Test
+  void anUnknownTokenIsNeverCached() {
+    final UserTokenCache cache = new UserTokenCache(10, Duration.ofMinutes(1));
+    assertThat(cache.getUserId("unknown", resolution), nullValue());
+    assertThat(cache.getUserId("unknown", resolution), nullValue());
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  void anInvalidatedTokenIsResolvedAgain() {
+    final UserTokenCache cache = new UserTokenCache(10, Duration.ofMinutes(1));
+    cache.getUserId("t1", resolution);
+    cache.invalidateToken("t1");
+    cache.getUserId("t1", resolution);
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  void invalidatingAUserInvalidatesOnlyItsTokens() {
+    final UserTokenCache cache = new UserTokenCache(10, Duration.ofMinutes(1));
+    cache.getUserId("t1", resolution);
+    cache.getUserId("t2", resolution);
+    cache.getUserId("t3", resolution);
+    cache.invalidateUser("1");
+    assertThat(cache.getStatistics().getCacheStatistics().getSize(), is(1));
+    cache.getUserId("t3", resolution);
+    assertThat(resolutions.get(), is(3));
+  }
+
+  @Test
+  void aTokenInvalidatedWhileResolvedIsNotCached() {
+    final UserTokenCache cache = new UserTokenCache(10, Duration.ofMinutes(1));
+    cache.getUserId("t1", t -> {
+      cache.invalidateToken(t);
+      return resolution.apply(t);
+    });
+    cache.getUserId("t1", resolution);
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  void noCachingWithoutSize() {
+    final UserTokenCache cache = new UserTokenCache(0, Duration.ofMinutes(1));
+    cache.getUserId("t1", resolution);
+    cache.getUserId("t1", resolution);
+    assertThat(resolutions.get(), is(2));
+  }
+}
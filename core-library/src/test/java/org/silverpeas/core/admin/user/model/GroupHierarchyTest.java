@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.admin.user.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests on the in-memory graph of the groups hierarchy.
+ */
+@UnitTest
+class GroupHierarchyTest {
+
+  private GroupHierarchy hierarchy;
+
+  /**
+   * Loads the following hierarchy:
+   * <pre>
+   *   1 -+- 2 -+- 4
+   *      |     +- 5 --- 7
+   *      +- 3
+   *   6
+   * </pre>
+   */
+  @BeforeEach
+  void loadHierarchy() {
+    hierarchy = new GroupHierarchy();
+    final Map<String, String> superGroupIds = new HashMap<>();
+    superGroupIds.put("1", null);
+    superGroupIds.put("2", "1");
+    superGroupIds.put("3", "1");
+    superGroupIds.put("4", "2");
+    superGroupIds.put("5", "2");
+    superGroupIds.put("6", null);
+    superGroupIds.put("7", "5");
+    assertThat(hierarchy.isLoaded(), is(false));
+    assertThat(hierarchy.load(superGroupIds, hierarchy.getVersion()), is(true));
+    assertThat(hierarchy.isLoaded(), is(true));
+  }
+
+  @Test
+  void descendantsAreComputedTransitively() {
+    assertThat(hierarchy.getDescendantIds("1"), containsInAnyOrder("2", "3", "4", "5", "7"));
+    assertThat(hierarchy.getDescendantIds("2"), containsInAnyOrder("4", "5", "7"));
+    assertThat(hierarchy.getDescendantIds("6"), empty());
+    assertThat(hierarchy.getDescendantIds("unknown"), empty());
+  }
+
+  @Test
+  void descendantsAreWalkedInDepthFirst() {
+    final var descendants = hierarchy.getDescendantIds("1");
+    assertThat(descendants.indexOf("5") < descendants.indexOf("7"), is(true));
+    assertThat(descendants.indexOf("2") < descendants.indexOf("4"), is(true));
+  }
+
+  @Test
+  void ancestorsAreOrderedFromTheDirectParentToTheRoot() {
+    assertThat(hierarchy.getAncestorIds("7"), contains("5", "2", "1"));
+    assertThat(hierarchy.getAncestorIds("3"), contains("1"));
+    assertThat(hierarchy.getAncestorIds("1"), empty());
+    assertThat(hierarchy.getAncestorIds("unknown"), empty());
+  }
+
+  @Test
+  void addingAGroupUpdatesTheClosuresOfItsAncestors() {
+    assertThat(hierarchy.getDescendantIds("1"), not(hasItem("8")));
+    assertThat(hierarchy.putGroup("8", "7"), is(true));
+    assertThat(hierarchy.getDescendantIds("1"), hasItem("8"));
+    assertThat(hierarchy.getDescendantIds("5"), containsInAnyOrder("7", "8"));
+    assertThat(hierarchy.getAncestorIds("8"), contains("7", "5", "2", "1"));
+    assertThat(hierarchy.getDescendantIds("3"), empty());
+  }
+
+  @Test
+  void puttingAGroupAtTheSamePlaceChangesNothing() {
+    assertThat(hierarchy.putGroup("5", "2"), is(false));
+    assertThat(hierarchy.getDescendantIds("2"), containsInAnyOrder("4", "5", "7"));
+  }
+
+  @Test
+  void movingAGroupMovesItsSubtree() {
+    assertThat(hierarchy.getAncestorIds("7"), contains("5", "2", "1"));
+    assertThat(hierarchy.putGroup("5", "6"), is(true));
+    assertThat(hierarchy.getDescendantIds("1"), containsInAnyOrder("2", "3", "4"));
+    assertThat(hierarchy.getDescendantIds("6"), containsInAnyOrder("5", "7"));
+    assertThat(hierarchy.getAncestorIds("7"), contains("5", "6"));
+  }
+
+  @Test
+  void removingAGroupDetachesItsSubtreeUntilItIsRestored() {
+    assertThat(hierarchy.getAncestorIds("7"), contains("5", "2", "1"));
+    hierarchy.removeGroup("5");
+    assertThat(hierarchy.contains("5"), is(false));
+    assertThat(hierarchy.getDescendantIds("1"), containsInAnyOrder("2", "3", "4"));
+    assertThat(hierarchy.getAncestorIds("7"), empty());
+
+    hierarchy.putGroup("5", "2");
+    assertThat(hierarchy.getDescendantIds("1"), containsInAnyOrder("2", "3", "4", "5", "7"));
+    assertThat(hierarchy.getAncestorIds("7"), contains("5", "2", "1"));
+  }
+
+  @Test
+  void anOutOfDateSnapshotIsNotLoaded() {
+    hierarchy.clear();
+    final long version = hierarchy.getVersion();
+    hierarchy.putGroup("8", null);
+    assertThat(hierarchy.load(Map.of("8", "1"), version), is(false));
+    assertThat(hierarchy.isLoaded(), is(false));
+    assertThat(hierarchy.load(Map.of("8", "1"), hierarchy.getVersion()), is(true));
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.silverpeas.core.admin.user.model;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.silverpeas.core.persistence.Transaction;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.kernel.TestManagedBeanFeeder;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests on the changes of the groups hierarchy that are applied only once the transaction
+ * within which they are done is committed, as GroupDAO does.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+class GroupHierarchyTransactionTest {
+
+  private GroupHierarchy hierarchy;
+  private javax.transaction.Transaction currentTransaction;
+
+  /**
+   * Loads the following hierarchy and opens a transaction:
+   * <pre>
+   *   1 --- 2 --- 3
+   *   4
+   * </pre>
+   */
+  @BeforeEach
+  void setUp() throws Exception {
+    hierarchy = new GroupHierarchy();
+    final Map<String, String> superGroupIds = new HashMap<>();
+    superGroupIds.put("1", null);
+    superGroupIds.put("2", "1");
+    superGroupIds.put("3", "2");
+    superGroupIds.put("4", null);
+    assertThat(hierarchy.load(superGroupIds, hierarchy.getVersion()), is(true));
+
+    currentTransaction = mock(javax.transaction.Transaction.class);
+    when(currentTransaction.getStatus()).thenReturn(Status.STATUS_ACTIVE);
+    final TransactionManager transactionManager = mock(TransactionManager.class);
+    when(transactionManager.getTransaction()).thenReturn(currentTransaction);
+    final Transaction transaction = new Transaction();
+    FieldUtils.writeField(transaction, "transactionManager", transactionManager, true);
+    new TestManagedBeanFeeder().manageBean(transaction, Transaction.class);
+  }
+
+  @Test
+  void aMoveIsNotAppliedBeforeTheCommit() throws Exception {
+    Transaction.performAfterCommit(() -> hierarchy.putGroup("2", "4"));
+    assertThat(hierarchy.getAncestorIds("3"), contains("2", "1"));
+
+    endTransactionWith(Status.STATUS_COMMITTED);
+    assertThat(hierarchy.getAncestorIds("3"), contains("2", "4"));
+    assertThat(hierarchy.getDescendantIds("1"), empty());
+  }
+
+  @Test
+  void aMoveIsDiscardedWhenTheTransactionIsRolledBack() throws Exception {
+    final long version = hierarchy.getVersion();
+    Transaction.performAfterCommit(() -> hierarchy.putGroup("2", "4"));
+
+    endTransactionWith(Status.STATUS_ROLLEDBACK);
+    assertThat(hierarchy.getAncestorIds("3"), contains("2", "1"));
+    assertThat(hierarchy.getDescendantIds("4"), empty());
+    assertThat(hierarchy.getVersion(), is(version));
+  }
+
+  @Test
+  void aRemovalIsDiscardedWhenTheTransactionIsRolledBack() throws Exception {
+    Transaction.performAfterCommit(() -> hierarchy.removeGroup("2"));
+
+    endTransactionWith(Status.STATUS_ROLLEDBACK);
+    assertThat(hierarchy.contains("2"), is(true));
+    assertThat(hierarchy.getDescendantIds("1"), contains("2", "3"));
+  }
+
+  @Test
+  void aChangeIsAppliedAtOnceOutsideAnyTransaction() throws Exception {
+    when(currentTransaction.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+    Transaction.performAfterCommit(() -> hierarchy.removeGroup("2"));
+
+    assertThat(hierarchy.contains("2"), is(false));
+    verify(currentTransaction, never()).registerSynchronization(any());
+  }
+
+  @Test
+  void theTransactionIsKnownToChangeTheGraphUntilItsCommit() throws Exception {
+    changeWithinTransaction(() -> hierarchy.putGroup("2", "4"));
+    assertThat(hierarchy.isChangedBy(currentTransaction), is(true));
+    assertThat(hierarchy.isChangedBy(mock(javax.transaction.Transaction.class)), is(false));
+
+    endTransactionWith(Status.STATUS_COMMITTED);
+    assertThat(hierarchy.isChangedBy(currentTransaction), is(false));
+    assertThat(hierarchy.getAncestorIds("3"), contains("2", "4"));
+  }
+
+  @Test
+  void theTransactionIsKnownToChangeTheGraphUntilItsRollback() throws Exception {
+    changeWithinTransaction(() -> hierarchy.removeGroup("2"));
+    assertThat(hierarchy.isChangedBy(currentTransaction), is(true));
+
+    endTransactionWith(Status.STATUS_ROLLEDBACK);
+    assertThat(hierarchy.isChangedBy(currentTransaction), is(false));
+    assertThat(hierarchy.contains("2"), is(true));
+  }
+
+  @Test
+  void noTransactionIsKnownToChangeTheGraphOutsideAnyTransaction() {
+    when(currentTransaction.getStatus()).thenReturn(Status.STATUS_NO_TRANSACTION);
+    changeWithinTransaction(() -> hierarchy.removeGroup("2"));
+
+    assertThat(hierarchy.isChangedBy(currentTransaction), is(false));
+    assertThat(hierarchy.contains("2"), is(false));
+  }
+
+  /**
+   * Changes the hierarchy in the current transaction as GroupDAO does: the change is pending
+   * until the completion of the transaction.
+   */
+  private void changeWithinTransaction(final Runnable change) {
+    final Optional<javax.transaction.Transaction> transaction = Transaction.getActiveTransaction();
+    transaction.ifPresent(hierarchy::changePending);
+    Transaction.performAtCompletion(committed -> {
+      if (committed) {
+        change.run();
+      }
+      transaction.ifPresent(hierarchy::changeCompleted);
+    });
+  }
+
+  private void endTransactionWith(final int status) throws Exception {
+    final ArgumentCaptor<Synchronization> synchronization =
+        ArgumentCaptor.forClass(Synchronization.class);
+    verify(currentTransaction).registerSynchronization(synchronization.capture());
+    synchronization.getValue().beforeCompletion();
+    synchronization.getValue().afterCompletion(status);
+  }
+}
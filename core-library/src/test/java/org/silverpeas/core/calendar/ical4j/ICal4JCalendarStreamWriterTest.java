@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.CalScale;
+import net.fortuna.ical4j.model.property.Description;
+import net.fortuna.ical4j.model.property.ProdId;
+import net.fortuna.ical4j.model.property.Uid;
+import net.fortuna.ical4j.model.property.Version;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.util.Charsets;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests on the writing of an iCalendar calendar component by component: it has to produce
+ * the same output than the iCal4J calendar outputter with the whole calendar.
+ */
+@UnitTest
+class ICal4JCalendarStreamWriterTest {
+
+  private static final long START = 1_500_000_000_000L;
+
+  @Test
+  void aCalendarWithoutComponentIsWrittenAsByTheCalendarOutputter() throws Exception {
+    assertThat(streamed(new ArrayList<>()), is(outputted(new ArrayList<>())));
+  }
+
+  @Test
+  void aCalendarWithComponentsIsWrittenAsByTheCalendarOutputter() throws Exception {
+    final List<VEvent> events = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      events.add(event(i));
+    }
+    final String output = streamed(events);
+    assertThat(output, is(outputted(events)));
+    assertThat(output.startsWith("BEGIN:VCALENDAR\r\n"), is(true));
+    assertThat(output.endsWith("END:VCALENDAR\r\n"), is(true));
+  }
+
+  private static Calendar head() {
+    final Calendar calendar = new Calendar();
+    calendar.getProperties().add(new ProdId("-//Silverpeas//iCal4j 2.0//FR"));
+    calendar.getProperties().add(Version.VERSION_2_0);
+    calendar.getProperties().add(CalScale.GREGORIAN);
+    return calendar;
+  }
+
+  private static VEvent event(final int i) {
+    final DateTime start = new DateTime(START + i * 3_600_000L);
+    start.setUtc(true);
+    final DateTime end = new DateTime(START + i * 3_600_000L + 1_800_000L);
+    end.setUtc(true);
+    final VEvent event = new VEvent(start, end, "Événement n°" + i);
+    event.getProperties().add(new Uid("event-" + i));
+    // a long text with non ASCII characters to check the folding of the lines
+    event.getProperties().add(new Description(
+        "Réunion à propos de l'export au format iCalendar des événements d'un agenda partagé " +
+            "et des abonnements aux flux ICS. ".repeat(i % 3 + 1)));
+    return event;
+  }
+
+  private static String streamed(final List<VEvent> events) throws Exception {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (ICal4JCalendarStreamWriter writer = new ICal4JCalendarStreamWriter(head(), output)) {
+      for (VEvent event : events) {
+        writer.write(event);
+      }
+      writer.end();
+    }
+    return output.toString(Charsets.UTF_8);
+  }
+
+  private static String outputted(final List<VEvent> events) throws Exception {
+    final Calendar calendar = head();
+    calendar.getComponents().addAll(events);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new CalendarOutputter().output(calendar, output);
+    return output.toString(Charsets.UTF_8);
+  }
+}
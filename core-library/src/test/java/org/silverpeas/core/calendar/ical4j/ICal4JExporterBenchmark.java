@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.CalScale;
+import net.fortuna.ical4j.model.property.Description;
+import net.fortuna.ical4j.model.property.Location;
+import net.fortuna.ical4j.model.property.ProdId;
+import net.fortuna.ical4j.model.property.Uid;
+import net.fortuna.ical4j.model.property.Version;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Micro-benchmark comparing the export of a calendar in iCalendar formatted text according to the
+ * way it is written: by building first the whole iCal4J calendar with all of its events before
+ * writing it with the iCal4J calendar outputter (the legacy way), or by streaming the events one
+ * by one with the {@link ICal4JCalendarStreamWriter}.
+ * <p>
+ * The events are generated on the fly as they would be fetched from the persistence context. The
+ * GC profiler is enabled to compare the memory: with the legacy way, all the events are reachable
+ * until the whole text is written, whereas only one event is reachable at a time when streaming.
+ * It isn't run with the unit tests; launch it with the {@link #main(String[])} method.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ICal4JExporterBenchmark {
+
+  private static final long START = 1_500_000_000_000L;
+
+  @Param({"1000", "10000", "50000"})
+  private int nbEvents;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ICal4JExporterBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+
+  @Benchmark
+  public long outputTheWholeCalendar() throws Exception {
+    final Calendar calendar = head();
+    try (Stream<VEvent> events = events()) {
+      events.forEach(calendar.getComponents()::add);
+    }
+    final CountingOutputStream output = new CountingOutputStream(OutputStream.nullOutputStream());
+    new CalendarOutputter().output(calendar, output);
+    return output.getByteCount();
+  }
+
+  @Benchmark
+  public long streamTheCalendar() throws Exception {
+    final CountingOutputStream output = new CountingOutputStream(OutputStream.nullOutputStream());
+    try (Stream<VEvent> events = events();
+         ICal4JCalendarStreamWriter writer = new ICal4JCalendarStreamWriter(head(), output)) {
+      final Iterator<VEvent> iterator = events.iterator();
+      while (iterator.hasNext()) {
+        writer.write(iterator.next());
+      }
+      writer.end();
+    }
+    return output.getByteCount();
+  }
+
+  private static Calendar head() {
+    final Calendar calendar = new Calendar();
+    calendar.getProperties().add(new ProdId("-//Silverpeas//iCal4j 2.0//FR"));
+    calendar.getProperties().add(Version.VERSION_2_0);
+    calendar.getProperties().add(CalScale.GREGORIAN);
+    return calendar;
+  }
+
+  private Stream<VEvent> events() {
+    return IntStream.range(0, nbEvents).mapToObj(i -> {
+      final DateTime start = new DateTime(START + i * 3_600_000L);
+      start.setUtc(true);
+      final DateTime end = new DateTime(START + i * 3_600_000L + 1_800_000L);
+      end.setUtc(true);
+      final VEvent event = new VEvent(start, end, "Event " + i);
+      event.getProperties().add(new Uid("event-" + i + "@silverpeas"));
+      event.getProperties().add(new Location("Meeting room " + (i % 10)));
+      event.getProperties().add(new Description("Weekly meeting about the progress of the " +
+          "project: the agenda is sent to the attendees the day before the meeting."));
+      return event;
+    });
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Unit tests on the cache of the occurrences expanded within windows of time.
+ */
+@UnitTest
+class OccurrenceWindowCacheTest {
+
+  private static final Instant FROM = Instant.parse("2016-07-01T00:00:00Z");
+  private static final Instant TO = Instant.parse("2016-08-01T00:00:00Z");
+
+  private final AtomicInteger expansions = new AtomicInteger(0);
+  private final Supplier<List<RecurrenceExpander.Slot>> expansion = () -> {
+    expansions.incrementAndGet();
+    return List.of(new RecurrenceExpander.Slot(LocalDate.of(2016, 7, 11),
+        LocalDate.of(2016, 7, 12)));
+  };
+
+  @Test
+  void theOccurrencesOfAnEventInAWindowAreExpandedOnlyOnce() {
+    final OccurrenceWindowCache cache = new OccurrenceWindowCache(10);
+    final List<RecurrenceExpander.Slot> occurrences =
+        cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    assertThat(cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion),
+        sameInstance(occurrences));
+    assertThat(expansions.get(), is(1));
+  }
+
+  @Test
+  void anotherStateOfTheEventOrAnotherWindowIsExpandedAgain() {
+    final OccurrenceWindowCache cache = new OccurrenceWindowCache(10);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal1", List.of("event1", 2), FROM, TO, expansion);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO.plusSeconds(60), expansion);
+    assertThat(expansions.get(), is(3));
+  }
+
+  @Test
+  void invalidatingACalendarExpandsAgainOnlyItsEvents() {
+    final OccurrenceWindowCache cache = new OccurrenceWindowCache(10);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal2", List.of("event2", 1), FROM, TO, expansion);
+    cache.invalidate("cal1");
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal2", List.of("event2", 1), FROM, TO, expansion);
+    assertThat(expansions.get(), is(3));
+  }
+
+  @Test
+  void theLeastRecentlyUsedWindowsAreEvictedOnceTheCacheIsFull() {
+    final OccurrenceWindowCache cache = new OccurrenceWindowCache(2);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal1", List.of("event2", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal1", List.of("event3", 1), FROM, TO, expansion);
+    assertThat(expansions.get(), is(3));
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    assertThat(expansions.get(), is(3));
+    cache.getOccurrences("cal1", List.of("event2", 1), FROM, TO, expansion);
+    assertThat(expansions.get(), is(4));
+  }
+
+  @Test
+  void noCachingWithANullSize() {
+    final OccurrenceWindowCache cache = new OccurrenceWindowCache(0);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    cache.getOccurrences("cal1", List.of("event1", 1), FROM, TO, expansion);
+    assertThat(expansions.get(), is(2));
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.calendar.ical4j;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.calendar.CalendarEvent;
+import org.silverpeas.core.calendar.DayOfWeekOccurrence;
+import org.silverpeas.core.calendar.Recurrence;
+import org.silverpeas.core.date.Period;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.Temporal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.time.DayOfWeek.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.silverpeas.core.date.TimeUnit.*;
+
+/**
+ * Unit tests on the native expansion of the occurrences of calendar events. The expected
+ * occurrences are those computed by iCal4J for the same events.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+class RecurrenceExpanderTest {
+
+  private static final ZoneId UTC_ZONE_ID = ZoneId.of("UTC");
+  private static final ZoneId PARIS_ZONE_ID = ZoneId.of("Europe/Paris");
+
+  @Test
+  void aSingleEventIsTakenOnlyIfItOverlapsTheWindow() {
+    final CalendarEvent event = CalendarEvent.on(
+        Period.between(dateTimeInUTC(2016, 5, 20, 15, 0), dateTimeInUTC(2016, 5, 20, 15, 35)));
+    final RecurrenceExpander expander = expanderOf(event, UTC_ZONE_ID);
+
+    assertThat(startDatesOf(expander.expand(start(2016, 5, 1), start(2016, 6, 1))),
+        contains(dateTimeInUTC(2016, 5, 20, 15, 0)));
+    assertThat(expander.expand(start(2016, 6, 1), start(2016, 7, 1)), empty());
+    assertThat(expander.expand(instant(2016, 5, 20, 15, 35), start(2016, 6, 1)), empty());
+  }
+
+  @Test
+  void weeklyOccurrencesWithExceptions() {
+    final CalendarEvent event = CalendarEvent.on(
+            Period.between(dateTimeInUTC(2016, 3, 4, 9, 0), dateTimeInUTC(2016, 3, 4, 9, 15)))
+        .recur(Recurrence.every(WEEK)
+            .on(FRIDAY)
+            .excludeEventOccurrencesStartingAt(date(2016, 7, 15), date(2016, 7, 22)));
+    final RecurrenceExpander expander = expanderOf(event, UTC_ZONE_ID);
+
+    assertThat(expander.expand(start(2016, 1, 1), start(2017, 1, 1)).size(), is(42));
+    final List<RecurrenceExpander.Slot> july =
+        expander.expand(start(2016, 7, 1), start(2016, 8, 1));
+    assertThat(startDatesOf(july),
+        contains(dateTimeInUTC(2016, 7, 1, 9, 0), dateTimeInUTC(2016, 7, 8, 9, 0),
+            dateTimeInUTC(2016, 7, 29, 9, 0)));
+    assertThat(july.get(0).getEndDate(), is(dateTimeInUTC(2016, 7, 1, 9, 15)));
+  }
+
+  @Test
+  void anOccurrenceEndingAtTheStartOfTheWindowIsNotTaken() {
+    final CalendarEvent event = CalendarEvent.on(
+            Period.between(dateTimeInUTC(2016, 3, 4, 9, 0), dateTimeInUTC(2016, 3, 4, 9, 15)))
+        .recur(Recurrence.every(WEEK).on(FRIDAY));
+    final RecurrenceExpander expander = expanderOf(event, UTC_ZONE_ID);
+
+    assertThat(expander.expand(instant(2016, 7, 1, 9, 15), instant(2016, 7, 8, 9, 0)), empty());
+    assertThat(startDatesOf(expander.expand(instant(2016, 7, 1, 9, 14), start(2016, 7, 2))),
+        contains(dateTimeInUTC(2016, 7, 1, 9, 0)));
+  }
+
+  @Test
+  void theEventIsAnOccurrenceOnlyIfItMatchesTheRecurrenceRule() {
+    final CalendarEvent event = CalendarEvent.on(
+            Period.between(dateTimeInUTC(2016, 9, 1, 10, 0), dateTimeInUTC(2016, 9, 1, 11, 0)))
+        .recur(Recurrence.every(WEEK)
+            .on(MONDAY, TUESDAY, WEDNESDAY)
+            .until(dateTimeInUTC(2016, 12, 20, 10, 0))
+            .excludeEventOccurrencesStartingAt(date(2016, 11, 30), date(2016, 12, 12)));
+    final List<RecurrenceExpander.Slot> occurrences =
+        expanderOf(event, UTC_ZONE_ID).expand(start(2016, 1, 1), start(2017, 1, 1));
+
+    assertThat(occurrences.size(), is(45));
+    assertThat(occurrences.get(0).getStartDate(), is(dateTimeInUTC(2016, 9, 5, 10, 0)));
+    assertThat(occurrences.get(44).getStartDate(), is(dateTimeInUTC(2016, 12, 20, 10, 0)));
+  }
+
+  @Test
+  void monthlyOccurrencesOnAllSomeDaysAndOnTheNthDayOfWeek() {
+    final CalendarEvent event = CalendarEvent.on(
+            Period.between(dateTimeInUTC(2016, 4, 28, 8, 0), dateTimeInUTC(2016, 4, 28, 9, 0)))
+        .recur(Recurrence.every(MONTH)
+            .on(DayOfWeekOccurrence.all(THURSDAY), DayOfWeekOccurrence.nth(3, FRIDAY))
+            .until(date(2016, 6, 30)));
+    final List<RecurrenceExpander.Slot> occurrences =
+        expanderOf(event, UTC_ZONE_ID).expand(start(2016, 5, 1), start(2016, 6, 1));
+
+    assertThat(startDatesOf(occurrences),
+        contains(dateTimeInUTC(2016, 5, 5, 8, 0), dateTimeInUTC(2016, 5, 12, 8, 0),
+            dateTimeInUTC(2016, 5, 19, 8, 0), dateTimeInUTC(2016, 5, 20, 8, 0),
+            dateTimeInUTC(2016, 5, 26, 8, 0)));
+  }
+
+  @Test
+  void monthlyOccurrencesOnTheLastDayOfWeek() {
+    final CalendarEvent event = CalendarEvent.on(
+            Period.between(dateTimeInUTC(2016, 1, 25, 8, 0), dateTimeInUTC(2016, 1, 25, 9, 0)))
+        .recur(Recurrence.every(MONTH).on(DayOfWeekOccurrence.nth(-1, MONDAY)));
+    final List<RecurrenceExpander.Slot> occurrences =
+        expanderOf(event, UTC_ZONE_ID).expand(start(2016, 1, 1), start(2016, 5, 1));
+
+    assertThat(startDatesOf(occurrences),
+        contains(dateTimeInUTC(2016, 1, 25, 8, 0), dateTimeInUTC(2016, 2, 29, 8, 0),
+            dateTimeInUTC(2016, 3, 28, 8, 0), dateTimeInUTC(2016, 4, 25, 8, 0)));
+  }
+
+  @Test
+  void theCountOfOccurrencesIncludesThoseBeforeTheWindow() {
+    final CalendarEvent event = CalendarEvent.on(date(2016, 1, 4))
+        .recur(Recurrence.every(2, DAY).until(10));
+    final RecurrenceExpander expander = expanderOf(event, UTC_ZONE_ID);
+
+    final List<RecurrenceExpander.Slot> occurrences =
+        expander.expand(start(2016, 1, 1), start(2017, 1, 1));
+    assertThat(occurrences.size(), is(10));
+    assertThat(occurrences.get(9).getStartDate(), is(date(2016, 1, 22)));
+    assertThat(occurrences.get(9).getEndDate(), is(date(2016, 1, 23)));
+    assertThat(expander.expand(start(2016, 1, 10), start(2016, 1, 20)).size(), is(5));
+    assertThat(expander.expand(start(2016, 2, 1), start(2016, 3, 1)), empty());
+  }
+
+  @Test
+  void theOccurrencesKeepTheirWallClockTimeAcrossTheDaylightSavingTime() {
+    final CalendarEvent event = CalendarEvent.on(
+            Period.between(dateTimeInUTC(2010, 1, 4, 23, 0), dateTimeInUTC(2010, 1, 5, 1, 0)))
+        .recur(Recurrence.every(DAY));
+    final List<RecurrenceExpander.Slot> occurrences =
+        expanderOf(event, PARIS_ZONE_ID).expand(start(2016, 3, 26), start(2016, 3, 29));
+
+    assertThat(startDatesOf(occurrences),
+        contains(dateTimeInUTC(2016, 3, 25, 23, 0), dateTimeInUTC(2016, 3, 26, 23, 0),
+            dateTimeInUTC(2016, 3, 27, 22, 0), dateTimeInUTC(2016, 3, 28, 22, 0)));
+    assertThat(occurrences.get(2).getEndDate(), is(dateTimeInUTC(2016, 3, 28, 0, 0)));
+  }
+
+  @Test
+  void yearlyOccurrences() {
+    final CalendarEvent event = CalendarEvent.on(date(2000, 5, 8))
+        .recur(Recurrence.every(YEAR));
+    final RecurrenceExpander expander = expanderOf(event, UTC_ZONE_ID);
+
+    assertThat(startDatesOf(expander.expand(start(2016, 1, 1), start(2018, 1, 1))),
+        contains(date(2016, 5, 8), date(2017, 5, 8)));
+  }
+
+  @Test
+  void recurrencesWhoseDatesCanDriftInICal4JAreNotSupported() {
+    assertThat(RecurrenceExpander.isSupported(date(2016, 1, 31), Recurrence.every(MONTH)),
+        is(false));
+    assertThat(RecurrenceExpander.isSupported(date(2016, 1, 28), Recurrence.every(MONTH)),
+        is(true));
+    assertThat(RecurrenceExpander.isSupported(date(2016, 2, 29), Recurrence.every(YEAR)),
+        is(false));
+    assertThat(RecurrenceExpander.isSupported(date(2016, 1, 28),
+        Recurrence.every(YEAR).on(MONDAY)), is(false));
+    assertThat(RecurrenceExpander.isSupported(date(2016, 1, 28), null), is(true));
+  }
+
+  private static RecurrenceExpander expanderOf(final CalendarEvent event, final ZoneId zoneId) {
+    return new RecurrenceExpander(event.getStartDate(), event.getEndDate(),
+        event.isRecurrent() ? event.getRecurrence() : null, zoneId);
+  }
+
+  private static List<Temporal> startDatesOf(final List<RecurrenceExpander.Slot> slots) {
+    return slots.stream().map(RecurrenceExpander.Slot::getStartDate).collect(Collectors.toList());
+  }
+
+  private static Instant start(int year, int month, int day) {
+    return YearMonth.of(year, month).atDay(day).atStartOfDay(ZoneOffset.UTC).toInstant();
+  }
+
+  private static Instant instant(int year, int month, int day, int hour, int minute) {
+    return dateTimeInUTC(year, month, day, hour, minute).toInstant();
+  }
+
+  private static LocalDate date(int year, int month, int day) {
+    return LocalDate.of(year, month, day);
+  }
+
+  private static OffsetDateTime dateTimeInUTC(int year, int month, int day, int hour,
+      int minute) {
+    return OffsetDateTime.of(year, month, day, hour, minute, 0, 0, ZoneOffset.UTC);
+  }
+}
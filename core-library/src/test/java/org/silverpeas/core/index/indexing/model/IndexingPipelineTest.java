@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.indexing.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests on the dispatching of the indexation tasks by the {@link IndexingPipeline}.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+class IndexingPipelineTest {
+
+  private static final int LANES = 4;
+
+  private final ExecutorService[] lanes = IntStream.range(0, LANES)
+      .mapToObj(i -> Executors.newSingleThreadExecutor())
+      .toArray(ExecutorService[]::new);
+
+  @AfterEach
+  void shutdownLanes() {
+    for (ExecutorService lane : lanes) {
+      lane.shutdownNow();
+    }
+  }
+
+  @Test
+  void theTasksAboutAnEntryAreAlwaysProcessedByTheSameLane() throws InterruptedException {
+    final IndexingPipeline pipeline = new IndexingPipeline(lanes, 100);
+    final Map<IndexEntryKey, Set<String>> threads = new HashMap<>();
+    for (int i = 0; i < 40; i++) {
+      final IndexEntryKey key = newKey(i % 10);
+      pipeline.submit(key, () -> {
+        synchronized (threads) {
+          threads.computeIfAbsent(key, k -> new HashSet<>())
+              .add(Thread.currentThread().getName());
+        }
+      });
+    }
+    pipeline.awaitCompletion();
+    assertThat(threads.size(), is(10));
+    threads.values().forEach(t -> assertThat(t, hasSize(1)));
+    assertThat(pipeline.getLaneIndex(newKey(3)), is(pipeline.getLaneIndex(newKey(3))));
+  }
+
+  @Test
+  void theTasksAboutAnEntryAreProcessedInTheirSubmissionOrder() throws InterruptedException {
+    final IndexingPipeline pipeline = new IndexingPipeline(lanes, 10);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+    final IndexEntryKey key = newKey(1);
+    for (int i = 0; i < 100; i++) {
+      final int order = i;
+      pipeline.submit(key, () -> processed.add(order));
+    }
+    pipeline.awaitCompletion();
+    assertThat(processed, contains(IntStream.range(0, 100).boxed().toArray()));
+    assertThat(pipeline.getStatistics().getProcessedTasks(), is(100L));
+  }
+
+  @Test
+  void theSubmissionIsBlockedWhenThePipelineIsFull() throws Exception {
+    final IndexingPipeline pipeline = new IndexingPipeline(lanes, 2);
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final Runnable blockedTask = () -> {
+      try {
+        blocker.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    pipeline.submit(newKey(1), blockedTask);
+    pipeline.submit(newKey(2), blockedTask);
+    assertThat(pipeline.getQueueDepth(), is(2));
+
+    final CompletableFuture<Void> third = CompletableFuture.runAsync(() -> {
+      try {
+        pipeline.submit(newKey(3), () -> {});
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    Thread.sleep(200);
+    assertThat(third.isDone(), is(false));
+
+    blocker.countDown();
+    third.get(5, TimeUnit.SECONDS);
+    pipeline.awaitCompletion();
+    assertThat(pipeline.getQueueDepth(), is(0));
+    assertThat(pipeline.getStatistics().getMaxQueueDepth(), is(2));
+  }
+
+  @Test
+  void theThroughputIsMeasuredOverTheActivityOfThePipeline() throws InterruptedException {
+    final IndexingPipeline pipeline = new IndexingPipeline(lanes, 10);
+    pipeline.submit(newKey(1), () -> {});
+    pipeline.awaitCompletion();
+    final double throughput = pipeline.getStatistics().getThroughput();
+    Thread.sleep(100);
+    assertThat(pipeline.getStatistics().getThroughput(), is(throughput));
+    pipeline.getStatistics().reset();
+    assertThat(pipeline.getStatistics().getProcessedTasks(), is(0L));
+    assertThat(pipeline.getStatistics().getThroughput(), is(0d));
+  }
+
+  private static IndexEntryKey newKey(final int id) {
+    return new IndexEntryKey("kmelia1", "Publication", String.valueOf(id));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.indexing.model;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+import org.silverpeas.kernel.test.extension.SettingBundleStub;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests on the visibility by the searches of the documents indexed in near-real-time mode.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+class NearRealTimeIndexesTest {
+
+  @RegisterExtension
+  SettingBundleStub settings = new SettingBundleStub("org.silverpeas.index.indexing.IndexEngine");
+
+  @TempDir
+  Path indexDir;
+
+  private String path;
+
+  @BeforeEach
+  void setUpSettings() {
+    settings.put("lucene.nrt.enabled", "true");
+    settings.put("lucene.nrt.refreshDelay", "1");
+    settings.put("lucene.nrt.commitDelay", "60");
+    path = indexDir.toString();
+  }
+
+  @AfterEach
+  void closeIndexes() {
+    NearRealTimeIndexes.closeAll();
+  }
+
+  @Test
+  void anIndexedDocumentIsSearchableAfterTheRefreshJobWithoutCommit() throws IOException {
+    final IndexWriter writer = NearRealTimeIndexes.getIndexWriter(path, this::openWriter);
+    writer.addDocument(newDocument());
+
+    // the job run by the scheduler at each refresh delay
+    new NearRealTimeIndexJob().execute(null);
+
+    assertThat(countSearchableDocuments(), is(1));
+    assertThat(writer.hasUncommittedChanges(), is(true));
+  }
+
+  @Test
+  void theChangesAreCommittedOnFlushWithoutBackgroundRefresh() throws IOException {
+    settings.put("lucene.nrt.refreshDelay", "0");
+    final IndexWriter writer = NearRealTimeIndexes.getIndexWriter(path, this::openWriter);
+    writer.addDocument(newDocument());
+
+    assertThat(NearRealTimeIndexes.flush().contains(path), is(true));
+
+    assertThat(writer.hasUncommittedChanges(), is(false));
+    assertThat(countSearchableDocuments(), is(1));
+    try (DirectoryReader committed = DirectoryReader.open(FSDirectory.open(indexDir))) {
+      assertThat(committed.numDocs(), is(1));
+    }
+  }
+
+  private int countSearchableDocuments() {
+    try {
+      return NearRealTimeIndexes.acquireReader(path).numDocs();
+    } finally {
+      NearRealTimeIndexes.releaseReaders();
+    }
+  }
+
+  private IndexWriter openWriter(final String indexPath) {
+    try {
+      return new IndexWriter(FSDirectory.open(Path.of(indexPath)),
+          new IndexWriterConfig(new StandardAnalyzer()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Document newDocument() {
+    final Document doc = new Document();
+    doc.add(new StringField("key", "kmelia1|Publication|1", Field.Store.YES));
+    return doc;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.search.model;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark measuring the latency of a query over a growing number of component indexes,
+ * according to the way the composite reader is obtained: built for each query (the legacy way),
+ * taken from the {@link CompositeSearcherCache}, and taken from the cache with a parallel search
+ * of the sub-indexes.
+ * <p>
+ * It isn't run with the unit tests; launch it with the {@link #main(String[])} method.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompositeSearcherBenchmark {
+
+  private static final int DOCS_PER_INDEX = 50;
+  private static final String CONTENT = "content";
+
+  @Param({"10", "100", "1000"})
+  private int nbIndexes;
+
+  private File indexRoot;
+  private final Map<String, IndexReader> readers = new HashMap<>();
+  private final Set<String> indexPaths = new LinkedHashSet<>();
+  private CompositeSearcherCache noCache;
+  private CompositeSearcherCache cache;
+  private CompositeSearcherCache parallelCache;
+  private ExecutorService executor;
+  private final TermQuery query = new TermQuery(new Term(CONTENT, "silverpeas"));
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(CompositeSearcherBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup(Level.Trial)
+  public void createIndexes() throws IOException {
+    indexRoot = Files.createTempDirectory("composite-searcher-benchmark").toFile();
+    for (int i = 0; i < nbIndexes; i++) {
+      final File indexDir = new File(indexRoot, "kmelia" + i);
+      try (IndexWriter writer = new IndexWriter(FSDirectory.open(indexDir.toPath()),
+          new IndexWriterConfig(new StandardAnalyzer()))) {
+        for (int d = 0; d < DOCS_PER_INDEX; d++) {
+          final Document doc = new Document();
+          doc.add(new StringField("key", "kmelia" + i + "|Publication|" + d, Field.Store.YES));
+          doc.add(new TextField(CONTENT, d % 5 == 0 ? "silverpeas collaborative portal" :
+              "some other content about documents", Field.Store.NO));
+          writer.addDocument(doc);
+        }
+      }
+      final String path = indexDir.getPath();
+      indexPaths.add(path);
+      readers.put(path, DirectoryReader.open(FSDirectory.open(indexDir.toPath())));
+    }
+    executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    noCache = new CompositeSearcherCache(0, null);
+    cache = new CompositeSearcherCache(10, null);
+    parallelCache = new CompositeSearcherCache(10, executor);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteIndexes() throws IOException {
+    for (IndexReader reader : readers.values()) {
+      reader.close();
+    }
+    readers.clear();
+    indexPaths.clear();
+    executor.shutdownNow();
+    FileUtils.deleteQuietly(indexRoot);
+  }
+
+  @Benchmark
+  public TopDocs searchWithANewCompositeReader() throws IOException {
+    return noCache.newSearcher(indexPaths, readers::get).search(query, 100);
+  }
+
+  @Benchmark
+  public TopDocs searchWithACachedCompositeReader() throws IOException {
+    return cache.getSearcher(indexPaths, 0, readers::get).search(query, 100);
+  }
+
+  @Benchmark
+  public TopDocs searchInParallelWithACachedCompositeReader() throws IOException {
+    return parallelCache.getSearcher(indexPaths, 0, readers::get).search(query, 100);
+  }
+}
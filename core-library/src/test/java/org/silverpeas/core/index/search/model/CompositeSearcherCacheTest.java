@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.index.search.model;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@UnitTest
+class CompositeSearcherCacheTest {
+
+  private final Map<String, IndexReader> readers = new HashMap<>();
+
+  @BeforeEach
+  void createIndexes() throws IOException {
+    for (String index : new String[]{"kmelia1", "kmelia2", "almanach3"}) {
+      final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+      try (IndexWriter writer = new IndexWriter(directory,
+          new IndexWriterConfig(new StandardAnalyzer()))) {
+        final Document doc = new Document();
+        doc.add(new StringField("key", index + "|Publication|1", Field.Store.YES));
+        writer.addDocument(doc);
+      }
+      readers.put(index, DirectoryReader.open(directory));
+    }
+  }
+
+  @AfterEach
+  void closeIndexes() throws IOException {
+    for (IndexReader reader : readers.values()) {
+      reader.close();
+    }
+  }
+
+  @Test
+  void searcherIsReusedForTheSameScope() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(10, null);
+    final IndexSearcher searcher = cache.getSearcher(Set.of("kmelia1", "kmelia2"), readers::get);
+    assertThat(searcher.count(new MatchAllDocsQuery()), is(2));
+    assertThat(cache.getSearcher(Set.of("kmelia2", "kmelia1"), readers::get),
+        sameInstance(searcher));
+    assertThat(cache.getSearcher(Set.of("kmelia1"), readers::get), not(sameInstance(searcher)));
+    assertThat(cache.size(), is(2));
+  }
+
+  @Test
+  void onlyTheSearchersOnAnInvalidatedIndexAreRebuilt() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(10, null);
+    final IndexSearcher searcher1 = cache.getSearcher(Set.of("kmelia1", "kmelia2"), readers::get);
+    final IndexSearcher searcher2 = cache.getSearcher(Set.of("kmelia2"), readers::get);
+    final IndexSearcher searcher3 = cache.getSearcher(Set.of("almanach3"), readers::get);
+    cache.invalidate("kmelia2");
+    assertThat(cache.size(), is(1));
+    assertThat(cache.getSearcher(Set.of("almanach3"), readers::get), sameInstance(searcher3));
+    assertThat(cache.getSearcher(Set.of("kmelia1", "kmelia2"), readers::get),
+        not(sameInstance(searcher1)));
+    assertThat(cache.getSearcher(Set.of("kmelia2"), readers::get), not(sameInstance(searcher2)));
+    assertThat(cache.size(), is(3));
+  }
+
+  @Test
+  void anInvalidationOfAnUnusedIndexKeepsAllTheSearchers() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(10, null);
+    final IndexSearcher searcher = cache.getSearcher(Set.of("kmelia1", "kmelia2"), readers::get);
+    cache.invalidate("almanach3");
+    assertThat(cache.getSearcher(Set.of("kmelia1", "kmelia2"), readers::get),
+        sameInstance(searcher));
+  }
+
+  @Test
+  void aSearcherBuiltDuringAnInvalidationIsNotCached() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(10, null);
+    final IndexSearcher searcher = cache.getSearcher(Set.of("kmelia1"), path -> {
+      cache.invalidate(path);
+      return readers.get(path);
+    });
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getSearcher(Set.of("kmelia1"), readers::get), not(sameInstance(searcher)));
+  }
+
+  @Test
+  void anEvictedSearcherIsNoMoreInvalidated() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(1, null);
+    cache.getSearcher(Set.of("kmelia1", "kmelia2"), readers::get);
+    final IndexSearcher searcher = cache.getSearcher(Set.of("kmelia1"), readers::get);
+    cache.invalidate("kmelia2");
+    assertThat(cache.getSearcher(Set.of("kmelia1"), readers::get), sameInstance(searcher));
+  }
+
+  @Test
+  void theLeastRecentlyUsedSearcherIsEvicted() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(2, null);
+    final IndexSearcher searcher1 = cache.getSearcher(Set.of("kmelia1"), readers::get);
+    cache.getSearcher(Set.of("kmelia2"), readers::get);
+    cache.getSearcher(Set.of("kmelia1"), readers::get);
+    cache.getSearcher(Set.of("almanach3"), readers::get);
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getSearcher(Set.of("kmelia1"), readers::get), sameInstance(searcher1));
+  }
+
+  @Test
+  void theOldestSearcherIsEvictedBeyondTheMaximumSize() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(2, null);
+    final IndexSearcher searcher1 = cache.getSearcher(Set.of("kmelia1"), readers::get);
+    final IndexSearcher searcher2 = cache.getSearcher(Set.of("kmelia2"), readers::get);
+    cache.getSearcher(Set.of("almanach3"), readers::get);
+    assertThat(cache.size(), is(2));
+    assertThat(cache.getSearcher(Set.of("kmelia2"), readers::get), sameInstance(searcher2));
+    assertThat(cache.getSearcher(Set.of("kmelia1"), readers::get),
+        not(sameInstance(searcher1)));
+  }
+
+  @Test
+  void unknownIndexesAreIgnored() throws IOException {
+    final CompositeSearcherCache cache = new CompositeSearcherCache(10, null);
+    final IndexSearcher searcher =
+        cache.getSearcher(Set.of("kmelia1", "unknown42"), readers::get);
+    assertThat(searcher.count(new MatchAllDocsQuery()), is(1));
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.io.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.silverpeas.kernel.test.UnitTest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests on the resizing of images within the JVM.
+ */
+@UnitTest
+class InProcessImageResizerTest {
+
+  @TempDir
+  Path folder;
+
+  @Test
+  void onlyCommonFormatsAreSupported() {
+    assertThat(InProcessImageResizer.isSupported(new File("photo.jpg")), is(true));
+    assertThat(InProcessImageResizer.isSupported(new File("photo.JPEG")), is(true));
+    assertThat(InProcessImageResizer.isSupported(new File("logo.png")), is(true));
+    assertThat(InProcessImageResizer.isSupported(new File("icon.bmp")), is(true));
+    assertThat(InProcessImageResizer.isSupported(new File("animation.gif")), is(false));
+    assertThat(InProcessImageResizer.isSupported(new File("drawing.svg")), is(false));
+    assertThat(InProcessImageResizer.isSupported(new File("image")), is(false));
+  }
+
+  @Test
+  void ratioFitsTheImageIntoTheBoundaries() {
+    assertThat(InProcessImageResizer.computeRatio(1000, 500, 250, null), closeTo(0.25, 1e-9));
+    assertThat(InProcessImageResizer.computeRatio(1000, 500, null, 250), closeTo(0.5, 1e-9));
+    assertThat(InProcessImageResizer.computeRatio(1000, 500, 250, 100), closeTo(0.2, 1e-9));
+    assertThat(InProcessImageResizer.computeRatio(100, 50, 250, 150) >= 1.0, is(true));
+  }
+
+  @Test
+  void aJpegImageIsShrunkWithItsAspectRatioPreserved() throws IOException {
+    File source = createImage("photo.jpg", "jpg", 1600, 1200, BufferedImage.TYPE_INT_RGB);
+    File destination = folder.resolve("200x").resolve("photo.jpg").toFile();
+    Files.createDirectories(destination.getParentFile().toPath());
+
+    boolean resized = InProcessImageResizer.resize(source, destination, 200, null);
+
+    assertThat(resized, is(true));
+    BufferedImage image = ImageIO.read(destination);
+    assertThat(image.getWidth(), is(200));
+    assertThat(image.getHeight(), is(150));
+  }
+
+  @Test
+  void aPngImageIsShrunkIntoBothBoundariesWithItsTransparencyKept() throws IOException {
+    File source = createImage("logo.png", "png", 400, 800, BufferedImage.TYPE_INT_ARGB);
+    File destination = folder.resolve("logo_resized.png").toFile();
+
+    boolean resized = InProcessImageResizer.resize(source, destination, 300, 100);
+
+    assertThat(resized, is(true));
+    BufferedImage image = ImageIO.read(destination);
+    assertThat(image.getWidth(), is(50));
+    assertThat(image.getHeight(), is(100));
+    assertThat(image.getColorModel().hasAlpha(), is(true));
+  }
+
+  @Test
+  void aSmallImageIsNeverEnlarged() throws IOException {
+    File source = createImage("small.png", "png", 80, 60, BufferedImage.TYPE_INT_RGB);
+    File destination = folder.resolve("small_resized.png").toFile();
+
+    boolean resized = InProcessImageResizer.resize(source, destination, 300, 300);
+
+    assertThat(resized, is(true));
+    BufferedImage image = ImageIO.read(destination);
+    assertThat(image.getWidth(), is(80));
+    assertThat(image.getHeight(), is(60));
+  }
+
+  @Test
+  void anUnsupportedImageIsLeftToTheImageTool() throws IOException {
+    File source = createImage("animation.gif", "gif", 400, 400, BufferedImage.TYPE_INT_RGB);
+    File destination = folder.resolve("animation_resized.gif").toFile();
+
+    boolean resized = InProcessImageResizer.resize(source, destination, 100, 100);
+
+    assertThat(resized, is(false));
+    assertThat(destination.exists(), is(false));
+  }
+
+  @Test
+  void noTemporaryFileIsLeftWhenTheResizingFails() throws IOException {
+    File source = createImage("broken.png", "png", 800, 800, BufferedImage.TYPE_INT_RGB);
+    // the header is kept so that the dimension of the image can be read but not its pixels
+    byte[] content = Files.readAllBytes(source.toPath());
+    Files.write(source.toPath(), Arrays.copyOf(content, 60));
+    File destination = folder.resolve("broken_resized.png").toFile();
+
+    boolean resized = InProcessImageResizer.resize(source, destination, 100, 100);
+
+    assertThat(resized, is(false));
+    try (Stream<Path> files = Files.list(folder)) {
+      assertThat(files.map(f -> f.getFileName().toString()).collect(Collectors.toList()),
+          contains("broken.png"));
+    }
+  }
+
+  private File createImage(final String name, final String format, final int width,
+      final int height, final int type) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, type);
+    Graphics2D graphics = image.createGraphics();
+    try {
+      graphics.setColor(Color.BLUE);
+      graphics.fillRect(0, 0, width / 2, height);
+      graphics.setColor(Color.ORANGE);
+      graphics.fillRect(width / 2, 0, width - width / 2, height);
+    } finally {
+      graphics.dispose();
+    }
+    File file = folder.resolve(name).toFile();
+    ImageIO.write(image, format, file);
+    return file;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.mail.engine;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@UnitTest
+class SendingSlotsTest {
+
+  @Test
+  void theCapacityIsAtLeastOne() {
+    assertThat(new SendingSlots(0).getCapacity(), is(1));
+    assertThat(new SendingSlots(4).getCapacity(), is(4));
+  }
+
+  @Test
+  void severalSendsCanBePerformedUpToTheCapacity() throws Exception {
+    final SendingSlots slots = new SendingSlots(2);
+    slots.acquire(false);
+    slots.acquire(false);
+    final CountDownLatch acquired = new CountDownLatch(1);
+    final Thread third = waitForSlot(slots, false, acquired);
+    assertThat(acquired.await(100, TimeUnit.MILLISECONDS), is(false));
+
+    slots.release();
+    assertThat(acquired.await(5, TimeUnit.SECONDS), is(true));
+    third.join();
+  }
+
+  @Test
+  void aSynchronousSendGetsTheSlotBeforeAWaitingAsynchronousOne() throws Exception {
+    final SendingSlots slots = new SendingSlots(1);
+    slots.acquire(false);
+    final CountDownLatch synchronousAcquired = new CountDownLatch(1);
+    final CountDownLatch asynchronousAcquired = new CountDownLatch(1);
+    final Thread asynchronous = waitForSlot(slots, false, asynchronousAcquired);
+    final Thread synchronous = waitForSlot(slots, true, synchronousAcquired);
+
+    slots.release();
+    assertThat(synchronousAcquired.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(asynchronousAcquired.await(100, TimeUnit.MILLISECONDS), is(false));
+
+    slots.release();
+    assertThat(asynchronousAcquired.await(5, TimeUnit.SECONDS), is(true));
+    synchronous.join();
+    asynchronous.join();
+  }
+
+  /**
+   * Starts a thread acquiring a slot and waits for it to be blocked on the acquisition.
+   */
+  private static Thread waitForSlot(final SendingSlots slots, final boolean synchronous,
+      final CountDownLatch acquired) throws InterruptedException {
+    final Thread thread = new Thread(() -> {
+      try {
+        slots.acquire(synchronous);
+        acquired.countDown();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    thread.start();
+    while (thread.getState() != Thread.State.WAITING && acquired.getCount() > 0) {
+      Thread.sleep(5);
+    }
+    return thread;
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.mail.engine;
+
+import com.icegreen.greenmail.base.GreenMailOperations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.silverpeas.core.test.unit.extention.GreenMailExtension;
+import org.silverpeas.core.test.unit.extention.JEETestContext;
+import org.silverpeas.core.test.unit.extention.SmtpConfig;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Unit tests on the pooling of the SMTP connections.
+ */
+@EnableSilverTestEnv(context = JEETestContext.class)
+@ExtendWith(GreenMailExtension.class)
+@SmtpConfig("/org/silverpeas/notificationserver/channel/smtp/smtpSettings.properties")
+@Execution(ExecutionMode.SAME_THREAD)
+class SmtpTransportPoolTest {
+
+  private static final long ONE_MINUTE = 60_000L;
+
+  private SmtpConfiguration configuration;
+  private SmtpTransportPool pool;
+
+  @BeforeEach
+  void setup() {
+    configuration = new SmtpConfiguration();
+    configuration.setServer("localhost");
+    configuration.setPort(2500);
+    configuration.setAuthenticate(false);
+    configuration.setSecure(false);
+  }
+
+  @AfterEach
+  void closePool() {
+    if (pool != null) {
+      pool.closeAll();
+    }
+  }
+
+  @Test
+  void aReleasedTransportIsReusedByTheNextSends(GreenMailOperations mail) throws Exception {
+    pool = new SmtpTransportPool(2, ONE_MINUTE, 0);
+    SmtpTransportPool.PooledTransport first = pool.borrow(configuration);
+    send(first.getTransport(), "first");
+    pool.release(first);
+    assertThat(pool.getIdleCount(), is(1));
+
+    SmtpTransportPool.PooledTransport second = pool.borrow(configuration);
+    assertThat(second, sameInstance(first));
+    assertThat(pool.getIdleCount(), is(0));
+    send(second.getTransport(), "second");
+    pool.release(second);
+
+    mail.waitForIncomingEmail(ONE_MINUTE, 2);
+    assertThat(mail.getReceivedMessages(), arrayWithSize(2));
+    assertThat(second.getTransport().isConnected(), is(true));
+  }
+
+  @Test
+  void concurrentBorrowsGetDistinctTransports(GreenMailOperations mail) throws Exception {
+    pool = new SmtpTransportPool(1, ONE_MINUTE, 0);
+    SmtpTransportPool.PooledTransport first = pool.borrow(configuration);
+    SmtpTransportPool.PooledTransport second = pool.borrow(configuration);
+    assertThat(second, not(sameInstance(first)));
+    send(first.getTransport(), "first");
+    send(second.getTransport(), "second");
+    pool.release(first);
+    pool.release(second);
+
+    mail.waitForIncomingEmail(ONE_MINUTE, 2);
+    assertThat(mail.getReceivedMessages(), arrayWithSize(2));
+    assertThat(pool.getIdleCount(), is(1));
+    assertThat(first.getTransport().isConnected(), is(true));
+    assertThat(second.getTransport().isConnected(), is(false));
+  }
+
+  @Test
+  void noTransportIsKeptWhenPoolingIsDisabled(GreenMailOperations mail) throws Exception {
+    pool = new SmtpTransportPool(0, ONE_MINUTE, 0);
+    SmtpTransportPool.PooledTransport pooled = pool.borrow(configuration);
+    send(pooled.getTransport(), "single");
+    pool.release(pooled);
+
+    mail.waitForIncomingEmail(ONE_MINUTE, 1);
+    assertThat(pool.getIdleCount(), is(0));
+    assertThat(pooled.getTransport().isConnected(), is(false));
+  }
+
+  @Test
+  void aTransportIsClosedOnceTheMaxNumberOfMailsIsReached(GreenMailOperations mail)
+      throws Exception {
+    pool = new SmtpTransportPool(2, ONE_MINUTE, 2);
+    SmtpTransportPool.PooledTransport pooled = pool.borrow(configuration);
+    send(pooled.getTransport(), "first");
+    pool.release(pooled);
+    assertThat(pool.borrow(configuration), sameInstance(pooled));
+    send(pooled.getTransport(), "second");
+    pool.release(pooled);
+
+    mail.waitForIncomingEmail(ONE_MINUTE, 2);
+    assertThat(pool.getIdleCount(), is(0));
+    assertThat(pooled.getTransport().isConnected(), is(false));
+  }
+
+  @Test
+  void anExpiredTransportIsNotReused(GreenMailOperations mail) throws Exception {
+    pool = new SmtpTransportPool(2, 0, 0);
+    SmtpTransportPool.PooledTransport first = pool.borrow(configuration);
+    send(first.getTransport(), "first");
+    pool.release(first);
+    Thread.sleep(5);
+
+    SmtpTransportPool.PooledTransport second = pool.borrow(configuration);
+    assertThat(second, not(sameInstance(first)));
+    assertThat(first.getTransport().isConnected(), is(false));
+    pool.release(second);
+    mail.waitForIncomingEmail(ONE_MINUTE, 1);
+  }
+
+  @Test
+  void theExpiredIdleTransportsAreClosedOnRelease(GreenMailOperations mail) throws Exception {
+    pool = new SmtpTransportPool(2, 100, 0);
+    SmtpTransportPool.PooledTransport first = pool.borrow(configuration);
+    SmtpTransportPool.PooledTransport second = pool.borrow(configuration);
+    send(first.getTransport(), "first");
+    pool.release(first);
+    Thread.sleep(200);
+
+    send(second.getTransport(), "second");
+    pool.release(second);
+    assertThat(pool.getIdleCount(), is(1));
+    assertThat(first.getTransport().isConnected(), is(false));
+    assertThat(pool.borrow(configuration), sameInstance(second));
+    mail.waitForIncomingEmail(ONE_MINUTE, 2);
+  }
+
+  @Test
+  void anInvalidatedTransportIsClosed(GreenMailOperations mail) throws Exception {
+    pool = new SmtpTransportPool(2, ONE_MINUTE, 0);
+    SmtpTransportPool.PooledTransport pooled = pool.borrow(configuration);
+    pool.invalidate(pooled);
+    assertThat(pool.getIdleCount(), is(0));
+    assertThat(pooled.getTransport().isConnected(), is(false));
+    assertThat(mail.getReceivedMessages(), arrayWithSize(0));
+  }
+
+  @Test
+  void eachConfigurationHasItsOwnSessionWithoutAlteringTheSystemProperties() {
+    pool = new SmtpTransportPool(2, ONE_MINUTE, 0);
+    final String systemAuth = System.getProperty("mail.smtp.auth");
+    final SmtpConfiguration authenticated = new SmtpConfiguration();
+    authenticated.setServer("localhost");
+    authenticated.setPort(2500);
+    authenticated.setAuthenticate(true);
+    authenticated.setUsername("user");
+    authenticated.setPassword("secret");
+    authenticated.setSecure(false);
+
+    Session session = pool.getSession(configuration);
+    Session authenticatedSession = pool.getSession(authenticated);
+    assertThat(authenticatedSession, not(sameInstance(session)));
+    assertThat(session.getProperty("mail.smtp.auth"), is("false"));
+    assertThat(authenticatedSession.getProperty("mail.smtp.auth"), is("true"));
+    assertThat(session.getProperty("mail.smtp.port"), is("2500"));
+    assertThat(pool.getSession(configuration), sameInstance(session));
+    assertThat(System.getProperty("mail.smtp.auth"), is(systemAuth));
+
+    authenticated.setPassword("another secret");
+    assertThat(pool.getSession(authenticated), not(sameInstance(authenticatedSession)));
+  }
+
+  private void send(final Transport transport, final String subject) throws MessagingException {
+    MimeMessage message = new MimeMessage(pool.getSession(configuration));
+    InternetAddress[] to = {new InternetAddress("to@toto.org")};
+    message.setFrom(new InternetAddress("from@titi.org"));
+    message.setRecipients(Message.RecipientType.TO, to);
+    message.setSubject(subject);
+    message.setText("content of " + subject);
+    transport.sendMessage(message, to);
+  }
+}
@@ -98,7 +98,7 @@ abstract class AbstractServerEventDispatcherTaskTest {
     contextsByEventType.clear();
     serverEventStore = (ServerEventStore) FieldUtils
         .readDeclaredStaticField(ServerEventDispatcherTask.class, "serverEventStore", true);
-    serverEventContextMap.clear();
+    ((DefaultServerEventContextManager) manager).cleanContexts();
     serverEventStore.clear();
     FieldUtils.writeDeclaredStaticField(AbstractServerEvent.class, "idCounter", 0L, true);
 
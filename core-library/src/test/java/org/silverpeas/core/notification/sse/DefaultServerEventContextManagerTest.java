@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.admin.user.model.User;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the indexation of the server event contexts by session and by user, and on the
+ * encoding once of the events sent to several contexts.
+ */
+@EnableSilverTestEnv
+class DefaultServerEventContextManagerTest {
+
+  private DefaultServerEventContextManager manager;
+
+  @BeforeEach
+  void setup() throws Exception {
+    new SseLogger().init();
+    manager = new DefaultServerEventContextManager();
+  }
+
+  @Test
+  void contextsAreIndexedBySessionAndByUser() {
+    final SilverpeasServerEventContext session1OfUser1 = newContext("session1", "user1");
+    final SilverpeasServerEventContext otherOfSession1 = newContext("session1", "user1");
+    final SilverpeasServerEventContext session2OfUser1 = newContext("session2", "user1");
+    final SilverpeasServerEventContext session3OfUser2 = newContext("session3", "user2");
+    manager.register(session1OfUser1);
+    manager.register(otherOfSession1);
+    manager.register(session2OfUser1);
+    manager.register(session3OfUser2);
+    manager.register(session3OfUser2);
+
+    assertThat(manager.getContextSnapshot(), hasSize(4));
+    assertThat(manager.getContextSnapshotOfSession("session1"),
+        containsInAnyOrder(session1OfUser1, otherOfSession1));
+    assertThat(manager.getContextSnapshotOfSession("session3"), contains(session3OfUser2));
+    assertThat(manager.getContextSnapshotOfSession("session4"), empty());
+    assertThat(manager.getContextSnapshotOfUser("user1"),
+        containsInAnyOrder(session1OfUser1, otherOfSession1, session2OfUser1));
+    assertThat(manager.getContextSnapshotOfUser("user2"), contains(session3OfUser2));
+    assertThat(manager.getContextSnapshotOfUser("user3"), empty());
+  }
+
+  @Test
+  void unregisteredContextsAreRemovedFromTheIndexes() {
+    final SilverpeasServerEventContext session1OfUser1 = newContext("session1", "user1");
+    final SilverpeasServerEventContext session2OfUser1 = newContext("session2", "user1");
+    manager.register(session1OfUser1);
+    manager.register(session2OfUser1);
+
+    manager.unregister(session1OfUser1);
+    verify(session1OfUser1).close();
+    assertThat(manager.getContextSnapshotOfSession("session1"), empty());
+    assertThat(manager.getContextSnapshotOfUser("user1"), contains(session2OfUser1));
+
+    manager.unregister(session2OfUser1);
+    assertThat(manager.getContextSnapshotOfUser("user1"), empty());
+    assertThat(manager.getContextSnapshot(), empty());
+  }
+
+  @Test
+  void anEventIsEncodedOnlyOnceWhenItsDataAreShared() {
+    final EncodedServerEventCache cache = new EncodedServerEventCache();
+    final AtomicInteger nbEncodings = new AtomicInteger(0);
+    final EncodedServerEventCache.ServerEventEncoder encoder = (n, i, d) -> {
+      nbEncodings.incrementAndGet();
+      return n + "#" + i + "#" + d;
+    };
+    final String sharedData = "shared data";
+    for (int i = 0; i < 10; i++) {
+      assertThat(cache.encode("EVENT", 1, sharedData, encoder), is("EVENT#1#shared data"));
+    }
+    assertThat(nbEncodings.get(), is(1));
+
+    assertThat(cache.encode("EVENT", 1, "data of user A", encoder), is("EVENT#1#data of user A"));
+    assertThat(cache.encode("EVENT", 1, "data of user B", encoder), is("EVENT#1#data of user B"));
+    assertThat(cache.encode("EVENT", 2, sharedData, encoder), is("EVENT#2#shared data"));
+    assertThat(nbEncodings.get(), is(4));
+  }
+
+  private SilverpeasServerEventContext newContext(final String sessionId, final String userId) {
+    final User user = mock(User.class);
+    when(user.getId()).thenReturn(userId);
+    final SilverpeasServerEventContext context = mock(SilverpeasServerEventContext.class);
+    when(context.getSessionId()).thenReturn(sessionId);
+    when(context.getUser()).thenReturn(user);
+    return context;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.sse;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.notification.sse.ServerEventDispatcherTask.ServerEventStore;
+import org.silverpeas.core.notification.sse.behavior.KeepAlwaysLastStored;
+import org.silverpeas.core.notification.sse.behavior.StoreLastOnly;
+import org.silverpeas.core.notification.user.client.NotificationManagerSettings;
+import org.silverpeas.kernel.test.extension.EnableSilverTestEnv;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests on the store of the server events replayed to the reconnecting clients.
+ */
+@EnableSilverTestEnv
+class ServerEventStoreTest {
+
+  private ServerEventStore store;
+
+  @BeforeEach
+  void setup() throws Exception {
+    new SseLogger().init();
+    FieldUtils.writeDeclaredStaticField(AbstractServerEvent.class, "idCounter", 0L, true);
+    store = new ServerEventStore();
+  }
+
+  @Test
+  void eventsAfterTheLastOneReceivedAreReplayed() {
+    final List<ServerEvent> events = addEvents(10);
+    assertThat(store.getFromId(-1), is(events));
+    assertThat(store.getFromId(4), is(events.subList(5, 10)));
+    assertThat(store.getFromId(9), empty());
+    assertThat(store.getFromId(100), empty());
+    assertThat(store.getReplayHits(), is(4L));
+    assertThat(store.getReplayMisses(), is(0L));
+  }
+
+  @Test
+  void aReplayFromAnEventNoMoreStoredIsCountedAsAMiss() {
+    addEvents(3);
+    store.clear();
+    final List<ServerEvent> events = addEvents(3);
+    assertThat(ids(store.getFromId(0)), contains(3L, 4L, 5L));
+    assertThat(ids(store.getFromId(2)), contains(3L, 4L, 5L));
+    assertThat(store.getReplayMisses(), is(1L));
+    assertThat(store.getReplayHits(), is(1L));
+    assertThat(store.getFromId(-1), is(events));
+  }
+
+  @Test
+  void aGapInTheIdentifiersOfTheStoredEventsIsNotCountedAsAMiss() {
+    // events that aren't stored (not dispatched or ignored by the store) consume identifiers
+    for (int i = 0; i < 5; i++) {
+      new TestServerEventA().getId();
+    }
+    final List<ServerEvent> events = addEvents(2);
+    assertThat(ids(events), contains(5L, 6L));
+    assertThat(store.getFromId(1), is(events));
+    assertThat(store.getReplayMisses(), is(0L));
+    assertThat(store.getReplayHits(), is(1L));
+  }
+
+  @Test
+  void aReplayFromAnEventRemovedAsTheStoreIsFullIsCountedAsAMiss() {
+    final int maxSize = NotificationManagerSettings.getSseStoreMaxSize();
+    addEvents(maxSize + 10);
+    assertThat(store.getFromId(5), hasSize(maxSize));
+    assertThat(store.getReplayMisses(), is(1L));
+    assertThat(store.getFromId(9), hasSize(maxSize));
+    assertThat(store.getReplayHits(), is(1L));
+  }
+
+  @Test
+  void eventsAreKeptSortedByIdentifier() {
+    final ServerEvent first = new TestServerEventA();
+    final ServerEvent second = new TestServerEventA();
+    // the identifier is computed at first access
+    second.getId();
+    first.getId();
+    store.add(first);
+    store.add(second);
+    assertThat(ids(store.getFromId(-1)), contains(0L, 1L));
+    assertThat(store.getFromId(0), contains(first));
+  }
+
+  @Test
+  void onlyTheLastEventOfAStoreLastOnlyKindIsKept() {
+    final ServerEvent a = new TestServerEventA();
+    final ServerEvent last1 = new LastOnlyEvent();
+    final ServerEvent b = new TestServerEventA();
+    final ServerEvent last2 = new LastOnlyEvent();
+    store.add(a);
+    store.add(last1);
+    store.add(b);
+    store.add(last2);
+    assertThat(store.getFromId(-1), contains(a, b, last2));
+  }
+
+  @Test
+  void theOldestEventsAreRemovedWhenTheMaxSizeIsReached() {
+    final int maxSize = NotificationManagerSettings.getSseStoreMaxSize();
+    final ServerEvent keptEvent = new KeptEvent();
+    store.add(keptEvent);
+    final List<ServerEvent> events = addEvents(maxSize + 10);
+    final List<ServerEvent> stored = store.getFromId(-1);
+    assertThat(stored, hasSize(maxSize));
+    assertThat(stored.get(0), is(keptEvent));
+    assertThat(stored.subList(1, maxSize), is(events.subList(11, maxSize + 10)));
+  }
+
+  @Test
+  void anEventOlderThanTheStoredOnesIsRemovedAtOnceWhenTheMaxSizeIsReached() {
+    final int maxSize = NotificationManagerSettings.getSseStoreMaxSize();
+    final ServerEvent oldest = new TestServerEventA();
+    oldest.getId();
+    final List<ServerEvent> events = addEvents(maxSize);
+    store.add(oldest);
+    assertThat(store.getFromId(-1), is(events));
+    assertThat(store.getFromId(-1).contains(oldest), is(false));
+  }
+
+  private List<ServerEvent> addEvents(final int nb) {
+    final List<ServerEvent> events = new ArrayList<>(nb);
+    for (int i = 0; i < nb; i++) {
+      final ServerEvent event = new TestServerEventA();
+      store.add(event);
+      events.add(event);
+    }
+    return events;
+  }
+
+  private static List<Long> ids(final List<ServerEvent> events) {
+    return events.stream().map(ServerEvent::getId).collect(Collectors.toList());
+  }
+
+  private static class LastOnlyEvent extends AbstractServerEventTest implements StoreLastOnly {
+    @Override
+    public ServerEventName getName() {
+      return () -> "LAST_ONLY";
+    }
+  }
+
+  private static class KeptEvent extends AbstractServerEventTest implements KeepAlwaysLastStored {
+    @Override
+    public ServerEventName getName() {
+      return () -> "KEPT";
+    }
+  }
+}
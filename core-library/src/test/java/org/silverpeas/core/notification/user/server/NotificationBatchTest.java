@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.notification.user.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests on the batching of the notifications posted to the notification server.
+ */
+class NotificationBatchTest {
+
+  @Test
+  void notificationsAreGroupedByChannelAndContent() {
+    final List<NotificationData> notifications = new ArrayList<>();
+    notifications.add(notification("SMTP", "Hello", "a@silverpeas.org"));
+    notifications.add(notification("POPUP", "Hello", "1"));
+    notifications.add(notification("SMTP", "Hello", "b@silverpeas.org"));
+    notifications.add(notification("SMTP", "Goodbye", "c@silverpeas.org"));
+    notifications.add(notification("POPUP", "Hello", "2"));
+
+    final List<NotificationBatch> batches = NotificationBatch.of(notifications, 100);
+    assertThat(batches, hasSize(3));
+    assertThat(batches.get(0).getTargetChannel(), is("SMTP"));
+    assertThat(batches.get(0).getTargetReceipts(),
+        contains("a@silverpeas.org", "b@silverpeas.org"));
+    assertThat(batches.get(1).getTargetChannel(), is("POPUP"));
+    assertThat(batches.get(1).getTargetReceipts(), contains("1", "2"));
+    assertThat(batches.get(2).getTargetReceipts(), contains("c@silverpeas.org"));
+  }
+
+  @Test
+  void aBatchCarriesAtMostTheMaximumNumberOfRecipients() {
+    final List<NotificationData> notifications = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      notifications.add(notification("SILVERMAIL", "Hello", String.valueOf(i)));
+    }
+    final List<NotificationBatch> batches = NotificationBatch.of(notifications, 10);
+    assertThat(batches, hasSize(3));
+    assertThat(batches.get(0).getTargetReceipts(), hasSize(10));
+    assertThat(batches.get(1).getTargetReceipts(), hasSize(10));
+    assertThat(batches.get(2).getTargetReceipts(), hasSize(5));
+    assertThat(batches.get(2).getTargetReceipts().get(4), is("24"));
+  }
+
+  @Test
+  void aDecodedNotificationIsTheSameAsTheOneDecodedFromXML() throws Exception {
+    final NotificationData notification = notification("SMTP", "Hello <b>you</b>", "a@b.org");
+    final Map<String, Object> params = new HashMap<>();
+    params.put("SUBJECT", "A subject; with = separators");
+    params.put("DATE", new Date(1500000000000L));
+    params.put("HIDESMTPHEADERFOOTER", Boolean.TRUE);
+    notification.setTargetParam(params);
+    notification.setSenderId(null);
+
+    final byte[] encoded = NotificationBatch.of(List.of(notification), 10).get(0).encode();
+    final List<NotificationData> decoded = NotificationBatch.decode(encoded).getNotifications();
+    final NotificationData fromXml = NotificationServerUtil.convertXMLToNotificationData(
+        NotificationServerUtil.convertNotificationDataToXML(notification));
+
+    assertThat(decoded, hasSize(1));
+    assertThat(decoded.get(0), is(fromXml));
+  }
+
+  private static NotificationData notification(final String channel, final String message,
+      final String receipt) {
+    final NotificationData data = new NotificationData();
+    data.setTargetChannel(channel);
+    data.setMessage(message);
+    data.setSenderName("Bart Simpson");
+    data.setSenderId("2");
+    data.setTargetReceipt(receipt);
+    return data;
+  }
+}
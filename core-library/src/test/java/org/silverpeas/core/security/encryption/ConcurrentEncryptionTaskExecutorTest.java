@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.security.encryption;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests on the concurrency policy of the {@link ConcurrentEncryptionTaskExecutor}.
+ */
+@UnitTest
+class ConcurrentEncryptionTaskExecutorTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void shutdownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void nonPrivilegedTasksAreRanConcurrently() throws Exception {
+    final CountDownLatch bothRunning = new CountDownLatch(2);
+    final ConcurrentEncryptionTaskExecutor.ConcurrentEncryptionTask<Boolean> task =
+        new Task<>(false, () -> {
+          bothRunning.countDown();
+          return bothRunning.await(5, TimeUnit.SECONDS);
+        });
+    Future<Boolean> first = executor.submit(() -> ConcurrentEncryptionTaskExecutor.execute(task));
+    Future<Boolean> second = executor.submit(() -> ConcurrentEncryptionTaskExecutor.execute(task));
+    assertThat(first.get(10, TimeUnit.SECONDS), is(true));
+    assertThat(second.get(10, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test
+  void tasksAreRejectedWhileAPrivilegedTaskIsRunning() throws Exception {
+    final CountDownLatch privilegedRunning = new CountDownLatch(1);
+    final CountDownLatch privilegedEnd = new CountDownLatch(1);
+    Future<Boolean> privileged = executor.submit(
+        () -> ConcurrentEncryptionTaskExecutor.execute(new Task<>(true, () -> {
+          privilegedRunning.countDown();
+          return privilegedEnd.await(5, TimeUnit.SECONDS);
+        })));
+    assertThat(privilegedRunning.await(5, TimeUnit.SECONDS), is(true));
+
+    assertThrows(IllegalStateException.class,
+        () -> ConcurrentEncryptionTaskExecutor.execute(new Task<>(false, () -> true)));
+    assertThrows(IllegalStateException.class,
+        () -> ConcurrentEncryptionTaskExecutor.execute(new Task<>(true, () -> true)));
+
+    privilegedEnd.countDown();
+    assertThat(privileged.get(10, TimeUnit.SECONDS), is(true));
+    assertThat(ConcurrentEncryptionTaskExecutor.execute(new Task<>(false, () -> true)), is(true));
+  }
+
+  @Test
+  void aPrivilegedTaskWaitsForTheRunningTasks() throws Exception {
+    final CountDownLatch taskRunning = new CountDownLatch(1);
+    final CountDownLatch taskEnd = new CountDownLatch(1);
+    final long[] endTimes = new long[2];
+    Future<Boolean> task = executor.submit(
+        () -> ConcurrentEncryptionTaskExecutor.execute(new Task<>(false, () -> {
+          taskRunning.countDown();
+          boolean ended = taskEnd.await(5, TimeUnit.SECONDS);
+          endTimes[0] = System.nanoTime();
+          return ended;
+        })));
+    assertThat(taskRunning.await(5, TimeUnit.SECONDS), is(true));
+    Future<Boolean> privileged = executor.submit(
+        () -> ConcurrentEncryptionTaskExecutor.execute(new Task<>(true, () -> {
+          endTimes[1] = System.nanoTime();
+          return true;
+        })));
+    Thread.sleep(100);
+    assertThat(privileged.isDone(), is(false));
+
+    taskEnd.countDown();
+    assertThat(task.get(10, TimeUnit.SECONDS), is(true));
+    assertThat(privileged.get(10, TimeUnit.SECONDS), is(true));
+    assertThat(endTimes[0] < endTimes[1], is(true));
+  }
+
+  @FunctionalInterface
+  private interface Work<T> {
+    T run() throws Exception;
+  }
+
+  private static class Task<T>
+      implements ConcurrentEncryptionTaskExecutor.ConcurrentEncryptionTask<T> {
+
+    private final boolean privileged;
+    private final Work<T> work;
+
+    Task(final boolean privileged, final Work<T> work) {
+      this.privileged = privileged;
+      this.work = work;
+    }
+
+    @Override
+    public boolean isPrivileged() {
+      return privileged;
+    }
+
+    @Override
+    public T execute() {
+      try {
+        return work.run();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
@@ -123,6 +123,7 @@ public abstract class ContentEncryptionServiceTest {
   @BeforeEach
   public void setUpContentEncryptionService() throws Exception {
     service = new DefaultContentEncryptionService();
+    DefaultContentEncryptionService.clearCipherKeys();
   }
 
   @AfterEach
@@ -137,6 +138,7 @@ public abstract class ContentEncryptionServiceTest {
       keyFile.setWritable(true);
       FileUtils.forceDelete(keyFile);
     }
+    DefaultContentEncryptionService.clearCipherKeys();
   }
 
   public DefaultContentEncryptionService getContentEncryptionService() {
@@ -172,6 +174,7 @@ public abstract class ContentEncryptionServiceTest {
     Files.copy(new ByteArrayInputStream(encryptedContent.getBytes()), keyFile.toPath(),
         REPLACE_EXISTING);
     keyFile.setReadOnly();
+    DefaultContentEncryptionService.clearCipherKeys();
   }
 
   /**
@@ -189,6 +192,7 @@ public abstract class ContentEncryptionServiceTest {
     Files.copy(new ByteArrayInputStream(encryptedContent.getBytes()), keyFile.toPath(),
         REPLACE_EXISTING);
     keyFile.setReadOnly();
+    DefaultContentEncryptionService.clearCipherKeys();
   }
 
   /**
@@ -34,6 +34,7 @@ import org.silverpeas.core.util.Charsets;
 import org.silverpeas.kernel.util.StringUtil;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -103,6 +104,37 @@ class KeyManagementTest extends ContentEncryptionServiceTest {
     assertTheContentCipherIsRenewed(iterators, key);
   }
 
+  @Test
+  void testKeyUpdateWithALargeContentRenewedByBatches() throws Exception {
+    // create the key file with an encryption key
+    String key = generateAESKey();
+    createKeyFileWithTheActualKey(key);
+    // a content with more fields than a batch
+    Cipher aes = CipherFactory.getFactory().getCipher(CryptographicAlgorithmName.AES);
+    CipherKey cipherKey = CipherKey.aKeyFromHexText(key);
+    Map<String, String> fields = new HashMap<>();
+    Map<String, String> encryptedFields = new HashMap<>();
+    for (int i = 0; i < 1200; i++) {
+      fields.put("field" + i, "value of the field " + i);
+      encryptedFields.put("field" + i,
+          StringUtil.asBase64(aes.encrypt("value of the field " + i, cipherKey)));
+    }
+    SingleContentIterator iterator = new SingleContentIterator(encryptedFields);
+    getContentEncryptionService().registerForContentCiphering(iterator);
+
+    // new encryption key
+    key = generateAESKey();
+    getContentEncryptionService().updateCipherKey(key);
+
+    // check
+    cipherKey = CipherKey.aKeyFromHexText(key);
+    assertThat(iterator.getUpdatedContent().size(), is(fields.size()));
+    for (Map.Entry<String, String> field : iterator.getUpdatedContent().entrySet()) {
+      String value = aes.decrypt(StringUtil.fromBase64(field.getValue()), cipherKey);
+      assertThat(value, is(fields.get(field.getKey())));
+    }
+  }
+
   @Test
   void testCipherRenewFailureWhenUpdatingCipherKey() throws Exception {
     // create the key file with the actual cipher key
@@ -253,4 +285,49 @@ class KeyManagementTest extends ContentEncryptionServiceTest {
       encryptedContents = encryptTextContents(contents, key);
     }
   }
-}
\ No newline at end of file
+
+  private static class SingleContentIterator implements EncryptionContentIterator {
+
+    private final Map<String, String> content;
+    private Map<String, String> updatedContent;
+    private boolean consumed = false;
+
+    public SingleContentIterator(final Map<String, String> content) {
+      this.content = content;
+    }
+
+    public Map<String, String> getUpdatedContent() {
+      return updatedContent;
+    }
+
+    @Override
+    public Map<String, String> next() {
+      consumed = true;
+      return content;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !consumed;
+    }
+
+    @Override
+    public void update(final Map<String, String> updatedContent) {
+      this.updatedContent = updatedContent;
+    }
+
+    @Override
+    public void onError(final Map<String, String> content, final CryptoException ex) {
+      fail(ex.getMessage());
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void init() {
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.template;
+
+import org.antlr.stringtemplate.StringTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Unit tests on the cache of the parsed file templates.
+ */
+class CompiledTemplateCacheTest {
+
+  @TempDir
+  Path customDir;
+  @TempDir
+  Path rootDir;
+
+  private List<String> paths;
+
+  @BeforeEach
+  void setUp() {
+    paths = Arrays.asList(customDir.toString(), rootDir.toString());
+  }
+
+  @Test
+  void aTemplateIsParsedOnlyOnceWithinTheCheckInterval() throws IOException {
+    write(rootDir, "hello", "Hello $name$");
+    final CompiledTemplateCache cache = new CompiledTemplateCache(60_000);
+    assertThat(render(cache, "hello"), is("Hello Bob"));
+    assertThat(render(cache, "hello"), is("Hello Bob"));
+    assertThat(render(cache, "hello"), is("Hello Bob"));
+    assertThat(cache.getMisses(), is(1L));
+    assertThat(cache.getHits(), is(2L));
+  }
+
+  @Test
+  void aModifiedTemplateIsParsedAgainOnceTheCheckIntervalIsElapsed() throws IOException {
+    final Path file = write(rootDir, "hello", "Hello $name$");
+    final CompiledTemplateCache cache = new CompiledTemplateCache(0);
+    assertThat(render(cache, "hello"), is("Hello Bob"));
+    assertThat(render(cache, "hello"), is("Hello Bob"));
+    assertThat(cache.getMisses(), is(1L));
+
+    write(rootDir, "hello", "Good morning $name$");
+    Files.setLastModifiedTime(file,
+        FileTime.from(Files.getLastModifiedTime(file).toInstant().plusSeconds(1)));
+    assertThat(render(cache, "hello"), is("Good morning Bob"));
+    assertThat(cache.getMisses(), is(2L));
+  }
+
+  @Test
+  void aTemplateIsParsedAgainWhenATemplateItIncludesIsModified() throws IOException {
+    write(rootDir, "page", "Page: $header()$");
+    final Path header = write(rootDir, "header", "Hello $name$");
+    final CompiledTemplateCache cache = new CompiledTemplateCache(0);
+    assertThat(render(cache, "page"), is("Page: Hello Bob"));
+    assertThat(render(cache, "page"), is("Page: Hello Bob"));
+    assertThat(cache.getMisses(), is(1L));
+
+    write(rootDir, "header", "Good morning $name$");
+    Files.setLastModifiedTime(header,
+        FileTime.from(Files.getLastModifiedTime(header).toInstant().plusSeconds(1)));
+    assertThat(render(cache, "page"), is("Page: Good morning Bob"));
+    assertThat(cache.getMisses(), is(2L));
+  }
+
+  @Test
+  void aCustomTemplateHasPriorityOverTheDefaultOne() throws IOException {
+    write(rootDir, "hello", "Hello $name$");
+    final CompiledTemplateCache cache = new CompiledTemplateCache(0);
+    assertThat(render(cache, "hello"), is("Hello Bob"));
+
+    write(customDir, "hello", "Hi $name$");
+    assertThat(render(cache, "hello"), is("Hi Bob"));
+  }
+
+  @Test
+  void noTemplateInstanceForAMissingOrAnEmptyFile() throws IOException {
+    write(rootDir, "empty", "");
+    final CompiledTemplateCache cache = new CompiledTemplateCache(60_000);
+    assertThat(cache.getInstanceOf(paths, "missing"), nullValue());
+    assertThat(cache.getInstanceOf(paths, "empty"), nullValue());
+    assertThat(cache.getInstanceOf(paths, "missing"), nullValue());
+    assertThat(cache.getHits(), is(1L));
+  }
+
+  private String render(final CompiledTemplateCache cache, final String name) {
+    final StringTemplate template = cache.getInstanceOf(paths, name);
+    assertThat(template, notNullValue());
+    template.setAttribute("name", "Bob");
+    return template.toString();
+  }
+
+  private static Path write(final Path dir, final String name, final String content)
+      throws IOException {
+    return Files.write(dir.resolve(name + ".st"), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -34,13 +34,17 @@ import org.silverpeas.core.util.time.Duration;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import static java.lang.String.valueOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.*;
 import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.maxThreadPoolSizeOf;
 import static org.silverpeas.core.thread.ManagedThreadPool.ExecutionConfig.timeoutOf;
@@ -335,6 +339,48 @@ class ManagedThreadPoolTest {
     log("... OK");
   }
 
+  @Test
+  void threadsAreReusedFromOneInvocationToAnother() throws Exception {
+    managedThreadPool.invokeAndAwaitTermination(initializeRunnables(100, 101, 102, 103, 104));
+    Thread.sleep(100);
+    managedThreadPool.invokeAndAwaitTermination(initializeRunnables(100, 101, 102, 103, 104));
+    log("Verifying that the 10 processes have been performed by only 5 threads...");
+    assertThat(threadEndTag.getThreadIdCalls(), hasSize(10));
+    assertThat(new HashSet<>(threadEndTag.getThreadIdCalls()), hasSize(5));
+    log("... OK");
+  }
+
+  @Test
+  void namedExecutorIsSharedAndBounded() throws Exception {
+    final ManagedExecutor executor = managedThreadPool.getExecutor("test-executor", 2);
+    assertThat(managedThreadPool.getExecutor("test-executor", 10), sameInstance(executor));
+    assertThat(managedThreadPool.getExecutors(), hasItem(executor));
+    assertThat(executor.getName(), is("test-executor"));
+    assertThat(executor.getMaximumPoolSize(), is(2));
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    for (int i = 0; i < 4; i++) {
+      executor.execute(() -> {
+        try {
+          latch.await();
+          threadEndTag.mark();
+        } catch (InterruptedException ignore) {
+        }
+      });
+    }
+    log("Verifying that 2 tasks are running and 2 tasks are waiting...");
+    await().atMost(5, TimeUnit.SECONDS).until(() -> executor.getActiveCount() == 2);
+    assertThat(executor.getQueueLength(), is(2));
+    log("... OK");
+    latch.countDown();
+    await().atMost(5, TimeUnit.SECONDS)
+        .until(() -> threadEndTag.getThreadIdCalls().size() == 4);
+    assertThat(executor.getQueueLength(), is(0));
+    executor.shutdown();
+    assertThat(executor.shutdownNow(), empty());
+    assertThat(executor.isShutdown(), is(false));
+  }
+
   /**
    * Common initialization.
    * @return list of 5 TestRunnable of 1 second of treatments.
@@ -70,6 +70,7 @@ import org.silverpeas.core.node.model.NodeDetail;
 import org.silverpeas.core.node.model.NodePK;
 import org.silverpeas.core.node.service.NodeService;
 import org.silverpeas.kernel.bundle.ResourceLocator;
+import org.silverpeas.core.util.MapUtil;
 import org.silverpeas.core.util.ServiceProvider;
 import org.silverpeas.kernel.bundle.SettingBundle;
 import org.silverpeas.kernel.util.StringUtil;
@@ -84,8 +85,10 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.text.MessageFormat.format;
@@ -104,6 +107,7 @@ public abstract class GEDImportExport extends ComponentImportExport {
   private PublicationService publicationService = null;
   private FormTemplateService formTemplateService = null;
   private NodeService nodeService = NodeService.get();
+  private final Map<String, List<XMLField>> preloadedXMLFields = new HashMap<>();
 
   /**
    * Constructeur public de la classe
@@ -755,6 +759,26 @@ public abstract class GEDImportExport extends ComponentImportExport {
    */
   public abstract int getSilverObjectId(String id);
 
+  /**
+   * Loads at once the form fields to export of the given publications of the current component
+   * instance, with a single request per form template. They are then used by
+   * {@link #getPublicationCompleteById(String, String)} instead of being fetched publication by
+   * publication.
+   * @param publications the publications to export.
+   */
+  public void preloadXMLFieldsForExport(Collection<PublicationDetail> publications) {
+    Map<String, List<String>> idsByTemplate = new HashMap<>();
+    for (PublicationDetail publication : publications) {
+      if (getCurrentComponentId().equals(publication.getPK().getInstanceId()) &&
+          StringUtil.isDefined(publication.getInfoId()) &&
+          !StringUtil.isInteger(publication.getInfoId())) {
+        MapUtil.putAddList(idsByTemplate, publication.getInfoId(), publication.getPK().getId());
+      }
+    }
+    idsByTemplate.forEach((infoId, ids) -> preloadedXMLFields.putAll(getFormTemplateService()
+        .getXMLFieldsForExport(getCurrentComponentId() + ":" + infoId, ids, null)));
+  }
+
   /**
    * Methode de recuperation de la publication complete utilisee pour l'exportation
    * @param pubId the publication identifier
@@ -774,9 +798,12 @@ public abstract class GEDImportExport extends ComponentImportExport {
       if (!StringUtil.isInteger(publicationDetail.getInfoId())) {
         // la publication a un contenu de type XMLTemplate (formTemplate)
         pubContent = new PublicationContentType();
-        List<XMLField> xmlFields = getFormTemplateService().getXMLFieldsForExport(
-            publicationDetail.getPK()
-                .getInstanceId() + ":" + publicationDetail.getInfoId(), pubId);
+        List<XMLField> xmlFields = preloadedXMLFields.remove(pubId);
+        if (xmlFields == null) {
+          xmlFields = getFormTemplateService().getXMLFieldsForExport(
+              publicationDetail.getPK()
+                  .getInstanceId() + ":" + publicationDetail.getInfoId(), pubId);
+        }
 
         XMLModelContentType xmlModel = new XMLModelContentType(publicationDetail.getInfoId());
         xmlModel.setFields(xmlFields);
@@ -738,6 +738,7 @@ public class ImportExport extends AbstractExportProcess {
         List<PublicationDetail> unbalancedPublications = PublicationImportExport.
             getUnbalancedPublications(componentId);
         String componentLabel = FileServerUtils.replaceAccentChars(componentInst.getLabel());
+        gedIE.preloadXMLFieldsForExport(unbalancedPublications);
         for (PublicationDetail pubDetail : unbalancedPublications) {
           PublicationType publicationType =
               gedIE.getPublicationCompleteById(String.valueOf(pubDetail.getId()), componentId);
@@ -833,11 +834,13 @@ public class ImportExport extends AbstractExportProcess {
         // Publications to export
         exportPath = fileExportDir.getPath();
         exportSummaryPath = exportPath;
+        Map<String, GEDImportExport> gedIEs = pubTypMgr.getGEDImportExports(userDetail,
+            itemsToExport);
         for (WAAttributeValuePair attValue : itemsToExport) {
           List<String> filesPositionsHTMLToFill = new ArrayList<>();
           String pubId = attValue.getName();
           componentId = attValue.getValue();
-          gedIE = ImportExportFactory.createGEDImportExport(userDetail, componentId);
+          gedIE = gedIEs.get(componentId);
           StringBuilder positionFileNameHTML = new StringBuilder();
 
           // Récupération du PublicationType
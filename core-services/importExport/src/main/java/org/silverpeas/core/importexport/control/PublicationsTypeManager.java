@@ -41,6 +41,7 @@ import org.silverpeas.core.contribution.content.wysiwyg.service.WysiwygControlle
 import org.silverpeas.core.contribution.publication.model.Location;
 import org.silverpeas.core.contribution.publication.model.PublicationDetail;
 import org.silverpeas.core.contribution.publication.model.PublicationPK;
+import org.silverpeas.core.contribution.publication.service.PublicationService;
 import org.silverpeas.core.importexport.attachment.AttachmentDetail;
 import org.silverpeas.core.importexport.attachment.AttachmentImportExport;
 import org.silverpeas.core.importexport.coordinates.CoordinateImportExport;
@@ -70,6 +71,7 @@ import org.silverpeas.core.pdc.pdc.importexport.PdcImportExport;
 import org.silverpeas.core.pdc.pdc.model.ClassifyPosition;
 import org.silverpeas.core.util.Charsets;
 import org.silverpeas.core.util.CollectionUtil;
+import org.silverpeas.core.util.MapUtil;
 import org.silverpeas.kernel.util.Pair;
 import org.silverpeas.kernel.util.StringUtil;
 import org.silverpeas.core.util.WAAttributeValuePair;
@@ -86,7 +88,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.io.File.separator;
 import static java.text.MessageFormat.format;
@@ -130,13 +135,14 @@ public class PublicationsTypeManager {
     List<PublicationType> listPubType = new ArrayList<>();
     String wysiwygText = null;
 
+    Map<String, GEDImportExport> gedIEs = getGEDImportExports(userDetail, listItemsToExport);
     // Parcours des publications à exporter
     for (WAAttributeValuePair attValue : listItemsToExport) {
       String pubId = attValue.getName();
       String componentId = attValue.getValue();
       ComponentInstLight componentInst = OrganizationControllerProvider.getOrganisationController()
           .getComponentInstLight(componentId);
-      GEDImportExport gedIE = ImportExportFactory.createGEDImportExport(userDetail, componentId);
+      GEDImportExport gedIE = gedIEs.get(componentId);
       // Récupération du PublicationType
       PublicationType publicationType = gedIE.getPublicationCompleteById(pubId, componentId);
       PublicationDetail publicationDetail = publicationType.getPublicationDetail();
@@ -491,17 +497,42 @@ public class PublicationsTypeManager {
     }
   }
 
+  /**
+   * Gets a GEDImportExport for each component instance of the given publications to export. The
+   * form fields of these publications are loaded at once by component instance and by form
+   * template instead of being fetched publication by publication during the export.
+   * @param userDetail the user performing the export.
+   * @param itemsToExport the publications to export as pairs (publication id, component id).
+   * @return the GEDImportExport indexed by component instance identifier.
+   */
+  Map<String, GEDImportExport> getGEDImportExports(UserDetail userDetail,
+      List<WAAttributeValuePair> itemsToExport) {
+    Map<String, List<PublicationPK>> pksByComponent = new LinkedHashMap<>();
+    for (WAAttributeValuePair item : itemsToExport) {
+      MapUtil.putAddList(pksByComponent, item.getValue(),
+          new PublicationPK(item.getName(), item.getValue()));
+    }
+    Map<String, GEDImportExport> gedIEs = new HashMap<>(pksByComponent.size());
+    pksByComponent.forEach((componentId, pks) -> {
+      GEDImportExport gedIE = ImportExportFactory.createGEDImportExport(userDetail, componentId);
+      gedIE.preloadXMLFieldsForExport(PublicationService.get().getPublications(pks));
+      gedIEs.put(componentId, gedIE);
+    });
+    return gedIEs;
+  }
+
   public List<AttachmentDetail> processPDFExport(ExportPDFReport exportReport,
       UserDetail userDetail, List<WAAttributeValuePair> listItemsToExport, String exportPath,
       boolean useNameForFolders, NodePK rootPK) throws ImportExportException, IOException {
     AttachmentImportExport attachmentIE = new AttachmentImportExport(userDetail);
     List<AttachmentDetail> result = new ArrayList<>();
 
+    Map<String, GEDImportExport> gedIEs = getGEDImportExports(userDetail, listItemsToExport);
     // Parcours des publications à exporter
     for (WAAttributeValuePair attValue : listItemsToExport) {
       String pubId = attValue.getName();
       String componentId = attValue.getValue();
-      GEDImportExport gedIE = ImportExportFactory.createGEDImportExport(userDetail, componentId);
+      GEDImportExport gedIE = gedIEs.get(componentId);
 
       // Récupération du PublicationType
       PublicationType publicationType = gedIE.getPublicationCompleteById(pubId, componentId);
@@ -0,0 +1,534 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.pdc.classification;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of the classification of the silver objects on the PdC axis. For each physical
+ * axis, it maps each value to the bitmap of the positions classified with it, so that the
+ * criteria of a PdC search are resolved by intersecting bitmaps instead of joining tables.
+ * <p>
+ * As with the SQL queries it replaces, all the criteria have to be satisfied by a same position
+ * and only the silver objects whose content is published in the given component instances, and
+ * optionally visible, are taken into account. The publication data of the contents are then
+ * kept along with the positions; the contents whose data are not known are reported by
+ * {@link #getObjectsWithUnknownContent()} so that they can be loaded before querying the index.
+ * </p>
+ * <p>
+ * The index is thread safe: the queries share a read lock whereas the updates take a write lock.
+ * A reload doesn't block the index: the data are loaded aside and then swapped in.
+ * </p>
+ */
+final class ClassificationIndex {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final int nbAxis;
+  private BitSet positions = new BitSet();
+  private Map<Integer, Integer> positionObjects = new HashMap<>();
+  private Map<Integer, String[]> positionValues = new HashMap<>();
+  private Map<Integer, BitSet> objectPositions = new HashMap<>();
+  private BitSet[] axisPositions;
+  private List<NavigableMap<String, BitSet>> axisValues;
+  private Map<Integer, Content> contents = new HashMap<>();
+  private Map<String, BitSet> componentObjects = new HashMap<>();
+  private BitSet unknownContents = new BitSet();
+  private long loadingTime = -1;
+  // the updates performed while the index is reloaded, to apply again on the reloaded data
+  private List<Runnable> updatesWhileReloading = null;
+
+  /**
+   * Constructs an empty index for the given number of physical axis.
+   * @param nbAxis the maximum number of axis handled by the classification engine.
+   */
+  ClassificationIndex(final int nbAxis) {
+    this.nbAxis = nbAxis;
+    this.axisPositions = new BitSet[nbAxis];
+    this.axisValues = new ArrayList<>(nbAxis);
+    for (int i = 0; i < nbAxis; i++) {
+      axisPositions[i] = new BitSet();
+      axisValues.add(new TreeMap<>());
+    }
+  }
+
+  /**
+   * Is this index loaded or being loaded? If not, it isn't worth to update it.
+   * @return true if the index was loaded or is being reloaded, false otherwise.
+   */
+  boolean isLoaded() {
+    return read(() -> loadingTime >= 0 || updatesWhileReloading != null);
+  }
+
+  /**
+   * Is this index loaded and not older than the given age?
+   * @param maxAgeMillis the maximum age in milliseconds of the index.
+   * @return true if the index can be used as such, false if it has to be (re)loaded.
+   */
+  boolean isUpToDate(final long maxAgeMillis) {
+    return read(() -> loadingTime >= 0 &&
+        System.currentTimeMillis() - loadingTime <= maxAgeMillis);
+  }
+
+  /**
+   * Replaces the data of the index by the ones provided by the given loader. The data are loaded
+   * into another index without locking this one, which keeps on serving its current data; they
+   * are then swapped in under the write lock. The updates performed meanwhile on this index are
+   * applied again on the loaded data so that none of them is lost.
+   * @param loader the loader of the positions and of the contents.
+   * @throws SQLException if the loading fails. The index is then left unchanged.
+   */
+  void reload(final Loader loader) throws SQLException {
+    lock.writeLock().lock();
+    try {
+      updatesWhileReloading = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    try {
+      final ClassificationIndex loaded = new ClassificationIndex(nbAxis);
+      loader.loadInto(loaded);
+      lock.writeLock().lock();
+      try {
+        swap(loaded);
+        loadingTime = System.currentTimeMillis();
+        final List<Runnable> updates = updatesWhileReloading;
+        updatesWhileReloading = null;
+        updates.forEach(Runnable::run);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      write(() -> updatesWhileReloading = null);
+    }
+  }
+
+  /**
+   * Empties the index. It will have to be reloaded before being used again.
+   */
+  void invalidate() {
+    write(this::clear);
+  }
+
+  /**
+   * Puts the given position into the index, replacing any previous one with the same identifier.
+   * @param positionId the unique identifier of the position.
+   * @param objectId the unique identifier of the classified silver object.
+   * @param values the value of the position on each physical axis, null if none.
+   */
+  void putPosition(final int positionId, final int objectId, final String[] values) {
+    write(() -> {
+      final Content content = contents.get(objectId);
+      unindexPosition(positionId);
+      if (content != null && !contents.containsKey(objectId)) {
+        indexContent(objectId, content);
+      }
+      final String[] copy = new String[nbAxis];
+      for (int axis = 0; axis < nbAxis && axis < values.length; axis++) {
+        copy[axis] = values[axis];
+        if (values[axis] != null) {
+          axisPositions[axis].set(positionId);
+          axisValues.get(axis).computeIfAbsent(values[axis], v -> new BitSet()).set(positionId);
+        }
+      }
+      positions.set(positionId);
+      positionObjects.put(positionId, objectId);
+      positionValues.put(positionId, copy);
+      objectPositions.computeIfAbsent(objectId, o -> new BitSet()).set(positionId);
+      if (!contents.containsKey(objectId)) {
+        unknownContents.set(objectId);
+      }
+    });
+  }
+
+  /**
+   * Removes the given position from the index.
+   * @param positionId the unique identifier of a position.
+   */
+  void removePosition(final int positionId) {
+    write(() -> unindexPosition(positionId));
+  }
+
+  /**
+   * Removes all the positions of the given silver object from the index.
+   * @param objectId the unique identifier of a silver object.
+   */
+  void removeObject(final int objectId) {
+    write(() -> {
+      final BitSet ofObject = objectPositions.get(objectId);
+      if (ofObject != null) {
+        ((BitSet) ofObject.clone()).stream().forEach(this::unindexPosition);
+      }
+    });
+  }
+
+  /**
+   * Replaces on the given physical axis the specified value by the new one for all the positions.
+   * The positions left without any value are removed, as done in the database.
+   * @param axis a physical axis.
+   * @param oldValue the value to replace. It must not be null.
+   * @param newValue the new value. Null to remove the value from the positions.
+   */
+  void replaceValue(final int axis, final String oldValue, final String newValue) {
+    write(() -> {
+      final BitSet replaced = axisValues.get(axis).remove(oldValue);
+      if (replaced == null) {
+        return;
+      }
+      if (newValue != null) {
+        axisValues.get(axis).computeIfAbsent(newValue, v -> new BitSet()).or(replaced);
+      } else {
+        axisPositions[axis].andNot(replaced);
+      }
+      replaced.stream().forEach(positionId -> {
+        final String[] values = positionValues.get(positionId);
+        values[axis] = newValue;
+        if (newValue == null && isEmpty(values)) {
+          unindexPosition(positionId);
+        }
+      });
+    });
+  }
+
+  /**
+   * Gets the silver objects classified in this index whose content isn't yet known.
+   * @return the unique identifiers of silver objects.
+   */
+  BitSet getObjectsWithUnknownContent() {
+    return read(() -> (BitSet) unknownContents.clone());
+  }
+
+  /**
+   * Sets the content of the given silver object.
+   * @param objectId the unique identifier of a silver object.
+   * @param componentId the identifier of the component instance in which the content is.
+   * @param beginDate the date, in the SQL format, at which the content is published.
+   * @param endDate the date, in the SQL format, at which the content isn't anymore published.
+   * @param visible is the content visible?
+   */
+  void putContent(final int objectId, final String componentId, final String beginDate,
+      final String endDate, final boolean visible) {
+    write(() -> {
+      unindexContent(objectId);
+      indexContent(objectId, new Content(componentId, beginDate, endDate, visible));
+      unknownContents.clear(objectId);
+    });
+  }
+
+  /**
+   * Marks the given silver object as having no content. Its positions are then never matched.
+   * @param objectId the unique identifier of a silver object.
+   */
+  void putNoContent(final int objectId) {
+    write(() -> {
+      unindexContent(objectId);
+      contents.put(objectId, null);
+      unknownContents.clear(objectId);
+    });
+  }
+
+  /**
+   * Forgets the content of the given silver object. It will be reported as unknown if the object
+   * is classified.
+   * @param objectId the unique identifier of a silver object.
+   */
+  void forgetContent(final int objectId) {
+    write(() -> {
+      unindexContent(objectId);
+      contents.remove(objectId);
+      if (objectPositions.containsKey(objectId)) {
+        unknownContents.set(objectId);
+      }
+    });
+  }
+
+  /**
+   * Finds the silver objects having at least one position matching all the given criteria.
+   * @param criteria the criteria on the physical axis. The criteria without value are ignored.
+   * @param instanceIds the component instances in which the contents have to be. Empty for all.
+   * @param today today in the SQL date format.
+   * @param recursive if true, a criterion matches also the values under the criterion value.
+   * @param visibilitySensitive if true, only the visible contents are taken into account.
+   * @return the bitmap of the matching silver objects.
+   */
+  BitSet findObjects(final List<? extends Criteria> criteria,
+      final Collection<String> instanceIds, final String today, final boolean recursive,
+      final boolean visibilitySensitive) {
+    return read(() -> {
+      final BitSet matching = matchPositions(criteria, recursive);
+      final BitSet eligible = getEligibleObjects(instanceIds, today, visibilitySensitive);
+      return toObjects(matching, eligible);
+    });
+  }
+
+  /**
+   * Counts the visible silver objects matching all the given criteria with a position having a
+   * value on the given axis.
+   * @param criteria the criteria on the physical axis. They are applied recursively.
+   * @param axis a physical axis.
+   * @param instanceIds the component instances in which the contents have to be. Empty for all.
+   * @param today today in the SQL date format.
+   * @return the number of distinct silver objects.
+   */
+  int countObjectsOnAxis(final List<? extends Criteria> criteria, final int axis,
+      final Collection<String> instanceIds, final String today) {
+    return read(() -> {
+      final BitSet matching = matchPositions(criteria, true);
+      matching.and(axisPositions[axis]);
+      return toObjects(matching, getEligibleObjects(instanceIds, today, true)).cardinality();
+    });
+  }
+
+  /**
+   * Counts, for each value of the given axis, the visible silver objects matching all the given
+   * criteria with a position having this value.
+   * @param criteria the criteria on the physical axis. They are applied recursively.
+   * @param axis a physical axis.
+   * @param instanceIds the component instances in which the contents have to be. Empty for all.
+   * @param today today in the SQL date format.
+   * @return the number of distinct silver objects per value, sorted by value. The values without
+   * any matching objects aren't in the map.
+   */
+  SortedMap<String, Integer> countObjectsByValue(final List<? extends Criteria> criteria,
+      final int axis, final Collection<String> instanceIds, final String today) {
+    return read(() -> {
+      final BitSet matching = matchPositions(criteria, true);
+      matching.and(axisPositions[axis]);
+      final BitSet eligible = getEligibleObjects(instanceIds, today, true);
+      final Map<String, BitSet> objectsByValue = new HashMap<>();
+      matching.stream().forEach(positionId -> {
+        final int objectId = positionObjects.get(positionId);
+        if (eligible.get(objectId)) {
+          final String value = positionValues.get(positionId)[axis];
+          objectsByValue.computeIfAbsent(value, v -> new BitSet()).set(objectId);
+        }
+      });
+      final SortedMap<String, Integer> counts = new TreeMap<>();
+      objectsByValue.forEach((value, objects) -> counts.put(value, objects.cardinality()));
+      return counts;
+    });
+  }
+
+  private BitSet matchPositions(final List<? extends Criteria> criteria,
+      final boolean recursive) {
+    final BitSet matching = (BitSet) positions.clone();
+    for (Criteria criterion : criteria) {
+      final String value = criterion.getValue();
+      if (value != null) {
+        matching.and(getPositionsWith(criterion.getAxisId(), value, recursive));
+      }
+    }
+    return matching;
+  }
+
+  private BitSet getPositionsWith(final int axis, final String value, final boolean recursive) {
+    final NavigableMap<String, BitSet> values = axisValues.get(axis);
+    if (!recursive) {
+      final BitSet exact = values.get(value);
+      return exact == null ? new BitSet() : exact;
+    }
+    final BitSet withPrefix = new BitSet();
+    for (Map.Entry<String, BitSet> entry : values.tailMap(value, true).entrySet()) {
+      if (!entry.getKey().startsWith(value)) {
+        break;
+      }
+      withPrefix.or(entry.getValue());
+    }
+    return withPrefix;
+  }
+
+  private BitSet getEligibleObjects(final Collection<String> instanceIds, final String today,
+      final boolean visibilitySensitive) {
+    final BitSet eligible = new BitSet();
+    if (instanceIds.isEmpty()) {
+      componentObjects.values().forEach(eligible::or);
+    } else {
+      for (String instanceId : instanceIds) {
+        final BitSet objects = componentObjects.get(instanceId);
+        if (objects != null) {
+          eligible.or(objects);
+        }
+      }
+    }
+    final BitSet unpublished = new BitSet();
+    eligible.stream()
+        .filter(objectId -> !contents.get(objectId).isPublished(today, visibilitySensitive))
+        .forEach(unpublished::set);
+    eligible.andNot(unpublished);
+    return eligible;
+  }
+
+  private BitSet toObjects(final BitSet matchingPositions, final BitSet eligibleObjects) {
+    final BitSet objects = new BitSet();
+    matchingPositions.stream().forEach(positionId -> {
+      final int objectId = positionObjects.get(positionId);
+      if (eligibleObjects.get(objectId)) {
+        objects.set(objectId);
+      }
+    });
+    return objects;
+  }
+
+  private void unindexPosition(final int positionId) {
+    final String[] values = positionValues.remove(positionId);
+    if (values == null) {
+      return;
+    }
+    for (int axis = 0; axis < nbAxis; axis++) {
+      if (values[axis] != null) {
+        axisPositions[axis].clear(positionId);
+        final BitSet withValue = axisValues.get(axis).get(values[axis]);
+        withValue.clear(positionId);
+        if (withValue.isEmpty()) {
+          axisValues.get(axis).remove(values[axis]);
+        }
+      }
+    }
+    positions.clear(positionId);
+    final int objectId = positionObjects.remove(positionId);
+    final BitSet ofObject = objectPositions.get(objectId);
+    ofObject.clear(positionId);
+    if (ofObject.isEmpty()) {
+      objectPositions.remove(objectId);
+      unindexContent(objectId);
+      contents.remove(objectId);
+      unknownContents.clear(objectId);
+    }
+  }
+
+  private void indexContent(final int objectId, final Content content) {
+    contents.put(objectId, content);
+    componentObjects.computeIfAbsent(content.componentId, c -> new BitSet()).set(objectId);
+  }
+
+  private void unindexContent(final int objectId) {
+    final Content content = contents.get(objectId);
+    if (content != null) {
+      final BitSet objects = componentObjects.get(content.componentId);
+      objects.clear(objectId);
+      if (objects.isEmpty()) {
+        componentObjects.remove(content.componentId);
+      }
+    }
+  }
+
+  private void swap(final ClassificationIndex loaded) {
+    positions = loaded.positions;
+    positionObjects = loaded.positionObjects;
+    positionValues = loaded.positionValues;
+    objectPositions = loaded.objectPositions;
+    axisPositions = loaded.axisPositions;
+    axisValues = loaded.axisValues;
+    contents = loaded.contents;
+    componentObjects = loaded.componentObjects;
+    unknownContents = loaded.unknownContents;
+  }
+
+  private void clear() {
+    positions.clear();
+    positionObjects.clear();
+    positionValues.clear();
+    objectPositions.clear();
+    for (int axis = 0; axis < nbAxis; axis++) {
+      axisPositions[axis].clear();
+      axisValues.get(axis).clear();
+    }
+    contents.clear();
+    componentObjects.clear();
+    unknownContents.clear();
+    loadingTime = -1;
+  }
+
+  private static boolean isEmpty(final String[] values) {
+    for (String value : values) {
+      if (value != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private <T> T read(final Supplier<T> query) {
+    lock.readLock().lock();
+    try {
+      return query.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void write(final Runnable update) {
+    lock.writeLock().lock();
+    try {
+      update.run();
+      if (updatesWhileReloading != null) {
+        updatesWhileReloading.add(update);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Loader of the positions and of the contents into an index.
+   */
+  @FunctionalInterface
+  interface Loader {
+    void loadInto(final ClassificationIndex index) throws SQLException;
+  }
+
+  /**
+   * The publication data of a content.
+   */
+  private static class Content {
+    private final String componentId;
+    private final String beginDate;
+    private final String endDate;
+    private final boolean visible;
+
+    private Content(final String componentId, final String beginDate, final String endDate,
+        final boolean visible) {
+      this.componentId = componentId;
+      this.beginDate = beginDate;
+      this.endDate = endDate;
+      this.visible = visible;
+    }
+
+    private boolean isPublished(final String today, final boolean visibilitySensitive) {
+      return beginDate != null && endDate != null && beginDate.compareTo(today) <= 0 &&
+          endDate.compareTo(today) >= 0 && (visible || !visibilitySensitive);
+    }
+  }
+}
@@ -25,6 +25,7 @@ package org.silverpeas.core.pdc.classification;
 
 import org.silverpeas.core.annotation.Service;
 import org.silverpeas.core.contribution.contentcontainer.content.SilverContentPostUpdate;
+import org.silverpeas.core.persistence.Transaction;
 import org.silverpeas.core.persistence.jdbc.DBUtil;
 import org.silverpeas.core.util.DateUtil;
 import org.silverpeas.core.util.JoinStatement;
@@ -41,11 +42,15 @@ import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 /**
  * This class represents the ClassifyEngine API It gives access to functions for classifying,
@@ -64,6 +69,14 @@ public class ClassifyEngine implements SilverContentPostUpdate {
   private int[] registeredAxis = null;
   // GetSinglePertinentAxis Cache
   private Map<String, PertinentAxis> singlePertinentAxis = new ConcurrentHashMap<>(0);
+  // In-memory index of the positions used to search and to count (null if disabled)
+  private ClassificationIndex classificationIndex = null;
+  // Only one thread at a time reloads the in-memory index
+  private final ReentrantLock classificationIndexReloading = new ReentrantLock();
+  // Maximum age in milliseconds of the in-memory index before being reloaded
+  private long classificationIndexMaxAge = 0;
+  // Maximum number of contents to load at once into the in-memory index
+  private static final int CONTENTS_LOADING_CHUNK = 500;
 
   private static ClassifyEngine getInstance() {
     return ServiceProvider.getService(ClassifyEngine.class);
@@ -76,6 +89,11 @@ public class ClassifyEngine implements SilverContentPostUpdate {
         ResourceLocator.getSettingBundle("org.silverpeas.classifyEngine.ClassifyEngine");
     String sMaxAxis = res.getString("MaxAxis");
     nbMaxAxis = Integer.parseInt(sMaxAxis);
+    int indexRefreshPeriod = res.getInteger("ClassificationIndexRefreshPeriod", 3600);
+    if (indexRefreshPeriod >= 0) {
+      classificationIndex = new ClassificationIndex(nbMaxAxis);
+      classificationIndexMaxAge = indexRefreshPeriod * 1000L;
+    }
     try {
       registeredAxis = loadRegisteredAxis();
     } catch (ClassifyEngineException e) {
@@ -98,6 +116,9 @@ public class ClassifyEngine implements SilverContentPostUpdate {
   @Override
   public void postSilverpeasContentUpdate(final int silverContentId) {
     clearCache();
+    if (classificationIndex != null) {
+      classificationIndex.forgetContent(silverContentId);
+    }
   }
 
   private static void clearCache() {
@@ -182,6 +203,7 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
       // Clear cache
       singlePertinentAxis.clear();
+      invalidateIndex();
 
       return alDeletedPositionIds;
     } catch (Exception e) {
@@ -326,6 +348,12 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
       // Clear cache
       singlePertinentAxis.clear();
+      String[] values = new String[nbMaxAxis];
+      for (Value value : alValues) {
+        values[value.getPhysicalAxisId()] = value.getValue();
+      }
+      updateIndexAfterCommit(() -> classificationIndex.putPosition(newPositionId, silverObjectId,
+          values));
 
       return newPositionId;
     } catch (Exception e) {
@@ -350,6 +378,7 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
       // Clear cache
       singlePertinentAxis.clear();
+      updateIndexAfterCommit(() -> classificationIndex.removeObject(nSilverObjectId));
     } catch (Exception e) {
       throw new ClassifyEngineException(e);
     }
@@ -372,6 +401,7 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
       // Clear cache
       singlePertinentAxis.clear();
+      updateIndexAfterCommit(() -> classificationIndex.removePosition(nPositionId));
     } catch (Exception e) {
       throw new ClassifyEngineException(e);
     }
@@ -403,6 +433,7 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
       // Clear cache
       singlePertinentAxis.clear();
+      reindexPosition(newPosition.getPositionId());
     } catch (Exception e) {
       throw new ClassifyEngineException(e);
     }
@@ -428,6 +459,7 @@ public class ClassifyEngine implements SilverContentPostUpdate {
         // Clear cache
         singlePertinentAxis.clear();
       }
+      reindexObject(nSilverObjectId);
     } catch (Exception e) {
       throw new ClassifyEngineException(e);
     }
@@ -442,6 +474,12 @@ public class ClassifyEngine implements SilverContentPostUpdate {
       boolean visibilitySensitive) throws ClassifyEngineException {
     final List<Integer> allObjectIds = new ArrayList<>();
     final List<Criteria> allCriteria = buildCriteriaOnAxis(alGivenCriterias);
+    final ClassificationIndex index =
+        isOnContentsOnly(joinStatementContent) ? getUpToDateIndex() : null;
+    if (index != null) {
+      return index.findObjects(allCriteria, instanceIds, DateUtil.today2SQLDate(), recursiveSearch,
+          visibilitySensitive).stream().boxed().collect(Collectors.toList());
+    }
     try (final Connection connection = DBUtil.openConnection()) {
       String today = DateUtil.today2SQLDate();
 
@@ -636,6 +674,7 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
       // Clear cache
       singlePertinentAxis.clear();
+      replaceValuesInIndex(oldValue, newValue);
     } catch (Exception e) {
       throw new ClassifyEngineException(e);
     }
@@ -689,6 +728,21 @@ public class ClassifyEngine implements SilverContentPostUpdate {
     // Convert the Axis Ids
     List<Criteria> alCriterias = buildCriteriaOnAxis(alGivenCriterias);
 
+    final ClassificationIndex index = getUpToDateIndex();
+    if (index != null) {
+      String today = DateUtil.today2SQLDate();
+      List<PertinentAxis> alPertinentAxis = new ArrayList<>(alAxisIds.size());
+      for (Integer alAxisId : alAxisIds) {
+        PertinentAxis pertinentAxis = new PertinentAxis();
+        pertinentAxis.setAxisId(alAxisId);
+        pertinentAxis.setNbObjects(index.countObjectsOnAxis(alCriterias,
+            this.getPhysicalAxisId(alAxisId), instanceIds, today));
+        pertinentAxis.setRootValue("");
+        alPertinentAxis.add(pertinentAxis);
+      }
+      return alPertinentAxis;
+    }
+
     try (final Connection connection = DBUtil.openConnection()) {
 
       String today = DateUtil.today2SQLDate();
@@ -755,6 +809,21 @@ public class ClassifyEngine implements SilverContentPostUpdate {
 
     // Convert the Axis Ids
     final List<Criteria> alCriterias = buildCriteriaOnAxis(alGivenCriterias);
+
+    final ClassificationIndex index = getUpToDateIndex();
+    if (index != null) {
+      List<PertinentValue> alPertinentValues = new ArrayList<>();
+      index.countObjectsByValue(alCriterias, this.getPhysicalAxisId(nLogicalAxisId), instanceIds,
+          DateUtil.today2SQLDate()).forEach((value, nbObjects) -> {
+        PertinentValue pValue = new PertinentValue();
+        pValue.setAxisId(nLogicalAxisId);
+        pValue.setNbObjects(nbObjects);
+        pValue.setValue(value);
+        alPertinentValues.add(pValue);
+      });
+      return alPertinentValues;
+    }
+
     try (Connection connection = DBUtil.openConnection()) {
 
       String today = DateUtil.today2SQLDate();
@@ -821,6 +890,181 @@ public class ClassifyEngine implements SilverContentPostUpdate {
     }
   }
 
+  // Is the in-memory index loaded and then to be kept in sync with the database?
+  private boolean isIndexLoaded() {
+    return classificationIndex != null && classificationIndex.isLoaded();
+  }
+
+  // Empty the in-memory index; it will be reloaded at the next search
+  private void invalidateIndex() {
+    if (classificationIndex != null) {
+      classificationIndex.invalidate();
+    }
+  }
+
+  // Can the join statement be satisfied by the in-memory index?
+  private static boolean isOnContentsOnly(final JoinStatement joinStatement) {
+    return "SB_ContentManager_Content".equalsIgnoreCase(joinStatement.getTable(0)) &&
+        "silverContentId".equalsIgnoreCase(joinStatement.getJoinKey(0)) &&
+        !StringUtil.isDefined(joinStatement.getWhere());
+  }
+
+  /*
+   * Return the in-memory index ready to be queried, (re)loading it if it is too old and loading
+   * the contents of the recently classified objects. An index too old is still queried by the
+   * other threads while one of them reloads it; only an empty index makes them wait for the
+   * loading. Return null if the index is disabled or if it cannot be loaded, in which case the
+   * SQL queries have to be used.
+   */
+  private ClassificationIndex getUpToDateIndex() {
+    if (classificationIndex == null) {
+      return null;
+    }
+    try {
+      if (!classificationIndex.isUpToDate(classificationIndexMaxAge)) {
+        if (classificationIndex.isUpToDate(Long.MAX_VALUE)) {
+          if (classificationIndexReloading.tryLock()) {
+            reloadIndex();
+          }
+        } else {
+          classificationIndexReloading.lock();
+          reloadIndex();
+        }
+      }
+      BitSet unknownContents = classificationIndex.getObjectsWithUnknownContent();
+      if (!unknownContents.isEmpty()) {
+        loadContentsInIndex(unknownContents.stream().boxed().collect(Collectors.toList()));
+      }
+      return classificationIndex;
+    } catch (SQLException e) {
+      SilverLogger.getLogger(this).error(e);
+      classificationIndex.invalidate();
+      return null;
+    }
+  }
+
+  // Reload the in-memory index if still too old and release the reloading lock held by the caller
+  private void reloadIndex() throws SQLException {
+    try {
+      if (!classificationIndex.isUpToDate(classificationIndexMaxAge)) {
+        classificationIndex.reload(this::loadIndex);
+      }
+    } finally {
+      classificationIndexReloading.unlock();
+    }
+  }
+
+  // Load all the positions and the classified contents into the given index
+  private void loadIndex(final ClassificationIndex index) throws SQLException {
+    try (final Connection connection = DBUtil.openConnection()) {
+      try (final PreparedStatement prepStmt =
+               connection.prepareStatement(sqlStatement.buildLoadAllPositionsStatement());
+           final ResultSet resSet = prepStmt.executeQuery()) {
+        while (resSet.next()) {
+          index.putPosition(resSet.getInt(1), resSet.getInt(2), readAxisValues(resSet));
+        }
+      }
+      try (final PreparedStatement prepStmt =
+               connection.prepareStatement(sqlStatement.buildLoadClassifiedContentsStatement());
+           final ResultSet resSet = prepStmt.executeQuery()) {
+        putContentsInIndex(index, resSet);
+      }
+      index.getObjectsWithUnknownContent().stream().forEach(index::putNoContent);
+    }
+  }
+
+  // Load the contents of the given silver objects into the in-memory index
+  private void loadContentsInIndex(final List<Integer> silverObjectIds) throws SQLException {
+    try (final Connection connection = DBUtil.openConnection()) {
+      for (int i = 0; i < silverObjectIds.size(); i += CONTENTS_LOADING_CHUNK) {
+        List<Integer> chunk =
+            silverObjectIds.subList(i, Math.min(i + CONTENTS_LOADING_CHUNK, silverObjectIds.size()));
+        try (final PreparedStatement prepStmt =
+                 connection.prepareStatement(sqlStatement.buildLoadContentsStatement(chunk));
+             final ResultSet resSet = prepStmt.executeQuery()) {
+          BitSet loaded = putContentsInIndex(classificationIndex, resSet);
+          chunk.stream().filter(id -> !loaded.get(id)).forEach(classificationIndex::putNoContent);
+        }
+      }
+    }
+  }
+
+  private static BitSet putContentsInIndex(final ClassificationIndex index, final ResultSet resSet)
+      throws SQLException {
+    BitSet loaded = new BitSet();
+    while (resSet.next()) {
+      int silverObjectId = resSet.getInt(1);
+      index.putContent(silverObjectId, resSet.getString(2), resSet.getString(3),
+          resSet.getString(4), resSet.getInt(5) == 1);
+      loaded.set(silverObjectId);
+    }
+    return loaded;
+  }
+
+  // Apply the given change to the in-memory index once the current transaction is committed, so
+  // that the index never exposes a classification that is finally rolled back
+  private void updateIndexAfterCommit(final Runnable change) {
+    Transaction.performAfterCommit(() -> {
+      if (isIndexLoaded()) {
+        change.run();
+      }
+    });
+  }
+
+  // Reload the given position into the in-memory index from the database
+  private void reindexPosition(final int nPositionId) {
+    updateIndexAfterCommit(() -> {
+      classificationIndex.removePosition(nPositionId);
+      reindexPositions(sqlStatement.buildFindByPositionIdStatement(nPositionId));
+    });
+  }
+
+  // Reload the positions of the given silver object into the in-memory index from the database
+  private void reindexObject(final int nSilverObjectId) {
+    updateIndexAfterCommit(() -> {
+      classificationIndex.removeObject(nSilverObjectId);
+      reindexPositions(sqlStatement.buildFindBySilverObjectIdStatement(nSilverObjectId));
+    });
+  }
+
+  // The positions are read with a new connection as they are reindexed after the commit
+  private void reindexPositions(final String sSQLStatement) {
+    try (final Connection connection = DBUtil.openConnection();
+         final PreparedStatement prepStmt = connection.prepareStatement(sSQLStatement);
+         final ResultSet resSet = prepStmt.executeQuery()) {
+      while (resSet.next()) {
+        classificationIndex.putPosition(resSet.getInt(1), resSet.getInt(2),
+            readAxisValues(resSet));
+      }
+    } catch (SQLException e) {
+      SilverLogger.getLogger(this).warn(e);
+      classificationIndex.invalidate();
+    }
+  }
+
+  // Replace in the in-memory index the values as done in the database
+  private void replaceValuesInIndex(final List<Value> oldValues, final List<Value> newValues) {
+    updateIndexAfterCommit(() -> {
+      for (int nI = 0; nI < oldValues.size(); nI++) {
+        Value oldV = oldValues.get(nI);
+        if (oldV.getValue() == null) {
+          classificationIndex.invalidate();
+          return;
+        }
+        classificationIndex.replaceValue(oldV.getAxisId(), oldV.getValue(),
+            newValues.get(nI).getValue());
+      }
+    });
+  }
+
+  private String[] readAxisValues(final ResultSet resSet) throws SQLException {
+    String[] values = new String[nbMaxAxis];
+    for (int nI = 0; nI < nbMaxAxis; nI++) {
+      values[nI] = resSet.getString(3 + nI);
+    }
+    return values;
+  }
+
   /**
    * Get axis on which some informations are classified according to given list
    * @param instanceIds a List of component ids
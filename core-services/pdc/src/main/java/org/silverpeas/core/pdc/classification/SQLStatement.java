@@ -26,7 +26,9 @@ package org.silverpeas.core.pdc.classification;
 import org.silverpeas.core.util.JoinStatement;
 import org.silverpeas.kernel.util.StringUtil;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 class SQLStatement {
 
@@ -307,6 +309,36 @@ class SQLStatement {
         nSilverObjectId + ")";
   }
 
+  // Build the SQL statement to find the position with the given identifier
+  public String buildFindByPositionIdStatement(int nPositionId) {
+    return "SELECT * FROM " + CLASSIFICATION_TABLE +
+        WHERE + "(" + POSITION_ID_COLUMN + "=" +
+        nPositionId + ")";
+  }
+
+  // Build the SQL statement to load all the positions
+  public String buildLoadAllPositionsStatement() {
+    return "SELECT * FROM " + CLASSIFICATION_TABLE;
+  }
+
+  // Build the SQL statement to load the publication data of all the classified contents
+  public String buildLoadClassifiedContentsStatement() {
+    return buildLoadContentsStatement() + AND + "CMC.silverContentId IN (SELECT " +
+        SILVEROBJECT_ID_COLUMN + FROM + CLASSIFICATION_TABLE + ")";
+  }
+
+  // Build the SQL statement to load the publication data of the given contents
+  public String buildLoadContentsStatement(Collection<Integer> silverObjectIds) {
+    return buildLoadContentsStatement() + AND + "CMC.silverContentId IN (" +
+        silverObjectIds.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")";
+  }
+
+  private static String buildLoadContentsStatement() {
+    return SELECT + "CMC.silverContentId, CMI.componentId, CMC.beginDate, CMC.endDate, " +
+        "CMC.isVisible" + FROM + INSTANCES_TABLE + " CMI, SB_ContentManager_Content CMC" + WHERE +
+        "CMC.contentInstanceId = CMI.instanceId";
+  }
+
   // Remove the values on all the positions of the given axis
   public String buildRemoveAllPositionValuesStatement(int nAxisId) {
     return UPDATE + CLASSIFICATION_TABLE + SET +
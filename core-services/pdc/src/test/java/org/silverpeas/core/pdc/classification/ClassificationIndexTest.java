@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.pdc.classification;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests on the in-memory index of the PdC classification.
+ */
+class ClassificationIndexTest {
+
+  private static final String TODAY = "2024/06/15";
+  private static final List<String> ALL_INSTANCES = List.of();
+
+  private ClassificationIndex index;
+
+  @BeforeEach
+  void loadIndex() throws Exception {
+    index = new ClassificationIndex(3);
+    index.reload(i -> {
+      i.putPosition(1, 10, new String[]{"/0/1/", "/0/5/", null});
+      i.putPosition(2, 10, new String[]{"/0/2/", null, null});
+      i.putPosition(3, 11, new String[]{"/0/1/3/", "/0/6/", null});
+      i.putPosition(4, 12, new String[]{"/0/1/", null, "/0/7/"});
+      i.putPosition(5, 13, new String[]{"/0/1/", "/0/5/", null});
+      i.putContent(10, "kmelia1", "0000/00/00", "9999/99/99", true);
+      i.putContent(11, "kmelia1", "0000/00/00", "9999/99/99", true);
+      i.putContent(12, "kmelia2", "0000/00/00", "9999/99/99", false);
+      i.putContent(13, "kmelia2", "2030/01/01", "9999/99/99", true);
+    });
+  }
+
+  @Test
+  void criteriaHaveToBeMatchedByASamePosition() {
+    BitSet objects = index.findObjects(
+        List.of(new Criteria(0, "/0/2/"), new Criteria(1, "/0/5/")), ALL_INSTANCES, TODAY, true,
+        false);
+    assertThat(objects.isEmpty(), is(true));
+
+    objects = index.findObjects(List.of(new Criteria(0, "/0/1/"), new Criteria(1, "/0/5/")),
+        ALL_INSTANCES, TODAY, true, false);
+    assertThat(objects, is(bitsOf(10)));
+  }
+
+  @Test
+  void recursiveSearchMatchesTheSubValues() {
+    List<Criteria> criteria = List.of(new Criteria(0, "/0/1/"));
+    assertThat(index.findObjects(criteria, ALL_INSTANCES, TODAY, true, false),
+        is(bitsOf(10, 11, 12)));
+    assertThat(index.findObjects(criteria, ALL_INSTANCES, TODAY, false, false),
+        is(bitsOf(10, 12)));
+    assertThat(index.findObjects(criteria, ALL_INSTANCES, TODAY, true, true), is(bitsOf(10, 11)));
+    assertThat(index.findObjects(criteria, List.of("kmelia2"), TODAY, true, false),
+        is(bitsOf(12)));
+  }
+
+  @Test
+  void countsAreOnDistinctVisibleObjects() {
+    assertThat(index.countObjectsOnAxis(List.of(), 0, ALL_INSTANCES, TODAY), is(2));
+    assertThat(index.countObjectsOnAxis(List.of(new Criteria(0, "/0/1/")), 1, ALL_INSTANCES,
+        TODAY), is(2));
+    assertThat(index.countObjectsByValue(List.of(), 0, ALL_INSTANCES, TODAY),
+        is(Map.of("/0/1/", 1, "/0/1/3/", 1, "/0/2/", 1)));
+  }
+
+  @Test
+  void updatesAreTakenIntoAccount() {
+    index.removeObject(11);
+    index.putPosition(6, 14, new String[]{"/0/1/", null, null});
+    assertThat(index.getObjectsWithUnknownContent(), is(bitsOf(14)));
+    index.putContent(14, "kmelia1", "0000/00/00", "9999/99/99", true);
+    assertThat(index.findObjects(List.of(new Criteria(0, "/0/1/")), ALL_INSTANCES, TODAY, true,
+        true), is(bitsOf(10, 14)));
+
+    index.replaceValue(0, "/0/2/", "/0/3/");
+    assertThat(index.findObjects(List.of(new Criteria(0, "/0/3/")), ALL_INSTANCES, TODAY, true,
+        true), is(bitsOf(10)));
+
+    index.replaceValue(1, "/0/5/", null);
+    index.removePosition(2);
+    assertThat(index.countObjectsOnAxis(List.of(), 1, ALL_INSTANCES, TODAY), is(0));
+    assertThat(index.countObjectsOnAxis(List.of(), 0, ALL_INSTANCES, TODAY), is(2));
+
+    index.forgetContent(10);
+    assertThat(index.getObjectsWithUnknownContent(), is(bitsOf(10)));
+  }
+
+  @Test
+  void theCurrentDataAreServedWhileReloading() throws Exception {
+    index.reload(i -> {
+      assertThat(index.isUpToDate(Long.MAX_VALUE), is(true));
+      assertThat(index.findObjects(List.of(new Criteria(0, "/0/2/")), ALL_INSTANCES, TODAY, true,
+          false), is(bitsOf(10)));
+      i.putPosition(1, 20, new String[]{"/0/2/", null, null});
+      i.putContent(20, "kmelia1", "0000/00/00", "9999/99/99", true);
+    });
+    assertThat(index.findObjects(List.of(new Criteria(0, "/0/2/")), ALL_INSTANCES, TODAY, true,
+        false), is(bitsOf(20)));
+    assertThat(index.findObjects(List.of(new Criteria(0, "/0/1/")), ALL_INSTANCES, TODAY, true,
+        false).isEmpty(), is(true));
+  }
+
+  @Test
+  void theUpdatesPerformedWhileReloadingAreKept() throws Exception {
+    index.reload(i -> {
+      i.putPosition(1, 10, new String[]{"/0/1/", null, null});
+      i.putPosition(2, 11, new String[]{"/0/1/", null, null});
+      i.putContent(10, "kmelia1", "0000/00/00", "9999/99/99", true);
+      i.putContent(11, "kmelia1", "0000/00/00", "9999/99/99", true);
+      assertThat(index.isLoaded(), is(true));
+      index.removeObject(11);
+      index.putPosition(3, 12, new String[]{"/0/1/", null, null});
+      index.putContent(12, "kmelia1", "0000/00/00", "9999/99/99", true);
+    });
+    assertThat(index.findObjects(List.of(new Criteria(0, "/0/1/")), ALL_INSTANCES, TODAY, true,
+        false), is(bitsOf(10, 12)));
+    assertThat(index.getObjectsWithUnknownContent().isEmpty(), is(true));
+  }
+
+  @Test
+  void aFailedReloadLeavesTheIndexUnchanged() {
+    assertThrows(SQLException.class, () -> index.reload(i -> {
+      i.putPosition(1, 20, new String[]{"/0/2/", null, null});
+      throw new SQLException("connection lost");
+    }));
+    assertThat(index.findObjects(List.of(new Criteria(0, "/0/1/")), ALL_INSTANCES, TODAY, true,
+        false), is(bitsOf(10, 11, 12)));
+  }
+
+  private static BitSet bitsOf(final int... bits) {
+    BitSet bitSet = new BitSet();
+    for (int bit : bits) {
+      bitSet.set(bit);
+    }
+    return bitSet;
+  }
+}
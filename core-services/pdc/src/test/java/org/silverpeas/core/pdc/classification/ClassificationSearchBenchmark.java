@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.pdc.classification;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.silverpeas.core.util.JoinStatement;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark comparing the search of the contents classified on the PdC with the in-memory
+ * {@link ClassificationIndex} and with the SQL query the {@link ClassifyEngine} runs when the
+ * index isn't available. The SQL query is run against an in-memory H2 database, so it is a lower
+ * bound of the cost of the SQL path as no network round-trip is counted.
+ * <p>
+ * It isn't run with the unit tests; launch it with the {@link #main(String[])} method.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassificationSearchBenchmark {
+
+  private static final int NB_AXIS = 3;
+  private static final int NB_INSTANCES = 20;
+  private static final String TODAY = "2024/06/15";
+
+  @Param({"1000", "10000", "100000"})
+  private int nbPositions;
+
+  private Connection connection;
+  private ClassificationIndex index;
+  private String sqlQuery;
+  private final List<Criteria> criteria =
+      List.of(new Criteria(0, "/0/1/"), new Criteria(1, "/0/5/"));
+  private final List<String> instanceIds = List.of("kmelia1", "kmelia2", "kmelia3");
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ClassificationSearchBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup(Level.Trial)
+  public void createClassification() throws SQLException {
+    connection = DriverManager.getConnection(
+        "jdbc:h2:mem:classification-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE SB_ClassifyEngine_Classify (PositionId int NOT NULL, " +
+          "ObjectId int NOT NULL, Axis0 varchar(150), Axis1 varchar(150), Axis2 varchar(150))");
+      statement.execute("CREATE TABLE SB_ContentManager_Instance (instanceId int NOT NULL, " +
+          "componentId varchar(100) NOT NULL)");
+      statement.execute("CREATE TABLE SB_ContentManager_Content (silverContentId int NOT NULL, " +
+          "contentInstanceId int NOT NULL, beginDate varchar(10), endDate varchar(10), " +
+          "isVisible int)");
+      statement.execute("CREATE INDEX IN_ClassifyEngine_Object ON SB_ClassifyEngine_Classify " +
+          "(ObjectId)");
+      statement.execute("CREATE INDEX IN_ContentManager_Content ON SB_ContentManager_Content " +
+          "(silverContentId)");
+    }
+    final int nbObjects = nbPositions / 2;
+    final List<String[]> positions = new ArrayList<>(nbPositions);
+    for (int p = 0; p < nbPositions; p++) {
+      positions.add(new String[]{"/0/" + (p % 10) + "/" + (p % 7) + "/", "/0/" + (p % 6) + "/",
+          p % 3 == 0 ? null : "/0/" + (p % 4) + "/"});
+    }
+    insertClassification(positions, nbObjects);
+    index = new ClassificationIndex(NB_AXIS);
+    index.reload(i -> {
+      for (int p = 0; p < nbPositions; p++) {
+        i.putPosition(p, p % nbObjects, positions.get(p));
+      }
+      for (int o = 0; o < nbObjects; o++) {
+        i.putContent(o, "kmelia" + (o % NB_INSTANCES), "0000/00/00", "9999/99/99", o % 9 != 0);
+      }
+    });
+    final JoinStatement contents = new JoinStatement();
+    contents.setTables(List.of("SB_ContentManager_Content"));
+    contents.setJoinKeys(List.of("silverContentId"));
+    sqlQuery = new SQLStatement().buildFindByCriteriasStatementByJoin(criteria, instanceIds,
+        contents, TODAY, true, true);
+  }
+
+  @TearDown(Level.Trial)
+  public void dropClassification() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP ALL OBJECTS");
+    }
+    connection.close();
+  }
+
+  @Benchmark
+  public BitSet searchWithTheInMemoryIndex() {
+    return index.findObjects(criteria, instanceIds, TODAY, true, true);
+  }
+
+  @Benchmark
+  public List<Integer> searchWithSQL() throws SQLException {
+    final List<Integer> objectIds = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(sqlQuery);
+         ResultSet resSet = statement.executeQuery()) {
+      while (resSet.next()) {
+        objectIds.add(resSet.getInt(1));
+      }
+    }
+    return objectIds;
+  }
+
+  private void insertClassification(final List<String[]> positions, final int nbObjects)
+      throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO SB_ClassifyEngine_Classify VALUES (?, ?, ?, ?, ?)")) {
+      for (int p = 0; p < positions.size(); p++) {
+        statement.setInt(1, p);
+        statement.setInt(2, p % nbObjects);
+        for (int a = 0; a < NB_AXIS; a++) {
+          statement.setString(3 + a, positions.get(p)[a]);
+        }
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO SB_ContentManager_Instance VALUES (?, ?)")) {
+      for (int i = 0; i < NB_INSTANCES; i++) {
+        statement.setInt(1, i);
+        statement.setString(2, "kmelia" + i);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+    try (PreparedStatement statement = connection.prepareStatement(
+        "INSERT INTO SB_ContentManager_Content VALUES (?, ?, ?, ?, ?)")) {
+      for (int o = 0; o < nbObjects; o++) {
+        statement.setInt(1, o);
+        statement.setInt(2, o % NB_INSTANCES);
+        statement.setString(3, "0000/00/00");
+        statement.setString(4, "9999/99/99");
+        statement.setInt(5, o % 9 != 0 ? 1 : 0);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+  }
+}
@@ -129,4 +129,35 @@ public class ViewerSettings {
   public static int nbMaxConversionsAtSameInstant() {
     return settings.getInteger("viewer.conversion.nb.max", 3);
   }
+
+  /**
+   * Indicates if the documents are converted ahead of time, as soon as they are attached or
+   * updated, so that they are already in the cache when a user asks for their view or preview.
+   * <br>
+   * The cache must be enabled.
+   * @return true if enabled and if {@link #isCacheEnabled()} returns true, false otherwise.
+   */
+  public static boolean isPreConversionEnabled() {
+    return isCacheEnabled() && settings.getBoolean("viewer.preconversion.enabled", false);
+  }
+
+  /**
+   * Maximum number of ahead of time conversions performed at a same instant. They share anyway
+   * the conversion slots bounded by {@link #nbMaxConversionsAtSameInstant()} with the
+   * interactive conversions which have the priority.
+   * @return a primitive integer greater than 0.
+   */
+  public static int nbMaxPreConversionsAtSameInstant() {
+    return Math.max(1, settings.getInteger("viewer.preconversion.nb.max", 1));
+  }
+
+  /**
+   * Gets the maximum size of the conversions kept in the cache. Beyond it, the least recently
+   * used conversions are evicted from the cache.
+   * @return the maximum size in bytes, 0 or a negative value if the size of the cache isn't
+   * bounded.
+   */
+  public static long getCacheMaxSize() {
+    return isCacheEnabled() ? settings.getLong("viewer.cache.size.max", 0L) * 1024L * 1024L : 0L;
+  }
 }
@@ -33,6 +33,9 @@ import org.silverpeas.core.viewer.model.ViewerSettings;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
@@ -53,10 +56,29 @@ public abstract class AbstractViewerService {
 
   private static final Object OBJECT_FOR_SYNC = new Object();
   private static final ConcurrentMap<String, Object> cache = new ConcurrentHashMap<>();
+  // Number of executions currently working on each workspace, by workspace root path
+  private static final Map<String, Integer> workspacesInUse = new HashMap<>();
 
-  private static final Object EXECUTION_SEM_MUTEX = new Object();
-  private static int executionSemCount = nbMaxConversionsAtSameInstant();
-  private static final Semaphore EXECUTION_SEM = new Semaphore(executionSemCount);
+  private static final ConversionPermits CONVERSION_PERMITS =
+      new ConversionPermits(nbMaxConversionsAtSameInstant());
+
+  private static final Set<String> processNames = ConcurrentHashMap.newKeySet();
+  private static final ConversionCacheEvictor CACHE_EVICTOR =
+      new ConversionCacheEvictor(ViewerSettings::getCacheMaxSize, () -> processNames,
+          AbstractViewerService::removeIfNotInUse);
+
+  /**
+   * Removes the given workspace of the cache if no conversion is currently working on it.
+   * @param workspace a workspace of the cache.
+   * @return true if the workspace has been removed, false otherwise.
+   */
+  private static boolean removeIfNotInUse(final TemporaryWorkspaceTranslation workspace) {
+    synchronized (OBJECT_FOR_SYNC) {
+      final String rootPath = workspace.getRootPath().getPath();
+      return !cache.containsKey(rootPath) && !workspacesInUse.containsKey(rootPath) &&
+          workspace.remove();
+    }
+  }
 
   /**
    * Generates a temporary file.
@@ -133,85 +155,100 @@ public abstract class AbstractViewerService {
     private ViewerProcess(final String processName, final ViewerTreatment<R> viewerTreatment) {
       this.processName = processName;
       this.viewerTreatment = viewerTreatment;
+      processNames.add(processName);
     }
 
     /**
      * Initializes the treatment and returns a semaphore in order to handle concurrency processes
-     * working on same resource.
+     * working on same resource. The returned workspace is marked as in use, whether its
+     * conversion is to be performed or is got from the cache, so that it cannot be evicted from
+     * the cache until the end of the execution.
      * @param viewerContext the context of current view processing.
      * @return a pair of {@link TemporaryWorkspaceTranslation} and {@link Semaphore}.
      */
     private Pair<TemporaryWorkspaceTranslation, Semaphore> initialize(ViewerContext viewerContext) {
       synchronized (OBJECT_FOR_SYNC) {
-        final String workspaceCacheKey = CACHE_WORKSPACE_KEY_PREFIX + viewerContext.getViewId();
-        getLogger(this).debug(
-            () -> format("initializing workspace of view context {0}", viewerContext.getViewId()));
-        final TemporaryWorkspaceTranslation workspace =
-            (TemporaryWorkspaceTranslation) cache.computeIfAbsent(workspaceCacheKey,
-                k -> viewerContext.getWorkspace());
+        final Pair<TemporaryWorkspaceTranslation, Semaphore> init =
+            initializeWorkspace(viewerContext);
+        workspacesInUse.merge(init.getKey().getRootPath().getPath(), 1, Integer::sum);
+        return init;
+      }
+    }
 
-        // If the workspace already exists, then retrieving the semaphore of a working process if
-        // any, creating a new one otherwise (in the second case and for a same resource, a request
-        // will never wait for the end of an other).
-        if (workspace.exists()) {
-          getLogger(this).debug(() -> format("workspace of view context {0} exists already",
-              viewerContext.getViewId()));
+    private Pair<TemporaryWorkspaceTranslation, Semaphore> initializeWorkspace(
+        ViewerContext viewerContext) {
+      final String workspaceCacheKey = CACHE_WORKSPACE_KEY_PREFIX + viewerContext.getViewId();
+      getLogger(this).debug(
+          () -> format("initializing workspace of view context {0}", viewerContext.getViewId()));
+      final TemporaryWorkspaceTranslation workspace =
+          (TemporaryWorkspaceTranslation) cache.computeIfAbsent(workspaceCacheKey,
+              k -> viewerContext.getWorkspace());
 
-          if (!workspace.isWorkInProgress() && workspace.empty()) {
-            // If workspace is empty, something is wrong and the workspace must be removed to be
-            // again created.
-            getLogger(this).debug(
-                () -> format("workspace is empty for view context {0}, create it again",
-                    viewerContext.getViewId()));
-            workspace.remove();
-          } else if (workspace.lastModified() >=
-              viewerContext.getOriginalSourceFile().lastModified()) {
-            // If the original resource has not changed since the last conversion, then getting the
-            // converted data that exist already.
-            Semaphore currentProcessing = (Semaphore) cache.get(workspace.getRootPath().getPath());
-            if (currentProcessing != null) {
-              getLogger(this).debug(() -> format("semaphore exists already for view context {0}",
+      // If the workspace already exists, then retrieving the semaphore of a working process if
+      // any, creating a new one otherwise (in the second case and for a same resource, a request
+      // will never wait for the end of an other).
+      if (workspace.exists()) {
+        getLogger(this).debug(() -> format("workspace of view context {0} exists already",
+            viewerContext.getViewId()));
+
+        if (!workspace.isWorkInProgress() && workspace.empty()) {
+          // If workspace is empty, something is wrong and the workspace must be removed to be
+          // again created.
+          getLogger(this).debug(
+              () -> format("workspace is empty for view context {0}, create it again",
                   viewerContext.getViewId()));
-              return Pair.of(workspace, currentProcessing);
-            }
+          workspace.remove();
+        } else if (workspace.lastModified() >=
+            viewerContext.getOriginalSourceFile().lastModified()) {
+          // If the original resource has not changed since the last conversion, then getting the
+          // converted data that exist already.
+          Semaphore currentProcessing = (Semaphore) cache.get(workspace.getRootPath().getPath());
+          if (currentProcessing != null) {
+            getLogger(this).debug(() -> format("semaphore exists already for view context {0}",
+                viewerContext.getViewId()));
+            return Pair.of(workspace, currentProcessing);
+          }
 
-            // At this level, if no data is in cache, so the server has been killed or an
-            // exception has been thrown in a previous conversion treatment.
-            // So, trying again...
-            if (workspace.get(CACHE_RESULT_KEY) == null) {
-              getLogger(this).debug(() -> format(
-                  "no conversion result in cache, removing workspace of view context {0} for new " +
-                      "creation", viewerContext.getViewId()));
-              workspace.remove();
-            } else {
-              return renewSemaphore(workspaceCacheKey, workspace);
-            }
-          } else {
-            // Source file has been modified, the conversion processes must be performed again.
+          // At this level, if no data is in cache, so the server has been killed or an
+          // exception has been thrown in a previous conversion treatment.
+          // So, trying again...
+          if (workspace.get(CACHE_RESULT_KEY) == null) {
             getLogger(this).debug(() -> format(
-                "remove workspace of view context {0} because file {1} has been modified",
-                viewerContext.getViewId(), viewerContext.getOriginalSourceFile().getName()));
+                "no conversion result in cache, removing workspace of view context {0} for new " +
+                    "creation", viewerContext.getViewId()));
             workspace.remove();
+          } else {
+            return renewSemaphore(workspaceCacheKey, workspace);
           }
+        } else {
+          // Source file has been modified, the conversion processes must be performed again.
+          getLogger(this).debug(() -> format(
+              "remove workspace of view context {0} because file {1} has been modified",
+              viewerContext.getViewId(), viewerContext.getOriginalSourceFile().getName()));
+          workspace.remove();
         }
-
-        // The workspace does not exist, it must be created and put into application cache.
-        getLogger(this).debug(
-            () -> format("creating workspace of view context {0} with its semaphore",
-                viewerContext.getViewId()));
-        viewerContext.processingCache();
-        workspace.markWorkInProgress();
-        workspace.create();
-        Semaphore newSemaphore = new Semaphore(1);
-        cache.put(workspace.getRootPath().getPath(), newSemaphore);
-        return Pair.of(workspace, newSemaphore);
       }
+
+      // The workspace does not exist, it must be created and put into application cache.
+      getLogger(this).debug(
+          () -> format("creating workspace of view context {0} with its semaphore",
+              viewerContext.getViewId()));
+      viewerContext.processingCache();
+      workspace.markWorkInProgress();
+      workspace.create();
+      Semaphore newSemaphore = new Semaphore(1);
+      cache.put(workspace.getRootPath().getPath(), newSemaphore);
+      return Pair.of(workspace, newSemaphore);
     }
 
     private Pair<TemporaryWorkspaceTranslation, Semaphore> renewSemaphore(
         final String workspaceCacheKey, final TemporaryWorkspaceTranslation workspace) {
       // Handle time to live in cache if necessary
-      if (ViewerSettings.isTimeToLiveEnabled()) {
+      if (ViewerSettings.getCacheMaxSize() > 0) {
+        // The last modification date is then the last access one used to evict the least
+        // recently used conversions
+        workspace.updateLastModifiedDate();
+      } else if (ViewerSettings.isTimeToLiveEnabled()) {
         long fileAgeThreshold = DateUtil.getNow().getTime() -
             ((long) (TemporaryDataManagementSetting.getTimeAfterThatFilesMustBeDeleted() * 0.25));
         if (workspace.lastModified() < fileAgeThreshold) {
@@ -235,6 +272,8 @@ public abstract class AbstractViewerService {
         String workspaceCacheKey = CACHE_WORKSPACE_KEY_PREFIX + viewerContext.getViewId();
         cache.remove(workspaceCacheKey);
         cache.remove(viewerContext.getWorkspace().getRootPath().getPath());
+        workspacesInUse.computeIfPresent(init.getKey().getRootPath().getPath(),
+            (path, count) -> count > 1 ? count - 1 : null);
       }
       getLogger(this).debug(
           () -> format("releasing semaphore dedicated to workspace of view context {0}",
@@ -251,7 +290,7 @@ public abstract class AbstractViewerService {
       viewerContext.fromInitializerProcessName(processName);
       if (!viewerContext.isCacheRequired()) {
         getLogger(this).debug(() -> "no cache required, performing document conversion");
-        final R returnValue = doConversion();
+        final R returnValue = doConversion(viewerContext);
         return viewerTreatment.performAfterSuccess(returnValue);
       }
 
@@ -280,7 +319,7 @@ public abstract class AbstractViewerService {
           getLogger(this).debug(
               () -> format("performing document conversion into workspace of view context {0}",
                   viewerContext.getViewId()));
-          returnValue = doConversion();
+          returnValue = doConversion(viewerContext);
           workspace.put(CACHE_RESULT_KEY, returnValue);
         } else {
           // The data have been processed by an other process
@@ -296,34 +335,35 @@ public abstract class AbstractViewerService {
       } finally {
         performAtExecutionEnd(viewerContext, init);
       }
+      if (viewerContext.isProcessingCache()) {
+        CACHE_EVICTOR.conversionAdded(workspace);
+      }
 
       // After successful dealing with cache, then performing a other treatment if any implemented.
       return viewerTreatment.performAfterSuccess(returnValue);
     }
 
-    private R doConversion() {
-      // The current process is the one in charge of processing the data
+    private R doConversion(final ViewerContext viewerContext) {
+      // The current process is the one in charge of processing the data. The conversions asked
+      // by the users have the priority over the ones performed in the background.
+      try {
+        CONVERSION_PERMITS.acquire(!viewerContext.isBackgroundConversion());
+      } catch (InterruptedException e) {
+        SilverLogger.getLogger(this).silent(e);
+        Thread.currentThread().interrupt();
+        throw new SilverpeasRuntimeException(e);
+      }
+      getLogger(this).debug(() -> format("acquiring access (new count of {0})",
+          CONVERSION_PERMITS.getAvailablePermits()));
       try {
-        EXECUTION_SEM.acquire();
-        synchronized (EXECUTION_SEM_MUTEX) {
-          executionSemCount = executionSemCount - 1;
-          getLogger(this).debug(
-              () -> format("acquiring access (new count of {0})", executionSemCount));
-        }
         return viewerTreatment.execute();
-      } catch (Exception e) {
+      } catch (RuntimeException e) {
         SilverLogger.getLogger(this).silent(e);
-        if (e instanceof InterruptedException) {
-          Thread.currentThread().interrupt();
-        }
         throw new SilverpeasRuntimeException(e);
       } finally {
-        EXECUTION_SEM.release();
-        synchronized (EXECUTION_SEM_MUTEX) {
-          executionSemCount = executionSemCount + 1;
-          getLogger(this).debug(
-              () -> format("releasing access (new count of {0})", executionSemCount));
-        }
+        CONVERSION_PERMITS.release();
+        getLogger(this).debug(() -> format("releasing access (new count of {0})",
+            CONVERSION_PERMITS.getAvailablePermits()));
       }
     }
   }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.viewer.service;
+
+import org.apache.commons.io.FileUtils;
+import org.silverpeas.core.io.temp.TemporaryWorkspaceTranslation;
+import org.silverpeas.core.thread.ManagedThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.text.MessageFormat.format;
+import static org.silverpeas.kernel.logging.SilverLogger.getLogger;
+
+/**
+ * Bounds the size on the filesystem of the conversions kept in the cache of the viewer services.
+ * Once the cache exceeds its maximum size, the least recently used conversions are removed
+ * until the size of the cache gets again under 90% of its limit. The last modification date of
+ * a workspace is its last access date as it is renewed each time its conversion is got from the
+ * cache.
+ * <p>
+ * The size of the cache is tracked incrementally: only the new conversions are measured and the
+ * whole cache is scanned only when its size is unknown or exceeds the limit. As the conversions
+ * removed by other means aren't tracked, the tracked size can only overestimate the actual one,
+ * and the scan then sets it right.
+ * </p>
+ * <p>
+ * Only one eviction is performed at a time, in the background.
+ * </p>
+ */
+final class ConversionCacheEvictor {
+
+  private static final double LOW_WATER_RATIO = 0.9;
+  private static final long UNKNOWN = -1L;
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final AtomicLong cacheSize = new AtomicLong(UNKNOWN);
+  private final LongSupplier maxSize;
+  private final Supplier<Collection<String>> processNames;
+  private final Predicate<TemporaryWorkspaceTranslation> removerIfNotInUse;
+
+  /**
+   * Constructs a new evictor.
+   * @param maxSize the supplier of the maximum size in bytes of the cache. 0 or a negative value
+   * means no limit.
+   * @param processNames the supplier of the names of the viewer processes whose the conversions
+   * are in the cache.
+   * @param removerIfNotInUse removes the given workspace if no conversion is currently working on
+   * it and returns true if it has been removed.
+   */
+  ConversionCacheEvictor(final LongSupplier maxSize,
+      final Supplier<Collection<String>> processNames,
+      final Predicate<TemporaryWorkspaceTranslation> removerIfNotInUse) {
+    this.maxSize = maxSize;
+    this.processNames = processNames;
+    this.removerIfNotInUse = removerIfNotInUse;
+  }
+
+  /**
+   * Takes into account the given new conversion in the size of the cache and, if the cache is
+   * bounded and its size is unknown or exceeds the limit, evicts in the background the least
+   * recently used conversions unless an eviction is already running.
+   * @param workspace the workspace of a conversion just put into the cache.
+   */
+  void conversionAdded(final TemporaryWorkspaceTranslation workspace) {
+    final long limit = maxSize.getAsLong();
+    if (limit <= 0) {
+      return;
+    }
+    final long size = sizeOf(workspace);
+    final long newCacheSize = cacheSize.updateAndGet(s -> s == UNKNOWN ? UNKNOWN : s + size);
+    if (newCacheSize == UNKNOWN || newCacheSize > limit) {
+      evictAsynchronously(limit);
+    }
+  }
+
+  /**
+   * Gets the size of the cache as currently tracked.
+   * @return the size in bytes of the cache or -1 if it isn't yet known.
+   */
+  long getCacheSize() {
+    return cacheSize.get();
+  }
+
+  private void evictAsynchronously(final long limit) {
+    if (running.compareAndSet(false, true)) {
+      ManagedThreadPool.getPool().invoke((Runnable) () -> {
+        try {
+          evict(limit);
+        } catch (Exception e) {
+          cacheSize.set(UNKNOWN);
+          getLogger(this).error(e);
+        } finally {
+          running.set(false);
+        }
+      });
+    }
+  }
+
+  /**
+   * Scans the whole cache and, if its size exceeds the given limit, removes the least recently
+   * used conversions until the size of the cache is under 90% of the limit. The conversions in
+   * progress are never removed. The tracked size of the cache is then set from the scan.
+   * @param limit the maximum size in bytes of the cache.
+   */
+  void evict(final long limit) {
+    // the conversions added during the scan are tracked from zero; those also measured by the
+    // scan are then counted twice, which only overestimates the size of the cache
+    cacheSize.set(0);
+    final List<CachedConversion> conversions = new ArrayList<>();
+    long scannedSize = 0;
+    for (String processName : processNames.get()) {
+      for (TemporaryWorkspaceTranslation workspace : TemporaryWorkspaceTranslation
+          .getAllStartingWith(processName + "-")) {
+        final CachedConversion conversion = new CachedConversion(workspace);
+        conversions.add(conversion);
+        scannedSize += conversion.size;
+      }
+    }
+    long evicted = 0;
+    if (scannedSize > limit) {
+      final long lowWater = (long) (limit * LOW_WATER_RATIO);
+      conversions.sort(Comparator.comparingLong(c -> c.lastAccess));
+      for (CachedConversion conversion : conversions) {
+        if (scannedSize - evicted <= lowWater) {
+          break;
+        }
+        if (removerIfNotInUse.test(conversion.workspace)) {
+          evicted += conversion.size;
+          getLogger(this).debug(() -> format("evicting conversion {0} of {1} bytes from the cache",
+              conversion.workspace.getRootPath().getName(), conversion.size));
+        }
+      }
+    }
+    final long newCacheSize = cacheSize.addAndGet(scannedSize - evicted);
+    getLogger(this).debug(() -> format("cache of conversions of {0} bytes after eviction",
+        newCacheSize));
+  }
+
+  private static long sizeOf(final TemporaryWorkspaceTranslation workspace) {
+    return workspace.getRootPath().isDirectory() ?
+        FileUtils.sizeOfDirectory(workspace.getRootPath()) : 0L;
+  }
+
+  private static class CachedConversion {
+    private final TemporaryWorkspaceTranslation workspace;
+    private final long size;
+    private final long lastAccess;
+
+    private CachedConversion(final TemporaryWorkspaceTranslation workspace) {
+      this.workspace = workspace;
+      this.lastAccess = workspace.lastModified();
+      this.size = sizeOf(workspace);
+    }
+  }
+}
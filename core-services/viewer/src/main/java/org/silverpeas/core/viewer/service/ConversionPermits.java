@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.viewer.service;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of document conversions performed at a same instant by giving the priority
+ * to the interactive conversions, that is to say the ones a user is waiting for, over the
+ * conversions performed in the background (pre-conversions and silent conversions).
+ * <p>
+ * A background conversion gets a permit only when no interactive conversion is waiting for one,
+ * so that an interactive request always jumps the queue of the background ones.
+ * </p>
+ */
+final class ConversionPermits {
+
+  private final ReentrantLock lock = new ReentrantLock(true);
+  private final Condition permitReleased = lock.newCondition();
+  private int availablePermits;
+  private int waitingInteractiveConversions = 0;
+
+  /**
+   * Constructs a new set of permits.
+   * @param permits the maximum number of conversions at a same instant.
+   */
+  ConversionPermits(final int permits) {
+    this.availablePermits = Math.max(1, permits);
+  }
+
+  /**
+   * Acquires a permit, blocking until one is available for the given kind of conversion.
+   * @param interactive true if a user is waiting for the conversion, false if it is performed in
+   * the background.
+   * @throws InterruptedException if the current thread is interrupted while waiting.
+   */
+  void acquire(final boolean interactive) throws InterruptedException {
+    lock.lock();
+    try {
+      if (interactive) {
+        waitingInteractiveConversions++;
+      }
+      try {
+        while (availablePermits == 0 || (!interactive && waitingInteractiveConversions > 0)) {
+          permitReleased.await();
+        }
+        availablePermits--;
+      } finally {
+        if (interactive) {
+          waitingInteractiveConversions--;
+          if (waitingInteractiveConversions == 0) {
+            // the background conversions can compete again for the remaining permits
+            permitReleased.signalAll();
+          }
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases a permit previously acquired.
+   */
+  void release() {
+    lock.lock();
+    try {
+      availablePermits++;
+      permitReleased.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of permits currently available.
+   * @return the number of available permits.
+   */
+  int getAvailablePermits() {
+    lock.lock();
+    try {
+      return availablePermits;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of interactive conversions waiting for a permit.
+   * @return the number of waiting interactive conversions.
+   */
+  int getWaitingInteractiveConversions() {
+    lock.lock();
+    try {
+      return waitingInteractiveConversions;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.viewer.service;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.contribution.attachment.notification.AttachmentEvent;
+import org.silverpeas.core.contribution.attachment.notification.AttachmentRef;
+import org.silverpeas.core.i18n.I18NHelper;
+import org.silverpeas.core.notification.system.CDIResourceEventListener;
+import org.silverpeas.core.viewer.model.ViewerSettings;
+
+import java.io.File;
+
+/**
+ * Handles the conversions in the cache of the viewer services on attachment manipulations: when
+ * the pre-conversion is enabled, the attached or updated documents are converted ahead of time
+ * and, whatever the pre-conversion, the conversions of the deleted documents are removed from the
+ * cache.
+ */
+@Bean
+public class PreConversionListener extends CDIResourceEventListener<AttachmentEvent> {
+
+  @Override
+  public void onCreation(final AttachmentEvent event) {
+    preConvert(event.getTransition().getAfter());
+  }
+
+  @Override
+  public void onUpdate(final AttachmentEvent event) {
+    preConvert(event.getTransition().getAfter());
+  }
+
+  @Override
+  public void onDeletion(final AttachmentEvent event) {
+    final AttachmentRef attachment = event.getTransition().getBefore();
+    if (attachment != null && ViewerSettings.isCacheEnabled()) {
+      for (String language : I18NHelper.getAllSupportedLanguages()) {
+        final ViewerContext viewerContext =
+            new ViewerContext(attachment.getId(), "attachment", attachment.getName(),
+                new File(attachment.getName()), language).withUniqueDocumentId(
+                language + "-" + attachment.getId());
+        PreviewService.get().removePreview(viewerContext);
+        ViewService.get().removeDocumentView(viewerContext);
+      }
+    }
+  }
+
+  private void preConvert(final AttachmentRef attachment) {
+    if (attachment != null && ViewerSettings.isPreConversionEnabled()) {
+      PreConversionTask.preConvert(attachment.getId(), attachment.getInstanceId());
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.viewer.service;
+
+import org.silverpeas.core.annotation.Bean;
+import org.silverpeas.core.contribution.attachment.AttachmentService;
+import org.silverpeas.core.contribution.attachment.model.SimpleDocument;
+import org.silverpeas.core.contribution.attachment.model.SimpleDocumentPK;
+import org.silverpeas.core.thread.ManagedThreadPool;
+import org.silverpeas.core.thread.task.AbstractRequestTask;
+import org.silverpeas.core.thread.task.RequestTaskManager;
+import org.silverpeas.kernel.SilverpeasException;
+import org.silverpeas.kernel.logging.SilverLogger;
+
+import java.io.File;
+import java.util.concurrent.Semaphore;
+
+import static org.silverpeas.core.viewer.model.ViewerSettings.nbMaxPreConversionsAtSameInstant;
+
+/**
+ * A task PreConversionTask converts in the background the attached documents into their preview
+ * and their view so that they are already in the cache of the viewer services when a user asks
+ * for them.<br>
+ * The pre-conversions are performed in the background and then they get a conversion slot only
+ * when no conversion asked by a user is waiting for one. Several requests about a same document
+ * are merged into one. By default, the documents are converted one by one. Several documents can
+ * be converted concurrently by setting the <code>viewer.preconversion.nb.max</code> property of
+ * the viewer settings.
+ */
+@Bean
+public class PreConversionTask extends AbstractRequestTask<AbstractRequestTask.ProcessContext> {
+
+  private static final int maxConcurrentPreConversions = nbMaxPreConversionsAtSameInstant();
+  private static final Semaphore preConversionSlots =
+      new Semaphore(maxConcurrentPreConversions, true);
+
+  /**
+   * Adds the given attached document to the documents to convert ahead of time.
+   * @param documentId the identifier of the attached document.
+   * @param instanceId the identifier of the component instance the document belongs to.
+   */
+  public static void preConvert(final String documentId, final String instanceId) {
+    RequestTaskManager.get()
+        .push(PreConversionTask.class, new PreConversionRequest(documentId, instanceId));
+  }
+
+  /**
+   * When several pre-conversions can be performed concurrently, the background thread waits for
+   * a free slot and then delegates the conversion to a managed thread so that it can go on with
+   * the next request.
+   * @param request the request to process.
+   * @throws SilverpeasException on error.
+   */
+  @Override
+  protected void processRequest(final Request<ProcessContext> request)
+      throws SilverpeasException {
+    if (maxConcurrentPreConversions <= 1) {
+      super.processRequest(request);
+      return;
+    }
+    try {
+      preConversionSlots.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SilverpeasException(e);
+    }
+    try {
+      ManagedThreadPool.getPool()
+          .getExecutor("viewer-preconversion", maxConcurrentPreConversions)
+          .execute(() -> {
+            try {
+              request.process(null);
+            } catch (Exception e) {
+              SilverLogger.getLogger(PreConversionTask.class).error(e);
+            } finally {
+              preConversionSlots.release();
+            }
+          });
+    } catch (RuntimeException e) {
+      preConversionSlots.release();
+      throw new SilverpeasException(e);
+    }
+  }
+
+  /**
+   * Permits to convert ahead of time an attached document.
+   */
+  static class PreConversionRequest implements AbstractRequestTask.Request<ProcessContext> {
+    private final String documentId;
+    private final String instanceId;
+
+    PreConversionRequest(final String documentId, final String instanceId) {
+      this.documentId = documentId;
+      this.instanceId = instanceId;
+    }
+
+    @Override
+    public String getReplacementId() {
+      return "preconversion-" + instanceId + "-" + documentId;
+    }
+
+    @Override
+    public void process(final ProcessContext context) {
+      final SimpleDocument document = AttachmentService.get()
+          .searchDocumentById(new SimpleDocumentPK(documentId, instanceId), null);
+      if (document == null || !new File(document.getAttachmentPath()).isFile()) {
+        return;
+      }
+      final File file = new File(document.getAttachmentPath());
+      try {
+        if (PreviewService.get().isPreviewable(file)) {
+          PreviewService.get().getPreview(ViewerContext.from(document).inBackground());
+        }
+      } catch (RuntimeException e) {
+        SilverLogger.getLogger(this).warn("Preview pre-conversion of {0} failed: {1}",
+            document.getAttachmentPath(), e.getMessage());
+      }
+      try {
+        if (ViewService.get().isViewable(file)) {
+          ViewService.get().getDocumentView(ViewerContext.from(document).inBackground());
+        }
+      } catch (RuntimeException e) {
+        SilverLogger.getLogger(this).warn("View pre-conversion of {0} failed: {1}",
+            document.getAttachmentPath(), e.getMessage());
+      }
+    }
+  }
+}
@@ -46,6 +46,7 @@ public class ViewerContext {
   private String uniqueDocumentId = String.valueOf(System.nanoTime());
   private boolean cacheRequired = false;
   private boolean processingCache = false;
+  private boolean backgroundConversion = false;
 
   /**
    * Initializes a context from an instance of {@link SimpleDocument}.
@@ -78,6 +79,7 @@ public class ViewerContext {
     this.uniqueDocumentId = other.uniqueDocumentId;
     this.cacheRequired = other.cacheRequired;
     this.processingCache = other.processingCache;
+    this.backgroundConversion = other.backgroundConversion;
   }
 
   /**
@@ -179,6 +181,25 @@ public class ViewerContext {
     this.processingCache = true;
   }
 
+  /**
+   * Indicates if the conversion is performed in the background, without any user waiting for it.
+   * Such conversions are performed only when no conversion asked by a user is waiting for being
+   * performed.
+   * @return true if the conversion is performed in the background, false otherwise.
+   */
+  public boolean isBackgroundConversion() {
+    return backgroundConversion;
+  }
+
+  /**
+   * Sets into context that the conversion is performed in the background.
+   * @return the current context instance.
+   */
+  ViewerContext inBackground() {
+    this.backgroundConversion = true;
+    return this;
+  }
+
   /**
    * Gets the language of the content
    * @return a string.
@@ -191,6 +212,8 @@ public class ViewerContext {
     ViewerContext newViewerContext = new ViewerContext(this);
     newViewerContext.initializerProcessName = "";
     newViewerContext.processingCache = false;
+    // the copies are used by the silent conversions which aren't awaited by anyone
+    newViewerContext.backgroundConversion = true;
     return newViewerContext;
   }
 }
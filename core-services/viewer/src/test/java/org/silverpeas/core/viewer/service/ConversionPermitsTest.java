@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.viewer.service;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests on the prioritization of the document conversions.
+ */
+@UnitTest
+class ConversionPermitsTest {
+
+  @Test
+  void permitsAreBoundedAndReleased() throws InterruptedException {
+    ConversionPermits permits = new ConversionPermits(2);
+    permits.acquire(true);
+    permits.acquire(false);
+    assertThat(permits.getAvailablePermits(), is(0));
+    permits.release();
+    permits.release();
+    assertThat(permits.getAvailablePermits(), is(2));
+  }
+
+  @Test
+  void interactiveConversionsJumpTheQueueOfTheBackgroundOnes() throws Exception {
+    ConversionPermits permits = new ConversionPermits(1);
+    List<String> order = new CopyOnWriteArrayList<>();
+    permits.acquire(true);
+
+    CountDownLatch done = new CountDownLatch(2);
+    Thread background = new Thread(() -> convert(permits, false, "background", order, done));
+    background.start();
+    waitUntilWaiting(background);
+    Thread interactive = new Thread(() -> convert(permits, true, "interactive", order, done));
+    interactive.start();
+    while (permits.getWaitingInteractiveConversions() == 0) {
+      Thread.sleep(5);
+    }
+
+    permits.release();
+    assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(order, contains("interactive", "background"));
+    assertThat(permits.getAvailablePermits(), is(1));
+  }
+
+  private static void convert(final ConversionPermits permits, final boolean interactive,
+      final String name, final List<String> order, final CountDownLatch done) {
+    try {
+      permits.acquire(interactive);
+      order.add(name);
+      permits.release();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      done.countDown();
+    }
+  }
+
+  private static void waitUntilWaiting(final Thread thread) throws InterruptedException {
+    while (thread.getState() != Thread.State.WAITING) {
+      Thread.sleep(5);
+    }
+  }
+}
@@ -75,6 +75,7 @@ import org.silverpeas.core.socialnetwork.relationship.RelationShipService;
 import org.silverpeas.core.template.SilverpeasTemplate;
 import org.silverpeas.core.template.SilverpeasTemplateFactory;
 import org.silverpeas.core.util.DateUtil;
+import org.silverpeas.core.util.MapUtil;
 import org.silverpeas.kernel.bundle.ResourceLocator;
 import org.silverpeas.core.util.SilverpeasList;
 import org.silverpeas.kernel.util.StringUtil;
@@ -1171,6 +1172,8 @@ public class DirectorySessionController extends AbstractComponentSessionControll
         PublicationTemplateManager.getInstance().getDirectoryTemplate();
     // add header
     final CSVHeader csvHeader = setCSVHeader(csvBuilder);
+    final Map<String, Map<String, DataRecord>> extraFormRecords =
+        loadExtraFormRecords(csvHeader, directoryTemplate);
     for (final DirectoryItem item : lastListUsersCalled) {
       final CSVRow csvRow = new CSVRow(csvHeader.getTotalOfCols());
       // add common data between users and contacts
@@ -1180,10 +1183,10 @@ public class DirectorySessionController extends AbstractComponentSessionControll
       // getting extra data (from form)
       if (item instanceof ContactItem) {
         final ContactItem contactItem = (ContactItem) item;
-        exportContact(contactItem, csvRow, csvHeader);
+        exportContact(contactItem, csvRow, csvHeader, extraFormRecords);
       } else if (item instanceof UserItem) {
         final UserItem userItem = (UserItem) item;
-        exportUser(userItem, csvRow, csvHeader, directoryTemplate);
+        exportUser(userItem, csvRow, csvHeader, directoryTemplate, extraFormRecords);
       }
       csvBuilder.addLine(csvRow);
     }
@@ -1191,6 +1194,57 @@ public class DirectorySessionController extends AbstractComponentSessionControll
     return csvBuilder;
   }
 
+  /**
+   * Loads the extra form records of all the items to export with a single request per form
+   * instead of one request per item.
+   * @return the records indexed by the item identifier, themselves indexed by the identifier of
+   * the form they belong to.
+   */
+  private Map<String, Map<String, DataRecord>> loadExtraFormRecords(final CSVHeader csvHeader,
+      final PublicationTemplate directoryTemplate)
+      throws PublicationTemplateException, FormException {
+    final Map<String, List<String>> itemIdsByTemplate = new HashMap<>();
+    for (final DirectoryItem item : lastListUsersCalled) {
+      final String templateId = getExtraFormTemplateId(item, csvHeader, directoryTemplate);
+      if (templateId != null) {
+        MapUtil.putAddList(itemIdsByTemplate, templateId, item.getOriginalId());
+      }
+    }
+    final Map<String, Map<String, DataRecord>> records = new HashMap<>(itemIdsByTemplate.size());
+    for (final Map.Entry<String, List<String>> itemIds : itemIdsByTemplate.entrySet()) {
+      final PublicationTemplate template = itemIds.getKey().equals(directoryTemplate.getFileName())
+          ? directoryTemplate
+          : PublicationTemplateManager.getInstance().getPublicationTemplate(itemIds.getKey());
+      if (isExtraFormExportable(template.getFileName())) {
+        records.put(itemIds.getKey(),
+            template.getRecordSet().getRecords(itemIds.getValue(), null));
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Gets the identifier of the extra form of the given item whose data are to be exported, or
+   * null if there is none.
+   */
+  private String getExtraFormTemplateId(final DirectoryItem item, final CSVHeader csvHeader,
+      final PublicationTemplate directoryTemplate) {
+    String templateId = null;
+    if (item instanceof ContactItem) {
+      final CompleteContact completeContact =
+          (CompleteContact) ((ContactItem) item).getContact();
+      final String contactSource = completeContact.getModelId();
+      if (contactSource != null && csvHeader.getIndexOfSourceCols(contactSource).isPresent()) {
+        templateId = completeContact.getPK().getInstanceId() + ":" +
+            FilenameUtils.getBaseName(contactSource);
+      }
+    } else if (item instanceof UserItem && directoryTemplate != null &&
+        csvHeader.getIndexOfSourceCols(directoryTemplate.getFileName()).isPresent()) {
+      templateId = directoryTemplate.getFileName();
+    }
+    return templateId;
+  }
+
   private CSVHeader setCSVHeader(ExportCSVBuilder csvBuilder)
       throws PublicationTemplateException, FormException, AdminException {
     // mandatory columns
@@ -1247,7 +1301,7 @@ public class DirectorySessionController extends AbstractComponentSessionControll
   }
 
   private void exportUser(UserItem userItem, CSVRow csvRow, CSVHeader csvHeader,
-      PublicationTemplate directoryTemplate) throws PublicationTemplateException, FormException {
+      PublicationTemplate directoryTemplate, Map<String, Map<String, DataRecord>> extraFormRecords) {
     final String domainId = userItem.getDomainId();
     if (isDomainDataExportable(domainId)) {
       csvRow.setCell(3, userItem.getPhone());
@@ -1258,13 +1312,15 @@ public class DirectorySessionController extends AbstractComponentSessionControll
     if (directoryTemplate != null) {
       final Optional<Integer> index = csvHeader.getIndexOfSourceCols(directoryTemplate.getFileName());
       if (index.isPresent()) {
-        setFromIndexExtraFormDataToCSVRow(index.get(), csvRow, directoryTemplate, userItem);
+        setFromIndexExtraFormDataToCSVRow(index.get(), csvRow, directoryTemplate, userItem,
+            extraFormRecords.get(directoryTemplate.getFileName()));
       }
     }
   }
 
   private void exportContact(ContactItem contactItem, CSVRow csvRow,
-      CSVHeader csvHeader) throws PublicationTemplateException, FormException {
+      CSVHeader csvHeader, Map<String, Map<String, DataRecord>> extraFormRecords)
+      throws PublicationTemplateException {
     final CompleteContact completeContact = (CompleteContact) contactItem.getContact();
     final String contactSource = completeContact.getModelId();
     csvRow.setCell(3, contactItem.getPhone());
@@ -1279,7 +1335,8 @@ public class DirectorySessionController extends AbstractComponentSessionControll
           completeContact.getPK().getInstanceId() + ":" + FilenameUtils.getBaseName(contactSource);
       final PublicationTemplate theTemplate = PublicationTemplateManager.getInstance()
           .getPublicationTemplate(templateId);
-      setFromIndexExtraFormDataToCSVRow(index.get(), csvRow, theTemplate, contactItem);
+      setFromIndexExtraFormDataToCSVRow(index.get(), csvRow, theTemplate, contactItem,
+          extraFormRecords.get(templateId));
     }
   }
 
@@ -1317,10 +1374,10 @@ public class DirectorySessionController extends AbstractComponentSessionControll
   }
 
   private void setFromIndexExtraFormDataToCSVRow(final int fromIndex, final CSVRow csvRow,
-      final PublicationTemplate template, final DirectoryItem item)
-      throws PublicationTemplateException, FormException {
+      final PublicationTemplate template, final DirectoryItem item,
+      final Map<String, DataRecord> records) {
     if (isExtraFormExportable(template.getFileName())) {
-      final DataRecord dataRecord = template.getRecordSet().getRecord(item.getOriginalId());
+      final DataRecord dataRecord = records == null ? null : records.get(item.getOriginalId());
       final Map<String, String> values;
       if (dataRecord != null) {
         values = dataRecord.getValues(getLanguage());
@@ -23,11 +23,14 @@
  */
 package org.silverpeas.web.look;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.owasp.encoder.Encode;
 import org.silverpeas.core.admin.component.model.ComponentInst;
 import org.silverpeas.core.admin.component.model.SilverpeasComponentInstance;
 import org.silverpeas.core.admin.component.model.WAComponent;
 import org.silverpeas.core.admin.service.OrganizationController;
+import org.silverpeas.core.admin.service.cache.AdminCache;
+import org.silverpeas.core.admin.service.cache.StructureChangeLog;
 import org.silverpeas.core.admin.space.PersonalSpaceManager;
 import org.silverpeas.core.admin.space.SpaceInst;
 import org.silverpeas.core.admin.space.SpaceInstLight;
@@ -65,6 +68,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.stream.Collectors;
 
 import static org.silverpeas.core.sharing.services.SharingServiceProvider.getSharingTicketService;
 
@@ -81,6 +85,8 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
   private PersonalSpaceManager personalSpaceManager;
   @Inject
   private UserFavoriteSpaceService userFavoriteSpaceService;
+  @Inject
+  private AdminCache adminCache;
 
   @Override
   public void doGet(HttpServletRequest req, HttpServletResponse res) {
@@ -138,9 +144,19 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
     }
     helper.setDisplayUserMenu(displayMode);
 
+    // Retrieve current look
+    String defaultLook = gef.getDefaultLookName();
+    boolean cacheable = !displayPDC && !StringUtil.isDefined(axisId) &&
+        ("1".equals(init) || (StringUtil.isDefined(spaceId) && !isPersonalSpace(spaceId)));
+    if (cacheable) {
+      String eTag = computeETag(request, userId, preferences.getLanguage(), defaultLook,
+          displayMode, restrictedPath, helper, listUserFS);
+      if (isNotModified(request, response, eTag)) {
+        return;
+      }
+    }
+
     try {
-      // Retrieve current look
-      String defaultLook = gef.getDefaultLookName();
       response.setContentType("text/xml");
       response.setHeader("charset", "UTF-8");
 
@@ -306,11 +322,11 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
     }
 
     // Affichage de l'espace collaboratif
-    SpaceInstLight space = organisationController.getSpaceInstLightById(spaceId);
+    SpaceInstLight space = getNavigationTree(userId).getSpace(spaceId);
     if (space != null && isSpaceVisible(userId, space, helper)) {
       StringBuilder itemSB = new StringBuilder(200);
       itemSB.append("<item open=\"").append(open).append("\" ");
-      itemSB.append(getSpaceAttributes(space, language, defaultLook, helper));
+      itemSB.append(getSpaceAttributes(space, userId, language, defaultLook, helper));
       itemSB.append(getFavoriteSpaceAttribute(userId, listUFS, space, helper));
       itemSB.append(">");
 
@@ -376,7 +392,7 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
 
     for (final String availableSpaceId : availableSpaceIds) {
       spaceId = availableSpaceId;
-      SpaceInstLight spaceInst = organisationController.getSpaceInstLightById(spaceId);
+      SpaceInstLight spaceInst = getNavigationTree(userId).getSpace(spaceId);
       boolean loadCurSpace =
           isLoadingContentNeeded(userMenuDisplayMode, userId, spaceInst, listUFS);
       if (loadCurSpace && isSpaceVisible(userId, spaceInst, helper)) {
@@ -387,9 +403,9 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
     out.write("</spaces>");
   }
 
-  private String getSpaceAttributes(SpaceInstLight space, String language, String defaultLook,
-      LookHelper helper) {
-    String spaceLook = getSpaceLookAttribute(space, defaultLook);
+  private String getSpaceAttributes(SpaceInstLight space, String userId, String language,
+      String defaultLook, LookHelper helper) {
+    String spaceLook = getSpaceLookAttribute(space, userId, defaultLook);
     String spaceWallpaper = getWallPaper(space.getId());
     String spaceCSS = SilverpeasLook.getSilverpeasLook().getSpaceWithCSS(space.getId());
 
@@ -410,16 +426,16 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
   /**
    * Recursive method to get the right look.
    * @param space
+   * @param userId : the unique identifier of the current user
    * @param defaultLook : current default look name
    * @return the space style according to the space hierarchy
    */
-  private String getSpaceLookAttribute(SpaceInstLight space, String defaultLook) {
+  private String getSpaceLookAttribute(SpaceInstLight space, String userId, String defaultLook) {
     String spaceLook = space.getLook();
     if (!StringUtil.isDefined(spaceLook)) {
       if (!space.isRoot()) {
-        SpaceInstLight fatherSpace =
-            organisationController.getSpaceInstLightById(space.getFatherId());
-        spaceLook = getSpaceLookAttribute(fatherSpace, defaultLook);
+        SpaceInstLight fatherSpace = getNavigationTree(userId).getSpace(space.getFatherId());
+        spaceLook = getSpaceLookAttribute(fatherSpace, userId, defaultLook);
       } else {
         spaceLook = defaultLook;
       }
@@ -439,12 +455,12 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
     out.write("<spaces menu=\"" + helper.getDisplayUserMenu() + "\">");
     for (final String availableSpaceId : availableSpaceIds) {
       spaceId = availableSpaceId;
-      space = organisationController.getSpaceInstLightById(spaceId);
+      space = getNavigationTree(userId).getSpace(spaceId);
       boolean loadCurSpace = isLoadingContentNeeded(userMenuDisplayMode, userId, space, listUFS);
       if (loadCurSpace && isSpaceVisible(userId, space, helper) && space != null) {
         StringBuilder itemSB = new StringBuilder(200);
         itemSB.append("<item ");
-        itemSB.append(getSpaceAttributes(space, language, defaultLook, helper));
+        itemSB.append(getSpaceAttributes(space, userId, language, defaultLook, helper));
         itemSB.append(getFavoriteSpaceAttribute(userId, listUFS, space, helper));
         itemSB.append("/>");
         out.write(itemSB.toString());
@@ -456,14 +472,15 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
   private void getSubSpaces(String spaceId, String userId, List<String> spacePath,
       String targetComponentId, String language, String defaultLook, LookHelper helper, Writer out,
       List<UserFavoriteSpaceVO> listUFS, UserMenuDisplay userMenuDisplayMode) throws IOException {
-    String[] spaceIds = organisationController.getAllSubSpaceIds(spaceId, userId);
+    UserNavigationTree tree = getNavigationTree(userId);
+    String[] spaceIds = tree.getSubSpaceIds(spaceId);
 
     String subSpaceId;
     boolean open;
     boolean loadCurSpace;
     for (final String spaceId1 : spaceIds) {
       subSpaceId = spaceId1;
-      SpaceInstLight space = organisationController.getSpaceInstLightById(subSpaceId);
+      SpaceInstLight space = tree.getSpace(subSpaceId);
       if (space != null) {
         open = (spacePath != null && spacePath.contains(subSpaceId));
         // Check user favorite space
@@ -471,7 +488,7 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
         if (loadCurSpace && isSpaceVisible(userId, space, helper)) {
           StringBuilder itemSB = new StringBuilder(200);
           itemSB.append("<item ");
-          itemSB.append(getSpaceAttributes(space, language, defaultLook, helper));
+          itemSB.append(getSpaceAttributes(space, userId, language, defaultLook, helper));
           itemSB.append(" open=\"").append(open).append("\"");
           itemSB.append(getFavoriteSpaceAttribute(userId, listUFS, space, helper));
           itemSB.append(">");
@@ -506,17 +523,14 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
   private void getComponents(String spaceId, String targetComponentId, String userId,
       String language, Writer out, UserMenuDisplay userMenuDisplayMode,
       List<UserFavoriteSpaceVO> listUFS) throws IOException {
-    SpaceInstLight spaceInst = organisationController.getSpaceInstLightById(spaceId);
+    UserNavigationTree tree = getNavigationTree(userId);
+    SpaceInstLight space = tree.getSpace(spaceId);
     boolean loadCurComponent =
-        isLoadingContentNeeded(userMenuDisplayMode, userId, spaceInst, listUFS);
+        isLoadingContentNeeded(userMenuDisplayMode, userId, space, listUFS);
     if (loadCurComponent) {
-      String[] componentIds = organisationController.getAvailCompoIdsAtRoot(spaceId, userId);
-      SpaceInstLight space = organisationController.getSpaceInstLightById(spaceId);
       int level = space.getLevel() + 1;
-      for (String componentId : componentIds) {
-        ComponentInst component = organisationController.getComponentInst(componentId);
-        if (component != null && WAComponent.getByName(component.getName()).isPresent() &&
-            !component.isHidden()) {
+      for (ComponentInst component : tree.getComponentsAtRoot(spaceId)) {
+        if (WAComponent.getByName(component.getName()).isPresent() && !component.isHidden()) {
           boolean open = (targetComponentId != null && component.getId().equals(targetComponentId));
 
           String kind = component.getName();
@@ -646,7 +660,7 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
   private String[] getRootSpaceIds(String userId, LookHelper helper) {
     List<String> rootSpaceIds = new ArrayList<>();
     List<String> topSpaceIds = helper.getTopSpaceIds();
-    String[] availableSpaceIds = organisationController.getAllRootSpaceIds(userId);
+    String[] availableSpaceIds = getNavigationTree(userId).getRootSpaceIds();
     for (final String availableSpaceId : availableSpaceIds) {
       if (!topSpaceIds.contains(availableSpaceId)) {
         rootSpaceIds.add(availableSpaceId);
@@ -655,6 +669,72 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
     return rootSpaceIds.toArray(new String[rootSpaceIds.size()]);
   }
 
+  /**
+   * Gets the navigation tree of the specified user, up-to-date with the latest changes in the
+   * structure of the spaces and of the component instances.
+   * @param userId the unique identifier of the user.
+   * @return the navigation tree of the user.
+   */
+  private UserNavigationTree getNavigationTree(String userId) {
+    return UserNavigationTree.of(userId, organisationController,
+        adminCache.getStructureChangeLog());
+  }
+
+  /**
+   * Computes the entity tag of the menu rendered for the specified request. The menu depends on
+   * the version of the structure of the resources, on the request parameters and on the state of
+   * the user session (display mode, language, look, transverse and favorite spaces).
+   * @return the entity tag of the menu.
+   */
+  private String computeETag(HttpServletRequest request, String userId, String language,
+      String defaultLook, UserMenuDisplay displayMode, boolean restrictedPath, LookHelper helper,
+      List<UserFavoriteSpaceVO> listUFS) {
+    String favoriteSpaceIds = listUFS.stream()
+        .map(f -> String.valueOf(f.getSpaceId()))
+        .collect(Collectors.joining(","));
+    String state = String.join("|", userId, request.getParameter("ResponseId"),
+        request.getParameter("Init"), request.getParameter("SpaceId"),
+        request.getParameter("ComponentId"), String.valueOf(displayMode), language, defaultLook,
+        String.valueOf(restrictedPath), String.valueOf(helper.getTopSpaceIds()),
+        favoriteSpaceIds);
+    return computeETag(adminCache.getStructureChangeLog(), state);
+  }
+
+  /**
+   * Computes the entity tag of a menu from the specified log of the changes in the structure of
+   * the resources and from the state the menu depends on. As the version of the structure is
+   * started again at each boot, the epoch of the log is part of the entity tag so that a menu
+   * cached by the browser before a reboot isn't taken as up-to-date. The state is taken by its
+   * SHA-256 digest so that two different states cannot collide in practice.
+   * @param changeLog the log of the changes in the structure of the resources.
+   * @param state the state of the request and of the user session the menu depends on.
+   * @return the entity tag of the menu.
+   */
+  static String computeETag(StructureChangeLog changeLog, String state) {
+    return "\"" + Long.toHexString(changeLog.getEpoch()) + "-" +
+        Long.toHexString(changeLog.getVersion()) + "-" + DigestUtils.sha256Hex(state) + "\"";
+  }
+
+  /**
+   * Sets the specified entity tag into the response and checks whether the menu the browser has
+   * in its cache is the same. In this case, the response is set as not modified.
+   * @param request the HTTP request.
+   * @param response the HTTP response.
+   * @param eTag the entity tag of the menu to render.
+   * @return true if the menu cached by the browser is up-to-date and then the response is
+   * completed, false if the menu has to be rendered.
+   */
+  static boolean isNotModified(HttpServletRequest request, HttpServletResponse response,
+      String eTag) {
+    response.setHeader("ETag", eTag);
+    response.setHeader("Cache-Control", "private, no-cache");
+    if (eTag.equals(request.getHeader("If-None-Match"))) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return true;
+    }
+    return false;
+  }
+
   protected boolean isPersonalSpace(String spaceId) {
     return SpaceInst.PERSONAL_SPACE_ID.equalsIgnoreCase(spaceId);
   }
@@ -800,14 +880,7 @@ public class AjaxServletLookV5 extends SilverpeasAuthenticatedHttpServlet {
     if (helper.getSettings("displaySpaceContainingOnlyHiddenComponents", true)) {
       return true;
     }
-    String[] compoIds = organisationController.getAvailCompoIds(space.getId(), userId);
-    for (String id : compoIds) {
-      ComponentInst compInst = organisationController.getComponentInst(id);
-      if (!compInst.isHidden()) {
-        return true;
-      }
-    }
-    return false;
+    return getNavigationTree(userId).containsVisibleComponents(space.getId());
   }
 
   protected boolean isSpaceBeforeComponentNeeded(SpaceInstLight space) {
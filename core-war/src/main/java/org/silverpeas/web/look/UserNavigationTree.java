@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.web.look;
+
+import org.silverpeas.core.admin.component.model.ComponentInst;
+import org.silverpeas.core.admin.service.OrganizationController;
+import org.silverpeas.core.admin.service.cache.StructureChangeLog;
+import org.silverpeas.core.admin.space.SpaceInst;
+import org.silverpeas.core.admin.space.SpaceInstLight;
+import org.silverpeas.core.cache.BoundedCache;
+import org.silverpeas.kernel.util.StringUtil;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The tree of the spaces and of the component instances a user can navigate through, as
+ * displayed by the navigation menu. It is materialized lazily, space by space, as the menu is
+ * browsed, from the organization controller.
+ * <p>
+ * The tree is stamped with the version of the structure of the resources it was built from (see
+ * {@link StructureChangeLog}). When the structure changes, only the spaces impacted by the changes
+ * are rebuilt: a changed space is dropped from the tree along with its ancestors, whose available
+ * subspaces can change, and its descendants, which inherit its rights. When the changes cannot be
+ * localized (global change, change of the user rights, too old changes), the whole tree is
+ * dropped.
+ * </p>
+ * <p>
+ * The trees are kept per user in a cache bounded in size and in time.
+ * </p>
+ */
+final class UserNavigationTree {
+
+  private static final int MAX_TREES = 2000;
+  private static final Duration TIME_TO_LIVE = Duration.ofMinutes(30);
+  private static final BoundedCache<String, UserNavigationTree> trees =
+      new BoundedCache<>(MAX_TREES, TIME_TO_LIVE);
+
+  private final String userId;
+  private final OrganizationController controller;
+  private final Map<String, SpaceNode> nodes = new HashMap<>();
+  private String[] rootSpaceIds;
+  private long version;
+
+  private UserNavigationTree(final String userId, final OrganizationController controller,
+      final long version) {
+    this.userId = userId;
+    this.controller = controller;
+    this.version = version;
+  }
+
+  /**
+   * Gets the navigation tree of the specified user, up-to-date with the given log of the changes
+   * in the structure of the resources.
+   * @param userId the unique identifier of a user.
+   * @param controller the organization controller from which the tree is built.
+   * @param changeLog the log of the changes in the structure of the resources.
+   * @return the navigation tree of the user.
+   */
+  static UserNavigationTree of(final String userId, final OrganizationController controller,
+      final StructureChangeLog changeLog) {
+    final UserNavigationTree tree = trees.computeIfAbsent(userId,
+        u -> new UserNavigationTree(u, controller, changeLog.getVersion()));
+    tree.update(changeLog);
+    return tree;
+  }
+
+  /**
+   * Gets the unique identifiers of the root spaces available to the user.
+   * @return an array of space identifiers.
+   */
+  synchronized String[] getRootSpaceIds() {
+    if (rootSpaceIds == null) {
+      rootSpaceIds = controller.getAllRootSpaceIds(userId);
+    }
+    return rootSpaceIds;
+  }
+
+  /**
+   * Gets the specified space.
+   * @param spaceId the unique identifier of a space.
+   * @return the space or null if it doesn't exist.
+   */
+  synchronized SpaceInstLight getSpace(final String spaceId) {
+    return getNode(spaceId).map(n -> n.space).orElse(null);
+  }
+
+  /**
+   * Gets the unique identifiers of the subspaces of the specified space available to the user.
+   * @param spaceId the unique identifier of a space.
+   * @return an array of space identifiers.
+   */
+  synchronized String[] getSubSpaceIds(final String spaceId) {
+    final Optional<SpaceNode> node = getNode(spaceId);
+    if (node.isEmpty()) {
+      return controller.getAllSubSpaceIds(spaceId, userId);
+    }
+    if (node.get().subSpaceIds == null) {
+      node.get().subSpaceIds = controller.getAllSubSpaceIds(spaceId, userId);
+    }
+    return node.get().subSpaceIds;
+  }
+
+  /**
+   * Gets the component instances available to the user at the root of the specified space.
+   * @param spaceId the unique identifier of a space.
+   * @return a list of component instances.
+   */
+  synchronized List<ComponentInst> getComponentsAtRoot(final String spaceId) {
+    final Optional<SpaceNode> node = getNode(spaceId);
+    if (node.isEmpty()) {
+      return loadComponents(controller.getAvailCompoIdsAtRoot(spaceId, userId));
+    }
+    if (node.get().components == null) {
+      node.get().components = loadComponents(controller.getAvailCompoIdsAtRoot(spaceId, userId));
+    }
+    return node.get().components;
+  }
+
+  /**
+   * Is there at least one component instance available to the user and not hidden in the
+   * specified space or in its subspaces?
+   * @param spaceId the unique identifier of a space.
+   * @return true if the space contains a visible component instance for the user.
+   */
+  synchronized boolean containsVisibleComponents(final String spaceId) {
+    final Optional<SpaceNode> node = getNode(spaceId);
+    if (node.isEmpty()) {
+      return false;
+    }
+    if (node.get().withVisibleComponents == null) {
+      node.get().withVisibleComponents =
+          loadComponents(controller.getAvailCompoIds(spaceId, userId)).stream()
+              .anyMatch(c -> !c.isHidden());
+    }
+    return node.get().withVisibleComponents;
+  }
+
+  private synchronized void update(final StructureChangeLog changeLog) {
+    final long currentVersion = changeLog.getVersion();
+    if (currentVersion == version) {
+      return;
+    }
+    final Optional<Set<String>> changedSpaceIds =
+        changeLog.getChangedSpacesSince(version, userId);
+    if (changedSpaceIds.isPresent()) {
+      changedSpaceIds.get().forEach(this::invalidate);
+    } else {
+      nodes.clear();
+      rootSpaceIds = null;
+    }
+    version = currentVersion;
+  }
+
+  private void invalidate(final String spaceId) {
+    final String changedSpaceId = normalize(spaceId);
+    rootSpaceIds = null;
+    // the ancestors of the space
+    final Set<String> invalidated = new HashSet<>(getAncestorIds(changedSpaceId));
+    invalidated.add(changedSpaceId);
+    // the descendants of the space
+    for (String id : new ArrayList<>(nodes.keySet())) {
+      if (getAncestorIds(id).contains(changedSpaceId)) {
+        invalidated.add(id);
+      }
+    }
+    nodes.keySet().removeAll(invalidated);
+  }
+
+  private Set<String> getAncestorIds(final String spaceId) {
+    final Set<String> ancestorIds = new HashSet<>();
+    final SpaceNode node = nodes.get(spaceId);
+    if (node == null) {
+      controller.getPathToSpace(spaceId).stream()
+          .map(SpaceInstLight::getId)
+          .map(UserNavigationTree::normalize)
+          .filter(id -> !id.equals(spaceId))
+          .forEach(ancestorIds::add);
+    } else {
+      SpaceNode current = node;
+      while (current != null && !current.space.isRoot() &&
+          StringUtil.isDefined(current.space.getFatherId())) {
+        final String fatherId = normalize(current.space.getFatherId());
+        if (!ancestorIds.add(fatherId)) {
+          break;
+        }
+        current = nodes.get(fatherId);
+      }
+    }
+    return ancestorIds;
+  }
+
+  private Optional<SpaceNode> getNode(final String spaceId) {
+    final String id = normalize(spaceId);
+    SpaceNode node = nodes.get(id);
+    if (node == null) {
+      final SpaceInstLight space = controller.getSpaceInstLightById(id);
+      if (space == null) {
+        return Optional.empty();
+      }
+      node = new SpaceNode(space);
+      nodes.put(id, node);
+    }
+    return Optional.of(node);
+  }
+
+  private List<ComponentInst> loadComponents(final String[] componentIds) {
+    final List<ComponentInst> components = new ArrayList<>(componentIds.length);
+    for (String componentId : componentIds) {
+      final ComponentInst component = controller.getComponentInst(componentId);
+      if (component != null) {
+        components.add(component);
+      }
+    }
+    return components;
+  }
+
+  private static String normalize(final String spaceId) {
+    return spaceId.startsWith(SpaceInst.SPACE_KEY_PREFIX) ? spaceId :
+        SpaceInst.SPACE_KEY_PREFIX + spaceId;
+  }
+
+  private static class SpaceNode {
+    private final SpaceInstLight space;
+    private String[] subSpaceIds;
+    private List<ComponentInst> components;
+    private Boolean withVisibleComponents;
+
+    private SpaceNode(final SpaceInstLight space) {
+      this.space = space;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.web.look;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.admin.service.cache.StructureChangeLog;
+import org.silverpeas.kernel.test.UnitTest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the caching by the browser of the navigation menu rendered by
+ * {@link AjaxServletLookV5}.
+ */
+@UnitTest
+class AjaxServletLookV5Test {
+
+  private static final String STATE = "42|GetSubSpace|0|WA1";
+
+  @Test
+  void theEntityTagIsStampedWithTheEpochOfTheChangeLog() {
+    final StructureChangeLog changeLog = new StructureChangeLog();
+    final String eTag = AjaxServletLookV5.computeETag(changeLog, STATE);
+    assertThat(eTag, startsWith("\"" + Long.toHexString(changeLog.getEpoch()) + "-"));
+  }
+
+  @Test
+  void theEntityTagChangesWithTheStructure() {
+    final StructureChangeLog changeLog = new StructureChangeLog();
+    final String eTag = AjaxServletLookV5.computeETag(changeLog, STATE);
+    assertThat(AjaxServletLookV5.computeETag(changeLog, STATE), is(eTag));
+    changeLog.spacesChanged(List.of("WA1"));
+    assertThat(AjaxServletLookV5.computeETag(changeLog, STATE), not(is(eTag)));
+  }
+
+  @Test
+  void theEntityTagChangesWithTheState() {
+    final StructureChangeLog changeLog = new StructureChangeLog();
+    assertThat(AjaxServletLookV5.computeETag(changeLog, STATE),
+        not(is(AjaxServletLookV5.computeETag(changeLog, STATE + "|WA2"))));
+  }
+
+  @Test
+  void theEntityTagDistinguishesStatesWithTheSameHashCode() {
+    final StructureChangeLog changeLog = new StructureChangeLog();
+    assertThat("Aa".hashCode(), is("BB".hashCode()));
+    assertThat(AjaxServletLookV5.computeETag(changeLog, STATE + "|Aa"),
+        not(is(AjaxServletLookV5.computeETag(changeLog, STATE + "|BB"))));
+  }
+
+  @Test
+  void theMenuCachedByTheBrowserIsNotModified() {
+    final String eTag = AjaxServletLookV5.computeETag(new StructureChangeLog(), STATE);
+    final HttpServletRequest request = mock(HttpServletRequest.class);
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+    when(request.getHeader("If-None-Match")).thenReturn(eTag);
+
+    assertThat(AjaxServletLookV5.isNotModified(request, response, eTag), is(true));
+    verify(response).setHeader("ETag", eTag);
+    verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+  }
+
+  @Test
+  void theMenuCachedByTheBrowserBeforeAChangeIsRenderedAgain() {
+    final StructureChangeLog changeLog = new StructureChangeLog();
+    final String oldETag = AjaxServletLookV5.computeETag(changeLog, STATE);
+    changeLog.allChanged();
+    final String eTag = AjaxServletLookV5.computeETag(changeLog, STATE);
+    final HttpServletRequest request = mock(HttpServletRequest.class);
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+    when(request.getHeader("If-None-Match")).thenReturn(oldETag);
+
+    assertThat(AjaxServletLookV5.isNotModified(request, response, eTag), is(false));
+    verify(response).setHeader("ETag", eTag);
+    verify(response, never()).setStatus(anyInt());
+  }
+
+  @Test
+  void theMenuNotCachedByTheBrowserIsRendered() {
+    final String eTag = AjaxServletLookV5.computeETag(new StructureChangeLog(), STATE);
+    final HttpServletRequest request = mock(HttpServletRequest.class);
+    final HttpServletResponse response = mock(HttpServletResponse.class);
+
+    assertThat(AjaxServletLookV5.isNotModified(request, response, eTag), is(false));
+    verify(response, never()).setStatus(anyInt());
+  }
+}
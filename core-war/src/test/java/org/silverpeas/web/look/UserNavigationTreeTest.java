@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.web.look;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.admin.service.OrganizationController;
+import org.silverpeas.core.admin.service.cache.StructureChangeLog;
+import org.silverpeas.core.admin.space.SpaceInstLight;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the rebuilding of the navigation tree of a user according to the changes in the
+ * structure of the resources. The spaces tree is made of the root spaces WA1 and WA4, of WA2 as
+ * subspace of WA1 and of WA3 as subspace of WA2.
+ */
+@UnitTest
+class UserNavigationTreeTest {
+
+  private OrganizationController controller;
+  private StructureChangeLog changeLog;
+  private String userId;
+
+  @BeforeEach
+  void setUpSpacesTree() {
+    // the trees are cached per user: a new user for each test
+    userId = UUID.randomUUID().toString();
+    changeLog = new StructureChangeLog();
+    controller = mock(OrganizationController.class);
+    mockSpace(1, 0);
+    mockSpace(2, 1);
+    mockSpace(3, 2);
+    mockSpace(4, 0);
+    when(controller.getAllRootSpaceIds(userId)).thenReturn(new String[]{"WA1", "WA4"});
+    when(controller.getAllSubSpaceIds("WA1", userId)).thenReturn(new String[]{"WA2"});
+    when(controller.getAllSubSpaceIds("WA2", userId)).thenReturn(new String[]{"WA3"});
+    when(controller.getAllSubSpaceIds("WA3", userId)).thenReturn(new String[0]);
+    when(controller.getAllSubSpaceIds("WA4", userId)).thenReturn(new String[0]);
+  }
+
+  @Test
+  void theTreeIsBuiltOnceAsLongAsTheStructureIsUnchanged() {
+    browseAllTheTree(userId);
+    browseAllTheTree(userId);
+    verify(controller, times(1)).getAllRootSpaceIds(userId);
+    verifySpacesLoaded(1, "WA1", "WA2", "WA3", "WA4");
+    verify(controller, times(1)).getAllSubSpaceIds("WA1", userId);
+  }
+
+  @Test
+  void onlyTheChangedSpaceWithItsAncestorsAndItsDescendantsAreRebuilt() {
+    browseAllTheTree(userId);
+    changeLog.spacesChanged(List.of("WA2"));
+    browseAllTheTree(userId);
+    verifySpacesLoaded(2, "WA1", "WA2", "WA3");
+    verifySpacesLoaded(1, "WA4");
+    verify(controller, times(2)).getAllSubSpaceIds("WA1", userId);
+    verify(controller, times(1)).getAllSubSpaceIds("WA4", userId);
+  }
+
+  @Test
+  void aGlobalChangeRebuildsTheWholeTree() {
+    browseAllTheTree(userId);
+    changeLog.allChanged();
+    browseAllTheTree(userId);
+    verify(controller, times(2)).getAllRootSpaceIds(userId);
+    verifySpacesLoaded(2, "WA1", "WA2", "WA3", "WA4");
+  }
+
+  @Test
+  void aChangeOfTheRightsOfAUserRebuildsTheWholeTreeOnlyForThatUser() {
+    final String otherUserId = UUID.randomUUID().toString();
+    when(controller.getAllRootSpaceIds(otherUserId)).thenReturn(new String[]{"WA4"});
+    browseAllTheTree(userId);
+    UserNavigationTree.of(otherUserId, controller, changeLog).getRootSpaceIds();
+
+    changeLog.userRightsChanged(userId);
+    browseAllTheTree(userId);
+    final String[] otherRootSpaceIds =
+        UserNavigationTree.of(otherUserId, controller, changeLog).getRootSpaceIds();
+
+    assertThat(otherRootSpaceIds, arrayContaining("WA4"));
+    verify(controller, times(2)).getAllRootSpaceIds(userId);
+    verify(controller, times(1)).getAllRootSpaceIds(otherUserId);
+    verifySpacesLoaded(2, "WA1", "WA2", "WA3", "WA4");
+  }
+
+  @Test
+  void theTreeIsUpToDateWithTheVersionOfTheStructure() {
+    browseAllTheTree(userId);
+    changeLog.spacesChanged(List.of("WA4"));
+    when(controller.getAllSubSpaceIds("WA4", userId)).thenReturn(new String[]{"WA5"});
+    final UserNavigationTree tree = UserNavigationTree.of(userId, controller, changeLog);
+    assertThat(tree.getSubSpaceIds("WA4"), arrayContaining("WA5"));
+    assertThat(tree.getSubSpaceIds("WA1"), arrayContaining("WA2"));
+  }
+
+  private void browseAllTheTree(final String userId) {
+    final UserNavigationTree tree = UserNavigationTree.of(userId, controller, changeLog);
+    for (String rootSpaceId : tree.getRootSpaceIds()) {
+      browse(tree, rootSpaceId);
+    }
+  }
+
+  private void browse(final UserNavigationTree tree, final String spaceId) {
+    tree.getSpace(spaceId);
+    for (String subSpaceId : tree.getSubSpaceIds(spaceId)) {
+      browse(tree, subSpaceId);
+    }
+  }
+
+  private void mockSpace(final int id, final int fatherId) {
+    final SpaceInstLight space = new SpaceInstLight();
+    space.setLocalId(id);
+    space.setFatherId(fatherId);
+    when(controller.getSpaceInstLightById("WA" + id)).thenReturn(space);
+  }
+
+  private void verifySpacesLoaded(final int times, final String... spaceIds) {
+    for (String spaceId : spaceIds) {
+      verify(controller, times(times)).getSpaceInstLightById(spaceId);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.web.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An automaton finding in a single pass all the occurrences of a set of keywords in a text
+ * (Aho-Corasick algorithm). The keywords are made up only of ASCII letters and they are matched
+ * without taking care of the case of the US-ASCII characters, like a regular expression with the
+ * {@code (?i)} flag does.
+ */
+final class KeywordAutomaton {
+
+  private static final int ALPHABET_SIZE = 26;
+  private static final int[] NO_OUTPUT = new int[0];
+
+  private final String[] keywords;
+  private final int[][] transitions;
+  private final int[][] outputs;
+
+  /**
+   * Compiles the specified keywords into an automaton.
+   * @param keywords the keywords to find. They must be made up only of ASCII letters.
+   */
+  KeywordAutomaton(final String... keywords) {
+    this.keywords = keywords.clone();
+    final List<int[]> gotos = new ArrayList<>();
+    final List<List<Integer>> matches = new ArrayList<>();
+    gotos.add(newState());
+    matches.add(new ArrayList<>());
+    for (int k = 0; k < keywords.length; k++) {
+      int state = 0;
+      for (char c : keywords[k].toCharArray()) {
+        final int letter = letterOf(c);
+        if (letter < 0) {
+          throw new IllegalArgumentException("Not a keyword made up of letters: " + keywords[k]);
+        }
+        if (gotos.get(state)[letter] < 0) {
+          gotos.get(state)[letter] = gotos.size();
+          gotos.add(newState());
+          matches.add(new ArrayList<>());
+        }
+        state = gotos.get(state)[letter];
+      }
+      matches.get(state).add(k);
+    }
+    this.transitions = gotos.toArray(new int[0][]);
+    this.outputs = new int[transitions.length][];
+    computeFailures(matches);
+  }
+
+  /**
+   * Gets the keyword with the specified index.
+   * @param index the index of the keyword in the order they were given at construction.
+   * @return the keyword.
+   */
+  String getKeyword(final int index) {
+    return keywords[index];
+  }
+
+  /**
+   * Scans the specified text and reports each keyword occurrence to the given listener, in the
+   * order of the end of the occurrences.
+   * @param text the text to scan.
+   * @param listener the listener of the keyword occurrences.
+   */
+  void scan(final CharSequence text, final Listener listener) {
+    int state = 0;
+    final int length = text.length();
+    for (int i = 0; i < length; i++) {
+      final int letter = letterOf(text.charAt(i));
+      if (letter < 0) {
+        state = 0;
+        continue;
+      }
+      state = transitions[state][letter];
+      for (int keyword : outputs[state]) {
+        listener.onKeyword(keyword, i + 1 - keywords[keyword].length(), i + 1);
+      }
+    }
+  }
+
+  private void computeFailures(final List<List<Integer>> matches) {
+    final int[] failures = new int[transitions.length];
+    final Deque<Integer> queue = new ArrayDeque<>();
+    for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+      final int next = transitions[0][letter];
+      if (next < 0) {
+        transitions[0][letter] = 0;
+      } else {
+        failures[next] = 0;
+        queue.add(next);
+      }
+    }
+    outputs[0] = toArray(matches.get(0));
+    while (!queue.isEmpty()) {
+      final int state = queue.poll();
+      final List<Integer> found = new ArrayList<>(matches.get(state));
+      for (int keyword : outputs[failures[state]]) {
+        found.add(keyword);
+      }
+      outputs[state] = toArray(found);
+      for (int letter = 0; letter < ALPHABET_SIZE; letter++) {
+        final int next = transitions[state][letter];
+        if (next < 0) {
+          transitions[state][letter] = transitions[failures[state]][letter];
+        } else {
+          failures[next] = transitions[failures[state]][letter];
+          queue.add(next);
+        }
+      }
+    }
+  }
+
+  private static int[] newState() {
+    final int[] state = new int[ALPHABET_SIZE];
+    Arrays.fill(state, -1);
+    return state;
+  }
+
+  private static int[] toArray(final List<Integer> keywords) {
+    return keywords.isEmpty() ? NO_OUTPUT : keywords.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static int letterOf(final char c) {
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a';
+    } else if (c >= 'A' && c <= 'Z') {
+      return c - 'A';
+    }
+    return -1;
+  }
+
+  /**
+   * A listener of the keyword occurrences found by the automaton.
+   */
+  @FunctionalInterface
+  interface Listener {
+
+    /**
+     * A keyword occurrence is found.
+     * @param keyword the index of the keyword.
+     * @param start the index of the first character of the occurrence in the text.
+     * @param end the index following the last character of the occurrence in the text.
+     */
+    void onKeyword(int keyword, int start, int end);
+  }
+}
@@ -32,6 +32,7 @@ import org.silverpeas.core.util.URLUtil;
 import org.silverpeas.core.util.security.SecuritySettings;
 import org.silverpeas.core.web.SilverpeasWebResource;
 import org.silverpeas.core.web.filter.exception.WebSecurityException;
+import org.silverpeas.core.web.filter.exception.WebSecurityVerificationTimeoutException;
 import org.silverpeas.core.web.filter.exception.WebSqlInjectionSecurityException;
 import org.silverpeas.core.web.filter.exception.WebXssInjectionSecurityException;
 import org.silverpeas.core.web.http.HttpRequest;
@@ -51,6 +52,7 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -81,18 +83,11 @@ public class MassiveWebSecurityFilter implements Filter {
   private static final List<Pattern> SQL_SKIPPED_PARAMETER_PATTERNS;
   private static final List<Pattern> XSS_SKIPPED_PARAMETER_PATTERNS;
 
-  private static final List<Pattern> SQL_PATTERNS;
-  private static final List<Pattern> XSS_PATTERNS;
-
   private static final Pattern ENDS_WITH_WORD_CHARACTER_OR_NUMERIC_PATTERN =
       Pattern.compile("(?ui)[a-z\\d\\-_éèçàëäüïöâêûîôµù]$");
 
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
 
-  private static final Pattern SQL_SELECT_FROM_PATTERN = Pattern.compile("(?i)select.*from");
-  private static final Pattern SQL_INSERT_VALUES_PATTERN =
-      Pattern.compile("(?i)insert( .*|.* )into.*values");
-  private static final Pattern SQL_UPDATE_PATTERN = Pattern.compile("(?i)update.*set");
-  private static final Pattern SQL_DELETE_PATTERN = Pattern.compile("(?i)delete( .*|.* )from");
   private static String sqlSelectPatternInspectDeeplyCacheKey = null;
 
 
@@ -110,20 +105,6 @@ public class MassiveWebSecurityFilter implements Filter {
       XSS_SKIPPED_PARAMETER_PATTERNS.add(
           Pattern.compile(SecuritySettings.skippedParametersAboutWebXssInjectionSecurity()));
     }
-
-    SQL_PATTERNS = new ArrayList<>(6);
-    SQL_PATTERNS.add(
-        Pattern.compile("(?i)(grant|revoke)(( .*|.* )(select|insert|update|delete))+( .*|.* )on"));
-    SQL_PATTERNS.add(
-        Pattern.compile("(?i)(grant|revoke)(( .*|.* )(references|alter|index|all))+( .*|.* )on"));
-    SQL_PATTERNS.add(Pattern.compile("(?i)(create|drop|alter)( .*|.* )(table|database|schema)"));
-    SQL_PATTERNS.add(SQL_SELECT_FROM_PATTERN);
-    SQL_PATTERNS.add(SQL_INSERT_VALUES_PATTERN);
-    SQL_PATTERNS.add(SQL_UPDATE_PATTERN);
-    SQL_PATTERNS.add(SQL_DELETE_PATTERN);
-
-    XSS_PATTERNS = new ArrayList<>(1);
-    XSS_PATTERNS.add(Pattern.compile("(?i)<[\\s/]*(script|iframe)"));
   }
 
   @Override
@@ -159,7 +140,7 @@ public class MassiveWebSecurityFilter implements Filter {
   }
 
   private void checkSecurity(final HttpRequest httpRequest, final HttpServletResponse httpResponse)
-      throws WebSqlInjectionSecurityException, WebXssInjectionSecurityException {
+      throws WebSecurityException {
     String requestURI = httpRequest.getRequestURI();
     boolean isCmisService = requestURI.startsWith(CMIS_URI_PREFIX);
     boolean isWebServiceMultipart =
@@ -198,8 +179,7 @@ public class MassiveWebSecurityFilter implements Filter {
   }
 
   private void checkWebInjection(final HttpRequest httpRequest,
-      final HttpServletResponse httpResponse)
-      throws WebSqlInjectionSecurityException, WebXssInjectionSecurityException {
+      final HttpServletResponse httpResponse) throws WebSecurityException {
     boolean isWebSqlInjectionSecurityEnabled = SecuritySettings.isWebSqlInjectionSecurityEnabled();
     boolean isWebXssInjectionSecurityEnabled = SecuritySettings.isWebXssInjectionSecurityEnabled();
     if (isWebSqlInjectionSecurityEnabled || isWebXssInjectionSecurityEnabled) {
@@ -207,13 +187,20 @@ public class MassiveWebSecurityFilter implements Filter {
         // this header isn't taken in charge by all web browsers.
         httpResponse.setHeader("X-XSS-Protection", "1");
       }
-      checkRequestEntityForInjection(httpRequest);
-      checkRequestParametersForInjection(httpRequest, isWebSqlInjectionSecurityEnabled,
-          isWebXssInjectionSecurityEnabled);
+      final long budget = SecuritySettings.getWebInjectionVerificationTimeBudget();
+      final long deadline =
+          budget > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget) : NO_DEADLINE;
+      try {
+        checkRequestEntityForInjection(httpRequest, deadline);
+        checkRequestParametersForInjection(httpRequest, isWebSqlInjectionSecurityEnabled,
+            isWebXssInjectionSecurityEnabled, deadline);
+      } catch (WebInjectionScanner.VerificationTimeoutException e) {
+        throw new WebSecurityVerificationTimeoutException();
+      }
     }
   }
 
-  private void checkRequestEntityForInjection(final HttpRequest request)
+  private void checkRequestEntityForInjection(final HttpRequest request, final long deadline)
       throws WebSqlInjectionSecurityException, WebXssInjectionSecurityException {
     long start = System.currentTimeMillis();
     try {
@@ -225,7 +212,7 @@ public class MassiveWebSecurityFilter implements Filter {
         if (body.markSupported()) {
           body.mark(Integer.MAX_VALUE);
           String entity = new String(body.readAllBytes(), charset);
-          checkValueForInjection(entity, true, true);
+          checkValueForInjection(entity, true, true, deadline);
           body.reset();
         }
       }
@@ -240,7 +227,7 @@ public class MassiveWebSecurityFilter implements Filter {
 
   private void checkRequestParametersForInjection(final HttpRequest httpRequest,
       final boolean isWebSqlInjectionSecurityEnabled,
-      final boolean isWebXssInjectionSecurityEnabled)
+      final boolean isWebXssInjectionSecurityEnabled, final long deadline)
       throws WebSqlInjectionSecurityException, WebXssInjectionSecurityException {
     long start = System.currentTimeMillis();
     try {
@@ -255,7 +242,8 @@ public class MassiveWebSecurityFilter implements Filter {
           continue;
         }
 
-        checkParameterValues(parameterEntry, sqlInjectionToVerify, xssInjectionToVerify);
+        checkParameterValues(parameterEntry, sqlInjectionToVerify, xssInjectionToVerify,
+            deadline);
       }
     } finally {
       long end = System.currentTimeMillis();
@@ -265,25 +253,28 @@ public class MassiveWebSecurityFilter implements Filter {
   }
 
   private void checkParameterValues(final Map.Entry<String, String[]> parameterEntry,
-      final boolean sqlInjectionToVerify, final boolean xssInjectionToVerify)
+      final boolean sqlInjectionToVerify, final boolean xssInjectionToVerify, final long deadline)
       throws WebSqlInjectionSecurityException, WebXssInjectionSecurityException {
     for (String parameterValue : parameterEntry.getValue()) {
-      checkValueForInjection(parameterValue, sqlInjectionToVerify, xssInjectionToVerify);
+      checkValueForInjection(parameterValue, sqlInjectionToVerify, xssInjectionToVerify,
+          deadline);
     }
   }
 
   private void checkValueForInjection(String value, boolean sqlInjectionToVerify,
-      boolean xssInjectionToVerify) throws WebSqlInjectionSecurityException,
+      boolean xssInjectionToVerify, long deadline) throws WebSqlInjectionSecurityException,
       WebXssInjectionSecurityException {
     Matcher patternMatcherFound;
     // Each sequence of spaces is replaced by one space
-    value = value.replaceAll("\\s+", " ");
+    value = WebInjectionScanner.collapseSpaces(value);
 
-    // SQL injections?
-    if (sqlInjectionToVerify && (patternMatcherFound =
-        findPatternMatcherFromString(SQL_PATTERNS, value, true)) != null) {
+    // SQL injections? Only the patterns whose keywords are in the value can match it
+    List<Pattern> sqlPatterns = sqlInjectionToVerify ?
+        WebInjectionScanner.findSqlCandidatePatterns(value) : List.of();
+    if (!sqlPatterns.isEmpty() && (patternMatcherFound =
+        findPatternMatcherFromString(sqlPatterns, value, deadline, true)) != null) {
 
-      if (!verifySqlDeeply(patternMatcherFound, value)) {
+      if (!verifySqlDeeply(patternMatcherFound, value, deadline)) {
         patternMatcherFound = null;
       }
 
@@ -293,8 +284,7 @@ public class MassiveWebSecurityFilter implements Filter {
     }
 
     // XSS injections?
-    if (xssInjectionToVerify &&
-        findPatternMatcherFromString(XSS_PATTERNS, value, false) != null) {
+    if (xssInjectionToVerify && WebInjectionScanner.containsXssInjection(value)) {
       throw new WebXssInjectionSecurityException();
     }
   }
@@ -305,21 +295,23 @@ public class MassiveWebSecurityFilter implements Filter {
    *
    * @param matcherFound a pattern matcher
    * @param statement a SQL statement to check
+   * @param deadline the deadline of the verification, in nanoseconds.
    * @return true of the SQL statement is considered as safe. False otherwise.
    */
-  private boolean verifySqlDeeply(final Matcher matcherFound, String statement) {
+  private boolean verifySqlDeeply(final Matcher matcherFound, String statement,
+      final long deadline) {
     boolean isVerified = true;
-    if (matcherFound.pattern() == SQL_SELECT_FROM_PATTERN ||
-        matcherFound.pattern() == SQL_INSERT_VALUES_PATTERN ||
-        matcherFound.pattern() == SQL_UPDATE_PATTERN ||
-        matcherFound.pattern() == SQL_DELETE_PATTERN) {
+    if (matcherFound.pattern() == WebInjectionScanner.SQL_SELECT_FROM_PATTERN ||
+        matcherFound.pattern() == WebInjectionScanner.SQL_INSERT_VALUES_PATTERN ||
+        matcherFound.pattern() == WebInjectionScanner.SQL_UPDATE_PATTERN ||
+        matcherFound.pattern() == WebInjectionScanner.SQL_DELETE_PATTERN) {
       isVerified = false;
       Pattern tableNamesPattern = getSqlTableNamesPattern();
-      Matcher tableNameMatcher = tableNamesPattern.matcher(statement);
+      Matcher tableNameMatcher =
+          tableNamesPattern.matcher(WebInjectionScanner.withDeadline(statement, deadline));
       while (tableNameMatcher.find()) {
-        isVerified =
-            tableNamesPattern.matcher(extractTableNameWholeWord(tableNameMatcher, statement))
-                .matches();
+        isVerified = tableNamesPattern.matcher(WebInjectionScanner.withDeadline(
+            extractTableNameWholeWord(tableNameMatcher, statement), deadline)).matches();
         if (isVerified) {
           break;
         }
@@ -425,9 +417,26 @@ public class MassiveWebSecurityFilter implements Filter {
    */
   private Matcher findPatternMatcherFromString(List<Pattern> patterns, String string,
       boolean startsAndEndsByWholeWord) {
+    return findPatternMatcherFromString(patterns, string, NO_DEADLINE, startsAndEndsByWholeWord);
+  }
+
+  /**
+   * Gets the matcher corresponding to the pattern in the given list of patterns and for which the
+   * specified string is compliant. The matching fails once the given deadline is over.
+   *
+   * @param patterns a list of pattern to apply on the given string.
+   * @param string a string to check.
+   * @param deadline the deadline of the matching, in nanoseconds.
+   * @param startsAndEndsByWholeWord a flag indicating the pattern should match for the first and
+   * for the end word in the string.
+   * @return the pattern matcher matching the given string.
+   */
+  private Matcher findPatternMatcherFromString(List<Pattern> patterns, String string,
+      long deadline, boolean startsAndEndsByWholeWord) {
     Matcher isMatcherFound = null;
+    final CharSequence boundedString = WebInjectionScanner.withDeadline(string, deadline);
     for (Pattern pattern : patterns) {
-      Matcher matcher = pattern.matcher(string);
+      Matcher matcher = pattern.matcher(boundedString);
       if (matcher.find() && !(startsAndEndsByWholeWord &&
           (!verifyMatcherStartingByAWord(matcher, string) ||
               !verifyMatcherEndingByAWord(matcher, string)))) {
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.web.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The scanner of the request values used by the {@link MassiveWebSecurityFilter} to detect
+ * SQL and XSS injections.
+ * <p>
+ * The detection of SQL injections is based on a list of regular expressions, some of them being
+ * costly on large values (backtracking). Each of these expressions requires some keywords to
+ * appear in the value in a given order: a keyword automaton finds in a single pass the expressions
+ * whose keywords are present in the right order, and only these candidate expressions have to be
+ * applied on the value. As the presence of the keywords is a necessary condition for an
+ * expression to match, the verdicts are the same as with all the expressions applied one after
+ * the other.
+ * </p>
+ * <p>
+ * The detection of XSS injections is a direct scan of the value equivalent to the regular
+ * expression {@link #XSS_PATTERN}.
+ * </p>
+ */
+final class WebInjectionScanner {
+
+  static final Pattern SQL_GRANT_REVOKE_DML_PATTERN =
+      Pattern.compile("(?i)(grant|revoke)(( .*|.* )(select|insert|update|delete))+( .*|.* )on");
+  static final Pattern SQL_GRANT_REVOKE_DDL_PATTERN =
+      Pattern.compile("(?i)(grant|revoke)(( .*|.* )(references|alter|index|all))+( .*|.* )on");
+  static final Pattern SQL_DDL_PATTERN =
+      Pattern.compile("(?i)(create|drop|alter)( .*|.* )(table|database|schema)");
+  static final Pattern SQL_SELECT_FROM_PATTERN = Pattern.compile("(?i)select.*from");
+  static final Pattern SQL_INSERT_VALUES_PATTERN =
+      Pattern.compile("(?i)insert( .*|.* )into.*values");
+  static final Pattern SQL_UPDATE_PATTERN = Pattern.compile("(?i)update.*set");
+  static final Pattern SQL_DELETE_PATTERN = Pattern.compile("(?i)delete( .*|.* )from");
+
+  /**
+   * The regular expressions detecting a SQL injection in the order they have to be applied.
+   */
+  static final List<Pattern> SQL_PATTERNS;
+
+  /**
+   * The regular expression detecting a XSS injection.
+   */
+  static final Pattern XSS_PATTERN = Pattern.compile("(?i)<[\\s/]*(script|iframe)");
+
+  private static final String[] XSS_TAGS = {"script", "iframe"};
+  private static final long NO_DEADLINE = Long.MAX_VALUE;
+  private static final int DEADLINE_CHECK_PERIOD = 1024;
+
+  private static final KeywordAutomaton SQL_KEYWORDS;
+  private static final Pattern[] SQL_RULE_PATTERNS;
+  private static final int[][] SQL_RULE_KEYWORD_STEPS;
+  private static final int[] SQL_RULE_LENGTHS;
+
+  static {
+    // the keywords each expression requires, group by group, in the order they have to appear
+    final Map<Pattern, String[][]> rules = new LinkedHashMap<>();
+    rules.put(SQL_GRANT_REVOKE_DML_PATTERN, new String[][]{{"grant", "revoke"},
+        {"select", "insert", "update", "delete"}, {"on"}});
+    rules.put(SQL_GRANT_REVOKE_DDL_PATTERN, new String[][]{{"grant", "revoke"},
+        {"references", "alter", "index", "all"}, {"on"}});
+    rules.put(SQL_DDL_PATTERN,
+        new String[][]{{"create", "drop", "alter"}, {"table", "database", "schema"}});
+    rules.put(SQL_SELECT_FROM_PATTERN, new String[][]{{"select"}, {"from"}});
+    rules.put(SQL_INSERT_VALUES_PATTERN, new String[][]{{"insert"}, {"into"}, {"values"}});
+    rules.put(SQL_UPDATE_PATTERN, new String[][]{{"update"}, {"set"}});
+    rules.put(SQL_DELETE_PATTERN, new String[][]{{"delete"}, {"from"}});
+    SQL_PATTERNS = List.copyOf(rules.keySet());
+
+    final Map<String, Integer> keywordIndexes = new LinkedHashMap<>();
+    rules.values()
+        .forEach(groups -> {
+          for (String[] group : groups) {
+            for (String keyword : group) {
+              keywordIndexes.putIfAbsent(keyword, keywordIndexes.size());
+            }
+          }
+        });
+    SQL_KEYWORDS = new KeywordAutomaton(keywordIndexes.keySet().toArray(new String[0]));
+
+    // for each keyword and each rule, the step of the rule the keyword satisfies (-1 if none)
+    SQL_RULE_PATTERNS = rules.keySet().toArray(new Pattern[0]);
+    SQL_RULE_LENGTHS = new int[SQL_RULE_PATTERNS.length];
+    SQL_RULE_KEYWORD_STEPS = new int[keywordIndexes.size()][SQL_RULE_PATTERNS.length];
+    for (int[] steps : SQL_RULE_KEYWORD_STEPS) {
+      Arrays.fill(steps, -1);
+    }
+    int rule = 0;
+    for (String[][] groups : rules.values()) {
+      SQL_RULE_LENGTHS[rule] = groups.length;
+      for (int step = 0; step < groups.length; step++) {
+        for (String keyword : groups[step]) {
+          SQL_RULE_KEYWORD_STEPS[keywordIndexes.get(keyword)][rule] = step;
+        }
+      }
+      rule++;
+    }
+  }
+
+  private WebInjectionScanner() {
+    // Not instantiable
+  }
+
+  /**
+   * Replaces each sequence of whitespace characters (as defined by the {@code \s} class of the
+   * regular expressions) in the specified value by one space.
+   * @param value a value.
+   * @return the value with its whitespace sequences collapsed.
+   */
+  static String collapseSpaces(final String value) {
+    final int length = value.length();
+    StringBuilder collapsed = null;
+    int i = 0;
+    while (i < length) {
+      final char c = value.charAt(i);
+      if (isWhitespace(c) && (c != ' ' || (i + 1 < length && isWhitespace(value.charAt(i + 1))))) {
+        if (collapsed == null) {
+          collapsed = new StringBuilder(length).append(value, 0, i);
+        }
+        collapsed.append(' ');
+        while (i < length && isWhitespace(value.charAt(i))) {
+          i++;
+        }
+      } else {
+        if (collapsed != null) {
+          collapsed.append(c);
+        }
+        i++;
+      }
+    }
+    return collapsed == null ? value : collapsed.toString();
+  }
+
+  /**
+   * Finds the regular expressions of {@link #SQL_PATTERNS} that can match the specified value.
+   * The expressions that aren't returned cannot match the value.
+   * @param value the value to scan.
+   * @return the candidate expressions, in the order of {@link #SQL_PATTERNS}.
+   */
+  static List<Pattern> findSqlCandidatePatterns(final CharSequence value) {
+    final int[] steps = new int[SQL_RULE_PATTERNS.length];
+    final int[] ends = new int[SQL_RULE_PATTERNS.length];
+    SQL_KEYWORDS.scan(value, (keyword, start, end) -> {
+      final int[] keywordSteps = SQL_RULE_KEYWORD_STEPS[keyword];
+      for (int rule = 0; rule < keywordSteps.length; rule++) {
+        // the earliest ending occurrence of the expected keywords is taken for each step
+        if (keywordSteps[rule] == steps[rule] && start >= ends[rule]) {
+          steps[rule]++;
+          ends[rule] = end;
+        }
+      }
+    });
+    final List<Pattern> candidates = new ArrayList<>(SQL_RULE_PATTERNS.length);
+    for (int rule = 0; rule < SQL_RULE_PATTERNS.length; rule++) {
+      if (steps[rule] == SQL_RULE_LENGTHS[rule]) {
+        candidates.add(SQL_RULE_PATTERNS[rule]);
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Is there a XSS injection in the specified value? It is equivalent to find the regular
+   * expression {@link #XSS_PATTERN} in the value.
+   * @param value the value to scan.
+   * @return true if a script or an iframe tag is opened or closed in the value.
+   */
+  static boolean containsXssInjection(final CharSequence value) {
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      if (value.charAt(i) == '<') {
+        int j = i + 1;
+        while (j < length && (value.charAt(j) == '/' || isWhitespace(value.charAt(j)))) {
+          j++;
+        }
+        for (String tag : XSS_TAGS) {
+          if (startsWithIgnoringAsciiCase(value, j, tag)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets a view of the specified value whose reading fails with a
+   * {@link VerificationTimeoutException} once the given deadline is over. It is used to bound
+   * the time spent by a regular expression matching.
+   * @param value the value.
+   * @param deadline the deadline in nanoseconds, as given by {@link System#nanoTime()}, or
+   * {@link Long#MAX_VALUE} for no deadline.
+   * @return a char sequence bounded in time.
+   */
+  static CharSequence withDeadline(final CharSequence value, final long deadline) {
+    return deadline == NO_DEADLINE ? value : new DeadlineCharSequence(value, deadline);
+  }
+
+  private static boolean startsWithIgnoringAsciiCase(final CharSequence value, final int offset,
+      final String prefix) {
+    if (offset + prefix.length() > value.length()) {
+      return false;
+    }
+    for (int k = 0; k < prefix.length(); k++) {
+      char c = value.charAt(offset + k);
+      if (c >= 'A' && c <= 'Z') {
+        c = (char) (c + ('a' - 'A'));
+      }
+      if (c != prefix.charAt(k)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isWhitespace(final char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+
+  /**
+   * The time budget of the verification is exceeded.
+   */
+  static class VerificationTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 3340487209577013596L;
+
+    VerificationTimeoutException() {
+      super("Time budget of the injection verification exceeded");
+    }
+  }
+
+  private static class DeadlineCharSequence implements CharSequence {
+
+    private final CharSequence value;
+    private final long deadline;
+    private int reads = 0;
+
+    private DeadlineCharSequence(final CharSequence value, final long deadline) {
+      this.value = value;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public int length() {
+      return value.length();
+    }
+
+    @Override
+    public char charAt(final int index) {
+      if (++reads % DEADLINE_CHECK_PERIOD == 0 && System.nanoTime() - deadline > 0) {
+        throw new VerificationTimeoutException();
+      }
+      return value.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return new DeadlineCharSequence(value.subSequence(start, end), deadline);
+    }
+
+    @Override
+    public String toString() {
+      return value.toString();
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.web.session;
+
+import org.silverpeas.core.security.session.SessionInfo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A queue of the user sessions ordered by their expected expiration time. It is used by the
+ * {@link SessionManager} to find out the sessions that are expired without having to walk
+ * through all the opened sessions.
+ * <p>
+ * The expiration time of a session is computed from its last access timestamp at its scheduling.
+ * As the last access of a session is updated at each request of the user, the expiration time in
+ * the queue can be outdated: when a session reaches the head of the queue, its expiration time is
+ * then computed again and, if the session was accessed in the meantime, it is just scheduled
+ * again. So, the cost of a polling is proportional to the number of sessions whose expected
+ * expiration time is over and not to the number of opened sessions.
+ * </p>
+ */
+class SessionExpiryQueue {
+
+  private final PriorityQueue<Expiry> queue =
+      new PriorityQueue<>(Comparator.comparingLong(Expiry::getTime));
+  private final ToLongFunction<SessionInfo> timeout;
+
+  /**
+   * Constructs a new queue of sessions.
+   * @param timeout a function providing the timeout in milliseconds of a given session.
+   */
+  SessionExpiryQueue(final ToLongFunction<SessionInfo> timeout) {
+    this.timeout = timeout;
+  }
+
+  /**
+   * Schedules the expiration of the specified session from its last access time.
+   * @param session the session to schedule.
+   */
+  void schedule(final SessionInfo session) {
+    scheduleAt(session, expirationTimeOf(session));
+  }
+
+  /**
+   * Schedules the checking of the expiration of the specified session at the given time.
+   * @param session the session to schedule.
+   * @param time the time in milliseconds at which the session has to be checked.
+   */
+  synchronized void scheduleAt(final SessionInfo session, final long time) {
+    queue.add(new Expiry(session, time));
+  }
+
+  /**
+   * Polls all the sessions that are expired at the specified time. The sessions that are no more
+   * registered are dropped from the queue and the sessions that were accessed since their
+   * scheduling are scheduled again.
+   * @param now the current time in milliseconds.
+   * @param registered a predicate on the registration of a session: the sessions that don't
+   * satisfy it are silently removed from the queue.
+   * @return the expired sessions, from the oldest to the newest one.
+   */
+  synchronized List<SessionInfo> pollExpired(final long now,
+      final Predicate<SessionInfo> registered) {
+    final Set<SessionInfo> expired = new LinkedHashSet<>();
+    final List<Expiry> stillAlive = new ArrayList<>();
+    while (!queue.isEmpty() && queue.peek().getTime() <= now) {
+      final SessionInfo session = queue.poll().getSession();
+      if (registered.test(session)) {
+        final long expirationTime = expirationTimeOf(session);
+        if (expirationTime > now) {
+          stillAlive.add(new Expiry(session, expirationTime));
+        } else {
+          expired.add(session);
+        }
+      }
+    }
+    queue.addAll(stillAlive);
+    return new ArrayList<>(expired);
+  }
+
+  /**
+   * Gets the number of scheduled expirations.
+   * @return the size of the queue.
+   */
+  synchronized int size() {
+    return queue.size();
+  }
+
+  private long expirationTimeOf(final SessionInfo session) {
+    return session.getLastAccessTimestamp() + timeout.applyAsLong(session);
+  }
+
+  private static class Expiry {
+    private final SessionInfo session;
+    private final long time;
+
+    private Expiry(final SessionInfo session, final long time) {
+      this.session = session;
+      this.time = time;
+    }
+
+    private SessionInfo getSession() {
+      return session;
+    }
+
+    private long getTime() {
+      return time;
+    }
+  }
+}
@@ -109,6 +109,11 @@ public class SessionManager implements SessionManagement, Initialization {
   // Contains all current sessions
   private final ConcurrentMap<String, SessionInfo> userDataSessions = new ConcurrentHashMap<>(100);
   private final ConcurrentMap<String, SessionInfo> anonymousSessions = new ConcurrentHashMap<>(1000);
+  // Index of the current sessions by user identifier. The sets are never modified, they are
+  // replaced
+  private final ConcurrentMap<String, Set<SessionInfo>> userSessions = new ConcurrentHashMap<>(100);
+  // The current sessions ordered by their expiration time
+  private final SessionExpiryQueue sessionExpiryQueue = new SessionExpiryQueue(this::getTimeout);
 
   // Contains the session when notified
   private final List<String> userNotificationSessions =
@@ -243,6 +248,7 @@ public class SessionManager implements SessionManagement, Initialization {
 
         // Remove the session from lists
         userDataSessions.remove(si.getSessionId());
+        unindexUserSession(si);
         userNotificationSessions.remove(si.getSessionId());
 
         si.onClosed();
@@ -302,8 +308,8 @@ public class SessionManager implements SessionManagement, Initialization {
       User user) {
     Map<String, org.silverpeas.core.security.session.SessionInfo> distinctConnectedUsersList
         = new HashMap<>();
-    Collection<SessionInfo> sessionsInfos = getConnectedUsersList();
-    for (SessionInfo si : sessionsInfos) {
+    for (Set<SessionInfo> sessionsOfAUser : userSessions.values()) {
+      SessionInfo si = sessionsOfAUser.iterator().next();
       User sessionUser = si.getUserDetail();
       String key = sessionUser.getLogin() + sessionUser.getDomainId();
       // keep users with distinct login and domainId
@@ -365,23 +371,18 @@ public class SessionManager implements SessionManagement, Initialization {
   private void doSessionManagement(Date currentDate) {
     try {
       long currentTime = currentDate.getTime();
-      Collection<SessionInfo> allSI = userDataSessions.values();
-      List<SessionInfo> expiredSessions = new ArrayList<>(allSI.size());
-
-      for (SessionInfo si : allSI) {
-        User userDetail = si.getUserDetail();
-        long userSessionTimeoutMillis = userDetail.isAccessAdmin() ? adminSessionTimeout
-            : userSessionTimeout;
-        // Has the session expired (timeout)
-        if (currentTime - si.getLastAccessTimestamp() >= userSessionTimeoutMillis) {
-          if (si instanceof HTTPSessionInfo) {
-            synchronized (mutex) {
-              performUserSessionExpiration(si, currentTime, expiredSessions);
-            }
-          } else {
-            // the session isn't a Servlet API one (session opened directly by a web service for example).
-            expiredSessions.add(si);
+      List<SessionInfo> timedOutSessions = sessionExpiryQueue.pollExpired(currentTime,
+          si -> userDataSessions.get(si.getSessionId()) == si);
+      List<SessionInfo> expiredSessions = new ArrayList<>(timedOutSessions.size());
+
+      for (SessionInfo si : timedOutSessions) {
+        if (si instanceof HTTPSessionInfo) {
+          synchronized (mutex) {
+            performUserSessionExpiration(si, currentTime, expiredSessions);
           }
+        } else {
+          // the session isn't a Servlet API one (session opened directly by a web service for example).
+          expiredSessions.add(si);
         }
       }
       for (SessionInfo expiredSession : expiredSessions) {
@@ -415,6 +416,8 @@ public class SessionManager implements SessionManagement, Initialization {
       } finally {
         // Add to the notifications
         userNotificationSessions.add(si.getSessionId());
+        // the session will be checked again at the next session management
+        sessionExpiryQueue.scheduleAt(si, currentTime);
       }
     } else {
       // Remove dead session or timeout with a notification
@@ -540,6 +543,8 @@ public class SessionManager implements SessionManagement, Initialization {
       // anonymous session aren't related to any identified Silverpeas user. Only non-anonymous
       // user session requires to be monitored by the session manager.
       userDataSessions.put(sessionInfo.getSessionId(), sessionInfo);
+      indexUserSession(sessionInfo);
+      sessionExpiryQueue.schedule(sessionInfo);
       defaultServerEventNotifier.notify(UserSessionServerEvent.anOpeningOneFor(sessionInfo));
     }
   }
@@ -592,13 +597,28 @@ public class SessionManager implements SessionManagement, Initialization {
 
   @Override
   public boolean isUserConnected(User user) {
-    final String userId = user.getId();
-    for (SessionInfo session : userDataSessions.values()) {
-      if (userId.equals(session.getUserDetail().getId())) {
-        return true;
-      }
-    }
-    return false;
+    return userSessions.containsKey(user.getId());
+  }
+
+  private void indexUserSession(final SessionInfo sessionInfo) {
+    userSessions.compute(sessionInfo.getUserDetail().getId(), (userId, sessions) -> {
+      Set<SessionInfo> userSessionSet =
+          sessions == null ? new HashSet<>(2) : new HashSet<>(sessions);
+      userSessionSet.add(sessionInfo);
+      return Collections.unmodifiableSet(userSessionSet);
+    });
+  }
+
+  private void unindexUserSession(final SessionInfo sessionInfo) {
+    userSessions.computeIfPresent(sessionInfo.getUserDetail().getId(), (userId, sessions) -> {
+      Set<SessionInfo> userSessionSet = new HashSet<>(sessions);
+      userSessionSet.remove(sessionInfo);
+      return userSessionSet.isEmpty() ? null : Collections.unmodifiableSet(userSessionSet);
+    });
+  }
+
+  private long getTimeout(final SessionInfo sessionInfo) {
+    return sessionInfo.getUserDetail().isAccessAdmin() ? adminSessionTimeout : userSessionTimeout;
   }
 
   private long convertMinuteInMilliseconds(long minutes) {
@@ -24,6 +24,7 @@
 
 package org.silverpeas.core.webapi.calendar;
 
+import org.apache.commons.io.output.CountingOutputStream;
 import org.silverpeas.core.annotation.WebService;
 import org.silverpeas.core.calendar.Calendar;
 import org.silverpeas.core.calendar.CalendarReference;
@@ -41,7 +42,6 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -159,10 +159,12 @@ public class ICalendarResource extends RESTWebService {
    * @return the configured response.
    */
   private Response exportHeadOnly(final Calendar calendar, final boolean hidePrivateData) {
-    try (final ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+    // the export is only counted: the content length is computed without keeping the content
+    try (final CountingOutputStream output =
+             new CountingOutputStream(OutputStream.nullOutputStream())) {
       write(calendar, hidePrivateData, output);
       return applyCommonHeaders(Response.ok(), calendar)
-          .header(CONTENT_LENGTH, output.size())
+          .header(CONTENT_LENGTH, output.getByteCount())
           .build();
     } catch (IOException e) {
       SilverLogger.getLogger(this).error(e);
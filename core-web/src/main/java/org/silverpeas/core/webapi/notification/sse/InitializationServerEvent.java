@@ -26,11 +26,13 @@ package org.silverpeas.core.webapi.notification.sse;
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.notification.sse.AbstractServerEvent;
 import org.silverpeas.core.notification.sse.behavior.IgnoreStoring;
+import org.silverpeas.core.notification.sse.behavior.TargetingSession;
 
 /**
  * @author Yohann Chastagnier
  */
-class InitializationServerEvent extends AbstractServerEvent implements IgnoreStoring {
+class InitializationServerEvent extends AbstractServerEvent
+    implements IgnoreStoring, TargetingSession {
 
   private static ServerEventName EVENT_NAME = () -> "OPEN_EVENT_SOURCE";
 
@@ -54,6 +56,11 @@ class InitializationServerEvent extends AbstractServerEvent implements IgnoreSto
     return EVENT_NAME;
   }
 
+  @Override
+  public String getTargetedSessionId() {
+    return emitterSessionId;
+  }
+
   @Override
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return emitterSessionId.equals(receiverSessionId);
@@ -26,11 +26,13 @@ package org.silverpeas.core.webapi.notification.sse;
 import org.silverpeas.core.admin.user.model.User;
 import org.silverpeas.core.notification.sse.AbstractServerEvent;
 import org.silverpeas.core.notification.sse.behavior.IgnoreStoring;
+import org.silverpeas.core.notification.sse.behavior.TargetingSession;
 
 /**
  * @author Yohann Chastagnier
  */
-class RetryServerEvent extends AbstractServerEvent implements IgnoreStoring {
+class RetryServerEvent extends AbstractServerEvent
+    implements IgnoreStoring, TargetingSession {
 
   private static final ServerEventName EVENT_NAME = () -> "RETRY_EVENT_SOURCE";
 
@@ -62,6 +64,11 @@ class RetryServerEvent extends AbstractServerEvent implements IgnoreStoring {
     return EVENT_NAME;
   }
 
+  @Override
+  public String getTargetedSessionId() {
+    return emitterSessionId;
+  }
+
   @Override
   public boolean isConcerned(final String receiverSessionId, final User receiver) {
     return emitterSessionId.equals(receiverSessionId);
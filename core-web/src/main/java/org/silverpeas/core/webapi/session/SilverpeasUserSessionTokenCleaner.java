@@ -24,6 +24,7 @@
 
 package org.silverpeas.core.webapi.session;
 
+import org.silverpeas.core.admin.user.UserTokenCache;
 import org.silverpeas.core.annotation.Bean;
 import org.silverpeas.kernel.annotation.Technical;
 import org.silverpeas.core.web.session.UserSessionEvent;
@@ -32,6 +33,7 @@ import org.silverpeas.core.web.token.SilverpeasWebTokenService;
 import javax.enterprise.event.Observes;
 
 import static java.util.Optional.of;
+import static java.util.Optional.ofNullable;
 
 /**
  * Listener in charge of session token cleaning.
@@ -43,13 +45,16 @@ public class SilverpeasUserSessionTokenCleaner {
 
   /**
    * On user session ending, revoking all linked tokens generated from
-   * {@link SilverpeasUserSessionTokenResource}.
+   * {@link SilverpeasUserSessionTokenResource} and invalidating the API tokens of the user
+   * resolved in the {@link UserTokenCache}.
    * @param userSessionEvent the user session event.
    */
   public void onEvent(@Observes final UserSessionEvent userSessionEvent) {
     if (userSessionEvent.isClosing()) {
       of(userSessionEvent.getSessionInfo().getSessionId())
           .ifPresent(SilverpeasWebTokenService.get()::revokeById);
+      ofNullable(userSessionEvent.getSessionInfo().getUserDetail())
+          .ifPresent(u -> UserTokenCache.get().invalidateUser(u.getId()));
     }
   }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.web.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Micro-benchmark comparing the verification of request values with the list of regular
+ * expressions (the legacy way) and with the {@link WebInjectionScanner}, over realistic
+ * parameter payloads: a short form value, a plain text mentioning SQL keywords and a large
+ * WYSIWYG content.
+ * <p>
+ * It isn't run with the unit tests; launch it with the {@link #main(String[])} method.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebInjectionScannerBenchmark {
+
+  private static final String PARAGRAPH =
+      "<p style=\"text-align: justify;\">Please <strong>select</strong> the documents you want " +
+          "to share from the list below, then update the settings of the folder.\n" +
+          "The <a href=\"/silverpeas/Publication/42\">publication</a> is available on the " +
+          "intranet for all the members of the team &eacute;quipe.</p>\n" +
+          "<ul>\n  <li>Insert a comment into the form</li>\n  <li>Drop the table of figures " +
+          "if it is useless</li>\n</ul>\n";
+
+  @Param({"form", "text", "wysiwyg"})
+  private String payload;
+
+  private String value;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(WebInjectionScannerBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup
+  public void preparePayload() {
+    switch (payload) {
+      case "form":
+        value = "Meeting of the steering committee";
+        break;
+      case "text":
+        value = "We will select the best offers from the suppliers and update the budget set " +
+            "for the project on Monday.";
+        break;
+      default:
+        value = PARAGRAPH.repeat(20);
+        break;
+    }
+  }
+
+  @Benchmark
+  public boolean regularExpressions() {
+    final String collapsed = value.replaceAll("\\s+", " ");
+    boolean found = findFirst(WebInjectionScanner.SQL_PATTERNS, collapsed);
+    return WebInjectionScanner.XSS_PATTERN.matcher(collapsed).find() || found;
+  }
+
+  @Benchmark
+  public boolean scanner() {
+    final String collapsed = WebInjectionScanner.collapseSpaces(value);
+    boolean found = findFirst(WebInjectionScanner.findSqlCandidatePatterns(collapsed), collapsed);
+    return WebInjectionScanner.containsXssInjection(collapsed) || found;
+  }
+
+  private static boolean findFirst(final List<Pattern> patterns, final String value) {
+    for (Pattern pattern : patterns) {
+      if (pattern.matcher(value).find()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.web.filter;
+
+import org.junit.jupiter.api.Test;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests on the scanner of the request values checking its verdicts are the same as the
+ * ones of the regular expressions it replaces.
+ */
+@UnitTest
+class WebInjectionScannerTest {
+
+  private static final String[] TOKENS =
+      {"select", "SeLeCt", "from", "insert", "into", "values", "update", "set", "delete", "grant",
+          "revoke", "on", "all", "index", "alter", "references", "create", "drop", "table",
+          "database", "schema", "script", "IFRAME", "<", "/", " ", "  ", "\t", "\n", "x", "é",
+          "sel", "ect", "onion", "_", "1", "'", ";", "ſcript", "Key"};
+
+  @Test
+  void whitespaceSequencesAreCollapsedLikeWithARegularExpression() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 5000; i++) {
+      final String value = aRandomValue(random);
+      assertThat(WebInjectionScanner.collapseSpaces(value), is(value.replaceAll("\\s+", " ")));
+    }
+    final String noChange = "nothing to collapse here";
+    assertThat(WebInjectionScanner.collapseSpaces(noChange) == noChange, is(true));
+  }
+
+  @Test
+  void xssInjectionsAreDetectedLikeWithTheRegularExpression() {
+    assertThat(WebInjectionScanner.containsXssInjection("<p>a text</p>"), is(false));
+    assertThat(WebInjectionScanner.containsXssInjection("a < script"), is(true));
+    assertThat(WebInjectionScanner.containsXssInjection("</ IFrame src='x'>"), is(true));
+    assertThat(WebInjectionScanner.containsXssInjection("<scrip"), is(false));
+    final Random random = new Random(7);
+    for (int i = 0; i < 5000; i++) {
+      final String value = aRandomValue(random);
+      assertThat(value, WebInjectionScanner.containsXssInjection(value),
+          is(WebInjectionScanner.XSS_PATTERN.matcher(value).find()));
+    }
+  }
+
+  @Test
+  void noSqlPatternIsCandidateForAnInnocuousValue() {
+    assertThat(WebInjectionScanner.findSqlCandidatePatterns("a simple comment on a document"),
+        is(empty()));
+    assertThat(WebInjectionScanner.findSqlCandidatePatterns("from a select"), is(empty()));
+  }
+
+  @Test
+  void theSqlPatternsMatchingAValueAreCandidates() {
+    assertThat(WebInjectionScanner.findSqlCandidatePatterns("select * from sb_node_node"),
+        contains(WebInjectionScanner.SQL_SELECT_FROM_PATTERN));
+    assertThat(WebInjectionScanner.findSqlCandidatePatterns("GRANT select ON a TO b"),
+        contains(WebInjectionScanner.SQL_GRANT_REVOKE_DML_PATTERN));
+    assertThat(WebInjectionScanner.findSqlCandidatePatterns("revoke all on a from b"),
+        contains(WebInjectionScanner.SQL_GRANT_REVOKE_DDL_PATTERN));
+    final Random random = new Random(2024);
+    for (int i = 0; i < 20000; i++) {
+      final String value = WebInjectionScanner.collapseSpaces(aRandomValue(random));
+      final List<Pattern> candidates = WebInjectionScanner.findSqlCandidatePatterns(value);
+      final List<Pattern> matching = new ArrayList<>();
+      for (Pattern pattern : WebInjectionScanner.SQL_PATTERNS) {
+        if (pattern.matcher(value).find()) {
+          matching.add(pattern);
+        }
+        if (matching.contains(pattern)) {
+          assertThat(value, candidates.contains(pattern), is(true));
+        }
+      }
+      // the candidates are in the same order as the patterns
+      final List<Pattern> ordered = new ArrayList<>(WebInjectionScanner.SQL_PATTERNS);
+      ordered.retainAll(candidates);
+      assertThat(candidates, is(ordered));
+    }
+  }
+
+  @Test
+  void aMatchingBeyondTheDeadlineFails() {
+    final String value = "grant " + "select ".repeat(2000) + "x";
+    final CharSequence bounded = WebInjectionScanner.withDeadline(value, System.nanoTime() - 1);
+    final Pattern pattern = WebInjectionScanner.SQL_GRANT_REVOKE_DML_PATTERN;
+    assertThrows(WebInjectionScanner.VerificationTimeoutException.class,
+        () -> pattern.matcher(bounded).find());
+    assertThat(WebInjectionScanner.withDeadline(value, Long.MAX_VALUE) == value, is(true));
+  }
+
+  private static String aRandomValue(final Random random) {
+    final StringBuilder value = new StringBuilder();
+    final int count = random.nextInt(12);
+    for (int i = 0; i < count; i++) {
+      value.append(TOKENS[random.nextInt(TOKENS.length)]);
+    }
+    return value.toString();
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2000 - 2024 Silverpeas
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * As a special exception to the terms and conditions of version 3.0 of
+ * the GPL, you may redistribute this Program in connection with Free/Libre
+ * Open Source Software ("FLOSS") applications as described in Silverpeas's
+ * FLOSS exception.  You should have received a copy of the text describing
+ * the FLOSS exception, and it is also available here:
+ * "https://www.silverpeas.org/legal/floss_exception.html"
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.silverpeas.core.web.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.silverpeas.core.security.session.SessionInfo;
+import org.silverpeas.kernel.test.UnitTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests on the ordering of the user sessions by their expiration time.
+ */
+@UnitTest
+class SessionExpiryQueueTest {
+
+  private static final long TIMEOUT = 10_000L;
+
+  private final Set<SessionInfo> registered = new HashSet<>();
+  private SessionExpiryQueue queue;
+
+  @BeforeEach
+  void createQueue() {
+    registered.clear();
+    queue = new SessionExpiryQueue(s -> TIMEOUT);
+  }
+
+  @Test
+  void noSessionIsExpiredBeforeItsTimeout() {
+    SessionInfo session = aSessionLastAccessedAt(1_000L);
+    queue.schedule(session);
+
+    assertThat(queue.pollExpired(10_999L, registered::contains), is(empty()));
+    assertThat(queue.size(), is(1));
+  }
+
+  @Test
+  void expiredSessionsArePolledFromTheOldestOne() {
+    SessionInfo newest = aSessionLastAccessedAt(5_000L);
+    SessionInfo oldest = aSessionLastAccessedAt(1_000L);
+    SessionInfo alive = aSessionLastAccessedAt(50_000L);
+    queue.schedule(newest);
+    queue.schedule(oldest);
+    queue.schedule(alive);
+
+    List<SessionInfo> expired = queue.pollExpired(20_000L, registered::contains);
+
+    assertThat(expired, contains(oldest, newest));
+    assertThat(queue.size(), is(1));
+  }
+
+  @Test
+  void anAccessedSessionIsScheduledAgain() {
+    SessionInfo session = aSessionLastAccessedAt(1_000L);
+    queue.schedule(session);
+    when(session.getLastAccessTimestamp()).thenReturn(8_000L);
+
+    assertThat(queue.pollExpired(12_000L, registered::contains), is(empty()));
+    assertThat(queue.size(), is(1));
+    assertThat(queue.pollExpired(18_000L, registered::contains), contains(session));
+    assertThat(queue.size(), is(0));
+  }
+
+  @Test
+  void anUnregisteredSessionIsDropped() {
+    SessionInfo session = aSessionLastAccessedAt(1_000L);
+    queue.schedule(session);
+    registered.remove(session);
+
+    assertThat(queue.pollExpired(20_000L, registered::contains), is(empty()));
+    assertThat(queue.size(), is(0));
+  }
+
+  @Test
+  void aSessionScheduledAtAGivenTimeIsCheckedAtThatTime() {
+    SessionInfo session = aSessionLastAccessedAt(1_000L);
+    queue.scheduleAt(session, 30_000L);
+
+    assertThat(queue.pollExpired(29_999L, registered::contains), is(empty()));
+    assertThat(queue.pollExpired(30_000L, registered::contains), contains(session));
+  }
+
+  private SessionInfo aSessionLastAccessedAt(final long time) {
+    SessionInfo session = mock(SessionInfo.class);
+    when(session.getLastAccessTimestamp()).thenReturn(time);
+    registered.add(session);
+    return session;
+  }
+}